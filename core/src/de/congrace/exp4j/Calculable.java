@@ -14,6 +14,14 @@ public interface Calculable {
 	 */
 	public Variable calculate();
 
+	/**
+	 * calculate the result of the expression as a double, for array results
+	 * this is the first value of the array
+	 * 
+	 * @return the result of the calculation
+	 */
+	public double calculateDouble();
+
 	/**
 	 * return the expression in reverse polish postfix notation
 	 * 
@@ -28,4 +36,22 @@ public interface Calculable {
 	 *            the value of the variable
 	 */
 	public void setVariable(Variable var);
+
+	/**
+	 * set the double value of a variable by its slot index, the index of the
+	 * variable name in {@link #getVariableNames()}
+	 * 
+	 * @param slot
+	 *            the slot index of the variable
+	 * @param value
+	 *            the value of the variable
+	 */
+	public void setVariable(int slot, double value);
+
+	/**
+	 * return the names of the variables used in the expression, indexed by slot
+	 * 
+	 * @return the variable names
+	 */
+	public String[] getVariableNames();
 }
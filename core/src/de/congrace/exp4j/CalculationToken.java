@@ -25,7 +25,33 @@ abstract class CalculationToken extends Token {
 		super(value);
 	}
 
-	abstract void mutateStackForCalculation(Stack<Variable> stack, VariableSet variables);
+	abstract void mutateStackForCalculation(Stack<Variable> stack, Variable[] variables);
+	
+	/**
+	 * Perform the calculation of this token on a stack of plain double values. The
+	 * expression is calculated this way only if {@link #isScalarCalculationSupported()}
+	 * returns true for all of its tokens.
+	 * 
+	 * @param stack
+	 *            the value stack
+	 * @param size
+	 *            the number of values currently on the stack
+	 * @param values
+	 *            the variable values by slot index
+	 * @return the number of values on the stack after the calculation
+	 */
+	abstract int mutateStackForCalculation(double[] stack, int size, double[] values);
+	
+	/**
+	 * Return whether this token can be calculated on plain double values, which is the case
+	 * when a double argument always gives a double result.
+	 */
+	abstract boolean isScalarCalculationSupported();
+	
+	/**
+	 * Return the number of values this token pops from the calculation stack.
+	 */
+	abstract int getArgumentCount();
 
 	/*
 	 * Given an array of variables, check if any are arrays and if so expand any other of the given variables to arrays of the same length.
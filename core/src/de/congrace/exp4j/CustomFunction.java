@@ -69,7 +69,7 @@ public abstract class CustomFunction extends CalculationToken {
 	public abstract Variable applyFunction(List<Variable> vars);
 
     @Override
-	void mutateStackForCalculation(Stack<Variable> stack, VariableSet variables) {
+	void mutateStackForCalculation(Stack<Variable> stack, Variable[] variables) {
 	    List<Variable> args = new ArrayList<Variable>(argc);
 	    for (int i=0; i < argc; i++) {
 	    	args.add(i, stack.pop() );
@@ -78,6 +78,29 @@ public abstract class CustomFunction extends CalculationToken {
 	    
 		stack.push(this.applyFunction(args));
 	}
+	
+	/*
+	 * The arguments are passed to the function as Variables, and an array result is
+	 * reduced to its first value.
+	 */
+	@Override
+	int mutateStackForCalculation(double[] stack, int size, double[] values) {
+		List<Variable> args = new ArrayList<Variable>(argc);
+		for (int i = size - argc; i < size; i++) {
+			args.add(new Variable("Argument " + i + " of " + getValue(), stack[i]));
+		}
+		size -= argc;
+		stack[size] = this.applyFunction(args).getDoubleValue();
+		return size + 1;
+	}
+	
+	/*
+	 * Custom functions may return arrays for double arguments.
+	 */
+	@Override
+	boolean isScalarCalculationSupported() {
+		return false;
+	}
 
 	@Override
 	void mutateStackForInfixTranslation(Stack<Token> operatorStack, StringBuilder output) {
@@ -150,9 +150,25 @@ class FunctionToken extends CalculationToken {
 	}
 
 	@Override
-	void mutateStackForCalculation(Stack<Variable> stack, VariableSet variableValues) {
+	void mutateStackForCalculation(Stack<Variable> stack, Variable[] variables) {
 		stack.push(this.applyFunction(stack.pop()));
 	}
+	
+	@Override
+	int mutateStackForCalculation(double[] stack, int size, double[] values) {
+		stack[size - 1] = this.applyFunction(stack[size - 1]);
+		return size;
+	}
+	
+	@Override
+	boolean isScalarCalculationSupported() {
+		return true;
+	}
+	
+	@Override
+	int getArgumentCount() {
+		return 1;
+	}
 
 	@Override
 	void mutateStackForInfixTranslation(Stack<Token> operatorStack, StringBuilder output) {
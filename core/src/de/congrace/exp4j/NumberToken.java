@@ -54,9 +54,25 @@ class NumberToken extends CalculationToken {
 	}
 
 	@Override
-	void mutateStackForCalculation(Stack<Variable> stack, VariableSet variables) {
+	void mutateStackForCalculation(Stack<Variable> stack, Variable[] variables) {
 		stack.push(new Variable("From number "+getValue()+" : "+hashCode(), this.doubleValue));
 	}
+	
+	@Override
+	int mutateStackForCalculation(double[] stack, int size, double[] values) {
+		stack[size] = this.doubleValue;
+		return size + 1;
+	}
+	
+	@Override
+	boolean isScalarCalculationSupported() {
+		return true;
+	}
+	
+	@Override
+	int getArgumentCount() {
+		return 0;
+	}
 
 	@Override
 	void mutateStackForInfixTranslation(Stack<Token> operatorStack, StringBuilder output) {
@@ -133,23 +133,33 @@ class OperatorToken extends CalculationToken {
 				
 		//System.out.println("Applying "+operation.toString()+" to values starting "+values[0]);
 		
+		if (values.length > 1) {
+			return applyOperation(values[0], values[1]);
+		}
+		return applyOperation(values[0], Double.NaN);
+	}
+	
+	/*
+	 * The actual operation on doubles, the second value is ignored by unary operations
+	 */
+	private double applyOperation(double x, double y){
 		switch (operation) {
 		case ADDITION:
-			return values[0] + values[1];
+			return x + y;
 		case SUBTRACTION:
-			return values[0] - values[1];
+			return x - y;
 		case MULTIPLICATION:
-			return values[0] * values[1];
+			return x * y;
 		case EXPONENTIATION:
-			return Math.pow(values[0], values[1]);
+			return Math.pow(x, y);
 		case DIVISION:
-			return values[0] / values[1];
+			return x / y;
 		case UNARY_MINUS:
-			return -values[0];
+			return -x;
 		case UNARY_PLUS:
-			return values[0];
+			return x;
 		case MODULO:
-			return values[0] % values[1];
+			return x % y;
 		default:
 			return 0;
 		}
@@ -209,7 +219,7 @@ class OperatorToken extends CalculationToken {
 	}
 
 	@Override
-	void mutateStackForCalculation(Stack<Variable> stack, VariableSet variables) {
+	void mutateStackForCalculation(Stack<Variable> stack, Variable[] variables) {
 		if (this.getOperandCount() == 2) {
 			final Variable n2 = stack.pop();
 			final Variable n1 = stack.pop();
@@ -219,6 +229,30 @@ class OperatorToken extends CalculationToken {
 			stack.push(this.applyOperation(n1));
 		}
 	}
+	
+	@Override
+	int mutateStackForCalculation(double[] stack, int size, double[] values) {
+		switch (this.getOperandCount()) {
+		case 2:
+			stack[size - 2] = this.applyOperation(stack[size - 2], stack[size - 1]);
+			return size - 1;
+		case 1:
+			stack[size - 1] = this.applyOperation(stack[size - 1], Double.NaN);
+			return size;
+		default:
+			return size;
+		}
+	}
+	
+	@Override
+	boolean isScalarCalculationSupported() {
+		return true;
+	}
+	
+	@Override
+	int getArgumentCount() {
+		return getOperandCount();
+	}
 
 	@Override
 	void mutateStackForInfixTranslation(Stack<Token> operatorStack, StringBuilder output) {
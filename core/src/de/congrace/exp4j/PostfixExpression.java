@@ -16,6 +16,8 @@
  */
 package de.congrace.exp4j;
 
+import java.util.HashMap;
+import java.util.Map;
 import java.util.Set;
 import java.util.Stack;
 
@@ -28,7 +30,17 @@ import java.util.Stack;
  */
 public final class PostfixExpression extends AbstractExpression implements Calculable {
 	
-	private VariableSet variables = new VariableSet();
+	/** the names of the variables used in the expression, indexed by slot */
+	private final String[] variableNames;
+	private final Map<String, Integer> slots = new HashMap<String, Integer>();
+	
+	/** the variable values by slot, null for a slot holding a value set with setVariable(int, double) */
+	private final Variable[] variables;
+	private final double[] values;
+	private final boolean[] scalar;
+	
+	/** stack for calculating on doubles, or null if the expression does not support it */
+	private final double[] scalarStack;
 	
 	/**
 	 * Factory method for creating {@link PostfixExpression}s from human
@@ -95,13 +107,72 @@ public final class PostfixExpression extends AbstractExpression implements Calcu
 	private PostfixExpression(String expression, String[] variableStrings, Set<CustomFunction> customFunctions) throws UnparsableExpressionException,
 			UnknownFunctionException {
 		super(expression, new Tokenizer(variableStrings, customFunctions).tokenize(expression), variableStrings);
+		
+		// Assign a slot to each distinct variable used in the expression
+		for (final Token t : getTokens()) {
+			if (t instanceof VariableToken) {
+				VariableToken v = (VariableToken) t;
+				Integer slot = slots.get(v.getValue());
+				if (slot == null) {
+					slot = slots.size();
+					slots.put(v.getValue(), slot);
+				}
+				v.setSlot(slot);
+			}
+		}
+		variableNames = new String[slots.size()];
+		for (Map.Entry<String, Integer> e : slots.entrySet()) {
+			variableNames[e.getValue()] = e.getKey();
+		}
+		variables = new Variable[variableNames.length];
+		values = new double[variableNames.length];
+		scalar = new boolean[variableNames.length];
+		
+		scalarStack = createScalarStack(getTokens());
+	}
+	
+	/*
+	 * Check whether the expression can be calculated on doubles and allocate a stack of the
+	 * required depth for it.  Malformed expressions are left to the Variable based calculation,
+	 * which reports them with an EmptyStackException.
+	 */
+	private static double[] createScalarStack(Token[] tokens) {
+		int size = 0;
+		int maxSize = 0;
+		for (final Token t : tokens) {
+			if (!(t instanceof CalculationToken) || !((CalculationToken) t).isScalarCalculationSupported()) {
+				return null;
+			}
+			final int argc = ((CalculationToken) t).getArgumentCount();
+			if (argc > size) {
+				return null;
+			}
+			if (argc > 0 || t instanceof NumberToken || t instanceof VariableToken) {
+				size = size - argc + 1;
+			}
+			maxSize = Math.max(maxSize, size);
+		}
+		if (size < 1) {
+			return null;
+		}
+		return new double[maxSize];
 	}
 
 	/**
 	 * delegate the calculation of a simple expression 
 	 */
 	public Variable calculate() throws IllegalArgumentException {
-
+		
+		if (isScalar()) {
+			return new Variable("double result", calculateScalar());
+		}
+		
+		for (int i = 0; i < variables.length; i++) {
+			if (variables[i] == null && scalar[i]) {
+				variables[i] = new Variable(variableNames[i], values[i]);
+			}
+		}
+		
 		final Stack<Variable> stack = new Stack<Variable>();
 		for (final Token t : getTokens()) {
 			((CalculationToken) t).mutateStackForCalculation(stack, variables);
@@ -109,8 +180,59 @@ public final class PostfixExpression extends AbstractExpression implements Calcu
 		return stack.pop();
 
 	}
+	
+	public double calculateDouble() {
+		if (isScalar()) {
+			return calculateScalar();
+		}
+		return calculate().getDoubleValue();
+	}
+	
+	/*
+	 * Whether all variables hold double values and the expression can be calculated on doubles.
+	 */
+	private boolean isScalar() {
+		if (scalarStack == null) {
+			return false;
+		}
+		for (boolean b : scalar) {
+			if (!b) {
+				return false;
+			}
+		}
+		return true;
+	}
+	
+	private double calculateScalar() {
+		int size = 0;
+		for (final Token t : getTokens()) {
+			size = ((CalculationToken) t).mutateStackForCalculation(scalarStack, size, values);
+		}
+		return scalarStack[size - 1];
+	}
 
 	public void setVariable(Variable value) {
-		variables.add(value);
+		final Integer slot = slots.get(value.getName());
+		if (slot == null) {
+			// Not used in this expression
+			return;
+		}
+		variables[slot] = value;
+		if (value.getPrimary() == Variable.Primary.DOUBLE) {
+			values[slot] = value.getDoubleValue();
+			scalar[slot] = true;
+		} else {
+			scalar[slot] = false;
+		}
+	}
+	
+	public void setVariable(int slot, double value) {
+		values[slot] = value;
+		variables[slot] = null;
+		scalar[slot] = true;
+	}
+	
+	public String[] getVariableNames() {
+		return variableNames.clone();
 	}
 }
@@ -24,6 +24,9 @@ import java.util.Stack;
  * @author fas
  */
 class VariableToken extends CalculationToken {
+	
+	/** index of the variable value, assigned by the expression using this token */
+	private int slot = -1;
 	/**
 	 * construct a new {@link VariableToken}
 	 * 
@@ -35,9 +38,32 @@ class VariableToken extends CalculationToken {
 	}
 
 	@Override
-	void mutateStackForCalculation(Stack<Variable> stack, VariableSet variableValues) {
-		Variable value = variableValues.getVariableNamed(this.getValue());
-		stack.push(value);
+	void mutateStackForCalculation(Stack<Variable> stack, Variable[] variables) {
+		stack.push(variables[slot]);
+	}
+	
+	@Override
+	int mutateStackForCalculation(double[] stack, int size, double[] values) {
+		stack[size] = values[slot];
+		return size + 1;
+	}
+	
+	@Override
+	boolean isScalarCalculationSupported() {
+		return true;
+	}
+	
+	@Override
+	int getArgumentCount() {
+		return 0;
+	}
+	
+	int getSlot() {
+		return slot;
+	}
+	
+	void setSlot(int slot) {
+		this.slot = slot;
 	}
 
 	@Override
@@ -1,5 +1,6 @@
 package net.sf.openrocket.aerodynamics;
 
+import java.util.Arrays;
 import java.util.Map;
 
 import net.sf.openrocket.rocketcomponent.Configuration;
@@ -20,9 +21,6 @@ import org.slf4j.LoggerFactory;
 public abstract class AbstractAerodynamicCalculator implements AerodynamicCalculator {
 	private static final Logger log = LoggerFactory.getLogger(AbstractAerodynamicCalculator.class);
 	
-	/** Number of divisions used when calculating worst CP. */
-	public static final int DIVISIONS = 360;
-	
 	/**
 	 * A <code>WarningSet</code> that can be used if <code>null</code> is passed
 	 * to a calculation method.
@@ -33,6 +31,13 @@ public abstract class AbstractAerodynamicCalculator implements AerodynamicCalcul
 	private int rocketAeroModID = -1;
 	private int rocketTreeModID = -1;
 	
+	/** The result of the previous worst CP search and the state it was computed for. */
+	private Coordinate worstCP = null;
+	private double worstCPTheta;
+	private WarningSet worstCPWarnings;
+	private FlightConditions worstCPConditions;
+	private int[] worstCPStages;
+	
 	
 
 
@@ -53,28 +58,39 @@ public abstract class AbstractAerodynamicCalculator implements AerodynamicCalcul
 	
 
 	/*
-	 * The worst theta angle is stored in conditions.
+	 * The worst theta angle is stored in conditions.  The roll angles are searched by
+	 * WorstCPSearch, and the result of the previous search is reused as long as the
+	 * rocket, the active stages and the flight conditions other than the roll angle
+	 * are unchanged.
 	 */
 	@Override
 	public Coordinate getWorstCP(Configuration configuration, FlightConditions conditions,
 			WarningSet warnings) {
-		FlightConditions cond = conditions.clone();
-		Coordinate worst = new Coordinate(Double.MAX_VALUE);
-		Coordinate cp;
-		double theta = 0;
+		checkCache(configuration);
 		
-		for (int i = 0; i < DIVISIONS; i++) {
-			cond.setTheta(2 * Math.PI * i / DIVISIONS);
-			cp = getCP(configuration, cond, warnings);
-			if (cp.x < worst.x) {
-				worst = cp;
-				theta = cond.getTheta();
-			}
+		FlightConditions key = conditions.clone();
+		key.setTheta(0);
+		int[] stages = configuration.getActiveStages();
+		
+		if (worstCP == null || !key.equals(worstCPConditions) || !Arrays.equals(stages, worstCPStages)) {
+			WarningSet searchWarnings = new WarningSet();
+			WorstCPSearch search = new WorstCPSearch(this, configuration, conditions, searchWarnings);
+			search.search();
+			
+			worstCP = search.getWorstCP();
+			worstCPTheta = search.getWorstTheta();
+			searchWarnings.immute();
+			worstCPWarnings = searchWarnings;
+			worstCPConditions = key;
+			worstCPStages = stages;
 		}
 		
-		conditions.setTheta(theta);
+		if (warnings != null) {
+			warnings.addAll(worstCPWarnings);
+		}
+		conditions.setTheta(worstCPTheta);
 		
-		return worst;
+		return worstCP;
 	}
 	
 	
@@ -110,7 +126,10 @@ public abstract class AbstractAerodynamicCalculator implements AerodynamicCalcul
 	 * its execution.
 	 */
 	protected void voidAerodynamicCache() {
-		// No-op
+		worstCP = null;
+		worstCPWarnings = null;
+		worstCPConditions = null;
+		worstCPStages = null;
 	}
 	
 
@@ -150,7 +150,7 @@ public class BarrowmanCalculator extends AbstractAerodynamicCalculator {
 	/*
 	 * Perform the actual CP calculation.
 	 */
-	private AerodynamicForces calculateNonAxialForces(Configuration configuration, FlightConditions conditions,
+	protected AerodynamicForces calculateNonAxialForces(Configuration configuration, FlightConditions conditions,
 			Map<RocketComponent, AerodynamicForces> map, WarningSet warnings) {
 		
 		checkCache(configuration);
@@ -236,15 +236,43 @@ public class BarrowmanCalculator extends AbstractAerodynamicCalculator {
 	}
 	
 	
+	/**
+	 * Calculate only the roll damping coefficient of the rocket.  Only fin sets
+	 * produce roll damping, so the body components are not evaluated.
+	 */
+	protected double calculateRollDamping(Configuration configuration, FlightConditions conditions,
+			WarningSet warnings) {
+		
+		checkCache(configuration);
+		
+		if (warnings == null)
+			warnings = ignoreWarningSet;
+		
+		if (calcMap == null)
+			buildCalcMap(configuration);
+		
+		double total = 0;
+		AerodynamicForces forces = new AerodynamicForces();
+		for (RocketComponent component : configuration) {
+			if (!component.isAerodynamic() || component instanceof SymmetricComponent)
+				continue;
+			
+			forces.zero();
+			calcMap.get(component).calculateNonaxialForces(conditions, forces, warnings);
+			total += forces.getCrollDamp();
+		}
+		
+		return total;
+	}
+	
+	
 
 
 	////////////////  DRAG CALCULATIONS  ////////////////
 	
 
-	private double calculateFrictionDrag(Configuration configuration, FlightConditions conditions,
+	protected double calculateFrictionDrag(Configuration configuration, FlightConditions conditions,
 			Map<RocketComponent, AerodynamicForces> map, WarningSet set) {
-		double c1 = 1.0, c2 = 1.0;
-		
 		double mach = conditions.getMach();
 		double Re;
 		double Cf;
@@ -255,94 +283,10 @@ public class BarrowmanCalculator extends AbstractAerodynamicCalculator {
 		Re = conditions.getVelocity() * configuration.getLength() /
 				conditions.getAtmosphericConditions().getKinematicViscosity();
 		
-		// Calculate the skin friction coefficient (assume non-roughness limited)
-		if (configuration.getRocket().isPerfectFinish()) {
-			
-			// Assume partial laminar layer.  Roughness-limitation is checked later.
-			if (Re < 1e4) {
-				// Too low, constant
-				Cf = 1.33e-2;
-			} else if (Re < 5.39e5) {
-				// Fully laminar
-				Cf = 1.328 / MathUtil.safeSqrt(Re);
-			} else {
-				// Transitional
-				Cf = 1.0 / pow2(1.50 * Math.log(Re) - 5.6) - 1700 / Re;
-			}
-			
-			// Compressibility correction
-			
-			if (mach < 1.1) {
-				// Below Re=1e6 no correction
-				if (Re > 1e6) {
-					if (Re < 3e6) {
-						c1 = 1 - 0.1 * pow2(mach) * (Re - 1e6) / 2e6; // transition to turbulent
-					} else {
-						c1 = 1 - 0.1 * pow2(mach);
-					}
-				}
-			}
-			if (mach > 0.9) {
-				if (Re > 1e6) {
-					if (Re < 3e6) {
-						c2 = 1 + (1.0 / Math.pow(1 + 0.045 * pow2(mach), 0.25) - 1) * (Re - 1e6) / 2e6;
-					} else {
-						c2 = 1.0 / Math.pow(1 + 0.045 * pow2(mach), 0.25);
-					}
-				}
-			}
-			
-			// Applying continuously around Mach 1
-			if (mach < 0.9) {
-				Cf *= c1;
-			} else if (mach < 1.1) {
-				Cf *= (c2 * (mach - 0.9) / 0.2 + c1 * (1.1 - mach) / 0.2);
-			} else {
-				Cf *= c2;
-			}
-			
-
-		} else {
-			
-			// Assume fully turbulent.  Roughness-limitation is checked later.
-			if (Re < 1e4) {
-				// Too low, constant
-				Cf = 1.48e-2;
-			} else {
-				// Turbulent
-				Cf = 1.0 / pow2(1.50 * Math.log(Re) - 5.6);
-			}
-			
-			// Compressibility correction
-			
-			if (mach < 1.1) {
-				c1 = 1 - 0.1 * pow2(mach);
-			}
-			if (mach > 0.9) {
-				c2 = 1 / Math.pow(1 + 0.15 * pow2(mach), 0.58);
-			}
-			// Applying continuously around Mach 1
-			if (mach < 0.9) {
-				Cf *= c1;
-			} else if (mach < 1.1) {
-				Cf *= c2 * (mach - 0.9) / 0.2 + c1 * (1.1 - mach) / 0.2;
-			} else {
-				Cf *= c2;
-			}
-			
-		}
+		Cf = calculateSkinFrictionCoefficient(configuration.getRocket().isPerfectFinish(), mach, Re);
 		
 		// Roughness-limited value correction term
-		double roughnessCorrection;
-		if (mach < 0.9) {
-			roughnessCorrection = 1 - 0.1 * pow2(mach);
-		} else if (mach > 1.1) {
-			roughnessCorrection = 1 / (1 + 0.18 * pow2(mach));
-		} else {
-			c1 = 1 - 0.1 * pow2(0.9);
-			c2 = 1.0 / (1 + 0.18 * pow2(1.1));
-			roughnessCorrection = c2 * (mach - 0.9) / 0.2 + c1 * (1.1 - mach) / 0.2;
-		}
+		double roughnessCorrection = calculateRoughnessCorrection(mach);
 		
 
 
@@ -450,7 +394,126 @@ public class BarrowmanCalculator extends AbstractAerodynamicCalculator {
 	
 	
 
-	private double calculatePressureDrag(Configuration configuration, FlightConditions conditions,
+	/**
+	 * Calculate the skin friction coefficient of the rocket before the roughness
+	 * limitation is applied.
+	 * 
+	 * @param perfectFinish	whether the rocket has a perfect finish (partial laminar flow).
+	 * @param mach			the Mach number.
+	 * @param Re			the Reynolds number.
+	 * @return				the skin friction coefficient.
+	 */
+	protected static double calculateSkinFrictionCoefficient(boolean perfectFinish, double mach, double Re) {
+		double c1 = 1.0, c2 = 1.0;
+		double Cf;
+		
+		// Calculate the skin friction coefficient (assume non-roughness limited)
+		if (perfectFinish) {
+			
+			// Assume partial laminar layer.  Roughness-limitation is checked later.
+			if (Re < 1e4) {
+				// Too low, constant
+				Cf = 1.33e-2;
+			} else if (Re < 5.39e5) {
+				// Fully laminar
+				Cf = 1.328 / MathUtil.safeSqrt(Re);
+			} else {
+				// Transitional
+				Cf = 1.0 / pow2(1.50 * Math.log(Re) - 5.6) - 1700 / Re;
+			}
+			
+			// Compressibility correction
+			
+			if (mach < 1.1) {
+				// Below Re=1e6 no correction
+				if (Re > 1e6) {
+					if (Re < 3e6) {
+						c1 = 1 - 0.1 * pow2(mach) * (Re - 1e6) / 2e6; // transition to turbulent
+					} else {
+						c1 = 1 - 0.1 * pow2(mach);
+					}
+				}
+			}
+			if (mach > 0.9) {
+				if (Re > 1e6) {
+					if (Re < 3e6) {
+						c2 = 1 + (1.0 / Math.pow(1 + 0.045 * pow2(mach), 0.25) - 1) * (Re - 1e6) / 2e6;
+					} else {
+						c2 = 1.0 / Math.pow(1 + 0.045 * pow2(mach), 0.25);
+					}
+				}
+			}
+			
+			// Applying continuously around Mach 1
+			if (mach < 0.9) {
+				Cf *= c1;
+			} else if (mach < 1.1) {
+				Cf *= (c2 * (mach - 0.9) / 0.2 + c1 * (1.1 - mach) / 0.2);
+			} else {
+				Cf *= c2;
+			}
+			
+
+		} else {
+			
+			// Assume fully turbulent.  Roughness-limitation is checked later.
+			if (Re < 1e4) {
+				// Too low, constant
+				Cf = 1.48e-2;
+			} else {
+				// Turbulent
+				Cf = 1.0 / pow2(1.50 * Math.log(Re) - 5.6);
+			}
+			
+			// Compressibility correction
+			
+			if (mach < 1.1) {
+				c1 = 1 - 0.1 * pow2(mach);
+			}
+			if (mach > 0.9) {
+				c2 = 1 / Math.pow(1 + 0.15 * pow2(mach), 0.58);
+			}
+			// Applying continuously around Mach 1
+			if (mach < 0.9) {
+				Cf *= c1;
+			} else if (mach < 1.1) {
+				Cf *= c2 * (mach - 0.9) / 0.2 + c1 * (1.1 - mach) / 0.2;
+			} else {
+				Cf *= c2;
+			}
+			
+		}
+		
+		return Cf;
+	}
+	
+	
+	/**
+	 * Calculate the compressibility correction term of the roughness-limited
+	 * skin friction coefficient.
+	 * 
+	 * @param mach	the Mach number.
+	 * @return		the correction multiplier.
+	 */
+	protected static double calculateRoughnessCorrection(double mach) {
+		double c1, c2;
+		double roughnessCorrection;
+		
+		if (mach < 0.9) {
+			roughnessCorrection = 1 - 0.1 * pow2(mach);
+		} else if (mach > 1.1) {
+			roughnessCorrection = 1 / (1 + 0.18 * pow2(mach));
+		} else {
+			c1 = 1 - 0.1 * pow2(0.9);
+			c2 = 1.0 / (1 + 0.18 * pow2(1.1));
+			roughnessCorrection = c2 * (mach - 0.9) / 0.2 + c1 * (1.1 - mach) / 0.2;
+		}
+		return roughnessCorrection;
+	}
+	
+	
+
+	protected double calculatePressureDrag(Configuration configuration, FlightConditions conditions,
 			Map<RocketComponent, AerodynamicForces> map, WarningSet warnings) {
 		
 		double stagnation, base, total;
@@ -498,7 +561,7 @@ public class BarrowmanCalculator extends AbstractAerodynamicCalculator {
 	}
 	
 	
-	private double calculateBaseDrag(Configuration configuration, FlightConditions conditions,
+	protected double calculateBaseDrag(Configuration configuration, FlightConditions conditions,
 			Map<RocketComponent, AerodynamicForces> map, WarningSet warnings) {
 		
 		double base, total;
@@ -590,7 +653,7 @@ public class BarrowmanCalculator extends AbstractAerodynamicCalculator {
 	 * @param cd
 	 * @return
 	 */
-	private double calculateAxialDrag(FlightConditions conditions, double cd) {
+	protected double calculateAxialDrag(FlightConditions conditions, double cd) {
 		double aoa = MathUtil.clamp(conditions.getAOA(), 0, Math.PI);
 		double mul;
 		
@@ -612,7 +675,7 @@ public class BarrowmanCalculator extends AbstractAerodynamicCalculator {
 	}
 	
 	
-	private void calculateDampingMoments(Configuration configuration, FlightConditions conditions,
+	protected void calculateDampingMoments(Configuration configuration, FlightConditions conditions,
 			AerodynamicForces total) {
 		
 		// Calculate pitch and yaw damping moments
@@ -635,6 +698,9 @@ public class BarrowmanCalculator extends AbstractAerodynamicCalculator {
 
 	private double getDampingMultiplier(Configuration configuration, FlightConditions conditions,
 			double cgx) {
+		if (calcMap == null)
+			buildCalcMap(configuration);
+		
 		if (cacheDiameter < 0) {
 			double area = 0;
 			cacheLength = 0;
@@ -0,0 +1,721 @@
+package net.sf.openrocket.aerodynamics;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Future;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+
+import net.sf.openrocket.aerodynamics.barrowman.FinSetCalc;
+import net.sf.openrocket.rocketcomponent.Configuration;
+import net.sf.openrocket.rocketcomponent.ExternalComponent.Finish;
+import net.sf.openrocket.rocketcomponent.FinSet;
+import net.sf.openrocket.rocketcomponent.Rocket;
+import net.sf.openrocket.rocketcomponent.RocketComponent;
+import net.sf.openrocket.rocketcomponent.SymmetricComponent;
+import net.sf.openrocket.util.BugException;
+import net.sf.openrocket.util.Coordinate;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * A Barrowman calculator that answers the aerodynamic force queries of the simulation
+ * from precomputed coefficient tables instead of evaluating every component on each call.
+ * <p>
+ * For a fixed configuration the non-axial coefficients (CNa, CN, Cm, CP, side, yaw and
+ * roll forcing coefficients) depend only on the Mach number and the angle of attack, so
+ * they are tabulated on a Mach / AOA grid and interpolated bilinearly.  The pressure
+ * drag depends only on the Mach number and is tabulated on a finer Mach grid.  The base
+ * and friction drag separate into a function of the Mach and Reynolds numbers times
+ * constant areas, so the areas are summed once and the drag is evaluated exactly.  Roll
+ * damping, axial drag and the pitch and yaw damping moments are evaluated exactly.
+ * <p>
+ * The tables are built lazily on the first query of each rocket configuration and set of
+ * active stages.  The Mach rows are computed by the querying thread together with
+ * worker threads, each of which works on its own copy of the rocket since the component
+ * trees are not thread-safe.  The querying thread never waits for a row that no thread
+ * has started, so building does not depend on free worker threads.  The tables are identified by
+ * the modification IDs of the rocket, so they are shared by all calculator instances and
+ * a batch of simulations of the same rocket builds them only once.  Fin sets with one or
+ * two fins, whose forces depend on the roll angle, flight beyond the tabulated Mach range
+ * and the discontinuity of the body lift at very low speeds are calculated with the exact
+ * method.  The CP, force analysis and worst CP methods are always exact.
+ * <p>
+ * The interpolation error against the exact calculator can be obtained using
+ * {@link #getTabulationError(Configuration, FlightConditions)}.
+ */
+public class TabulatedBarrowmanCalculator extends BarrowmanCalculator {
+	private static final Logger log = LoggerFactory.getLogger(TabulatedBarrowmanCalculator.class);
+	
+	/** The largest tabulated Mach number. */
+	private static final double MACH_MAX = 3.0;
+	
+	/*
+	 * The Mach axis uses fine steps at low speed, where the body lift at large angles
+	 * of attack changes rapidly.  The AOA axis uses fine steps at the angles of attack
+	 * of normal flight.
+	 */
+	private static final Axis MACH = new Axis(0.005, 0.1, 0.025, MACH_MAX);
+	private static final Axis AOA = new Axis(0.25 * Math.PI / 180, 20 * Math.PI / 180,
+			2.5 * Math.PI / 180, Math.PI);
+	
+	/** Mach axis of the pressure drag table. */
+	private static final Axis PRESSURE_MACH = new Axis(0.005, MACH_MAX, 0.005, MACH_MAX);
+	
+	/*
+	 * Below Mach 0.05 the body lift of SymmetricComponentCalc changes discontinuously
+	 * at an AOA of 45 degrees, so conditions near it are calculated exactly.
+	 */
+	private static final double BODY_LIFT_MACH = 0.05;
+	private static final double BODY_LIFT_AOA_MIN = 42.5 * Math.PI / 180;
+	private static final double BODY_LIFT_AOA_MAX = 47.5 * Math.PI / 180;
+	
+	/** Angle of attack above which the large AOA warning is given. */
+	private static final double LARGE_AOA = 17.5 * Math.PI / 180;
+	
+	/** Maximum number of tables kept in memory. */
+	private static final int CACHE_SIZE = 4;
+	
+	/* Indices of the tabulated values of one grid point */
+	private static final int CNA = 0;
+	private static final int CN = 1;
+	private static final int CM = 2;
+	private static final int CSIDE = 3;
+	private static final int CYAW = 4;
+	private static final int CROLL_FORCE = 5;
+	private static final int CP_X = 6;
+	private static final int CP_Y = 7;
+	private static final int CP_Z = 8;
+	private static final int CP_WEIGHT = 9;
+	private static final int VALUE_COUNT = 10;
+	
+	
+	/** The tables shared by all calculators, least recently used first. */
+	@SuppressWarnings("serial")
+	private static final Map<TableKey, Table> tables = new LinkedHashMap<TableKey, Table>(16, 0.75f, true) {
+		@Override
+		protected boolean removeEldestEntry(Map.Entry<TableKey, Table> eldest) {
+			return size() > CACHE_SIZE;
+		}
+	};
+	
+	private static final ThreadPoolExecutor executor;
+	static {
+		int threadCount = Runtime.getRuntime().availableProcessors();
+		executor = new ThreadPoolExecutor(threadCount, threadCount, 60, TimeUnit.SECONDS,
+				new LinkedBlockingQueue<Runnable>(),
+				new ThreadFactory() {
+					@Override
+					public Thread newThread(Runnable r) {
+						Thread t = new Thread(r, "TabulatedBarrowmanCalculator");
+						t.setDaemon(true);
+						return t;
+					}
+				});
+		executor.allowCoreThreadTimeOut(true);
+	}
+	
+	
+	/** The table of the previous query and the state it was looked up for. */
+	private Table table = null;
+	private Configuration tableConfiguration = null;
+	private int tableModID = -1;
+	private double tableRefLength = Double.NaN;
+	private double tableRefArea = Double.NaN;
+	
+	
+	public TabulatedBarrowmanCalculator() {
+		
+	}
+	
+	
+	@Override
+	public TabulatedBarrowmanCalculator newInstance() {
+		return new TabulatedBarrowmanCalculator();
+	}
+	
+	
+	@Override
+	public AerodynamicForces getAerodynamicForces(Configuration configuration,
+			FlightConditions conditions, WarningSet warnings) {
+		
+		Table t = getTable(configuration, conditions);
+		double mach = conditions.getMach();
+		double aoa = conditions.getAOA();
+		if (t == null || t.exact || mach > MACH_MAX ||
+				(mach < BODY_LIFT_MACH && aoa > BODY_LIFT_AOA_MIN && aoa < BODY_LIFT_AOA_MAX)) {
+			return super.getAerodynamicForces(configuration, conditions, warnings);
+		}
+		
+		checkCache(configuration);
+		
+		if (warnings == null)
+			warnings = ignoreWarningSet;
+		
+		warnings.addAll(t.warnings);
+		if (aoa > LARGE_AOA)
+			warnings.add(new Warning.LargeAOA(aoa));
+		if (mach > 1.1 && t.supersonicWarning)
+			warnings.add(Warning.SUPERSONIC);
+		
+		// Interpolate non-axial force data
+		AerodynamicForces total = t.getNonAxialForces(mach, aoa);
+		
+		// Roll damping is zero unless the rocket is rolling
+		if (conditions.getRollRate() != 0) {
+			total.setCrollDamp(calculateRollDamping(configuration, conditions, warnings));
+			total.setCroll(total.getCrollForce() - total.getCrollDamp());
+		}
+		
+		// Calculate drag data
+		total.setFrictionCD(t.getFrictionCD(conditions));
+		total.setPressureCD(t.getPressureCD(mach));
+		total.setBaseCD(t.getBaseCD(mach));
+		
+		total.setCD(total.getFrictionCD() + total.getPressureCD() + total.getBaseCD());
+		
+		total.setCaxial(calculateAxialDrag(conditions, total.getCD()));
+		
+		// Calculate pitch and yaw damping moments
+		calculateDampingMoments(configuration, conditions, total);
+		total.setCm(total.getCm() - total.getPitchDampingMoment());
+		total.setCyaw(total.getCyaw() - total.getYawDampingMoment());
+		
+		return total;
+	}
+	
+	
+	/**
+	 * Return the maximum interpolation error of the tabulated forces against the exact
+	 * Barrowman method.  The forces are compared at the center of every grid cell, where
+	 * the error of linear interpolation is largest, using the atmospheric conditions,
+	 * reference dimensions and rotation rates of the given flight conditions.
+	 * <p>
+	 * The coefficients of the returned object contain the maximum absolute differences
+	 * of the corresponding coefficients.  The CP contains the maximum differences of the
+	 * CP coordinates and weight.  If the configuration is calculated with the exact
+	 * method, all errors are zero.
+	 *
+	 * @param configuration	the rocket configuration.
+	 * @param conditions	the flight conditions to use as the base of the comparison.
+	 * @return				the maximum errors of the tabulated coefficients.
+	 */
+	public AerodynamicForces getTabulationError(Configuration configuration, FlightConditions conditions) {
+		FlightConditions cond = conditions.clone();
+		WarningSet warnings = new WarningSet();
+		
+		AerodynamicForces error = new AerodynamicForces();
+		error.zero();
+		double cpX = 0, cpY = 0, cpZ = 0, cpWeight = 0;
+		
+		for (int i = 0; i < MACH.count - 1; i++) {
+			cond.setMach((MACH.getValue(i) + MACH.getValue(i + 1)) / 2);
+			for (int j = 0; j < AOA.count - 1; j++) {
+				cond.setAOA((AOA.getValue(j) + AOA.getValue(j + 1)) / 2);
+				
+				AerodynamicForces exact = super.getAerodynamicForces(configuration, cond, warnings);
+				AerodynamicForces tabulated = getAerodynamicForces(configuration, cond, warnings);
+				
+				error.setCNa(Math.max(error.getCNa(), Math.abs(exact.getCNa() - tabulated.getCNa())));
+				error.setCN(Math.max(error.getCN(), Math.abs(exact.getCN() - tabulated.getCN())));
+				error.setCm(Math.max(error.getCm(), Math.abs(exact.getCm() - tabulated.getCm())));
+				error.setCside(Math.max(error.getCside(), Math.abs(exact.getCside() - tabulated.getCside())));
+				error.setCyaw(Math.max(error.getCyaw(), Math.abs(exact.getCyaw() - tabulated.getCyaw())));
+				error.setCroll(Math.max(error.getCroll(), Math.abs(exact.getCroll() - tabulated.getCroll())));
+				error.setCrollDamp(Math.max(error.getCrollDamp(),
+						Math.abs(exact.getCrollDamp() - tabulated.getCrollDamp())));
+				error.setCrollForce(Math.max(error.getCrollForce(),
+						Math.abs(exact.getCrollForce() - tabulated.getCrollForce())));
+				error.setCD(Math.max(error.getCD(), Math.abs(exact.getCD() - tabulated.getCD())));
+				error.setPressureCD(Math.max(error.getPressureCD(),
+						Math.abs(exact.getPressureCD() - tabulated.getPressureCD())));
+				error.setBaseCD(Math.max(error.getBaseCD(), Math.abs(exact.getBaseCD() - tabulated.getBaseCD())));
+				error.setFrictionCD(Math.max(error.getFrictionCD(),
+						Math.abs(exact.getFrictionCD() - tabulated.getFrictionCD())));
+				error.setCaxial(Math.max(error.getCaxial(), Math.abs(exact.getCaxial() - tabulated.getCaxial())));
+				
+				Coordinate e = exact.getCP();
+				Coordinate t = tabulated.getCP();
+				cpX = Math.max(cpX, Math.abs(e.x - t.x));
+				cpY = Math.max(cpY, Math.abs(e.y - t.y));
+				cpZ = Math.max(cpZ, Math.abs(e.z - t.z));
+				cpWeight = Math.max(cpWeight, Math.abs(e.weight - t.weight));
+			}
+		}
+		
+		error.setCP(new Coordinate(cpX, cpY, cpZ, cpWeight));
+		return error;
+	}
+	
+	
+	/**
+	 * Return the table of the configuration, building it if necessary.  Returns
+	 * <code>null</code> if the table could not be built because the thread was interrupted.
+	 */
+	private Table getTable(Configuration configuration, FlightConditions conditions) {
+		if (table != null && configuration == tableConfiguration &&
+				configuration.getModID() == tableModID &&
+				conditions.getRefLength() == tableRefLength &&
+				conditions.getRefArea() == tableRefArea) {
+			return table;
+		}
+		
+		TableKey key = new TableKey(configuration, conditions);
+		Table t;
+		synchronized (tables) {
+			t = tables.get(key);
+			if (t == null) {
+				t = new Table();
+				tables.put(key, t);
+			}
+		}
+		
+		if (!t.build(configuration, conditions)) {
+			return null;
+		}
+		
+		table = t;
+		tableConfiguration = configuration;
+		tableModID = configuration.getModID();
+		tableRefLength = conditions.getRefLength();
+		tableRefArea = conditions.getRefArea();
+		return t;
+	}
+	
+	
+	/**
+	 * A table axis with a fine step from zero up to a split value and a coarse step
+	 * from the split value up to the maximum value.
+	 */
+	private static class Axis {
+		private final double fineStep;
+		private final double split;
+		private final double coarseStep;
+		private final double max;
+		private final int fineCount;
+		/** The number of grid values on the axis. */
+		private final int count;
+		
+		public Axis(double fineStep, double split, double coarseStep, double max) {
+			this.fineStep = fineStep;
+			this.split = split;
+			this.coarseStep = coarseStep;
+			this.max = max;
+			this.fineCount = (int) Math.round(split / fineStep);
+			this.count = fineCount + (int) Math.round((max - split) / coarseStep) + 1;
+		}
+		
+		/**
+		 * Return the value of a grid index.
+		 */
+		public double getValue(int index) {
+			if (index <= fineCount) {
+				return index * fineStep;
+			}
+			return Math.min(split + (index - fineCount) * coarseStep, max);
+		}
+		
+		/**
+		 * Return the fractional grid index of a value.  Values outside the axis are
+		 * clamped to the axis.
+		 */
+		public double getIndex(double value) {
+			if (value < split) {
+				return Math.max(value, 0) / fineStep;
+			}
+			return fineCount + (Math.min(value, max) - split) / coarseStep;
+		}
+	}
+	
+	
+	/**
+	 * Identifies the aerodynamic state of a configuration.  Modification IDs are unique
+	 * over all rockets, and copies of a rocket keep the IDs of the original, so equal keys
+	 * imply equal aerodynamic properties.
+	 */
+	private static class TableKey {
+		private final int aeroModID;
+		private final int treeModID;
+		private final int[] stages;
+		private final double refLength;
+		private final double refArea;
+		
+		public TableKey(Configuration configuration, FlightConditions conditions) {
+			this.aeroModID = configuration.getRocket().getAerodynamicModID();
+			this.treeModID = configuration.getRocket().getTreeModID();
+			this.stages = configuration.getActiveStages();
+			this.refLength = conditions.getRefLength();
+			this.refArea = conditions.getRefArea();
+		}
+		
+		@Override
+		public boolean equals(Object obj) {
+			if (this == obj)
+				return true;
+			if (!(obj instanceof TableKey))
+				return false;
+			TableKey other = (TableKey) obj;
+			return this.aeroModID == other.aeroModID && this.treeModID == other.treeModID &&
+					Arrays.equals(this.stages, other.stages) &&
+					Double.compare(this.refLength, other.refLength) == 0 &&
+					Double.compare(this.refArea, other.refArea) == 0;
+		}
+		
+		@Override
+		public int hashCode() {
+			long bits = Double.doubleToLongBits(refLength) * 31 + Double.doubleToLongBits(refArea);
+			return ((aeroModID * 31 + treeModID) * 31 + Arrays.hashCode(stages)) * 31 +
+					(int) (bits ^ (bits >>> 32));
+		}
+	}
+	
+	
+	/**
+	 * The coefficient tables of one configuration.  The tables are written only while
+	 * building, which is synchronized, and are read-only afterwards.
+	 */
+	private static class Table {
+		private volatile boolean built = false;
+		
+		/** Whether the configuration must be calculated with the exact method. */
+		private boolean exact;
+		
+		/** Warnings independent of the flight conditions. */
+		private WarningSet warnings;
+		private boolean supersonicWarning;
+		
+		/** Non-axial values by Mach index, VALUE_COUNT values per AOA index. */
+		private double[][] values;
+		
+		private double[] pressureCD;
+		
+		/** Base drag divided by the base drag coefficient. */
+		private double baseArea;
+		
+		/* Friction drag areas and roughness-limited coefficients by finish */
+		private boolean perfectFinish;
+		private double length;
+		private double bodyCorrection;
+		private double[] bodyArea;
+		private double[] finArea;
+		private double[] roughnessLimited;
+		
+		
+		/**
+		 * Build the table, unless it is already built.
+		 *
+		 * @return	<code>true</code> if the table is built, <code>false</code> if the
+		 * 			thread was interrupted while building.
+		 */
+		public boolean build(Configuration configuration, FlightConditions conditions) {
+			if (built)
+				return true;
+			
+			synchronized (this) {
+				if (built)
+					return true;
+				
+				long t0 = System.currentTimeMillis();
+				
+				FlightConditions cond = conditions.clone();
+				cond.setTheta(0);
+				cond.setRollRate(0);
+				cond.setPitchRate(0);
+				cond.setYawRate(0);
+				
+				BarrowmanCalculator calculator = new BarrowmanCalculator();
+				cond.setMach(0.3);
+				cond.setAOA(0);
+				warnings = new WarningSet();
+				calculator.getForceAnalysis(configuration, cond, warnings);
+				warnings.immute();
+				
+				WarningSet supersonic = new WarningSet();
+				cond.setMach(1.2);
+				calculator.calculateNonAxialForces(configuration, cond, null, supersonic);
+				supersonicWarning = supersonic.contains(Warning.SUPERSONIC);
+				
+				exact = false;
+				for (RocketComponent c : configuration) {
+					if (c instanceof FinSet && ((FinSet) c).getFinCount() <= 2) {
+						exact = true;
+					}
+				}
+				if (exact) {
+					log.debug("Configuration has roll angle dependent fin sets, using exact calculation");
+					built = true;
+					return true;
+				}
+				
+				if (!buildValues(configuration, cond)) {
+					return false;
+				}
+				buildDrag(calculator, configuration, cond);
+				
+				built = true;
+				log.debug("Built aerodynamic tables in " + (System.currentTimeMillis() - t0) + " ms");
+				return true;
+			}
+		}
+		
+		
+		/**
+		 * Compute the Mach rows of the non-axial values.  The rows are handed out one at
+		 * a time to the calling thread and the worker threads, and the calling thread
+		 * waits only for the rows being computed by the workers.
+		 *
+		 * @return	<code>true</code> if the rows were computed, <code>false</code> if the
+		 * 			thread was interrupted.
+		 */
+		private boolean buildValues(Configuration configuration, FlightConditions cond) {
+			int threadCount = Math.min(executor.getMaximumPoolSize(), MACH.count);
+			double[][] rows = new double[MACH.count][];
+			AtomicInteger next = new AtomicInteger(0);
+			CountDownLatch remaining = new CountDownLatch(MACH.count);
+			AtomicReference<Throwable> failure = new AtomicReference<Throwable>();
+			
+			List<Future<?>> futures = new ArrayList<Future<?>>();
+			for (int i = 1; i < threadCount; i++) {
+				// The copy is made on the calling thread, which owns the original rocket
+				Rocket copy = configuration.getRocket().copyWithOriginalID();
+				futures.add(executor.submit(new RowBuilder(configuration.copyFor(copy), cond.clone(),
+						rows, next, remaining, failure)));
+			}
+			
+			try {
+				new RowBuilder(configuration, cond.clone(), rows, next, remaining, failure).run();
+				remaining.await();
+			} catch (InterruptedException e) {
+				Thread.currentThread().interrupt();
+				log.debug("Interrupted while building aerodynamic tables");
+				return false;
+			} finally {
+				next.set(MACH.count);
+				for (Future<?> future : futures) {
+					future.cancel(true);
+				}
+			}
+			
+			Throwable cause = failure.get();
+			if (cause instanceof RuntimeException) {
+				throw (RuntimeException) cause;
+			}
+			if (cause instanceof Error) {
+				throw (Error) cause;
+			}
+			if (cause != null) {
+				throw new BugException("Unexpected exception while building aerodynamic tables", cause);
+			}
+			
+			values = rows;
+			return true;
+		}
+		
+		
+		private void buildDrag(BarrowmanCalculator calculator, Configuration configuration,
+				FlightConditions cond) {
+			WarningSet ignored = new WarningSet();
+			
+			pressureCD = new double[PRESSURE_MACH.count];
+			for (int i = 0; i < PRESSURE_MACH.count; i++) {
+				cond.setMach(PRESSURE_MACH.getValue(i));
+				pressureCD[i] = calculator.calculatePressureDrag(configuration, cond, null, ignored);
+			}
+			
+			cond.setMach(0.3);
+			baseArea = calculator.calculateBaseDrag(configuration, cond, null, ignored) /
+					calculateBaseCD(cond.getMach());
+			
+			// Sum the wetted areas of the components by finish in the same way as calculateFrictionDrag
+			perfectFinish = configuration.getRocket().isPerfectFinish();
+			length = configuration.getLength();
+			
+			Finish[] finishes = Finish.values();
+			bodyArea = new double[finishes.length];
+			finArea = new double[finishes.length];
+			roughnessLimited = new double[finishes.length];
+			for (Finish finish : finishes) {
+				roughnessLimited[finish.ordinal()] =
+						0.032 * Math.pow(finish.getRoughnessSize() / length, 0.2);
+			}
+			
+			double maxR = 0, len = 0;
+			for (RocketComponent c : configuration) {
+				if (c instanceof SymmetricComponent) {
+					SymmetricComponent s = (SymmetricComponent) c;
+					bodyArea[s.getFinish().ordinal()] += s.getComponentWetArea();
+					
+					double r = Math.max(s.getForeRadius(), s.getAftRadius());
+					if (r > maxR)
+						maxR = r;
+					len += c.getLength();
+				} else if (c instanceof FinSet) {
+					FinSet f = (FinSet) c;
+					double mac = new FinSetCalc(f).getMACLength();
+					finArea[f.getFinish().ordinal()] += (1 + 2 * f.getThickness() / mac) *
+							2 * f.getFinCount() * f.getFinArea();
+				}
+			}
+			
+			// fB may be POSITIVE_INFINITY, but that's ok for us
+			double fB = (len + 0.0001) / maxR;
+			bodyCorrection = (1 + 1.0 / (2 * fB));
+		}
+		
+		
+		public AerodynamicForces getNonAxialForces(double mach, double aoa) {
+			double machIndex = MACH.getIndex(mach);
+			int m = Math.min((int) machIndex, MACH.count - 2);
+			double mf = machIndex - m;
+			
+			double aoaIndex = AOA.getIndex(aoa);
+			int a = Math.min((int) aoaIndex, AOA.count - 2);
+			double af = aoaIndex - a;
+			
+			double[] row0 = values[m];
+			double[] row1 = values[m + 1];
+			int i0 = a * VALUE_COUNT;
+			int i1 = i0 + VALUE_COUNT;
+			
+			double w00 = (1 - mf) * (1 - af);
+			double w01 = (1 - mf) * af;
+			double w10 = mf * (1 - af);
+			double w11 = mf * af;
+			
+			double[] v = new double[VALUE_COUNT];
+			for (int k = 0; k < VALUE_COUNT; k++) {
+				v[k] = w00 * row0[i0 + k] + w01 * row0[i1 + k] + w10 * row1[i0 + k] + w11 * row1[i1 + k];
+			}
+			
+			AerodynamicForces forces = new AerodynamicForces();
+			forces.zero();
+			forces.setCNa(v[CNA]);
+			forces.setCN(v[CN]);
+			forces.setCm(v[CM]);
+			forces.setCside(v[CSIDE]);
+			forces.setCyaw(v[CYAW]);
+			forces.setCrollForce(v[CROLL_FORCE]);
+			forces.setCroll(v[CROLL_FORCE]);
+			forces.setCP(new Coordinate(v[CP_X], v[CP_Y], v[CP_Z], v[CP_WEIGHT]));
+			return forces;
+		}
+		
+		
+		public double getPressureCD(double mach) {
+			double index = PRESSURE_MACH.getIndex(mach);
+			int i = Math.min((int) index, PRESSURE_MACH.count - 2);
+			double f = index - i;
+			return (1 - f) * pressureCD[i] + f * pressureCD[i + 1];
+		}
+		
+		
+		public double getBaseCD(double mach) {
+			return calculateBaseCD(mach) * baseArea;
+		}
+		
+		
+		public double getFrictionCD(FlightConditions conditions) {
+			double mach = conditions.getMach();
+			double Re = conditions.getVelocity() * length /
+					conditions.getAtmosphericConditions().getKinematicViscosity();
+			
+			double Cf = calculateSkinFrictionCoefficient(perfectFinish, mach, Re);
+			double roughnessCorrection = calculateRoughnessCorrection(mach);
+			
+			double finFriction = 0;
+			double bodyFriction = 0;
+			for (int i = 0; i < roughnessLimited.length; i++) {
+				if (bodyArea[i] == 0 && finArea[i] == 0)
+					continue;
+				
+				double limited = roughnessLimited[i] * roughnessCorrection;
+				double componentCf;
+				if (perfectFinish) {
+					componentCf = (Re > 1.0e6 && limited > Cf) ? limited : Cf;
+				} else {
+					componentCf = Math.max(Cf, limited);
+				}
+				
+				bodyFriction += componentCf * bodyArea[i];
+				finFriction += componentCf * finArea[i];
+			}
+			
+			return (finFriction + bodyCorrection * bodyFriction) / conditions.getRefArea();
+		}
+		
+		
+		/**
+		 * Computes Mach rows of the table until no rows are left or the thread is
+		 * interrupted, using a private calculator instance.  A row is counted down once it
+		 * is finished or has failed.
+		 */
+		private static class RowBuilder implements Runnable {
+			private final Configuration configuration;
+			private final FlightConditions cond;
+			private final double[][] rows;
+			private final AtomicInteger next;
+			private final CountDownLatch remaining;
+			private final AtomicReference<Throwable> failure;
+			
+			public RowBuilder(Configuration configuration, FlightConditions cond, double[][] rows,
+					AtomicInteger next, CountDownLatch remaining, AtomicReference<Throwable> failure) {
+				this.configuration = configuration;
+				this.cond = cond;
+				this.rows = rows;
+				this.next = next;
+				this.remaining = remaining;
+				this.failure = failure;
+			}
+			
+			@Override
+			public void run() {
+				BarrowmanCalculator calculator = new BarrowmanCalculator();
+				WarningSet ignored = new WarningSet();
+				
+				int i;
+				while (!Thread.currentThread().isInterrupted() && (i = next.getAndIncrement()) < MACH.count) {
+					try {
+						if (failure.get() == null) {
+							rows[i] = buildRow(calculator, i, ignored);
+						}
+					} catch (Throwable t) {
+						failure.compareAndSet(null, t);
+					} finally {
+						remaining.countDown();
+					}
+				}
+			}
+			
+			private double[] buildRow(BarrowmanCalculator calculator, int i, WarningSet ignored) {
+				cond.setMach(MACH.getValue(i));
+				double[] row = new double[AOA.count * VALUE_COUNT];
+				for (int j = 0; j < AOA.count; j++) {
+					cond.setAOA(AOA.getValue(j));
+					AerodynamicForces f = calculator.calculateNonAxialForces(configuration, cond, null, ignored);
+					
+					int n = j * VALUE_COUNT;
+					row[n + CNA] = f.getCNa();
+					row[n + CN] = f.getCN();
+					row[n + CM] = f.getCm();
+					row[n + CSIDE] = f.getCside();
+					row[n + CYAW] = f.getCyaw();
+					row[n + CROLL_FORCE] = f.getCrollForce();
+					row[n + CP_X] = f.getCP().x;
+					row[n + CP_Y] = f.getCP().y;
+					row[n + CP_Z] = f.getCP().z;
+					row[n + CP_WEIGHT] = f.getCP().weight;
+				}
+				return row;
+			}
+		}
+	}
+}
@@ -0,0 +1,279 @@
+package net.sf.openrocket.aerodynamics;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+import net.sf.openrocket.rocketcomponent.Configuration;
+import net.sf.openrocket.rocketcomponent.Rocket;
+import net.sf.openrocket.util.BugException;
+import net.sf.openrocket.util.Coordinate;
+
+/**
+ * Searches the roll angle at which the CP of a configuration is furthest forward.
+ * <p>
+ * The CP is first evaluated on a coarse grid of roll angles.  The grid points are
+ * divided between the calling thread and worker threads.  The component trees are not
+ * thread-safe, so each worker evaluates its points on its own copy of the rocket using
+ * its own calculator instance.  Each local minimum of the grid is then refined by a
+ * golden section search between its neighbouring grid points.  Of equally bad angles
+ * the smallest one is chosen, so a rocket whose CP does not depend on the roll angle
+ * results in an angle of zero.
+ * <p>
+ * The roll angle affects the CP only through the normal force of one and two fin sets,
+ * which is proportional to the squared sine of the angle between the fins and the
+ * wind.  The CP is thus a ratio of two functions of the form
+ * <code>a + b*cos(2*theta - phi)</code>, which has at most one minimum per half
+ * revolution however narrow it is.  The grid points neighbouring the lowest grid point
+ * therefore always bracket the worst angle as long as the grid has more than two points
+ * per half revolution.  The grid is denser than that to remain robust for calculators
+ * with other roll dependencies, and all local minima of the grid are refined.
+ */
+class WorstCPSearch {
+	
+	/** Number of roll angles of the coarse grid. */
+	static final int GRID_DIVISIONS = 36;
+	
+	/** Width of the bracket below which the refinement stops. */
+	static final double THETA_TOLERANCE = 0.1 * Math.PI / 180;
+	
+	/** Minimum number of grid points evaluated by a thread. */
+	private static final int MIN_POINTS_PER_THREAD = 6;
+	
+	private static final double GOLDEN_RATIO = (Math.sqrt(5) - 1) / 2;
+	
+	private static final ThreadPoolExecutor executor;
+	static {
+		int threadCount = Runtime.getRuntime().availableProcessors();
+		executor = new ThreadPoolExecutor(threadCount, threadCount, 60, TimeUnit.SECONDS,
+				new LinkedBlockingQueue<Runnable>(),
+				new ThreadFactory() {
+					@Override
+					public Thread newThread(Runnable r) {
+						Thread t = new Thread(r, "WorstCPSearch");
+						t.setDaemon(true);
+						return t;
+					}
+				});
+		executor.allowCoreThreadTimeOut(true);
+	}
+	
+	
+	private final AerodynamicCalculator calculator;
+	private final Configuration configuration;
+	private final FlightConditions cond;
+	private final WarningSet warnings;
+	
+	private Coordinate worst;
+	private double worstTheta;
+	
+	
+	/**
+	 * @param calculator	the calculator used by the calling thread.  Worker threads use
+	 * 						new instances of the same calculator type.
+	 * @param configuration	the configuration to search.
+	 * @param conditions	the flight conditions, the roll angle is ignored.
+	 * @param warnings		the warning set to which the warnings of all threads are added.
+	 */
+	public WorstCPSearch(AerodynamicCalculator calculator, Configuration configuration,
+			FlightConditions conditions, WarningSet warnings) {
+		this.calculator = calculator;
+		this.configuration = configuration;
+		this.cond = conditions.clone();
+		this.warnings = warnings;
+	}
+	
+	
+	/**
+	 * Perform the search.
+	 */
+	public void search() {
+		Coordinate[] grid = evaluateGrid();
+		
+		int index = 0;
+		boolean constant = true;
+		for (int i = 1; i < GRID_DIVISIONS; i++) {
+			if (grid[i].x < grid[index].x) {
+				index = i;
+			}
+			if (grid[i].x != grid[0].x) {
+				constant = false;
+			}
+		}
+		
+		worst = grid[index];
+		worstTheta = getGridTheta(index);
+		if (constant) {
+			return;
+		}
+		
+		double step = getGridTheta(1);
+		for (int i = 0; i < GRID_DIVISIONS; i++) {
+			Coordinate previous = grid[(i + GRID_DIVISIONS - 1) % GRID_DIVISIONS];
+			Coordinate next = grid[(i + 1) % GRID_DIVISIONS];
+			if (grid[i].x <= previous.x && grid[i].x < next.x) {
+				refine(getGridTheta(i) - step, getGridTheta(i) + step);
+			}
+		}
+	}
+	
+	
+	/**
+	 * Return the worst CP found.
+	 */
+	public Coordinate getWorstCP() {
+		return worst;
+	}
+	
+	/**
+	 * Return the roll angle of the worst CP, in the range 0 ... 2*PI.
+	 */
+	public double getWorstTheta() {
+		return worstTheta;
+	}
+	
+	
+	private Coordinate[] evaluateGrid() {
+		final Coordinate[] grid = new Coordinate[GRID_DIVISIONS];
+		
+		int threadCount = Math.min(executor.getMaximumPoolSize(), GRID_DIVISIONS / MIN_POINTS_PER_THREAD);
+		List<Future<WarningSet>> futures = new ArrayList<Future<WarningSet>>();
+		for (int i = 1; i < threadCount; i++) {
+			final int first = i;
+			final int step = threadCount;
+			
+			// The copy is made on the calling thread, which owns the original rocket
+			Rocket copy = configuration.getRocket().copyWithOriginalID();
+			final Configuration config = configuration.copyFor(copy);
+			futures.add(executor.submit(new Callable<WarningSet>() {
+				@Override
+				public WarningSet call() {
+					AerodynamicCalculator calc = calculator.newInstance();
+					FlightConditions c = cond.clone();
+					WarningSet w = new WarningSet();
+					for (int n = first; n < GRID_DIVISIONS; n += step) {
+						grid[n] = evaluate(calc, config, c, getGridTheta(n), w);
+					}
+					return w;
+				}
+			}));
+		}
+		
+		try {
+			for (int n = 0; n < GRID_DIVISIONS; n += threadCount) {
+				grid[n] = evaluate(calculator, configuration, cond, getGridTheta(n), warnings);
+			}
+			
+			for (Future<WarningSet> future : futures) {
+				WarningSet w = getUninterruptibly(future);
+				if (warnings != null) {
+					warnings.addAll(w);
+				}
+			}
+		} finally {
+			for (Future<WarningSet> future : futures) {
+				future.cancel(true);
+			}
+		}
+		
+		return grid;
+	}
+	
+	
+	/**
+	 * Refine the worst CP using a golden section search within the given roll angles.
+	 */
+	private void refine(double min, double max) {
+		double a = min;
+		double b = max;
+		double c = b - GOLDEN_RATIO * (b - a);
+		double d = a + GOLDEN_RATIO * (b - a);
+		Coordinate cpc = evaluateRefinement(c);
+		Coordinate cpd = evaluateRefinement(d);
+		
+		while (b - a > THETA_TOLERANCE) {
+			if (cpc.x < cpd.x) {
+				b = d;
+				d = c;
+				cpd = cpc;
+				c = b - GOLDEN_RATIO * (b - a);
+				cpc = evaluateRefinement(c);
+			} else {
+				a = c;
+				c = d;
+				cpc = cpd;
+				d = a + GOLDEN_RATIO * (b - a);
+				cpd = evaluateRefinement(d);
+			}
+		}
+	}
+	
+	
+	private Coordinate evaluateRefinement(double theta) {
+		theta = normalize(theta);
+		Coordinate cp = evaluate(calculator, configuration, cond, theta, warnings);
+		if (cp.x < worst.x) {
+			worst = cp;
+			worstTheta = theta;
+		}
+		return cp;
+	}
+	
+	
+	private static Coordinate evaluate(AerodynamicCalculator calc, Configuration config,
+			FlightConditions c, double theta, WarningSet w) {
+		c.setTheta(theta);
+		return calc.getCP(config, c, w);
+	}
+	
+	
+	private static double getGridTheta(int index) {
+		return 2 * Math.PI * index / GRID_DIVISIONS;
+	}
+	
+	private static double normalize(double theta) {
+		theta = theta % (2 * Math.PI);
+		if (theta < 0) {
+			theta += 2 * Math.PI;
+		}
+		return theta;
+	}
+	
+	
+	/**
+	 * Wait for a worker to finish.  The search takes only a short time, so an interrupt
+	 * is deferred until the result is available.
+	 */
+	private static <T> T getUninterruptibly(Future<T> future) {
+		boolean interrupted = false;
+		try {
+			while (true) {
+				try {
+					return future.get();
+				} catch (InterruptedException e) {
+					interrupted = true;
+				} catch (ExecutionException e) {
+					Throwable cause = e.getCause();
+					if (cause instanceof RuntimeException) {
+						throw (RuntimeException) cause;
+					}
+					if (cause instanceof Error) {
+						throw (Error) cause;
+					}
+					throw new BugException("Unexpected exception while searching the worst CP", cause);
+				}
+			}
+		} finally {
+			if (interrupted) {
+				Thread.currentThread().interrupt();
+			}
+		}
+	}
+	
+}
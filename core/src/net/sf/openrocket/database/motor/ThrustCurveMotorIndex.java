@@ -0,0 +1,269 @@
+package net.sf.openrocket.database.motor;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+import net.sf.openrocket.motor.Manufacturer;
+import net.sf.openrocket.motor.Motor;
+import net.sf.openrocket.motor.ThrustCurveMotor;
+
+/**
+ * An immutable search index over a list of ThrustCurveMotorSets.  The index contains
+ * hash indexes by digest, designation and manufacturer, and sorted indexes by
+ * diameter and length.  Instances may be shared between threads without locking.
+ * <p>
+ * Each motor is identified by its ordinal in the order the motor sets list the motors,
+ * and search results are returned in that order.
+ */
+final class ThrustCurveMotorIndex {
+	
+	/** The tolerance used when matching motor diameter and length. */
+	static final double SIZE_TOLERANCE = 0.0015;
+	
+	private static final int[] EMPTY = new int[0];
+	
+	private final List<ThrustCurveMotorSet> motorSets;
+	
+	private final ThrustCurveMotor[] motors;
+	private final Motor.Type[] types;
+	
+	private final Map<String, int[]> digestIndex;
+	private final Map<String, int[]> designationIndex;
+	private final Map<Manufacturer, int[]> manufacturerIndex;
+	
+	private final double[] sortedDiameters;
+	private final int[] diameterOrder;
+	private final double[] sortedLengths;
+	private final int[] lengthOrder;
+	
+	
+	ThrustCurveMotorIndex(List<ThrustCurveMotorSet> sets) {
+		this.motorSets = Collections.unmodifiableList(new ArrayList<ThrustCurveMotorSet>(sets));
+		
+		List<ThrustCurveMotor> motorList = new ArrayList<ThrustCurveMotor>();
+		List<Motor.Type> typeList = new ArrayList<Motor.Type>();
+		for (ThrustCurveMotorSet set : motorSets) {
+			for (ThrustCurveMotor m : set.getMotors()) {
+				motorList.add(m);
+				typeList.add(set.getType());
+			}
+		}
+		this.motors = motorList.toArray(new ThrustCurveMotor[0]);
+		this.types = typeList.toArray(new Motor.Type[0]);
+		
+		Map<String, List<Integer>> digests = new HashMap<String, List<Integer>>();
+		Map<String, List<Integer>> designations = new HashMap<String, List<Integer>>();
+		Map<Manufacturer, List<Integer>> manufacturers = new IdentityHashMap<Manufacturer, List<Integer>>();
+		for (int i = 0; i < motors.length; i++) {
+			add(digests, motors[i].getDigest(), i);
+			add(designations, designationKey(motors[i].getDesignation()), i);
+			add(manufacturers, motors[i].getManufacturer(), i);
+		}
+		this.digestIndex = toArrays(digests);
+		this.designationIndex = toArrays(designations);
+		this.manufacturerIndex = toArrays(manufacturers);
+		
+		this.diameterOrder = new int[motors.length];
+		this.sortedDiameters = new double[motors.length];
+		this.lengthOrder = new int[motors.length];
+		this.sortedLengths = new double[motors.length];
+		sortBy(diameterOrder, sortedDiameters, true);
+		sortBy(lengthOrder, sortedLengths, false);
+	}
+	
+	
+	/**
+	 * Return an unmodifiable list of the motor sets of this index.
+	 */
+	List<ThrustCurveMotorSet> getMotorSets() {
+		return motorSets;
+	}
+	
+	
+	/**
+	 * Return all motors with the specified digest.
+	 */
+	List<ThrustCurveMotor> findMotorsByDigest(String digest) {
+		int[] candidates = digestIndex.get(digest);
+		List<ThrustCurveMotor> results = new ArrayList<ThrustCurveMotor>();
+		if (candidates != null) {
+			for (int i : candidates) {
+				results.add(motors[i]);
+			}
+		}
+		return results;
+	}
+	
+	
+	/**
+	 * Return all motors matching the search criteria.  Any search criteria that is null or
+	 * NaN is ignored.  The most selective available index is used to select the candidate
+	 * motors, which are then checked against all of the criteria.
+	 *
+	 * @see MotorDatabase#findMotors(net.sf.openrocket.motor.Motor.Type, String, String, double, double)
+	 */
+	List<ThrustCurveMotor> findMotors(Motor.Type type, String manufacturer, String designation,
+			double diameter, double length) {
+		
+		Manufacturer mfg = null;
+		if (manufacturer != null) {
+			mfg = Manufacturer.findManufacturer(manufacturer);
+			if (mfg == null) {
+				return new ArrayList<ThrustCurveMotor>();
+			}
+		}
+		
+		int[] candidates;
+		if (designation != null) {
+			candidates = get(designationIndex, designationKey(designation));
+		} else if (mfg != null) {
+			candidates = get(manufacturerIndex, mfg);
+		} else {
+			int[] byDiameter = null;
+			int[] byLength = null;
+			if (!Double.isNaN(diameter)) {
+				byDiameter = range(sortedDiameters, diameterOrder, diameter);
+			}
+			if (!Double.isNaN(length)) {
+				byLength = range(sortedLengths, lengthOrder, length);
+			}
+			
+			if (byDiameter == null && byLength == null) {
+				candidates = null;
+			} else if (byLength == null || (byDiameter != null && byDiameter.length <= byLength.length)) {
+				candidates = byDiameter;
+			} else {
+				candidates = byLength;
+			}
+		}
+		
+		ArrayList<ThrustCurveMotor> results = new ArrayList<ThrustCurveMotor>();
+		if (candidates == null) {
+			for (int i = 0; i < motors.length; i++) {
+				if (matches(i, type, mfg, designation, diameter, length)) {
+					results.add(motors[i]);
+				}
+			}
+		} else {
+			for (int i : candidates) {
+				if (matches(i, type, mfg, designation, diameter, length)) {
+					results.add(motors[i]);
+				}
+			}
+		}
+		return results;
+	}
+	
+	
+	private boolean matches(int i, Motor.Type type, Manufacturer mfg, String designation,
+			double diameter, double length) {
+		ThrustCurveMotor m = motors[i];
+		if (type != null && type != types[i])
+			return false;
+		if (mfg != null && mfg != m.getManufacturer())
+			return false;
+		if (designation != null && !designation.equalsIgnoreCase(m.getDesignation()))
+			return false;
+		if (!Double.isNaN(diameter) && (Math.abs(diameter - m.getDiameter()) > SIZE_TOLERANCE))
+			return false;
+		if (!Double.isNaN(length) && (Math.abs(length - m.getLength()) > SIZE_TOLERANCE))
+			return false;
+		return true;
+	}
+	
+	
+	/*
+	 * Return the ordinals of the motors whose value is near the given value, in ascending
+	 * order.  The range is widened slightly, the exact tolerance is checked by matches().
+	 */
+	private static int[] range(double[] sorted, int[] order, double value) {
+		double margin = SIZE_TOLERANCE * 1.001;
+		int from = lowerBound(sorted, value - margin);
+		int to = lowerBound(sorted, Math.nextUp(value + margin));
+		int[] result = Arrays.copyOfRange(order, from, to);
+		Arrays.sort(result);
+		return result;
+	}
+	
+	/*
+	 * Return the index of the first element not less than the value.
+	 */
+	private static int lowerBound(double[] sorted, double value) {
+		int low = 0;
+		int high = sorted.length;
+		while (low < high) {
+			int mid = (low + high) >>> 1;
+			if (sorted[mid] < value) {
+				low = mid + 1;
+			} else {
+				high = mid;
+			}
+		}
+		return low;
+	}
+	
+	
+	private void sortBy(int[] order, double[] sorted, final boolean diameter) {
+		Integer[] boxed = new Integer[motors.length];
+		for (int i = 0; i < boxed.length; i++) {
+			boxed[i] = i;
+		}
+		Arrays.sort(boxed, new Comparator<Integer>() {
+			@Override
+			public int compare(Integer o1, Integer o2) {
+				return Double.compare(value(o1), value(o2));
+			}
+			
+			private double value(int i) {
+				return diameter ? motors[i].getDiameter() : motors[i].getLength();
+			}
+		});
+		for (int i = 0; i < boxed.length; i++) {
+			order[i] = boxed[i];
+			sorted[i] = diameter ? motors[boxed[i]].getDiameter() : motors[boxed[i]].getLength();
+		}
+	}
+	
+	
+	private static String designationKey(String designation) {
+		return designation.toLowerCase(Locale.ENGLISH);
+	}
+	
+	private static <K> int[] get(Map<K, int[]> index, K key) {
+		int[] values = index.get(key);
+		return (values != null) ? values : EMPTY;
+	}
+	
+	private static <K> void add(Map<K, List<Integer>> map, K key, int i) {
+		if (key == null)
+			return;
+		List<Integer> list = map.get(key);
+		if (list == null) {
+			list = new ArrayList<Integer>();
+			map.put(key, list);
+		}
+		list.add(i);
+	}
+	
+	private static <K> Map<K, int[]> toArrays(Map<K, List<Integer>> map) {
+		Map<K, int[]> result = (map instanceof IdentityHashMap) ?
+				new IdentityHashMap<K, int[]>() : new HashMap<K, int[]>();
+		for (Map.Entry<K, List<Integer>> e : map.entrySet()) {
+			List<Integer> list = e.getValue();
+			int[] array = new int[list.size()];
+			for (int i = 0; i < array.length; i++) {
+				array[i] = list.get(i);
+			}
+			result.put(e.getKey(), array);
+		}
+		return result;
+	}
+	
+}
@@ -1,8 +1,10 @@
 package net.sf.openrocket.database.motor;
 
 import java.util.ArrayList;
-import java.util.Collections;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Locale;
+import java.util.Map;
 
 import net.sf.openrocket.motor.Motor;
 import net.sf.openrocket.motor.ThrustCurveMotor;
@@ -10,39 +12,40 @@ import net.sf.openrocket.motor.ThrustCurveMotor;
 /**
  * A database containing ThrustCurveMotorSet objects and allowing adding a motor
  * to the database.
- * 
+ * <p>
+ * Searches are performed on an immutable index of the database, which is built when
+ * the database is first searched after it has been modified.  Searching is thread-safe,
+ * and the database may be shared between threads once all motors have been added.
+ *
  * @author Sampo Niskanen <sampo.niskanen@iki.fi>
  */
 public class ThrustCurveMotorSetDatabase implements MotorDatabase {
 	
 	private final List<ThrustCurveMotorSet> motorSets = new ArrayList<ThrustCurveMotorSet>();
 	
+	/** The motor sets by manufacturer and simplified designation, used when adding motors */
+	private final Map<String, List<ThrustCurveMotorSet>> setsByDesignation =
+			new HashMap<String, List<ThrustCurveMotorSet>>();
+	
+	/** The search index, or null if the database has been modified since it was built */
+	private volatile ThrustCurveMotorIndex index = null;
+	
 	
 	@Override
 	public List<ThrustCurveMotor> findMotors(Motor.Type type, String manufacturer, String designation,
 			double diameter, double length) {
-		ArrayList<ThrustCurveMotor> results = new ArrayList<ThrustCurveMotor>();
-		
-		for (ThrustCurveMotorSet set : motorSets) {
-			for (ThrustCurveMotor m : set.getMotors()) {
-				boolean match = true;
-				if (type != null && type != set.getType())
-					match = false;
-				else if (manufacturer != null && !m.getManufacturer().matches(manufacturer))
-					match = false;
-				else if (designation != null && !designation.equalsIgnoreCase(m.getDesignation()))
-					match = false;
-				else if (!Double.isNaN(diameter) && (Math.abs(diameter - m.getDiameter()) > 0.0015))
-					match = false;
-				else if (!Double.isNaN(length) && (Math.abs(length - m.getLength()) > 0.0015))
-					match = false;
-				
-				if (match)
-					results.add(m);
-			}
-		}
-		
-		return results;
+		return getIndex().findMotors(type, manufacturer, designation, diameter, length);
+	}
+	
+	
+	/**
+	 * Return all motors with the specified thrust curve digest.
+	 *
+	 * @param digest	the motor digest.
+	 * @return			a list of the motors with the digest, in database order.
+	 */
+	public List<ThrustCurveMotor> findMotorsByDigest(String digest) {
+		return getIndex().findMotorsByDigest(digest);
 	}
 	
 	
@@ -50,21 +53,30 @@ public class ThrustCurveMotorSetDatabase implements MotorDatabase {
 	 * Return a list of all ThrustCurveMotorSets.
 	 */
 	public List<ThrustCurveMotorSet> getMotorSets() {
-		return Collections.unmodifiableList(motorSets);
+		return getIndex().getMotorSets();
 	}
 	
 	
 	/**
-	 * Add a motor to the database.  If a matching ThrustCurveMototSet is found, 
+	 * Add a motor to the database.  If a matching ThrustCurveMototSet is found,
 	 * the motor is added to that set, otherwise a new set is created and added to the
 	 * database.
-	 * 
+	 *
 	 * @param motor		the motor to add
 	 */
-	public void addMotor(ThrustCurveMotor motor) {
+	public synchronized void addMotor(ThrustCurveMotor motor) {
+		index = null;
+		
+		String key = designationKey(motor);
+		List<ThrustCurveMotorSet> candidates = setsByDesignation.get(key);
+		if (candidates == null) {
+			candidates = new ArrayList<ThrustCurveMotorSet>(1);
+			setsByDesignation.put(key, candidates);
+		}
+		
 		// Iterate from last to first, as this is most likely to hit early when loading files
-		for (int i = motorSets.size() - 1; i >= 0; i--) {
-			ThrustCurveMotorSet set = motorSets.get(i);
+		for (int i = candidates.size() - 1; i >= 0; i--) {
+			ThrustCurveMotorSet set = candidates.get(i);
 			if (set.matches(motor)) {
 				set.addMotor(motor);
 				return;
@@ -74,6 +86,40 @@ public class ThrustCurveMotorSetDatabase implements MotorDatabase {
 		ThrustCurveMotorSet newSet = new ThrustCurveMotorSet();
 		newSet.addMotor(motor);
 		motorSets.add(newSet);
+		candidates.add(newSet);
+	}
+	
+	
+	/**
+	 * Build the search index of the database.  This is called by database loaders once
+	 * all motors have been added, so that the index is published together with the database.
+	 */
+	public void buildIndex() {
+		getIndex();
+	}
+	
+	
+	private ThrustCurveMotorIndex getIndex() {
+		ThrustCurveMotorIndex idx = index;
+		if (idx == null) {
+			synchronized (this) {
+				idx = index;
+				if (idx == null) {
+					idx = new ThrustCurveMotorIndex(motorSets);
+					index = idx;
+				}
+			}
+		}
+		return idx;
+	}
+	
+	
+	/*
+	 * All sets matching a motor have the same manufacturer and simplified designation.
+	 */
+	private static String designationKey(ThrustCurveMotor motor) {
+		return motor.getManufacturer().getDisplayName() + "|" +
+				ThrustCurveMotorSet.simplifyDesignation(motor.getDesignation()).toLowerCase(Locale.ENGLISH);
 	}
 	
 }
@@ -5,7 +5,6 @@ import java.util.Collection;
 import java.util.Collections;
 import java.util.Iterator;
 import java.util.LinkedHashSet;
-import java.util.LinkedList;
 import java.util.List;
 import java.util.Set;
 
@@ -21,6 +20,7 @@ import net.sf.openrocket.rocketcomponent.ComponentChangeListener;
 import net.sf.openrocket.rocketcomponent.Configuration;
 import net.sf.openrocket.rocketcomponent.Rocket;
 import net.sf.openrocket.rocketcomponent.RocketComponent;
+import net.sf.openrocket.rocketcomponent.RocketSnapshot;
 import net.sf.openrocket.simulation.FlightDataType;
 import net.sf.openrocket.simulation.customexpression.CustomExpression;
 import net.sf.openrocket.simulation.extension.SimulationExtension;
@@ -46,14 +46,11 @@ public class OpenRocketDocument implements ComponentChangeListener {
 	private static final Logger log = LoggerFactory.getLogger(OpenRocketDocument.class);
 	
 	/**
-	 * The minimum number of undo levels that are stored.
+	 * The maximum estimated memory used by the undo history, in bytes.  After the undo
+	 * history exceeds this size, the oldest undo levels are purged.  At least one undo
+	 * level is always stored.
 	 */
-	public static final int UNDO_LEVELS = 50;
-	/**
-	 * The margin of the undo levels.  After the number of undo levels exceeds 
-	 * UNDO_LEVELS by this amount the undo is purged to that length.
-	 */
-	public static final int UNDO_MARGIN = 10;
+	public static final long UNDO_MEMORY_LIMIT = 32 * 1024 * 1024;
 	
 	public static final String SIMULATION_NAME_PREFIX = "Simulation ";
 	
@@ -72,10 +69,17 @@ public class OpenRocketDocument implements ComponentChangeListener {
 	
 	/** 
 	 * The undo history of the rocket.   Whenever a new undo position is created while the
-	 * rocket is in "dirty" state, the rocket is copied here.
+	 * rocket is in "dirty" state, a snapshot of the rocket is stored here.  Consecutive
+	 * snapshots share the components that have not been modified in between.
+	 */
+	private ArrayList<RocketSnapshot> undoHistory = new ArrayList<RocketSnapshot>();
+	private ArrayList<String> undoDescription = new ArrayList<String>();
+	
+	/**
+	 * The estimated memory used by the undo history, in bytes.  This is the size of the
+	 * first snapshot and the sizes of the components not shared by the later snapshots.
 	 */
-	private LinkedList<Rocket> undoHistory = new LinkedList<Rocket>();
-	private LinkedList<String> undoDescription = new LinkedList<String>();
+	private long undoMemory = 0;
 	
 	/**
 	 * The position in the undoHistory we are currently at.  If modifications have been
@@ -350,25 +354,30 @@ public class OpenRocketDocument implements ComponentChangeListener {
 			logUndoError("undo position inconsistency");
 		}
 		while (undoPosition < undoHistory.size() - 1) {
-			undoHistory.removeLast();
-			undoDescription.removeLast();
+			removeLastUndoSnapshot();
 		}
 		
 		
 		// Add the current state to the undo history
-		undoHistory.add(rocket.copyWithOriginalID());
-		undoDescription.add(null);
+		addUndoSnapshot();
 		nextDescription = description;
 		undoPosition++;
 		
 		
 		// Maintain maximum undo size
-		if (undoHistory.size() > UNDO_LEVELS + UNDO_MARGIN && undoPosition > UNDO_MARGIN) {
-			for (int i = 0; i < UNDO_MARGIN; i++) {
-				undoHistory.removeFirst();
-				undoDescription.removeFirst();
-				undoPosition--;
+		if (undoMemory > UNDO_MEMORY_LIMIT) {
+			int count = 0;
+			long memory = undoMemory;
+			while (memory > UNDO_MEMORY_LIMIT && undoPosition - count > 1) {
+				RocketSnapshot next = undoHistory.get(count + 1);
+				memory -= undoHistory.get(count).getSize() + next.getNewSize() - next.getSize();
+				count++;
 			}
+			log.info("Purging " + count + " undo levels, estimated undo memory " + undoMemory + " -> " + memory);
+			undoHistory.subList(0, count).clear();
+			undoDescription.subList(0, count).clear();
+			undoPosition -= count;
+			undoMemory = memory;
 		}
 	}
 	
@@ -414,9 +423,9 @@ public class OpenRocketDocument implements ComponentChangeListener {
 		log.info("Clearing undo history of " + this);
 		undoHistory.clear();
 		undoDescription.clear();
+		undoMemory = 0;
 		
-		undoHistory.add(rocket.copyWithOriginalID());
-		undoDescription.add(null);
+		addUndoSnapshot();
 		undoPosition = 0;
 		
 		fireUndoRedoChangeEvent();
@@ -434,8 +443,7 @@ public class OpenRocketDocument implements ComponentChangeListener {
 			}
 			// Remove any redo information if available
 			while (undoPosition < undoHistory.size() - 1) {
-				undoHistory.removeLast();
-				undoDescription.removeLast();
+				removeLastUndoSnapshot();
 			}
 			
 			// Set the latest description
@@ -518,14 +526,11 @@ public class OpenRocketDocument implements ComponentChangeListener {
 				logUndoError("undo position inconsistency");
 			}
 			// Modifications have been made, save the state and restore previous state
-			undoHistory.add(rocket.copyWithOriginalID());
-			undoDescription.add(null);
+			addUndoSnapshot();
 		}
 		
 		rocket.checkComponentStructure();
-		undoHistory.get(undoPosition).checkComponentStructure();
-		undoHistory.get(undoPosition).copyWithOriginalID().checkComponentStructure();
-		rocket.loadFrom(undoHistory.get(undoPosition).copyWithOriginalID());
+		rocket.loadFrom(undoHistory.get(undoPosition).restore());
 		rocket.checkComponentStructure();
 	}
 	
@@ -547,7 +552,7 @@ public class OpenRocketDocument implements ComponentChangeListener {
 		
 		undoPosition++;
 		
-		rocket.loadFrom(undoHistory.get(undoPosition).copyWithOriginalID());
+		rocket.loadFrom(undoHistory.get(undoPosition).restore());
 	}
 	
 	
@@ -556,6 +561,27 @@ public class OpenRocketDocument implements ComponentChangeListener {
 	}
 	
 	
+	/**
+	 * Add a snapshot of the current rocket to the end of the undo history.
+	 */
+	private void addUndoSnapshot() {
+		RocketSnapshot previous = undoHistory.isEmpty() ? null : undoHistory.get(undoHistory.size() - 1);
+		RocketSnapshot snapshot = RocketSnapshot.create(rocket, previous);
+		undoHistory.add(snapshot);
+		undoDescription.add(null);
+		undoMemory += (previous == null) ? snapshot.getSize() : snapshot.getNewSize();
+	}
+	
+	/**
+	 * Remove the last snapshot of the undo history.
+	 */
+	private void removeLastUndoSnapshot() {
+		RocketSnapshot last = undoHistory.remove(undoHistory.size() - 1);
+		undoDescription.remove(undoDescription.size() - 1);
+		undoMemory -= undoHistory.isEmpty() ? last.getSize() : last.getNewSize();
+	}
+	
+	
 	/**
 	 * Log a non-fatal undo/redo error or inconsistency.  Reports it to the user the first 
 	 * time it occurs, but not on subsequent times.  Logs automatically the undo system state.
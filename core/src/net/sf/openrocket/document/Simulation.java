@@ -322,6 +322,14 @@ public class Simulation implements ChangeSource, Cloneable {
 			
 			SimulationConditions simulationConditions = options.toSimulationConditions();
 			simulationConditions.setSimulation(this);
+			simulationConditions.setFlightStepperClass(simulationStepperClass);
+			try {
+				simulationConditions.setAerodynamicCalculator(aerodynamicCalculatorClass.newInstance());
+			} catch (InstantiationException e) {
+				throw new IllegalStateException("Cannot instantiate aerodynamic calculator.", e);
+			} catch (IllegalAccessException e) {
+				throw new IllegalStateException("Cannot access aerodynamic calculator instance?! BUG!", e);
+			}
 			for (SimulationListener l : additionalListeners) {
 				simulationConditions.getSimulationListenerList().add(l);
 			}
@@ -482,6 +490,59 @@ public class Simulation implements ChangeSource, Cloneable {
 		}
 	}
 	
+	/**
+	 * Return the stepper class used for the flight phase of this simulation.
+	 */
+	public Class<? extends SimulationStepper> getSimulationStepperClass() {
+		mutex.verify();
+		return simulationStepperClass;
+	}
+	
+	/**
+	 * Set the stepper class used for the flight phase of this simulation.  This does not
+	 * change the simulation status, since the available steppers compute the same trajectory.
+	 *
+	 * @param stepperClass	the stepper class, for example RK4SimulationStepper or RK4InPlaceSimulationStepper.
+	 */
+	public void setSimulationStepperClass(Class<? extends SimulationStepper> stepperClass) {
+		mutex.lock("setSimulationStepperClass");
+		try {
+			if (stepperClass == null) {
+				throw new IllegalArgumentException("stepperClass cannot be null");
+			}
+			this.simulationStepperClass = stepperClass;
+		} finally {
+			mutex.unlock("setSimulationStepperClass");
+		}
+	}
+	
+	/**
+	 * Return the aerodynamic calculator class used by this simulation.
+	 */
+	public Class<? extends AerodynamicCalculator> getAerodynamicCalculatorClass() {
+		mutex.verify();
+		return aerodynamicCalculatorClass;
+	}
+	
+	/**
+	 * Set the aerodynamic calculator class used by this simulation, for example
+	 * TabulatedBarrowmanCalculator to use interpolated coefficient tables instead
+	 * of the exact Barrowman method.
+	 *
+	 * @param calculatorClass	the aerodynamic calculator class.
+	 */
+	public void setAerodynamicCalculatorClass(Class<? extends AerodynamicCalculator> calculatorClass) {
+		mutex.lock("setAerodynamicCalculatorClass");
+		try {
+			if (calculatorClass == null) {
+				throw new IllegalArgumentException("calculatorClass cannot be null");
+			}
+			this.aerodynamicCalculatorClass = calculatorClass;
+		} finally {
+			mutex.unlock("setAerodynamicCalculatorClass");
+		}
+	}
+	
 	public void setSimulationOptions(SimulationOptions options){
 		this.options = options;
 	}
@@ -15,6 +15,8 @@ public class StorageOptions implements Cloneable {
 	private FileType fileType = FileType.OPENROCKET;
 	
 	private double simulationTimeSkip = SIMULATION_DATA_NONE;
+	
+	private boolean binaryFlightData = false;
 
 	private boolean explicitlySet = false;
 	
@@ -34,6 +36,18 @@ public class StorageOptions implements Cloneable {
 		this.simulationTimeSkip = simulationTimeSkip;
 	}
 	
+	/**
+	 * Return whether stored flight data is written as binary entries of the file container
+	 * instead of as text within the document.
+	 */
+	public boolean isBinaryFlightData() {
+		return binaryFlightData;
+	}
+	
+	public void setBinaryFlightData(boolean binaryFlightData) {
+		this.binaryFlightData = binaryFlightData;
+	}
+	
 	public boolean isExplicitlySet() {
 		return explicitlySet;
 	}
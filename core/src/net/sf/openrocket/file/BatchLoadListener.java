@@ -0,0 +1,32 @@
+package net.sf.openrocket.file;
+
+import java.io.File;
+
+import net.sf.openrocket.aerodynamics.WarningSet;
+import net.sf.openrocket.document.OpenRocketDocument;
+
+/**
+ * A listener that receives the documents of a {@link BatchRocketLoader} as they are loaded.
+ */
+public interface BatchLoadListener {
+	
+	/**
+	 * Called when a file has been loaded successfully.  The listener may retain the
+	 * document, but documents that are not retained can be garbage collected once
+	 * the call returns.
+	 *
+	 * @param file		the file that was loaded.
+	 * @param document	the loaded document.
+	 * @param warnings	the warnings produced while loading the file.
+	 */
+	public void documentLoaded(File file, OpenRocketDocument document, WarningSet warnings);
+	
+	/**
+	 * Called when loading a file failed.
+	 *
+	 * @param file		the file that could not be loaded.
+	 * @param exception	the cause of the failure.
+	 */
+	public void loadFailed(File file, RocketLoadException exception);
+	
+}
@@ -0,0 +1,204 @@
+package net.sf.openrocket.file;
+
+import java.io.File;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import net.sf.openrocket.aerodynamics.WarningSet;
+import net.sf.openrocket.document.OpenRocketDocument;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Loads a batch of OpenRocket and RockSim files using a pool of worker threads.
+ * <p>
+ * Each worker decompresses and parses a file at a time using its own
+ * {@link GeneralRocketLoader}.  The motor finder is shared between the workers, which
+ * only read the motor and component preset databases.  The loaded documents are passed
+ * to the {@link BatchLoadListener} on the calling thread in the order in which they
+ * complete.  The workers stop once a limited number of documents are waiting to be
+ * passed to the listener, so the memory used is bounded regardless of the number of
+ * files.
+ */
+public class BatchRocketLoader {
+	
+	private static final Logger log = LoggerFactory.getLogger(BatchRocketLoader.class);
+	
+	private final int threadCount;
+	private final int maxPending;
+	
+	private MotorFinder motorFinder = new DatabaseMotorFinder();
+	private boolean lazySimulationData = false;
+	
+	
+	/**
+	 * Construct a loader using one thread per available processor.
+	 */
+	public BatchRocketLoader() {
+		this(Runtime.getRuntime().availableProcessors());
+	}
+	
+	/**
+	 * Construct a loader that keeps at most <code>threadCount</code> documents waiting
+	 * for the listener.
+	 *
+	 * @param threadCount	the number of worker threads.
+	 */
+	public BatchRocketLoader(int threadCount) {
+		this(threadCount, threadCount);
+	}
+	
+	/**
+	 * Sole constructor.
+	 *
+	 * @param threadCount	the number of worker threads.
+	 * @param maxPending	the maximum number of loaded documents waiting for the listener.
+	 */
+	public BatchRocketLoader(int threadCount, int maxPending) {
+		if (threadCount < 1) {
+			throw new IllegalArgumentException("threadCount must be at least 1, was " + threadCount);
+		}
+		if (maxPending < 1) {
+			throw new IllegalArgumentException("maxPending must be at least 1, was " + maxPending);
+		}
+		this.threadCount = threadCount;
+		this.maxPending = maxPending;
+	}
+	
+	
+	public MotorFinder getMotorFinder() {
+		return motorFinder;
+	}
+	
+	/**
+	 * Set the motor finder used for all files.  The finder is called concurrently from
+	 * the worker threads.
+	 */
+	public void setMotorFinder(MotorFinder motorFinder) {
+		this.motorFinder = motorFinder;
+	}
+	
+	public boolean isLazySimulationData() {
+		return lazySimulationData;
+	}
+	
+	/**
+	 * Set whether the data points of stored simulations are decoded only when first accessed.
+	 *
+	 * @see GeneralRocketLoader#setLazySimulationData(boolean)
+	 */
+	public void setLazySimulationData(boolean lazySimulationData) {
+		this.lazySimulationData = lazySimulationData;
+	}
+	
+	
+	/**
+	 * Load the files.  The method returns once all files have been passed to the listener.
+	 * A file that cannot be loaded is reported to the listener and does not stop the
+	 * loading of the other files.
+	 *
+	 * @param files		the files to load.
+	 * @param listener	the listener receiving the documents.
+	 * @throws InterruptedException	if the calling thread was interrupted while loading.
+	 */
+	public void load(Collection<File> files, BatchLoadListener listener) throws InterruptedException {
+		final List<File> list = new ArrayList<File>(files);
+		final int workers = Math.min(threadCount, Math.max(list.size(), 1));
+		
+		log.info("Loading " + list.size() + " files using " + workers + " threads");
+		long t0 = System.currentTimeMillis();
+		
+		final AtomicInteger next = new AtomicInteger(0);
+		final BlockingQueue<Result> completed = new ArrayBlockingQueue<Result>(maxPending);
+		
+		ExecutorService executor = new ThreadPoolExecutor(workers, workers, 60, TimeUnit.SECONDS,
+				new LinkedBlockingQueue<Runnable>(),
+				new ThreadFactory() {
+					@Override
+					public Thread newThread(Runnable r) {
+						Thread t = new Thread(r, "BatchRocketLoader");
+						t.setDaemon(true);
+						return t;
+					}
+				});
+		
+		try {
+			for (int i = 0; i < workers; i++) {
+				executor.execute(new Runnable() {
+					@Override
+					public void run() {
+						try {
+							int index;
+							while ((index = next.getAndIncrement()) < list.size()) {
+								completed.put(loadFile(list.get(index)));
+							}
+						} catch (InterruptedException e) {
+							log.debug("Batch loading interrupted");
+						}
+					}
+				});
+			}
+			
+			for (int i = 0; i < list.size(); i++) {
+				Result result = completed.take();
+				if (result.error != null) {
+					throw result.error;
+				}
+				if (result.exception != null) {
+					listener.loadFailed(result.file, result.exception);
+				} else {
+					listener.documentLoaded(result.file, result.document, result.warnings);
+				}
+			}
+		} finally {
+			// Stop the remaining workers in case of failure
+			next.set(list.size());
+			executor.shutdownNow();
+		}
+		
+		log.info("Loaded " + list.size() + " files in " + (System.currentTimeMillis() - t0) + " ms");
+	}
+	
+	
+	private Result loadFile(File file) {
+		Result result = new Result(file);
+		try {
+			GeneralRocketLoader loader = new GeneralRocketLoader(file, motorFinder);
+			loader.setLazySimulationData(lazySimulationData);
+			result.document = loader.load();
+			result.warnings = loader.getWarnings();
+		} catch (RocketLoadException e) {
+			result.exception = e;
+		} catch (Error e) {
+			result.error = e;
+		}
+		return result;
+	}
+	
+	
+	/**
+	 * The outcome of loading a single file.
+	 */
+	private static class Result {
+		private final File file;
+		private OpenRocketDocument document;
+		private WarningSet warnings;
+		private RocketLoadException exception;
+		private Error error;
+		
+		public Result(File file) {
+			this.file = file;
+		}
+	}
+	
+}
@@ -3,6 +3,7 @@ package net.sf.openrocket.file;
 import java.io.IOException;
 import java.io.OutputStream;
 import java.io.PrintWriter;
+import java.nio.DoubleBuffer;
 import java.util.ArrayList;
 import java.util.Collections;
 import java.util.List;
@@ -98,13 +99,13 @@ public class CSVExport {
 		int eventPosition = 0;
 		
 		// List of field values
-		List<List<Double>> fieldValues = new ArrayList<List<Double>>();
+		List<DoubleBuffer> fieldValues = new ArrayList<DoubleBuffer>();
 		for (FlightDataType t : fields) {
-			fieldValues.add(branch.get(t));
+			fieldValues.add(branch.getBuffer(t));
 		}
 		
 		// Time variable
-		List<Double> time = branch.get(FlightDataType.TYPE_TIME);
+		DoubleBuffer time = branch.getBuffer(FlightDataType.TYPE_TIME);
 		if (eventComments && time == null) {
 			// If time information is not available, print events at beginning of file
 			for (FlightEvent e : events) {
@@ -1,5 +1,8 @@
 package net.sf.openrocket.file;
 
+import java.util.Collections;
+import java.util.Map;
+
 import net.sf.openrocket.document.OpenRocketDocument;
 
 public class DocumentLoadingContext {
@@ -8,6 +11,8 @@ public class DocumentLoadingContext {
 	private MotorFinder motorFinder;
 	private AttachmentFactory attachmentFactory = new FileSystemAttachmentFactory();
 	private OpenRocketDocument document;
+	private Map<String, byte[]> flightData = Collections.emptyMap();
+	private boolean lazySimulationData = false;
 	
 	public int getFileVersion() {
 		return fileVersion;
@@ -41,4 +46,30 @@ public class DocumentLoadingContext {
 		this.attachmentFactory = attachmentFactory;
 	}
 	
+	/**
+	 * Return the contents of a binary flight data entry of the container.
+	 * 
+	 * @param name	the name of the entry.
+	 * @return		the contents of the entry, or <code>null</code> if it was not found.
+	 */
+	public byte[] getFlightData(String name) {
+		return flightData.get(name);
+	}
+	
+	public void setFlightData(Map<String, byte[]> flightData) {
+		this.flightData = flightData;
+	}
+	
+	/**
+	 * Return whether the data points of stored simulations are decoded only when first
+	 * accessed.  Only the summary values are available after loading.
+	 */
+	public boolean isLazySimulationData() {
+		return lazySimulationData;
+	}
+	
+	public void setLazySimulationData(boolean lazySimulationData) {
+		this.lazySimulationData = lazySimulationData;
+	}
+	
 }
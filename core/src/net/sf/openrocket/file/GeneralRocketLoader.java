@@ -8,6 +8,8 @@ import java.io.InputStream;
 import java.net.MalformedURLException;
 import java.net.URL;
 import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
 import java.util.zip.GZIPInputStream;
 import java.util.zip.ZipEntry;
 import java.util.zip.ZipInputStream;
@@ -15,9 +17,11 @@ import java.util.zip.ZipInputStream;
 import net.sf.openrocket.aerodynamics.WarningSet;
 import net.sf.openrocket.document.OpenRocketDocument;
 import net.sf.openrocket.document.OpenRocketDocumentFactory;
+import net.sf.openrocket.file.openrocket.BinaryFlightData;
 import net.sf.openrocket.file.openrocket.importt.OpenRocketLoader;
 import net.sf.openrocket.file.rocksim.importt.RocksimLoader;
 import net.sf.openrocket.util.ArrayUtils;
+import net.sf.openrocket.util.FileUtils;
 import net.sf.openrocket.util.TextUtil;
 
 
@@ -49,14 +53,28 @@ public class GeneralRocketLoader {
 	
 	private final MotorFinder motorFinder;
 	private AttachmentFactory attachmentFactory;
+	private boolean lazySimulationData = false;
 	private final OpenRocketDocument doc = OpenRocketDocumentFactory.createEmptyRocket();
 	
+	/** Binary flight data entries read from the container before the document */
+	private final Map<String, byte[]> flightData = new HashMap<String, byte[]>();
+	
 	public GeneralRocketLoader(File file) {
 		this.baseFile = file;
 		this.jarURL = null;
 		this.motorFinder = new DatabaseMotorFinder();
 	}
 	
+	/**
+	 * Construct a loader using a specific motor finder.  A single motor finder may
+	 * be shared by loaders running concurrently.
+	 */
+	public GeneralRocketLoader(File file, MotorFinder motorFinder) {
+		this.baseFile = file;
+		this.jarURL = null;
+		this.motorFinder = motorFinder;
+	}
+	
 	public GeneralRocketLoader(URL jarURL) {
 		this.baseFile = null;
 		this.jarURL = jarURL;
@@ -102,12 +120,24 @@ public class GeneralRocketLoader {
 		return warnings;
 	}
 	
+	/**
+	 * Set whether the data points of stored simulations are decoded only when first
+	 * accessed.  This reduces the load time and memory use of documents whose simulation
+	 * data is not used, for example when the simulations are rerun.
+	 * 
+	 * @param lazySimulationData	whether to defer decoding simulation data.
+	 */
+	public void setLazySimulationData(boolean lazySimulationData) {
+		this.lazySimulationData = lazySimulationData;
+	}
+	
 	/**
 	 * This method determines the type file contained in the stream then calls the appropriate loading mecahnism.
 	 * 
 	 * If the stream is a gzip file, the argument is wrapped in a GzipInputStream and the rocket loaded.
 	 * 
 	 * If the stream is a zip container, the first zip entry with name ending in .ork or .rkt is loaded as the rocket.
+	 * Binary flight data entries preceding it are retained for the document to reference.
 	 * 
 	 * If the stream is neither, then it is assumed to be an xml file containing either an ork or rkt format rocket.
 	 * 
@@ -156,8 +186,11 @@ public class GeneralRocketLoader {
 				if (entry == null) {
 					throw new RocketLoadException("Unsupported or corrupt file.");
 				}
-				if (entry.getName().matches(".*\\.[oO][rR][kK]$")) {
+				if (entry.getName().startsWith(BinaryFlightData.DIRECTORY)) {
+					flightData.put(entry.getName(), FileUtils.readBytes(in));
+				} else if (entry.getName().matches(".*\\.[oO][rR][kK]$")) {
 					loadRocket(in);
+					flightData.clear();
 					return;
 				} else if (entry.getName().matches(".*\\.[rR][kK][tT]$")) {
 					loadRocket(in);
@@ -237,6 +270,8 @@ public class GeneralRocketLoader {
 		context.setOpenRocketDocument(doc);
 		context.setMotorFinder(motorFinder);
 		context.setAttachmentFactory(attachmentFactory);
+		context.setFlightData(flightData);
+		context.setLazySimulationData(lazySimulationData);
 		loader.load(context, source);
 		warnings.addAll(loader.getWarnings());
 	}
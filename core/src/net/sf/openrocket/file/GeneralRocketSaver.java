@@ -183,10 +183,13 @@ public class GeneralRocketSaver {
 		// big try block to close the zos.
 		try {
 			
+			// Binary flight data entries precede the document, which references them
+			OpenRocketSaver saver = new OpenRocketSaver();
+			saver.saveFlightData(zos, document, options);
 			
 			ZipEntry mainFile = new ZipEntry("rocket.ork");
 			zos.putNextEntry(mainFile);
-			saveInternal(zos, document, options);
+			saver.save(zos, document, options);
 			zos.closeEntry();
 			
 			// Now we write out all the decal images files.
@@ -0,0 +1,190 @@
+package net.sf.openrocket.file.motor;
+
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.RandomAccessFile;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.DoubleBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.Charset;
+import java.util.ArrayList;
+import java.util.List;
+
+import net.sf.openrocket.motor.Manufacturer;
+import net.sf.openrocket.motor.Motor;
+import net.sf.openrocket.motor.ThrustCurveMotor;
+import net.sf.openrocket.util.Coordinate;
+
+/**
+ * A loader for binary motor catalogs written by {@link MotorCatalogSaver}.
+ * <p>
+ * A catalog consists of a header, a string table, a table of fixed-size motor records
+ * and flat arrays of the delays, time, thrust and CG points of all motors.  The motors
+ * are read directly from the arrays without Java serialization.  Catalog files can be
+ * memory-mapped using {@link #load(File)}.
+ */
+public class MotorCatalogLoader implements MotorLoader {
+	
+	/** The file extension of motor catalogs. */
+	public static final String EXTENSION = "motors";
+	
+	static final int MAGIC = 0x4f524d43; // "ORMC"
+	static final int VERSION = 1;
+	
+	static final Charset CHARSET = Charset.forName("UTF-8");
+	
+	/** Size of a motor record in bytes: nine int fields followed by diameter and length */
+	static final int RECORD_SIZE = 9 * 4 + 2 * 8;
+	
+	
+	@Override
+	public List<Motor> load(InputStream stream, String filename) throws IOException {
+		ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+		byte[] buffer = new byte[65536];
+		int n;
+		while ((n = stream.read(buffer)) >= 0) {
+			bytes.write(buffer, 0, n);
+		}
+		return load(ByteBuffer.wrap(bytes.toByteArray()));
+	}
+	
+	
+	/**
+	 * Load the motors from a memory-mapped catalog file.
+	 *
+	 * @param file			the catalog file.
+	 * @return				a list of motors contained in the file.
+	 * @throws IOException	if an I/O exception occurs of the file format is invalid.
+	 */
+	public List<Motor> load(File file) throws IOException {
+		RandomAccessFile raf = new RandomAccessFile(file, "r");
+		try {
+			FileChannel channel = raf.getChannel();
+			return load(channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size()));
+		} finally {
+			raf.close();
+		}
+	}
+	
+	
+	/**
+	 * Load the motors from a buffer containing a motor catalog.  The position of the
+	 * buffer is not modified.
+	 *
+	 * @param buffer		the buffer containing the catalog.
+	 * @return				a list of motors contained in the catalog.
+	 * @throws IOException	if the catalog format is invalid.
+	 */
+	public List<Motor> load(ByteBuffer buffer) throws IOException {
+		try {
+			return read(buffer.duplicate());
+		} catch (BufferUnderflowException e) {
+			throw new IOException("Truncated motor catalog", e);
+		} catch (IndexOutOfBoundsException e) {
+			throw new IOException("Invalid motor catalog", e);
+		} catch (IllegalArgumentException e) {
+			throw new IOException("Invalid motor in catalog: " + e.getMessage(), e);
+		}
+	}
+	
+	
+	private List<Motor> read(ByteBuffer buf) throws IOException {
+		if (buf.getInt() != MAGIC) {
+			throw new IOException("Not a motor catalog");
+		}
+		int version = buf.getInt();
+		if (version != VERSION) {
+			throw new IOException("Unsupported motor catalog version " + version);
+		}
+		int motorCount = buf.getInt();
+		int stringCount = buf.getInt();
+		int delayCount = buf.getInt();
+		int pointCount = buf.getInt();
+		
+		String[] strings = new String[stringCount];
+		for (int i = 0; i < stringCount; i++) {
+			byte[] b = new byte[buf.getInt()];
+			buf.get(b);
+			strings[i] = new String(b, CHARSET);
+		}
+		
+		final int records = buf.position();
+		buf.position(records + motorCount * RECORD_SIZE);
+		DoubleBuffer delays = array(buf, delayCount);
+		DoubleBuffer time = array(buf, pointCount);
+		DoubleBuffer thrust = array(buf, pointCount);
+		DoubleBuffer cgX = array(buf, pointCount);
+		DoubleBuffer cgY = array(buf, pointCount);
+		DoubleBuffer cgZ = array(buf, pointCount);
+		DoubleBuffer cgWeight = array(buf, pointCount);
+		
+		// Manufacturers are resolved once per distinct name
+		Manufacturer[] manufacturers = new Manufacturer[stringCount];
+		
+		List<Motor> motors = new ArrayList<Motor>(motorCount);
+		for (int i = 0; i < motorCount; i++) {
+			int pos = records + i * RECORD_SIZE;
+			int manufacturer = buf.getInt(pos);
+			if (manufacturers[manufacturer] == null) {
+				manufacturers[manufacturer] = Manufacturer.getManufacturer(strings[manufacturer]);
+			}
+			String designation = string(strings, buf.getInt(pos + 4));
+			String description = string(strings, buf.getInt(pos + 8));
+			String digest = string(strings, buf.getInt(pos + 12));
+			Motor.Type type = Motor.Type.valueOf(string(strings, buf.getInt(pos + 16)));
+			int delayOffset = buf.getInt(pos + 20);
+			int delayLength = buf.getInt(pos + 24);
+			int pointOffset = buf.getInt(pos + 28);
+			int pointLength = buf.getInt(pos + 32);
+			double diameter = buf.getDouble(pos + 36);
+			double length = buf.getDouble(pos + 44);
+			
+			double[] d = get(delays, delayOffset, delayLength);
+			double[] t = get(time, pointOffset, pointLength);
+			double[] f = get(thrust, pointOffset, pointLength);
+			double[] x = get(cgX, pointOffset, pointLength);
+			double[] y = get(cgY, pointOffset, pointLength);
+			double[] z = get(cgZ, pointOffset, pointLength);
+			double[] w = get(cgWeight, pointOffset, pointLength);
+			Coordinate[] cg = new Coordinate[pointLength];
+			for (int j = 0; j < pointLength; j++) {
+				cg[j] = new Coordinate(x[j], y[j], z[j], w[j]);
+			}
+			
+			motors.add(new ThrustCurveMotor(manufacturers[manufacturer], designation,
+					description, type, d, diameter, length, t, f, cg, digest));
+		}
+		return motors;
+	}
+	
+	
+	/*
+	 * Return a view of the next count doubles of the buffer, and advance the buffer past them.
+	 */
+	private static DoubleBuffer array(ByteBuffer buf, int count) throws IOException {
+		if (count < 0 || count > buf.remaining() / 8) {
+			throw new IOException("Truncated motor catalog");
+		}
+		DoubleBuffer view = buf.slice().asDoubleBuffer();
+		view.limit(count);
+		buf.position(buf.position() + count * 8);
+		return view;
+	}
+	
+	private static double[] get(DoubleBuffer array, int offset, int length) {
+		double[] values = new double[length];
+		array.position(offset);
+		array.get(values);
+		return values;
+	}
+	
+	private static String string(String[] strings, int index) {
+		if (index < 0)
+			return null;
+		return strings[index];
+	}
+	
+}
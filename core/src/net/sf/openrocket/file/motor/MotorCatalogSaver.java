@@ -0,0 +1,147 @@
+package net.sf.openrocket.file.motor;
+
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import net.sf.openrocket.motor.Motor;
+import net.sf.openrocket.motor.ThrustCurveMotor;
+import net.sf.openrocket.util.Coordinate;
+
+/**
+ * A saver that writes thrust curve motors into a binary motor catalog, which can be
+ * read using {@link MotorCatalogLoader}.
+ */
+public class MotorCatalogSaver {
+	
+	/**
+	 * Write the motors into a motor catalog.
+	 *
+	 * @param output		the stream to write to.  The stream is not closed.
+	 * @param motors		the motors to write.
+	 * @throws IOException	if an I/O exception occurs.
+	 * @throws IllegalArgumentException	if a motor is not a ThrustCurveMotor.
+	 */
+	public void save(OutputStream output, List<? extends Motor> motors) throws IOException {
+		
+		List<ThrustCurveMotor> list = new ArrayList<ThrustCurveMotor>(motors.size());
+		for (Motor m : motors) {
+			if (!(m instanceof ThrustCurveMotor)) {
+				throw new IllegalArgumentException("Only thrust curve motors can be saved to a catalog: " + m);
+			}
+			list.add((ThrustCurveMotor) m);
+		}
+		
+		// Build the string table
+		List<String> strings = new ArrayList<String>();
+		Map<String, Integer> stringIndex = new HashMap<String, Integer>();
+		int delayCount = 0;
+		int pointCount = 0;
+		for (ThrustCurveMotor m : list) {
+			index(strings, stringIndex, m.getManufacturer().getDisplayName());
+			index(strings, stringIndex, m.getDesignation());
+			index(strings, stringIndex, m.getDescription());
+			index(strings, stringIndex, m.getDigest());
+			index(strings, stringIndex, m.getMotorType().name());
+			delayCount += m.getStandardDelays().length;
+			pointCount += m.getTimePoints().length;
+		}
+		
+		DataOutputStream out = new DataOutputStream(output);
+		
+		// Header
+		out.writeInt(MotorCatalogLoader.MAGIC);
+		out.writeInt(MotorCatalogLoader.VERSION);
+		out.writeInt(list.size());
+		out.writeInt(strings.size());
+		out.writeInt(delayCount);
+		out.writeInt(pointCount);
+		
+		// String table
+		for (String s : strings) {
+			byte[] b = s.getBytes(MotorCatalogLoader.CHARSET);
+			out.writeInt(b.length);
+			out.write(b);
+		}
+		
+		// Motor records
+		int delayOffset = 0;
+		int pointOffset = 0;
+		for (ThrustCurveMotor m : list) {
+			out.writeInt(index(strings, stringIndex, m.getManufacturer().getDisplayName()));
+			out.writeInt(index(strings, stringIndex, m.getDesignation()));
+			out.writeInt(index(strings, stringIndex, m.getDescription()));
+			out.writeInt(index(strings, stringIndex, m.getDigest()));
+			out.writeInt(index(strings, stringIndex, m.getMotorType().name()));
+			out.writeInt(delayOffset);
+			out.writeInt(m.getStandardDelays().length);
+			out.writeInt(pointOffset);
+			out.writeInt(m.getTimePoints().length);
+			out.writeDouble(m.getDiameter());
+			out.writeDouble(m.getLength());
+			delayOffset += m.getStandardDelays().length;
+			pointOffset += m.getTimePoints().length;
+		}
+		
+		// Data arrays
+		for (ThrustCurveMotor m : list) {
+			for (double d : m.getStandardDelays()) {
+				out.writeDouble(d);
+			}
+		}
+		for (ThrustCurveMotor m : list) {
+			for (double t : m.getTimePoints()) {
+				out.writeDouble(t);
+			}
+		}
+		for (ThrustCurveMotor m : list) {
+			for (double f : m.getThrustPoints()) {
+				out.writeDouble(f);
+			}
+		}
+		for (ThrustCurveMotor m : list) {
+			for (Coordinate c : m.getCGPoints()) {
+				out.writeDouble(c.x);
+			}
+		}
+		for (ThrustCurveMotor m : list) {
+			for (Coordinate c : m.getCGPoints()) {
+				out.writeDouble(c.y);
+			}
+		}
+		for (ThrustCurveMotor m : list) {
+			for (Coordinate c : m.getCGPoints()) {
+				out.writeDouble(c.z);
+			}
+		}
+		for (ThrustCurveMotor m : list) {
+			for (Coordinate c : m.getCGPoints()) {
+				out.writeDouble(c.weight);
+			}
+		}
+		
+		out.flush();
+	}
+	
+	
+	/*
+	 * Return the index of a string in the string table, adding it if necessary.
+	 * Null strings are stored as index -1.
+	 */
+	private static int index(List<String> strings, Map<String, Integer> stringIndex, String s) {
+		if (s == null)
+			return -1;
+		Integer index = stringIndex.get(s);
+		if (index == null) {
+			index = strings.size();
+			strings.add(s);
+			stringIndex.put(s, index);
+		}
+		return index;
+	}
+	
+}
@@ -0,0 +1,128 @@
+package net.sf.openrocket.file.openrocket;
+
+import java.io.IOException;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.DoubleBuffer;
+
+import net.sf.openrocket.simulation.FlightDataBranch;
+import net.sf.openrocket.simulation.FlightDataType;
+
+/**
+ * The binary storage format of flight data branches stored as separate entries of an
+ * .ork container.
+ * <p>
+ * An entry consists of a header containing the number of columns and data points,
+ * followed by the values of each column in turn.  The column types are not stored in
+ * the entry, they are listed in the <code>types</code> attribute of the
+ * <code>&lt;databranch&gt;</code> element referencing the entry.
+ * <p>
+ * Values are stored as double precision floats, so that the data is restored exactly as
+ * it was simulated.  The bytes of the values of a column are split into planes of equal
+ * significance, so that the slowly changing sign and exponent bytes of consecutive values
+ * are adjacent and compress well.
+ */
+public class BinaryFlightData {
+	
+	/** The directory of the container in which flight data entries are stored. */
+	public static final String DIRECTORY = "flightdata/";
+	
+	static final int MAGIC = 0x4f524644; // "ORFD"
+	static final int VERSION = 1;
+	
+	private static final int HEADER_SIZE = 4 * 4;
+	
+	
+	private BinaryFlightData() {
+	}
+	
+	
+	/**
+	 * Return the name of the container entry of a flight data branch.
+	 *
+	 * @param simulation	the index of the simulation in the document.
+	 * @param branch		the index of the branch in the flight data.
+	 * @return				the entry name.
+	 */
+	public static String getEntryName(int simulation, int branch) {
+		return DIRECTORY + "simulation" + simulation + "-branch" + branch + ".bin";
+	}
+	
+	
+	/**
+	 * Encode the selected data points of a branch.
+	 *
+	 * @param branch	the branch to encode.
+	 * @param types		the types to store, in the order of the <code>types</code> attribute.
+	 * @param points	the indices of the data points to store.
+	 * @return			the encoded entry.
+	 */
+	public static byte[] encode(FlightDataBranch branch, FlightDataType[] types, int[] points) {
+		int n = points.length;
+		ByteBuffer buf = ByteBuffer.allocate(HEADER_SIZE + types.length * n * 8);
+		buf.putInt(MAGIC);
+		buf.putInt(VERSION);
+		buf.putInt(types.length);
+		buf.putInt(n);
+		
+		byte[] array = buf.array();
+		int offset = HEADER_SIZE;
+		for (FlightDataType type : types) {
+			DoubleBuffer data = branch.getBuffer(type);
+			for (int i = 0; i < n; i++) {
+				long bits = Double.doubleToRawLongBits(data.get(points[i]));
+				for (int b = 0; b < 8; b++) {
+					array[offset + b * n + i] = (byte) (bits >>> (56 - 8 * b));
+				}
+			}
+			offset += 8 * n;
+		}
+		return array;
+	}
+	
+	
+	/**
+	 * Decode an entry and append its data points to a branch.
+	 *
+	 * @param bytes			the encoded entry.
+	 * @param types			the types of the columns, in the order of the <code>types</code> attribute.
+	 * @param branch		the branch to which the points are added.
+	 * @throws IOException	if the entry is invalid or does not match the types.
+	 */
+	public static void decode(byte[] bytes, FlightDataType[] types, FlightDataBranch branch) throws IOException {
+		ByteBuffer buf = ByteBuffer.wrap(bytes);
+		try {
+			if (buf.getInt() != MAGIC) {
+				throw new IOException("Not a flight data entry");
+			}
+			int version = buf.getInt();
+			if (version != VERSION) {
+				throw new IOException("Unsupported flight data entry version " + version);
+			}
+			int columns = buf.getInt();
+			int points = buf.getInt();
+			if (columns != types.length) {
+				throw new IOException("Flight data entry contains " + columns + " columns, expected " + types.length);
+			}
+			if (points < 0 || (long) columns * points * 8 > buf.remaining()) {
+				throw new IOException("Truncated flight data entry");
+			}
+			
+			int offset = buf.position();
+			for (int i = 0; i < points; i++) {
+				branch.addPoint();
+				for (int j = 0; j < columns; j++) {
+					int column = offset + j * 8 * points;
+					long bits = 0;
+					for (int b = 0; b < 8; b++) {
+						bits = (bits << 8) | (bytes[column + b * points + i] & 0xff);
+					}
+					branch.setValue(types[j], Double.longBitsToDouble(bits));
+				}
+			}
+		} catch (BufferUnderflowException e) {
+			throw new IOException("Truncated flight data entry", e);
+		}
+	}
+	
+}
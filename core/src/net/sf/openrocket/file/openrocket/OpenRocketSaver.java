@@ -5,10 +5,15 @@ import java.io.IOException;
 import java.io.OutputStream;
 import java.io.OutputStreamWriter;
 import java.io.Writer;
-import java.util.ArrayList;
+import java.nio.DoubleBuffer;
+import java.util.Arrays;
+import java.util.IdentityHashMap;
 import java.util.Iterator;
 import java.util.List;
 import java.util.Locale;
+import java.util.Map;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipOutputStream;
 
 import net.sf.openrocket.aerodynamics.Warning;
 import net.sf.openrocket.document.OpenRocketDocument;
@@ -64,11 +69,58 @@ public class OpenRocketSaver extends RocketSaver {
 	private static final int BYTES_PER_COMPONENT_COMPRESSED = 80;
 	private static final int BYTES_PER_SIMULATION_COMPRESSED = 100;
 	private static final int BYTES_PER_DATAPOINT_COMPRESSED = 100;
+	private static final int BYTES_PER_BINARY_VALUE_COMPRESSED = 4;
 	
 	
 	private int indent;
 	private Writer dest;
 	
+	/** The container entries of the branches written by saveFlightData */
+	private final Map<FlightDataBranch, String> flightDataEntries = new IdentityHashMap<FlightDataBranch, String>();
+	
+	
+	/**
+	 * Write the flight data of the document as binary entries of a zip container, if
+	 * binary flight data is selected in the storage options.  The next call to
+	 * {@link #save(OutputStream, OpenRocketDocument, StorageOptions)} references the
+	 * written entries instead of storing the data points in the XML.
+	 * <p>
+	 * The entries must precede the document entry in the container, since the loader
+	 * reads the container sequentially.
+	 * 
+	 * @param zos		the container to write to.
+	 * @param document	the document whose flight data to write.
+	 * @param options	the storage options.
+	 * @throws IOException	in case of an I/O error.
+	 */
+	public void saveFlightData(ZipOutputStream zos, OpenRocketDocument document, StorageOptions options)
+			throws IOException {
+		flightDataEntries.clear();
+		if (!options.isBinaryFlightData())
+			return;
+		
+		int index = 0;
+		for (Simulation s : document.getSimulations()) {
+			double timeSkip = getTimeSkip(s, options.getSimulationTimeSkip());
+			FlightData data = s.getSimulatedData();
+			if (data != null && timeSkip != StorageOptions.SIMULATION_DATA_NONE) {
+				for (int i = 0; i < data.getBranchCount(); i++) {
+					FlightDataBranch branch = data.getBranch(i);
+					if (branch == null || branch.getTypes().length == 0)
+						continue;
+					
+					String name = BinaryFlightData.getEntryName(index, i);
+					zos.putNextEntry(new ZipEntry(name));
+					zos.write(BinaryFlightData.encode(branch, branch.getTypes(), selectDataPoints(branch, timeSkip)));
+					zos.closeEntry();
+					flightDataEntries.put(branch, name);
+				}
+			}
+			index++;
+		}
+		log.debug("Wrote " + flightDataEntries.size() + " binary flight data entries");
+	}
+	
 	@Override
 	public void save(OutputStream output, OpenRocketDocument document, StorageOptions options) throws IOException {
 		
@@ -117,6 +169,7 @@ public class OpenRocketSaver extends RocketSaver {
 		
 		log.debug("Writing complete, flushing buffers");
 		dest.flush();
+		flightDataEntries.clear();
 	}
 	
 	/*
@@ -179,20 +232,28 @@ public class OpenRocketSaver extends RocketSaver {
 		
 		
 		// Size per flight data point
-		int pointCount = 0;
+		long pointSize = 0;
 		double timeSkip = options.getSimulationTimeSkip();
 		if (timeSkip != StorageOptions.SIMULATION_DATA_NONE) {
 			for (Simulation s : doc.getSimulations()) {
 				FlightData data = s.getSimulatedData();
 				if (data != null) {
 					for (int i = 0; i < data.getBranchCount(); i++) {
-						pointCount += countFlightDataBranchPoints(data.getBranch(i), timeSkip);
+						FlightDataBranch branch = data.getBranch(i);
+						if (branch == null)
+							continue;
+						int points = selectDataPoints(branch, timeSkip).length;
+						if (options.isBinaryFlightData()) {
+							pointSize += points * branch.getTypes().length * BYTES_PER_BINARY_VALUE_COMPRESSED;
+						} else {
+							pointSize += points * BYTES_PER_DATAPOINT_COMPRESSED;
+						}
 					}
 				}
 			}
 		}
 		
-		size += pointCount * BYTES_PER_DATAPOINT_COMPRESSED;
+		size += pointSize;
 		
 		return size;
 	}
@@ -222,6 +283,9 @@ public class OpenRocketSaver extends RocketSaver {
 		/*
 		 * NOTE:  Remember to update the supported versions in DocumentConfig as well!
 		 * 
+		 * File version 1.8 is required for:
+		 *  - binary flight data entries
+		 * 
 		 * File version 1.7 is required for:
 		 *  - simulation extensions
 		 *  - saving tube fins.
@@ -245,6 +309,13 @@ public class OpenRocketSaver extends RocketSaver {
 		 * Otherwise use version 1.0.
 		 */
 		
+		/////////////////
+		// Version 1.8 // 
+		/////////////////
+		if (!flightDataEntries.isEmpty()) {
+			return FILE_VERSION_DIVISOR + 8;
+		}
+		
 		/////////////////
 		// Version 1.7 // 
 		/////////////////
@@ -527,8 +598,7 @@ public class OpenRocketSaver extends RocketSaver {
 			}
 			
 			// Check whether to store data
-			if (simulation.getStatus() == Simulation.Status.EXTERNAL) // Always store external data
-				timeSkip = 0;
+			timeSkip = getTimeSkip(simulation, timeSkip);
 			
 			if (timeSkip != StorageOptions.SIMULATION_DATA_NONE) {
 				for (int i = 0; i < data.getBranchCount(); i++) {
@@ -582,7 +652,6 @@ public class OpenRocketSaver extends RocketSaver {
 	
 	private void saveFlightDataBranch(FlightDataBranch branch, double timeSkip)
 			throws IOException {
-		double previousTime = -100000;
 		
 		if (branch == null)
 			return;
@@ -593,13 +662,6 @@ public class OpenRocketSaver extends RocketSaver {
 		if (types.length == 0)
 			return;
 		
-		// Retrieve the data from the branch
-		List<List<Double>> data = new ArrayList<List<Double>>(types.length);
-		for (int i = 0; i < types.length; i++) {
-			data.add(branch.get(types[i]));
-		}
-		List<Double> timeData = branch.get(FlightDataType.TYPE_TIME);
-		
 		// Build the <databranch> tag
 		StringBuilder sb = new StringBuilder();
 		sb.append("<databranch name=\"");
@@ -628,6 +690,13 @@ public class OpenRocketSaver extends RocketSaver {
 			sb.append("\" ");
 		}
 		
+		String entry = flightDataEntries.get(branch);
+		if (entry != null) {
+			sb.append("datafile=\"");
+			sb.append(TextUtil.escapeXML(entry));
+			sb.append("\" ");
+		}
+		
 		sb.append("types=\"");
 		for (int i = 0; i < types.length; i++) {
 			if (i > 0)
@@ -644,85 +713,79 @@ public class OpenRocketSaver extends RocketSaver {
 					+ "\" type=\"" + enumToXMLName(event.getType()) + "\"/>");
 		}
 		
-		// Write the data
-		int length = branch.getLength();
-		if (length > 0) {
-			writeDataPointString(data, 0, sb);
-			previousTime = timeData.get(0);
-		}
-		
-		for (int i = 1; i < length - 1; i++) {
-			if (timeData != null) {
-				if (Math.abs(timeData.get(i) - previousTime - timeSkip) < Math.abs(timeData.get(i + 1) - previousTime - timeSkip)) {
-					writeDataPointString(data, i, sb);
-					previousTime = timeData.get(i);
-				}
-			} else {
-				// If time data is not available, write all points
-				writeDataPointString(data, i, sb);
+		// Write the data, unless it is stored in a binary entry
+		if (entry == null) {
+			DoubleBuffer[] data = new DoubleBuffer[types.length];
+			for (int i = 0; i < types.length; i++) {
+				data[i] = branch.getBuffer(types[i]);
+			}
+			for (int point : selectDataPoints(branch, timeSkip)) {
+				writeDataPointString(data, point, sb);
 			}
-		}
-		
-		if (length > 1) {
-			writeDataPointString(data, length - 1, sb);
 		}
 		
 		indent--;
 		writeln("</databranch>");
 	}
 	
-	/* TODO: LOW: This is largely duplicated from above! */
-	private int countFlightDataBranchPoints(FlightDataBranch branch, double timeSkip) {
-		int count = 0;
-		
-		double previousTime = -100000;
-		
-		if (branch == null)
-			return 0;
-		
-		// Retrieve the types from the branch
-		FlightDataType[] types = branch.getTypes();
-		
-		if (types.length == 0)
-			return 0;
+	
+	/**
+	 * Select the data points of a branch to store.  Points are selected at intervals of
+	 * approximately timeSkip seconds, the first and last points are always included.
+	 * If the branch contains no time data, all points are selected.
+	 */
+	private static int[] selectDataPoints(FlightDataBranch branch, double timeSkip) {
+		int length = branch.getLength();
+		DoubleBuffer timeData = branch.getBuffer(FlightDataType.TYPE_TIME);
 		
-		List<Double> timeData = branch.get(FlightDataType.TYPE_TIME);
+		int[] points = new int[length];
 		if (timeData == null) {
-			// If time data not available, store all points
-			return branch.getLength();
+			// If time data is not available, store all points
+			for (int i = 0; i < length; i++) {
+				points[i] = i;
+			}
+			return points;
 		}
 		
-		// Write the data
-		int length = branch.getLength();
+		int count = 0;
+		double previousTime = -100000;
+		
 		if (length > 0) {
-			count++;
+			points[count++] = 0;
 			previousTime = timeData.get(0);
 		}
 		
 		for (int i = 1; i < length - 1; i++) {
 			if (Math.abs(timeData.get(i) - previousTime - timeSkip) < Math.abs(timeData.get(i + 1) - previousTime - timeSkip)) {
-				count++;
+				points[count++] = i;
 				previousTime = timeData.get(i);
 			}
 		}
 		
 		if (length > 1) {
-			count++;
+			points[count++] = length - 1;
 		}
 		
-		return count;
+		return Arrays.copyOf(points, count);
 	}
 	
 	
+	private static double getTimeSkip(Simulation simulation, double timeSkip) {
+		// Always store external data
+		if (simulation.getStatus() == Simulation.Status.EXTERNAL)
+			return 0;
+		return timeSkip;
+	}
 	
-	private void writeDataPointString(List<List<Double>> data, int index, StringBuilder sb)
+	
+	private void writeDataPointString(DoubleBuffer[] data, int index, StringBuilder sb)
 			throws IOException {
 		sb.setLength(0);
 		sb.append("<datapoint>");
-		for (int j = 0; j < data.size(); j++) {
+		for (int j = 0; j < data.length; j++) {
 			if (j > 0)
 				sb.append(",");
-			sb.append(TextUtil.doubleToString(data.get(j).get(index)));
+			sb.append(TextUtil.doubleToString(data[j].get(index)));
 		}
 		sb.append("</datapoint>");
 		writeln(sb.toString());
@@ -739,15 +802,12 @@ public class OpenRocketSaver extends RocketSaver {
 	
 	
 	private void writeln(String str) throws IOException {
-		if (str.length() == 0) {
-			dest.write("\n");
-			return;
+		if (str.length() > 0) {
+			for (int i = 0; i < indent; i++)
+				dest.write("  ");
+			dest.write(str);
 		}
-		String s = "";
-		for (int i = 0; i < indent; i++)
-			s = s + "  ";
-		s = s + str + "\n";
-		dest.write(s);
+		dest.write('\n');
 	}
 	
 	
@@ -0,0 +1,145 @@
+package net.sf.openrocket.file.openrocket.importt;
+
+import java.nio.charset.Charset;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import net.sf.openrocket.aerodynamics.Warning;
+import net.sf.openrocket.aerodynamics.WarningSet;
+import net.sf.openrocket.simulation.FlightData;
+import net.sf.openrocket.simulation.FlightDataBranch;
+import net.sf.openrocket.simulation.FlightDataType;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Decodes the data points of the flight data branches of a simulation when they are
+ * first accessed.
+ * <p>
+ * The raw text of the <code>&lt;datapoint&gt;</code> elements of a branch is retained
+ * in a single byte array indexed by the byte offsets of the rows, binary flight data
+ * entries are retained as read from the container.  Both take less memory than the
+ * decoded branch, and the parsing cost is only paid for simulations whose data is used.
+ */
+class DeferredBranchLoader implements FlightData.BranchLoader {
+	private static final Logger log = LoggerFactory.getLogger(DeferredBranchLoader.class);
+	
+	private static final Charset ASCII = Charset.forName("US-ASCII");
+	
+	private final List<Branch> branches = new ArrayList<Branch>();
+	
+	
+	public void add(Branch branch) {
+		branches.add(branch);
+	}
+	
+	public boolean isEmpty() {
+		return branches.isEmpty();
+	}
+	
+	@Override
+	public int getBranchCount() {
+		return branches.size();
+	}
+	
+	@Override
+	public List<FlightDataBranch> loadBranches() {
+		WarningSet warnings = new WarningSet();
+		List<FlightDataBranch> list = new ArrayList<FlightDataBranch>(branches.size());
+		for (Branch b : branches) {
+			list.add(b.decode(warnings));
+		}
+		branches.clear();
+		
+		for (Warning w : warnings) {
+			log.warn("Problem decoding flight data: " + w);
+		}
+		return list;
+	}
+	
+	
+	/**
+	 * The undecoded data points of a single branch.
+	 */
+	static class Branch {
+		private final FlightDataBranch branch;
+		private final FlightDataType[] types;
+		
+		private byte[] text = new byte[0];
+		private int textLength = 0;
+		private int[] rowOffsets = new int[0];
+		private int rowCount = 0;
+		
+		private String entryName = null;
+		private byte[] entry = null;
+		
+		/**
+		 * @param branch	the branch to which the data points are added, containing the events.
+		 * @param types		the types of the values, in the order they are stored.
+		 */
+		public Branch(FlightDataBranch branch, FlightDataType[] types) {
+			this.branch = branch;
+			this.types = types;
+		}
+		
+		/**
+		 * Retain the content of a <code>&lt;datapoint&gt;</code> element.
+		 */
+		public void addRow(String content) {
+			int length = content.length();
+			if (textLength + length > text.length) {
+				text = Arrays.copyOf(text, Math.max(textLength + length, text.length * 2));
+			}
+			if (rowCount == rowOffsets.length) {
+				rowOffsets = Arrays.copyOf(rowOffsets, Math.max(64, rowOffsets.length * 2));
+			}
+			
+			// Data points only contain ASCII characters
+			for (int i = 0; i < length; i++) {
+				text[textLength + i] = (byte) content.charAt(i);
+			}
+			rowOffsets[rowCount++] = textLength;
+			textLength += length;
+		}
+		
+		/**
+		 * Retain a binary flight data entry.
+		 */
+		public void setEntry(String name, byte[] bytes) {
+			this.entryName = name;
+			this.entry = bytes;
+		}
+		
+		public boolean hasData() {
+			return rowCount > 0 || entry != null;
+		}
+		
+		/**
+		 * Release the unused space once all rows have been added.
+		 */
+		public void trim() {
+			text = Arrays.copyOf(text, textLength);
+			rowOffsets = Arrays.copyOf(rowOffsets, rowCount);
+		}
+		
+		public FlightDataBranch decode(WarningSet warnings) {
+			if (entry != null) {
+				FlightDataBranchHandler.decodeEntry(entryName, entry, types, branch, warnings);
+			}
+			
+			for (int i = 0; i < rowCount; i++) {
+				int start = rowOffsets[i];
+				int end = (i + 1 < rowCount) ? rowOffsets[i + 1] : textLength;
+				FlightDataBranchHandler.addDataPoint(new String(text, start, end - start, ASCII), types, branch, warnings);
+			}
+			
+			text = null;
+			rowOffsets = null;
+			entry = null;
+			return branch;
+		}
+	}
+	
+}
@@ -1,9 +1,11 @@
 package net.sf.openrocket.file.openrocket.importt;
 
+import java.io.IOException;
 import java.util.HashMap;
 
 import net.sf.openrocket.aerodynamics.WarningSet;
 import net.sf.openrocket.file.DocumentLoadingContext;
+import net.sf.openrocket.file.openrocket.BinaryFlightData;
 import net.sf.openrocket.file.simplesax.AbstractElementHandler;
 import net.sf.openrocket.file.simplesax.ElementHandler;
 import net.sf.openrocket.file.simplesax.PlainTextHandler;
@@ -18,11 +20,13 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 class FlightDataBranchHandler extends AbstractElementHandler {
-	@SuppressWarnings("unused")
 	private final DocumentLoadingContext context;
 	private final FlightDataType[] types;
 	private final FlightDataBranch branch;
 	
+	/** The retained data points when decoding is deferred, or null */
+	private final DeferredBranchLoader.Branch deferred;
+	
 	private static final Logger log = LoggerFactory.getLogger(FlightDataBranchHandler.class);
 	private final SingleSimulationHandler simHandler;
 	
@@ -40,6 +44,12 @@ class FlightDataBranchHandler extends AbstractElementHandler {
 		
 		// TODO: LOW: May throw an IllegalArgumentException
 		branch = new FlightDataBranch(name, types);
+		
+		if (context.isLazySimulationData()) {
+			deferred = new DeferredBranchLoader.Branch(branch, types);
+		} else {
+			deferred = null;
+		}
 	}
 	
 	/**
@@ -92,6 +102,36 @@ class FlightDataBranchHandler extends AbstractElementHandler {
 		return FlightDataType.getType(name, "Unknown", UnitGroup.UNITS_NONE);
 	}
 	
+	/**
+	 * Read the data points of the branch from a binary flight data entry.
+	 * 
+	 * @param name		the name of the entry.
+	 * @param warnings	the warning set to which problems are added.
+	 */
+	public void readDataFile(String name, WarningSet warnings) {
+		byte[] bytes = context.getFlightData(name);
+		if (bytes == null) {
+			warnings.add("Flight data entry '" + name + "' not found, ignoring flight data.");
+			return;
+		}
+		if (deferred != null) {
+			deferred.setEntry(name, bytes);
+		} else {
+			decodeEntry(name, bytes, types, branch, warnings);
+		}
+	}
+	
+	/**
+	 * Return the retained data points of the branch if decoding is deferred and the
+	 * branch contains data, otherwise <code>null</code>.
+	 */
+	public DeferredBranchLoader.Branch getDeferredBranch() {
+		if (deferred == null || !deferred.hasData())
+			return null;
+		deferred.trim();
+		return deferred;
+	}
+	
 	public FlightDataBranch getBranch() {
 		branch.immute();
 		return branch;
@@ -142,7 +182,26 @@ class FlightDataBranchHandler extends AbstractElementHandler {
 		}
 		
 		// element == "datapoint"
-		
+		if (deferred != null) {
+			deferred.addRow(content);
+		} else {
+			addDataPoint(content, types, branch, warnings);
+		}
+	}
+	
+	
+	static void decodeEntry(String name, byte[] bytes, FlightDataType[] types, FlightDataBranch branch,
+			WarningSet warnings) {
+		try {
+			BinaryFlightData.decode(bytes, types, branch);
+		} catch (IOException e) {
+			warnings.add("Invalid flight data entry '" + name + "': " + e.getMessage() + ", ignoring flight data.");
+		}
+	}
+	
+	
+	static void addDataPoint(String content, FlightDataType[] types, FlightDataBranch branch,
+			WarningSet warnings) {
 		
 		// Check line format
 		String[] split = content.split(",");
@@ -19,6 +19,7 @@ class FlightDataHandler extends AbstractElementHandler {
 	private FlightDataBranchHandler dataHandler;
 	private WarningSet warningSet = new WarningSet();
 	private List<FlightDataBranch> branches = new ArrayList<FlightDataBranch>();
+	private DeferredBranchLoader deferred = new DeferredBranchLoader();
 	
 	private SingleSimulationHandler simHandler;
 	private FlightData data;
@@ -78,6 +79,15 @@ class FlightDataHandler extends AbstractElementHandler {
 			String content, WarningSet warnings) {
 		
 		if (element.equals("databranch")) {
+			String dataFile = attributes.get("datafile");
+			if (dataFile != null) {
+				dataHandler.readDataFile(dataFile, warnings);
+			}
+			DeferredBranchLoader.Branch deferredBranch = dataHandler.getDeferredBranch();
+			if (deferredBranch != null) {
+				deferred.add(deferredBranch);
+				return;
+			}
 			FlightDataBranch branch = dataHandler.getBranch();
 			if (branch.getLength() > 0) {
 				branches.add(branch);
@@ -92,6 +102,15 @@ class FlightDataHandler extends AbstractElementHandler {
 	public void endHandler(String element, HashMap<String, String> attributes,
 			String content, WarningSet warnings) {
 		
+		// Summary values are computed from the data if they are not stored
+		if (!deferred.isEmpty() && attributes.get("maxaltitude") == null) {
+			for (FlightDataBranch branch : deferred.loadBranches()) {
+				if (branch.getLength() > 0) {
+					branches.add(branch);
+				}
+			}
+		}
+		
 		if (branches.size() > 0) {
 			data = new FlightData(branches.toArray(new FlightDataBranch[0]));
 		} else {
@@ -145,6 +164,9 @@ class FlightDataHandler extends AbstractElementHandler {
 			
 			data = new FlightData(maxAltitude, maxVelocity, maxAcceleration, maxMach,
 					timeToApogee, flightTime, groundHitVelocity, launchRodVelocity, deploymentVelocity);
+			if (!deferred.isEmpty()) {
+				data.setBranchLoader(deferred);
+			}
 		}
 		
 		data.getWarningSet().addAll(warningSet);
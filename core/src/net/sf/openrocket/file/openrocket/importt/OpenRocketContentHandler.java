@@ -9,6 +9,8 @@ import net.sf.openrocket.file.DocumentLoadingContext;
 import net.sf.openrocket.file.simplesax.AbstractElementHandler;
 import net.sf.openrocket.file.simplesax.ElementHandler;
 
+import org.xml.sax.SAXException;
+
 /**
  * Handles the content of the <openrocket> tag.
  */
@@ -41,6 +43,9 @@ class OpenRocketContentHandler extends AbstractElementHandler {
 				return null;
 			}
 			rocketDefined = true;
+			
+			// Combine the change events of building the rocket into a single event
+			getDocument().getRocket().freeze();
 			return new ComponentParameterHandler(getDocument().getRocket(), context);
 		}
 		
@@ -68,4 +73,15 @@ class OpenRocketContentHandler extends AbstractElementHandler {
 		
 		return null;
 	}
-}
\ No newline at end of file
+	
+	@Override
+	public void closeElement(String element, HashMap<String, String> attributes,
+			String content, WarningSet warnings) throws SAXException {
+		super.closeElement(element, attributes, content, warnings);
+		
+		// The rocket must be thawed before the simulations referencing it are created
+		if (element.equals("rocket") && getDocument().getRocket().isFrozen()) {
+			getDocument().getRocket().thaw();
+		}
+	}
+}
@@ -51,6 +51,11 @@ public class OpenRocketLoader extends AbstractRocketLoader {
 		} catch (SAXException e) {
 			log.warn("Malformed XML in input");
 			throw new RocketLoadException("Malformed XML in input.", e);
+		} finally {
+			// The rocket is frozen while the <rocket> element is read, thaw it if reading failed before its end
+			if (doc.getRocket().isFrozen()) {
+				doc.getRocket().thaw();
+			}
 		}
 		
 		doc.getDefaultConfiguration().setAllStages();
@@ -65,6 +70,11 @@ public class OpenRocketLoader extends AbstractRocketLoader {
 				continue;
 			if (s.getSimulatedData().getBranchCount() == 0)
 				continue;
+			if (!s.getSimulatedData().isLoaded()) {
+				// Keep all retained points instead of decoding the data for deducing the time skip
+				timeSkip = StorageOptions.SIMULATION_DATA_ALL;
+				break;
+			}
 			FlightDataBranch branch = s.getSimulatedData().getBranch(0);
 			if (branch == null)
 				continue;
@@ -81,6 +91,7 @@ public class OpenRocketLoader extends AbstractRocketLoader {
 		}
 		timeSkip = Math.rint(timeSkip * 100) / 100;
 		doc.getDefaultStorageOptions().setSimulationTimeSkip(timeSkip);
+		doc.getDefaultStorageOptions().setBinaryFlightData(context.getFileVersion() >= 108);
 		doc.getDefaultStorageOptions().setExplicitlySet(false);
 		doc.getDefaultStorageOptions().setFileType(FileType.OPENROCKET);
 		
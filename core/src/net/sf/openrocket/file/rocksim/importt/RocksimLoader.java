@@ -14,6 +14,7 @@ import net.sf.openrocket.file.AbstractRocketLoader;
 import net.sf.openrocket.file.DocumentLoadingContext;
 import net.sf.openrocket.file.RocketLoadException;
 import net.sf.openrocket.file.simplesax.SimpleSAX;
+import net.sf.openrocket.rocketcomponent.Rocket;
 
 /**
  * This class is the main entry point for Rocksim design file imported to OpenRocket.  Currently only Rocksim v9
@@ -45,10 +46,15 @@ public class RocksimLoader extends AbstractRocketLoader {
 		
 		RocksimHandler handler = new RocksimHandler(context);
 		
+		// Combine the change events of building the rocket into a single event
+		Rocket rocket = context.getOpenRocketDocument().getRocket();
+		rocket.freeze();
 		try {
 			SimpleSAX.readXML(xmlSource, handler, warnings);
 		} catch (SAXException e) {
 			throw new RocketLoadException("Malformed XML in input.", e);
+		} finally {
+			rocket.thaw();
 		}
 		
 		context.getOpenRocketDocument().setFile(null);
@@ -26,7 +26,8 @@ import org.xml.sax.helpers.XMLReaderFactory;
  */
 public class SimpleSAX {
 
-	static final XMLReaderCache cache = new XMLReaderCache(10);
+	// Keep a reader for each thread of a batch load
+	static final XMLReaderCache cache = new XMLReaderCache(Math.max(10, Runtime.getRuntime().availableProcessors()));
 
 	/**
 	 * Read a simple XML file.
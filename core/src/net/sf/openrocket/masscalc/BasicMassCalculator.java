@@ -4,6 +4,7 @@ import static net.sf.openrocket.util.MathUtil.pow2;
 
 import java.util.HashMap;
 import java.util.Iterator;
+import java.util.LinkedHashMap;
 import java.util.Map;
 
 import net.sf.openrocket.motor.Motor;
@@ -20,6 +21,23 @@ public class BasicMassCalculator extends AbstractMassCalculator {
 	
 	private static final double MIN_MASS = 0.001 * MathUtil.EPSILON;
 	
+	/** Maximum number of rockets whose stage data is shared between calculators. */
+	private static final int STAGE_CACHE_SIZE = 16;
+	
+	/**
+	 * Stage data shared by all calculators, keyed by the mass and tree modification IDs
+	 * of the rocket.  The IDs are unique over all rockets and are retained by rocket copies,
+	 * so the simulations of a batch over copies of a rocket compute the stage data only once.
+	 */
+	@SuppressWarnings("serial")
+	private static final Map<String, StageCache> stageCaches =
+			new LinkedHashMap<String, StageCache>(16, 0.75f, true) {
+				@Override
+				protected boolean removeEldestEntry(Map.Entry<String, StageCache> eldest) {
+					return size() > STAGE_CACHE_SIZE;
+				}
+			};
+	
 
 	/*
 	 * Cached data.  All CG data is in absolute coordinates.  All moments of inertia
@@ -29,6 +47,19 @@ public class BasicMassCalculator extends AbstractMassCalculator {
 	private double longitudinalInertiaCache[] = null;
 	private double rotationalInertiaCache[] = null;
 	
+	/*
+	 * The mass data of the latest motor instance configuration.  The simulation steppers
+	 * query the mass data several times between steps of the motors, so the data is
+	 * reused as long as the configuration and the motors are unchanged.
+	 */
+	private Configuration motorCacheConfiguration = null;
+	private int motorCacheConfigurationModID = -1;
+	private MotorInstanceConfiguration motorCacheMotors = null;
+	private int motorCacheMotorsModID = -1;
+	private Coordinate motorCacheCG = null;
+	private double motorCacheLongitudinalInertia;
+	private double motorCacheRotationalInertia;
+	
 	
 
 	//////////////////  Mass property calculations  ///////////////////
@@ -84,8 +115,14 @@ public class BasicMassCalculator extends AbstractMassCalculator {
 	@Override
 	public Coordinate getCG(Configuration configuration, MotorInstanceConfiguration motors) {
 		checkCache(configuration);
-		calculateStageCache(configuration);
-		
+		calculateMotorCache(configuration, motors);
+		return motorCacheCG;
+	}
+	
+	/*
+	 * Calculate the CG of the rocket with the provided motor configuration.
+	 */
+	private Coordinate calculateCG(Configuration configuration, MotorInstanceConfiguration motors) {
 		Coordinate totalCG = getCG(configuration, MassCalcType.NO_MOTORS);
 		
 		// Add motor CGs
@@ -115,9 +152,15 @@ public class BasicMassCalculator extends AbstractMassCalculator {
 	@Override
 	public double getLongitudinalInertia(Configuration configuration, MotorInstanceConfiguration motors) {
 		checkCache(configuration);
-		calculateStageCache(configuration);
-		
-		final Coordinate totalCG = getCG(configuration, motors);
+		calculateMotorCache(configuration, motors);
+		return motorCacheLongitudinalInertia;
+	}
+	
+	/*
+	 * Calculate the longitudinal inertia of the rocket relative to the CG totalCG.
+	 */
+	private double calculateLongitudinalInertia(Configuration configuration, MotorInstanceConfiguration motors,
+			Coordinate totalCG) {
 		double totalInertia = 0;
 		
 		// Stages
@@ -159,9 +202,15 @@ public class BasicMassCalculator extends AbstractMassCalculator {
 	@Override
 	public double getRotationalInertia(Configuration configuration, MotorInstanceConfiguration motors) {
 		checkCache(configuration);
-		calculateStageCache(configuration);
-		
-		final Coordinate totalCG = getCG(configuration, motors);
+		calculateMotorCache(configuration, motors);
+		return motorCacheRotationalInertia;
+	}
+	
+	/*
+	 * Calculate the rotational inertia of the rocket relative to the CG totalCG.
+	 */
+	private double calculateRotationalInertia(Configuration configuration, MotorInstanceConfiguration motors,
+			Coordinate totalCG) {
 		double totalInertia = 0;
 		
 		// Stages
@@ -239,24 +288,57 @@ public class BasicMassCalculator extends AbstractMassCalculator {
 	private void calculateStageCache(Configuration config) {
 		if (cgCache == null) {
 			
-			int stages = config.getRocket().getStageCount();
-			
-			cgCache = new Coordinate[stages];
-			longitudinalInertiaCache = new double[stages];
-			rotationalInertiaCache = new double[stages];
+			String key = config.getRocket().getMassModID() + ":" + config.getRocket().getTreeModID();
+			StageCache cache;
+			synchronized (stageCaches) {
+				cache = stageCaches.get(key);
+			}
 			
-			for (int i = 0; i < stages; i++) {
-				RocketComponent stage = config.getRocket().getChild(i);
-				MassData data = calculateAssemblyMassData(stage);
-				cgCache[i] = stage.toAbsolute(data.cg)[0];
-				longitudinalInertiaCache[i] = data.longitudinalInertia;
-				rotationalInertiaCache[i] = data.rotationalInetria;
+			if (cache == null) {
+				int stages = config.getRocket().getStageCount();
+				
+				cache = new StageCache(stages);
+				for (int i = 0; i < stages; i++) {
+					RocketComponent stage = config.getRocket().getChild(i);
+					MassData data = calculateAssemblyMassData(stage);
+					cache.cg[i] = stage.toAbsolute(data.cg)[0];
+					cache.longitudinalInertia[i] = data.longitudinalInertia;
+					cache.rotationalInertia[i] = data.rotationalInetria;
+				}
+				
+				synchronized (stageCaches) {
+					stageCaches.put(key, cache);
+				}
 			}
 			
+			cgCache = cache.cg;
+			longitudinalInertiaCache = cache.longitudinalInertia;
+			rotationalInertiaCache = cache.rotationalInertia;
 		}
 	}
 	
 	
+	private void calculateMotorCache(Configuration configuration, MotorInstanceConfiguration motors) {
+		if (motorCacheCG != null && configuration == motorCacheConfiguration &&
+				configuration.getModID() == motorCacheConfigurationModID &&
+				motors == motorCacheMotors &&
+				(motors == null || motors.getModID() == motorCacheMotorsModID)) {
+			return;
+		}
+		
+		calculateStageCache(configuration);
+		
+		motorCacheCG = calculateCG(configuration, motors);
+		motorCacheLongitudinalInertia = calculateLongitudinalInertia(configuration, motors, motorCacheCG);
+		motorCacheRotationalInertia = calculateRotationalInertia(configuration, motors, motorCacheCG);
+		
+		motorCacheConfiguration = configuration;
+		motorCacheConfigurationModID = configuration.getModID();
+		motorCacheMotors = motors;
+		motorCacheMotorsModID = (motors == null) ? -1 : motors.getModID();
+	}
+	
+	
 
 	/**
 	 * Returns the mass and inertia data for this component and all subcomponents.
@@ -349,6 +431,22 @@ public class BasicMassCalculator extends AbstractMassCalculator {
 		public double rotationalInetria = 0;
 	}
 	
+	/**
+	 * The mass data of the stages of a rocket.  The arrays are not modified after
+	 * the data has been computed.
+	 */
+	private static class StageCache {
+		public final Coordinate[] cg;
+		public final double[] longitudinalInertia;
+		public final double[] rotationalInertia;
+		
+		public StageCache(int stages) {
+			cg = new Coordinate[stages];
+			longitudinalInertia = new double[stages];
+			rotationalInertia = new double[stages];
+		}
+	}
+	
 	
 	@Override
 	protected void voidMassCache() {
@@ -356,6 +454,9 @@ public class BasicMassCalculator extends AbstractMassCalculator {
 		this.cgCache = null;
 		this.longitudinalInertiaCache = null;
 		this.rotationalInertiaCache = null;
+		this.motorCacheCG = null;
+		this.motorCacheConfiguration = null;
+		this.motorCacheMotors = null;
 	}
 	
 	
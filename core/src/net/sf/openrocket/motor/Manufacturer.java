@@ -261,6 +261,21 @@ public class Manufacturer implements Serializable {
 		return m;
 	}
 	
+	/**
+	 * Returns the known manufacturer matching the given name, or <code>null</code> if no
+	 * manufacturer matches it.  Unlike {@link #getManufacturer(String)} this does not
+	 * create a new manufacturer for unknown names.  Manufacturer names are unique, so
+	 * the returned manufacturer is the only one for which {@link #matches(String)} is true.
+	 * 
+	 * @param name	the manufacturer name to search for.
+	 * @return		the Manufacturer object corresponding the name, or <code>null</code>.
+	 */
+	public static Manufacturer findManufacturer(String name) {
+		if (name == null)
+			return null;
+		return manufacturers.get(generateSearchString(name));
+	}
+	
 	private static String generateSearchString(String str) {
 		return str.toLowerCase(Locale.getDefault()).replaceAll("[^a-zA-Z0-9]+", " ").trim();
 	}
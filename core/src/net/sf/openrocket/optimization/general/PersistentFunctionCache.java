@@ -0,0 +1,381 @@
+package net.sf.openrocket.optimization.general;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+import net.sf.openrocket.optimization.general.PointIndex.Entry;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * A ParallelFunctionCache that keeps the computed function values in a spatial index
+ * and delegates the computation of new values to another ParallelFunctionCache.
+ * <p>
+ * A point is considered already computed if a stored point lies within the snapping
+ * tolerance of each of its coordinates, so points differing only by floating-point
+ * noise reuse the same value.  The stored values can be saved to and loaded from a
+ * file, allowing a repeated or resumed optimization to skip evaluations it has already
+ * made.  Each file is associated with a key identifying the function, and values stored
+ * for a different key are never loaded.
+ * <p>
+ * Each value may be stored with details describing it, for example the quantities from
+ * which the function value was computed.  The details are provided using
+ * {@link #putDetails(Point, double...)} while the function is evaluated.  When a stored
+ * value is used for a point for the first time, the {@link ReuseListener} is notified
+ * with the details, so that the information normally produced by the evaluation can be
+ * reproduced.
+ * <p>
+ * As with {@link ParallelExecutorCache}, the public methods are not thread-safe and
+ * should be called from only one thread at a time.
+ */
+public class PersistentFunctionCache implements ParallelFunctionCache {
+	
+	private static final Logger log = LoggerFactory.getLogger(PersistentFunctionCache.class);
+	
+	private static final int MAGIC = 0x4f524643; // "ORFC"
+	private static final int VERSION = 2;
+	
+	private final ParallelFunctionCache delegate;
+	private final double tolerance;
+	private final PointIndex index = new PointIndex();
+	
+	/** Details of evaluated points whose values have not yet been stored. */
+	private final ConcurrentHashMap<Point, double[]> pendingDetails = new ConcurrentHashMap<Point, double[]>();
+	
+	/** Points whose values have been computed or reported to the listener. */
+	private final Set<Point> reported = new HashSet<Point>();
+	private ReuseListener listener = null;
+	
+	
+	/**
+	 * Sole constructor.
+	 * 
+	 * @param delegate		the cache used to compute values not found in this cache.
+	 * @param tolerance		the snapping tolerance of each point coordinate.
+	 */
+	public PersistentFunctionCache(ParallelFunctionCache delegate, double tolerance) {
+		if (!(tolerance >= 0)) {
+			throw new IllegalArgumentException("Invalid tolerance " + tolerance);
+		}
+		this.delegate = delegate;
+		this.tolerance = tolerance;
+	}
+	
+	
+	@Override
+	public void compute(Collection<Point> points) {
+		for (Point p : points) {
+			compute(p);
+		}
+	}
+	
+	@Override
+	public void compute(Point point) {
+		if (reuse(point) != null) {
+			return;
+		}
+		delegate.compute(point);
+	}
+	
+	
+	@Override
+	public void waitFor(Collection<Point> points) throws InterruptedException, OptimizationException {
+		for (Point p : points) {
+			waitFor(p);
+		}
+	}
+	
+	@Override
+	public void waitFor(Point point) throws InterruptedException, OptimizationException {
+		if (reuse(point) != null) {
+			return;
+		}
+		delegate.waitFor(point);
+		store(point, delegate.getValue(point));
+	}
+	
+	
+	@Override
+	public List<Point> abort(Collection<Point> points) {
+		List<Point> computed = new ArrayList<Point>(Math.min(points.size(), 10));
+		for (Point p : points) {
+			if (abort(p)) {
+				computed.add(p);
+			}
+		}
+		return computed;
+	}
+	
+	@Override
+	public boolean abort(Point point) {
+		if (reuse(point) != null) {
+			return true;
+		}
+		if (delegate.abort(point)) {
+			store(point, delegate.getValue(point));
+			return true;
+		}
+		return false;
+	}
+	
+	@Override
+	public void abortAll() {
+		delegate.abortAll();
+	}
+	
+	
+	@Override
+	public double getValue(Point point) {
+		Entry entry = reuse(point);
+		if (entry != null) {
+			return entry.value;
+		}
+		double value = delegate.getValue(point);
+		store(point, value);
+		return value;
+	}
+	
+	
+	@Override
+	public Function getFunction() {
+		return delegate.getFunction();
+	}
+	
+	@Override
+	public void setFunction(Function function) {
+		delegate.setFunction(function);
+		clear();
+	}
+	
+	@Override
+	public void clearCache() {
+		delegate.clearCache();
+		clear();
+	}
+	
+	private void clear() {
+		index.clear();
+		pendingDetails.clear();
+		reported.clear();
+	}
+	
+	
+	public ParallelFunctionCache getDelegate() {
+		return delegate;
+	}
+	
+	public double getTolerance() {
+		return tolerance;
+	}
+	
+	public ReuseListener getReuseListener() {
+		return listener;
+	}
+	
+	/**
+	 * Set the listener notified when a stored value is used for a point that has not been
+	 * computed or reported in this session.  The listener is called on the thread using
+	 * this cache.
+	 */
+	public void setReuseListener(ReuseListener listener) {
+		this.listener = listener;
+	}
+	
+	
+	/**
+	 * Provide the details of the value of a point, which are stored along with the value
+	 * once it is computed.  Unlike the other methods, this method is thread-safe and is
+	 * meant to be called from the threads evaluating the function.
+	 * 
+	 * @param point		the evaluated point.
+	 * @param details	the details of the value.
+	 */
+	public void putDetails(Point point, double... details) {
+		pendingDetails.put(point, details.clone());
+	}
+	
+	/**
+	 * Return the number of function values stored in this cache.
+	 */
+	public int size() {
+		return index.size();
+	}
+	
+	
+	/**
+	 * Load function values from a file written by {@link #save(File, String)}.  If the file
+	 * does not exist or was written for a different key, no values are loaded.
+	 * 
+	 * @param file		the file to load.
+	 * @param key		the key identifying the function of this cache.
+	 * @return			the number of function values loaded.
+	 * @throws IOException	if an I/O error occurs or the file is not a valid cache file.
+	 */
+	public int load(File file, String key) throws IOException {
+		if (!file.isFile()) {
+			return 0;
+		}
+		
+		DataInputStream in = new DataInputStream(new BufferedInputStream(new FileInputStream(file)));
+		try {
+			if (in.readInt() != MAGIC) {
+				throw new IOException("Not a function cache file: " + file);
+			}
+			int version = in.readInt();
+			if (version != VERSION) {
+				throw new IOException("Unsupported function cache version " + version + ": " + file);
+			}
+			String fileKey = in.readUTF();
+			if (!fileKey.equals(key)) {
+				log.info("Function cache file " + file + " has a different key, ignoring it");
+				return 0;
+			}
+			
+			int dim = in.readInt();
+			int count = in.readInt();
+			if (dim <= 0 || count < 0) {
+				throw new IOException("Invalid function cache file: " + file);
+			}
+			for (int i = 0; i < count; i++) {
+				double[] values = new double[dim];
+				for (int j = 0; j < dim; j++) {
+					values[j] = in.readDouble();
+				}
+				double value = in.readDouble();
+				int detailCount = in.readInt();
+				if (detailCount < 0) {
+					throw new IOException("Invalid function cache file: " + file);
+				}
+				double[] details = new double[detailCount];
+				for (int j = 0; j < detailCount; j++) {
+					details[j] = in.readDouble();
+				}
+				index.put(new Point(values), value, details);
+			}
+			log.debug("Loaded " + count + " function values from " + file);
+			return count;
+		} finally {
+			in.close();
+		}
+	}
+	
+	
+	/**
+	 * Save the function values of this cache to a file.  The file is first written to a
+	 * temporary file, which then replaces the previous file.
+	 * 
+	 * @param file		the file to write.
+	 * @param key		the key identifying the function of this cache.
+	 * @throws IOException	if an I/O error occurs.
+	 */
+	public void save(File file, String key) throws IOException {
+		List<Entry> entries = index.getEntries();
+		int dim = entries.isEmpty() ? 1 : entries.get(0).point.dim();
+		
+		File tmp = new File(file.getPath() + ".tmp");
+		DataOutputStream out = new DataOutputStream(new BufferedOutputStream(new FileOutputStream(tmp)));
+		try {
+			out.writeInt(MAGIC);
+			out.writeInt(VERSION);
+			out.writeUTF(key);
+			out.writeInt(dim);
+			out.writeInt(entries.size());
+			for (Entry e : entries) {
+				for (int j = 0; j < dim; j++) {
+					out.writeDouble(e.point.get(j));
+				}
+				out.writeDouble(e.value);
+				out.writeInt(e.details.length);
+				for (double d : e.details) {
+					out.writeDouble(d);
+				}
+			}
+		} finally {
+			out.close();
+		}
+		
+		if (file.exists() && !file.delete()) {
+			tmp.delete();
+			throw new IOException("Unable to replace function cache file " + file);
+		}
+		if (!tmp.renameTo(file)) {
+			throw new IOException("Unable to rename " + tmp + " to " + file);
+		}
+		log.debug("Saved " + entries.size() + " function values to " + file);
+	}
+	
+	
+	/*
+	 * Points outside the optimization range are never stored, the delegate handles them.
+	 */
+	private Entry lookup(Point point) {
+		if (isOutsideRange(point)) {
+			return null;
+		}
+		return index.find(point, tolerance);
+	}
+	
+	/*
+	 * Look up a point and notify the listener if the value is used for the first time.
+	 */
+	private Entry reuse(Point point) {
+		Entry entry = lookup(point);
+		if (entry != null && reported.add(point) && listener != null) {
+			listener.valueReused(point, entry.value, entry.details.clone());
+			// The listener may cause details to be provided for the point
+			pendingDetails.remove(point);
+		}
+		return entry;
+	}
+	
+	private void store(Point point, double value) {
+		double[] details = pendingDetails.remove(point);
+		if (!isOutsideRange(point)) {
+			reported.add(point);
+			index.put(point, value, (details != null) ? details : new double[0]);
+		}
+	}
+	
+	private static boolean isOutsideRange(Point p) {
+		int n = p.dim();
+		for (int i = 0; i < n; i++) {
+			double d = p.get(i);
+			// Include NaN in disallowed range
+			if (!(d >= 0.0 && d <= 1.0)) {
+				return true;
+			}
+		}
+		return false;
+	}
+	
+	
+	/**
+	 * A listener notified when a stored function value is used instead of evaluating
+	 * the function.
+	 */
+	public interface ReuseListener {
+		
+		/**
+		 * Called when a stored value is used for a point.
+		 * 
+		 * @param point		the point for which the value is used.
+		 * @param value		the function value.
+		 * @param details	the details stored with the value, or an empty array if none.
+		 */
+		public void valueReused(Point point, double value, double[] details);
+	}
+	
+}
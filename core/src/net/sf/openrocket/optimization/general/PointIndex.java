@@ -0,0 +1,187 @@
+package net.sf.openrocket.optimization.general;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * A k-d tree of function values indexed by their points.  The index supports finding
+ * the nearest stored point within a tolerance of a point, measured as the maximum
+ * difference of any coordinate.
+ * <p>
+ * This class is not thread-safe.
+ */
+final class PointIndex {
+	
+	private final List<Entry> entries = new ArrayList<Entry>();
+	private Node root = null;
+	
+	
+	/**
+	 * Add a point and its value to the index.  If the exact point is already in the index,
+	 * its value is replaced.
+	 */
+	void put(Point point, double value) {
+		put(point, value, new double[0]);
+	}
+	
+	/**
+	 * Add a point, its value and the details of the value to the index.  If the exact
+	 * point is already in the index, its value is replaced.
+	 */
+	void put(Point point, double value, double[] details) {
+		Entry entry = new Entry(point, value, details);
+		if (root == null) {
+			root = new Node(entry, 0);
+			entries.add(entry);
+			return;
+		}
+		
+		Node node = root;
+		while (true) {
+			if (node.entry.point.equals(point)) {
+				entries.set(entries.indexOf(node.entry), entry);
+				node.entry = entry;
+				return;
+			}
+			int axis = node.axis;
+			int nextAxis = (axis + 1) % point.dim();
+			if (point.get(axis) < node.entry.point.get(axis)) {
+				if (node.left == null) {
+					node.left = new Node(entry, nextAxis);
+					break;
+				}
+				node = node.left;
+			} else {
+				if (node.right == null) {
+					node.right = new Node(entry, nextAxis);
+					break;
+				}
+				node = node.right;
+			}
+		}
+		entries.add(entry);
+	}
+	
+	
+	/**
+	 * Return the entry nearest to a point whose coordinates all differ from it by at most
+	 * the given tolerance.
+	 * 
+	 * @param point			the point to look up.
+	 * @param tolerance		the maximum difference of each coordinate.
+	 * @return				the nearest entry, or <code>null</code> if no entry is within the tolerance.
+	 */
+	Entry find(Point point, double tolerance) {
+		if (root == null || root.entry.point.dim() != point.dim()) {
+			return null;
+		}
+		Search search = new Search(point, tolerance);
+		search.visit(root);
+		return search.best;
+	}
+	
+	
+	/**
+	 * Return the entries of the index in the order they were added.
+	 */
+	List<Entry> getEntries() {
+		return Collections.unmodifiableList(entries);
+	}
+	
+	int size() {
+		return entries.size();
+	}
+	
+	void clear() {
+		entries.clear();
+		root = null;
+	}
+	
+	
+	/**
+	 * A point, its function value and the details of the value.
+	 */
+	static final class Entry {
+		final Point point;
+		final double value;
+		final double[] details;
+		
+		Entry(Point point, double value, double[] details) {
+			this.point = point;
+			this.value = value;
+			this.details = details;
+		}
+	}
+	
+	
+	private static final class Node {
+		private Entry entry;
+		private final int axis;
+		private Node left;
+		private Node right;
+		
+		Node(Entry entry, int axis) {
+			this.entry = entry;
+			this.axis = axis;
+		}
+	}
+	
+	
+	private static final class Search {
+		private final Point point;
+		private double radius;
+		private Entry best = null;
+		
+		Search(Point point, double tolerance) {
+			this.point = point;
+			this.radius = tolerance;
+		}
+		
+		/*
+		 * Iterative depth-first search, as the tree is not balanced and may be deep.
+		 * Each pending node is stored with the distance of the point to its splitting plane.
+		 */
+		void visit(Node root) {
+			ArrayDeque<Node> nodes = new ArrayDeque<Node>();
+			ArrayDeque<Double> planes = new ArrayDeque<Double>();
+			nodes.push(root);
+			planes.push(0.0);
+			
+			while (!nodes.isEmpty()) {
+				Node node = nodes.pop();
+				if (planes.pop() > radius)
+					continue;
+				
+				double distance = distance(node.entry.point);
+				if (distance <= radius) {
+					best = node.entry;
+					radius = distance;
+				}
+				
+				// Search the side containing the point first
+				double diff = point.get(node.axis) - node.entry.point.get(node.axis);
+				Node near = (diff < 0) ? node.left : node.right;
+				Node far = (diff < 0) ? node.right : node.left;
+				if (far != null) {
+					nodes.push(far);
+					planes.push(Math.abs(diff));
+				}
+				if (near != null) {
+					nodes.push(near);
+					planes.push(0.0);
+				}
+			}
+		}
+		
+		private double distance(Point other) {
+			double max = 0;
+			for (int i = 0; i < point.dim(); i++) {
+				max = Math.max(max, Math.abs(point.get(i) - other.get(i)));
+			}
+			return max;
+		}
+	}
+	
+}
@@ -0,0 +1,341 @@
+package net.sf.openrocket.optimization.general.multidim;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import net.sf.openrocket.optimization.general.FunctionCache;
+import net.sf.openrocket.optimization.general.FunctionOptimizer;
+import net.sf.openrocket.optimization.general.OptimizationController;
+import net.sf.openrocket.optimization.general.OptimizationException;
+import net.sf.openrocket.optimization.general.ParallelFunctionCache;
+import net.sf.openrocket.optimization.general.Point;
+import net.sf.openrocket.util.Statistics;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * A population-based optimizer implementing the differential evolution algorithm of
+ * Storn and Price (DE/rand/1/bin).
+ * <p>
+ * Each generation creates one trial point for every member of the population and
+ * schedules all of them for computation at once, so the function cache can evaluate
+ * as many points in parallel as the population size.  This makes the algorithm suitable
+ * for machines with many processors, while the pattern search of
+ * {@link MultidirectionalSearchOptimizer} evaluates only a few points at a time.
+ * <p>
+ * The search is bounded to the range [0...1] of each coordinate.  The controller is
+ * called after every generation, with the step size being the largest extent of the
+ * population along any coordinate.  The optimization can be aborted by interrupting
+ * the current thread.
+ */
+public class DifferentialEvolutionOptimizer implements FunctionOptimizer, Statistics {
+	private static final Logger log = LoggerFactory.getLogger(DifferentialEvolutionOptimizer.class);
+	
+	/** The default population size per dimension */
+	private static final int POPULATION_PER_DIMENSION = 10;
+	
+	private ParallelFunctionCache functionExecutor;
+	
+	private int populationSize = 0;
+	private double differentialWeight = 0.7;
+	private double crossoverProbability = 0.9;
+	private Random random = new Random();
+	
+	private Point optimum = null;
+	
+	private int generationCount = 0;
+	private int evaluationCount = 0;
+	private int trialAcceptance = 0;
+	private int optimumImprovement = 0;
+	
+	
+	public DifferentialEvolutionOptimizer() {
+		// No-op
+	}
+	
+	public DifferentialEvolutionOptimizer(ParallelFunctionCache functionCache) {
+		this.functionExecutor = functionCache;
+	}
+	
+	
+	@Override
+	public void optimize(Point initial, OptimizationController control) throws OptimizationException {
+		final int dim = initial.dim();
+		final int size = getPopulationSize(dim);
+		log.info("Starting optimization at " + initial + " with population size " + size);
+		
+		optimum = null;
+		List<Point> population = new ArrayList<Point>(size);
+		double[] values = new double[size];
+		List<Point> trials = new ArrayList<Point>(size);
+		
+		try {
+			
+			// The initial point and random points in the search range
+			population.add(clamp(initial));
+			while (population.size() < size) {
+				double[] p = new double[dim];
+				for (int i = 0; i < dim; i++) {
+					p[i] = random.nextDouble();
+				}
+				population.add(new Point(p));
+			}
+			
+			functionExecutor.compute(population);
+			functionExecutor.waitFor(population);
+			evaluationCount += size;
+			
+			int best = 0;
+			for (int i = 0; i < size; i++) {
+				values[i] = functionExecutor.getValue(population.get(i));
+				if (values[i] < values[best]) {
+					best = i;
+				}
+			}
+			optimum = population.get(best);
+			
+			boolean continueOptimization = true;
+			while (continueOptimization) {
+				generationCount++;
+				Point previous = optimum;
+				double previousValue = values[best];
+				
+				// Create and schedule the trial points of the whole generation
+				trials.clear();
+				for (int i = 0; i < size; i++) {
+					trials.add(createTrial(population, i));
+				}
+				functionExecutor.compute(trials);
+				
+				// Select the better of each target and trial point
+				for (int i = 0; i < size; i++) {
+					Point trial = trials.get(i);
+					functionExecutor.waitFor(trial);
+					double value = functionExecutor.getValue(trial);
+					if (value <= values[i]) {
+						population.set(i, trial);
+						values[i] = value;
+						trialAcceptance++;
+						if (value < values[best]) {
+							best = i;
+						}
+					}
+				}
+				evaluationCount += size;
+				
+				optimum = population.get(best);
+				if (values[best] < previousValue) {
+					optimumImprovement++;
+				}
+				
+				log.debug("Generation " + generationCount + " optimum " + optimum + " value=" + values[best]);
+				continueOptimization = control.stepTaken(previous, previousValue, optimum, values[best],
+						getExtent(population));
+				
+				if (Thread.interrupted()) {
+					throw new InterruptedException();
+				}
+			}
+			
+		} catch (InterruptedException e) {
+			log.info("Optimization was interrupted with InterruptedException");
+			functionExecutor.abortAll();
+		}
+		
+		if (optimum != null) {
+			log.info("Finishing optimization at point " + optimum + " value = " +
+					functionExecutor.getValue(optimum));
+		}
+		log.info("Optimization statistics: " + getStatistics());
+	}
+	
+	
+	/*
+	 * Create the trial point of a target by mutating three other random members of
+	 * the population and crossing the mutant over with the target.
+	 */
+	private Point createTrial(List<Point> population, int target) {
+		int size = population.size();
+		int a, b, c;
+		do {
+			a = random.nextInt(size);
+		} while (a == target);
+		do {
+			b = random.nextInt(size);
+		} while (b == target || b == a);
+		do {
+			c = random.nextInt(size);
+		} while (c == target || c == a || c == b);
+		
+		Point x = population.get(target);
+		Point pa = population.get(a);
+		Point pb = population.get(b);
+		Point pc = population.get(c);
+		
+		int dim = x.dim();
+		int forced = random.nextInt(dim);
+		double[] trial = new double[dim];
+		for (int i = 0; i < dim; i++) {
+			if (i == forced || random.nextDouble() < crossoverProbability) {
+				double v = pa.get(i) + differentialWeight * (pb.get(i) - pc.get(i));
+				
+				// Move coordinates outside the range halfway towards the bound
+				if (v < 0) {
+					v = x.get(i) / 2;
+				} else if (v > 1) {
+					v = (x.get(i) + 1) / 2;
+				}
+				trial[i] = v;
+			} else {
+				trial[i] = x.get(i);
+			}
+		}
+		return new Point(trial);
+	}
+	
+	
+	/*
+	 * Return the largest extent of the population along any coordinate.
+	 */
+	private static double getExtent(List<Point> population) {
+		double extent = 0;
+		int dim = population.get(0).dim();
+		for (int i = 0; i < dim; i++) {
+			double min = Double.MAX_VALUE;
+			double max = -Double.MAX_VALUE;
+			for (Point p : population) {
+				min = Math.min(min, p.get(i));
+				max = Math.max(max, p.get(i));
+			}
+			extent = Math.max(extent, max - min);
+		}
+		return extent;
+	}
+	
+	private static Point clamp(Point p) {
+		double[] values = p.asArray();
+		for (int i = 0; i < values.length; i++) {
+			if (!(values[i] >= 0)) {
+				values[i] = 0;
+			} else if (values[i] > 1) {
+				values[i] = 1;
+			}
+		}
+		return new Point(values);
+	}
+	
+	
+	private int getPopulationSize(int dim) {
+		if (populationSize > 0) {
+			return populationSize;
+		}
+		return Math.max(POPULATION_PER_DIMENSION * dim, Math.max(Runtime.getRuntime().availableProcessors(), 4));
+	}
+	
+	
+	/**
+	 * Return the population size, or zero if the size is selected automatically.
+	 */
+	public int getPopulationSize() {
+		return populationSize;
+	}
+	
+	/**
+	 * Set the population size, which is the number of points evaluated in parallel
+	 * during each generation.  By default the population size is ten times the
+	 * dimensionality, or the number of processors if larger.
+	 * 
+	 * @param populationSize	the population size (at least 4), or zero to select it automatically.
+	 */
+	public void setPopulationSize(int populationSize) {
+		if (populationSize != 0 && populationSize < 4) {
+			throw new IllegalArgumentException("Population size must be at least 4, was " + populationSize);
+		}
+		this.populationSize = populationSize;
+	}
+	
+	public double getDifferentialWeight() {
+		return differentialWeight;
+	}
+	
+	/**
+	 * Set the differential weight used to scale the difference vector of the mutation.
+	 * 
+	 * @param differentialWeight	the weight, between 0 and 2.  The default is 0.7.
+	 */
+	public void setDifferentialWeight(double differentialWeight) {
+		if (!(differentialWeight > 0 && differentialWeight <= 2)) {
+			throw new IllegalArgumentException("Invalid differential weight " + differentialWeight);
+		}
+		this.differentialWeight = differentialWeight;
+	}
+	
+	public double getCrossoverProbability() {
+		return crossoverProbability;
+	}
+	
+	/**
+	 * Set the probability of taking each coordinate from the mutant instead of the target.
+	 * 
+	 * @param crossoverProbability	the probability, between 0 and 1.  The default is 0.9.
+	 */
+	public void setCrossoverProbability(double crossoverProbability) {
+		if (!(crossoverProbability >= 0 && crossoverProbability <= 1)) {
+			throw new IllegalArgumentException("Invalid crossover probability " + crossoverProbability);
+		}
+		this.crossoverProbability = crossoverProbability;
+	}
+	
+	/**
+	 * Set the seed of the random number generator, making the optimization reproducible.
+	 */
+	public void setSeed(long seed) {
+		this.random = new Random(seed);
+	}
+	
+	
+	@Override
+	public Point getOptimumPoint() {
+		if (optimum == null) {
+			throw new IllegalStateException("Optimization has not been called, population is empty");
+		}
+		return optimum;
+	}
+	
+	@Override
+	public double getOptimumValue() {
+		return functionExecutor.getValue(getOptimumPoint());
+	}
+	
+	@Override
+	public FunctionCache getFunctionCache() {
+		return functionExecutor;
+	}
+	
+	@Override
+	public void setFunctionCache(FunctionCache functionCache) {
+		if (!(functionCache instanceof ParallelFunctionCache)) {
+			throw new IllegalArgumentException("Function cache needs to be a ParallelFunctionCache: " + functionCache);
+		}
+		this.functionExecutor = (ParallelFunctionCache) functionCache;
+	}
+	
+	@Override
+	public String getStatistics() {
+		return "DifferentialEvolutionOptimizer[generationCount=" + generationCount +
+				", evaluationCount=" + evaluationCount +
+				", trialAcceptance=" + trialAcceptance +
+				", optimumImprovement=" + optimumImprovement + "]";
+	}
+	
+	@Override
+	public void resetStatistics() {
+		generationCount = 0;
+		evaluationCount = 0;
+		trialAcceptance = 0;
+		optimumImprovement = 0;
+	}
+	
+}
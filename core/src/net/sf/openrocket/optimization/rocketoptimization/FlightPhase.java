@@ -0,0 +1,42 @@
+package net.sf.openrocket.optimization.rocketoptimization;
+
+import net.sf.openrocket.simulation.listeners.SimulationListener;
+import net.sf.openrocket.simulation.listeners.system.ApogeeEndListener;
+import net.sf.openrocket.simulation.listeners.system.RecoveryDeviceDeploymentEndListener;
+
+/**
+ * The phase of flight up to which a rocket flight must be simulated in order to
+ * compute the value of an optimization parameter.
+ */
+public enum FlightPhase {
+	
+	/** No flight simulation is required. */
+	NONE(null),
+	
+	/** The flight is simulated until the first recovery device is deployed. */
+	RECOVERY_DEPLOYMENT(RecoveryDeviceDeploymentEndListener.INSTANCE),
+	
+	/** The flight is simulated until apogee. */
+	APOGEE(ApogeeEndListener.INSTANCE),
+	
+	/** The whole flight is simulated until landing. */
+	LANDING(null);
+	
+	
+	private final SimulationListener endListener;
+	
+	private FlightPhase(SimulationListener endListener) {
+		this.endListener = endListener;
+	}
+	
+	/**
+	 * Return the system listener that ends the simulation at the end of this phase.
+	 * 
+	 * @return	a listener ending the simulation, or <code>null</code> if the simulation
+	 * 			runs until it ends normally.
+	 */
+	public SimulationListener getEndListener() {
+		return endListener;
+	}
+	
+}
@@ -32,6 +32,16 @@ public interface OptimizableParameter {
 	public double computeValue(Simulation simulation) throws OptimizationException, InterruptedException;
 	
 	
+	/**
+	 * Return the phase of flight up to which the flight must be simulated to compute
+	 * the value of this parameter.  The simulation may be ended at the end of this phase.
+	 * 
+	 * @return	the required flight phase, or {@link FlightPhase#NONE} if the value is
+	 * 			computed without simulating the flight.
+	 */
+	public FlightPhase getRequiredFlightPhase();
+	
+	
 	/**
 	 * Return the unit group associated with the computed value.
 	 * @return	the unit group of the computed value.
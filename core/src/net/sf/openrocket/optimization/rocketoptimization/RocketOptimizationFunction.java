@@ -1,20 +1,34 @@
 package net.sf.openrocket.optimization.rocketoptimization;
 
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.Charset;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
 import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.Iterator;
 import java.util.List;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import net.sf.openrocket.document.OpenRocketDocument;
+import net.sf.openrocket.document.OpenRocketDocumentFactory;
 import net.sf.openrocket.document.Simulation;
+import net.sf.openrocket.document.StorageOptions;
+import net.sf.openrocket.file.openrocket.OpenRocketSaver;
 import net.sf.openrocket.optimization.general.Function;
 import net.sf.openrocket.optimization.general.OptimizationException;
 import net.sf.openrocket.optimization.general.Point;
 import net.sf.openrocket.rocketcomponent.Rocket;
+import net.sf.openrocket.rocketcomponent.RocketComponent;
 import net.sf.openrocket.unit.UnitGroup;
 import net.sf.openrocket.unit.Value;
+import net.sf.openrocket.util.BugException;
+import net.sf.openrocket.util.BuildProperties;
 import net.sf.openrocket.util.Pair;
+import net.sf.openrocket.util.TextUtil;
 
 /**
  * A Function that optimizes a specific RocketOptimizationParameter to some goal
@@ -27,6 +41,9 @@ public class RocketOptimizationFunction implements Function {
 	
 	private static final double OUTSIDE_DOMAIN_SCALE = 1.0e200;
 	
+	/** Version of the cache key, to be incremented when the key or the values change. */
+	private static final int CACHE_KEY_VERSION = 1;
+	
 	/*
 	 * NOTE:  This class must be thread-safe!!!
 	 */
@@ -77,16 +94,7 @@ public class RocketOptimizationFunction implements Function {
 		log.debug("Computing optimization function value at point " + point);
 		
 		// Create the new simulation based on the point
-		double[] p = point.asArray();
-		if (p.length != modifiers.length) {
-			throw new IllegalArgumentException("Point has length " + p.length + " while function has " +
-					modifiers.length + " simulation modifiers");
-		}
-		
-		Simulation simulation = newSimulationInstance(baseSimulation);
-		for (int i = 0; i < modifiers.length; i++) {
-			modifiers[i].modify(simulation, p[i]);
-		}
+		Simulation simulation = newSimulationInstance(point);
 		
 
 		// Check whether the point is within the simulation domain
@@ -130,6 +138,130 @@ public class RocketOptimizationFunction implements Function {
 
 
 
+	/**
+	 * Notify the listeners of a function value that was obtained without evaluating the
+	 * function, for example from a persistent cache.  The modified simulation and its
+	 * domain reference value are computed again, but the flight is not simulated.
+	 * 
+	 * @param point				the point of the value.
+	 * @param goalValue			the goal function value at the point.
+	 * @param parameterValue	the parameter value at the point in SI units, or NaN if it
+	 * 							was not computed.
+	 * @throws OptimizationException	if a modifier fails to modify the simulation.
+	 */
+	public void fireCachedEvaluation(Point point, double goalValue, double parameterValue)
+			throws OptimizationException {
+		
+		if (listeners.isEmpty()) {
+			return;
+		}
+		
+		Simulation simulation = newSimulationInstance(point);
+		Value referenceValue = domain.getDistanceToDomain(simulation).getV();
+		Value value = null;
+		if (!Double.isNaN(parameterValue)) {
+			value = new Value(parameterValue, parameter.getUnitGroup().getDefaultUnit());
+		}
+		fireEvent(simulation, point, referenceValue, value, goalValue);
+	}
+	
+	
+	/**
+	 * Return a key identifying the values of this function.  The key is a digest of the
+	 * rocket design and simulation options of the base simulation, the optimized parameter
+	 * and its settings, the goal, the domain and the modifiers including their ranges.  Two
+	 * functions with the same key produce the same values, also in different sessions, so
+	 * the key can be used to store function values persistently.  The key also contains
+	 * the software version, since the computed values may change between versions.
+	 * <p>
+	 * The values controlled by the modifiers are excluded from the design, so the key
+	 * does not change when the base simulation is updated to the optimized values.
+	 * 
+	 * @return	a key identifying the values of this function.
+	 * @throws OptimizationException	if a modifier fails to modify the simulation.
+	 */
+	public String getCacheKey() throws OptimizationException {
+		MessageDigest digest;
+		try {
+			digest = MessageDigest.getInstance("SHA-1");
+		} catch (NoSuchAlgorithmException e) {
+			throw new BugException("SHA-1 digest not supported by JRE", e);
+		}
+		
+		// The rocket design and simulation options as stored in a design file
+		Simulation simulation = newSimulationInstance(baseSimulation);
+		for (SimulationModifier m : modifiers) {
+			m.modify(simulation, 0.0);
+		}
+		OpenRocketDocument document = OpenRocketDocumentFactory.createDocumentFromRocket(simulation.getRocket());
+		document.addSimulation(simulation);
+		ByteArrayOutputStream design = new ByteArrayOutputStream();
+		try {
+			new OpenRocketSaver().save(design, document, new StorageOptions());
+		} catch (IOException e) {
+			throw new BugException("Unable to write design to memory", e);
+		}
+		digest.update(design.toByteArray());
+		
+		StringBuilder sb = new StringBuilder();
+		sb.append(CACHE_KEY_VERSION).append('|').append(BuildProperties.getVersion()).append('\n');
+		sb.append(parameter.getClass().getName()).append('|').append(parameter).append('\n');
+		sb.append(goal).append('\n');
+		sb.append(domain).append('\n');
+		for (SimulationModifier m : modifiers) {
+			sb.append(m.getClass().getName()).append('|');
+			sb.append(m.getName()).append('|');
+			sb.append(m.getDescription()).append('|');
+			sb.append(getRelatedObjectKey(m.getRelatedObject())).append('|');
+			sb.append(m.getMinValue()).append('|');
+			sb.append(m.getMaxValue()).append('\n');
+		}
+		digest.update(sb.toString().getBytes(Charset.forName("UTF-8")));
+		
+		return TextUtil.hexString(digest.digest());
+	}
+	
+	
+	/*
+	 * Component IDs are not stored in design files, so components are identified by their
+	 * position in the rocket structure.
+	 */
+	private String getRelatedObjectKey(Object related) {
+		if (related instanceof RocketComponent) {
+			String id = ((RocketComponent) related).getID();
+			int position = 0;
+			synchronized (baseSimulation) {
+				Iterator<RocketComponent> iterator = baseSimulation.getRocket().iterator(true);
+				while (iterator.hasNext()) {
+					if (iterator.next().getID().equals(id)) {
+						return "component " + position;
+					}
+					position++;
+				}
+			}
+		}
+		return String.valueOf(related);
+	}
+	
+	
+	/**
+	 * Returns a new copy of the base simulation modified to the values of a point.
+	 */
+	private Simulation newSimulationInstance(Point point) throws OptimizationException {
+		double[] p = point.asArray();
+		if (p.length != modifiers.length) {
+			throw new IllegalArgumentException("Point has length " + p.length + " while function has " +
+					modifiers.length + " simulation modifiers");
+		}
+		
+		Simulation simulation = newSimulationInstance(baseSimulation);
+		for (int i = 0; i < modifiers.length; i++) {
+			modifiers[i].modify(simulation, p[i]);
+		}
+		return simulation;
+	}
+	
+	
 	/**
 	 * Returns a new deep copy of the simulation and rocket.  This methods performs
 	 * synchronization on the simulation for thread protection.
@@ -136,4 +136,10 @@ public class StabilityDomain implements SimulationDomain {
 		
 		return new Pair<Double, Value>(0.0, desc);
 	}
+	
+	@Override
+	public String toString() {
+		return "StabilityDomain[minimum=" + minimum + ", minAbsolute=" + minAbsolute + ", maximum=" + maximum +
+				", maxAbsolute=" + maxAbsolute + "]";
+	}
 }
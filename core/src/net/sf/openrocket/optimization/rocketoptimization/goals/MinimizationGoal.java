@@ -15,4 +15,9 @@ public class MinimizationGoal implements OptimizationGoal {
 		return value;
 	}
 	
+	@Override
+	public String toString() {
+		return "MinimizationGoal";
+	}
+	
 }
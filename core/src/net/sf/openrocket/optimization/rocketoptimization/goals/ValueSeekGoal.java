@@ -27,4 +27,9 @@ public class ValueSeekGoal implements OptimizationGoal {
 		return Math.abs(value - goal);
 	}
 	
+	@Override
+	public String toString() {
+		return "ValueSeekGoal[goal=" + goal + "]";
+	}
+	
 }
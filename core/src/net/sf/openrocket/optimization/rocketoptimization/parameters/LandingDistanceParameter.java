@@ -1,10 +1,13 @@
 package net.sf.openrocket.optimization.rocketoptimization.parameters;
 
 import net.sf.openrocket.l10n.Translator;
+import net.sf.openrocket.optimization.rocketoptimization.FlightPhase;
 import net.sf.openrocket.simulation.FlightData;
+import net.sf.openrocket.simulation.FlightDataBranch;
 import net.sf.openrocket.simulation.FlightDataType;
 import net.sf.openrocket.startup.Application;
 import net.sf.openrocket.unit.UnitGroup;
+import net.sf.openrocket.util.MathUtil;
 
 /**
  * An optimization parameter that computes the distance where a rocket lands.
@@ -20,9 +23,17 @@ public class LandingDistanceParameter extends SimulationBasedParameter {
 		return trans.get("name");
 	}
 	
+	@Override
+	public FlightPhase getRequiredFlightPhase() {
+		return FlightPhase.LANDING;
+	}
+	
 	@Override
 	protected double getResultValue(FlightData simulatedData) {
-		return simulatedData.getBranch(0).getLast(FlightDataType.TYPE_POSITION_XY);
+		// The horizontal distance is computed only as extra data
+		FlightDataBranch branch = simulatedData.getBranch(0);
+		return MathUtil.hypot(branch.getLast(FlightDataType.TYPE_POSITION_X),
+				branch.getLast(FlightDataType.TYPE_POSITION_Y));
 	}
 	
 	@Override
@@ -1,10 +1,9 @@
 package net.sf.openrocket.optimization.rocketoptimization.parameters;
 
 import net.sf.openrocket.l10n.Translator;
+import net.sf.openrocket.optimization.rocketoptimization.FlightPhase;
 import net.sf.openrocket.simulation.FlightData;
 import net.sf.openrocket.simulation.FlightDataType;
-import net.sf.openrocket.simulation.listeners.SimulationListener;
-import net.sf.openrocket.simulation.listeners.system.ApogeeEndListener;
 import net.sf.openrocket.startup.Application;
 import net.sf.openrocket.unit.UnitGroup;
 
@@ -23,8 +22,8 @@ public class MaximumAltitudeParameter extends SimulationBasedParameter {
 	}
 	
 	@Override
-	protected SimulationListener[] getSimulationListeners() {
-		return new SimulationListener[] { new ApogeeEndListener() };
+	public FlightPhase getRequiredFlightPhase() {
+		return FlightPhase.APOGEE;
 	}
 	
 	@Override
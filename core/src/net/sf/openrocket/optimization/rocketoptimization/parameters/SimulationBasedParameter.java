@@ -7,6 +7,7 @@ import org.slf4j.LoggerFactory;
 
 import net.sf.openrocket.document.Simulation;
 import net.sf.openrocket.optimization.general.OptimizationException;
+import net.sf.openrocket.optimization.rocketoptimization.FlightPhase;
 import net.sf.openrocket.optimization.rocketoptimization.OptimizableParameter;
 import net.sf.openrocket.simulation.FlightData;
 import net.sf.openrocket.simulation.exception.MotorIgnitionException;
@@ -20,6 +21,10 @@ import net.sf.openrocket.simulation.listeners.system.InterruptListener;
 /**
  * An abstract optimization parameter that simulates a rocket flight and obtains
  * a value from the simulation result.
+ * <p>
+ * The simulation is ended at the end of the flight phase required by the parameter,
+ * and the extra flight data is computed only if required by the parameter.  The
+ * calculate extras option of the simulated simulation is modified accordingly.
  * 
  * @author Sampo Niskanen <sampo.niskanen@iki.fi>
  */
@@ -33,8 +38,15 @@ public abstract class SimulationBasedParameter implements OptimizableParameter {
 			log.debug("Running simulation for " + getName());
 			
 			SimulationListener[] listeners = getSimulationListeners();
+			SimulationListener endListener = getRequiredFlightPhase().getEndListener();
+			if (endListener != null) {
+				listeners = Arrays.copyOf(listeners, listeners.length + 1);
+				listeners[listeners.length - 1] = endListener;
+			}
 			listeners = Arrays.copyOf(listeners, listeners.length + 1);
 			listeners[listeners.length - 1] = new InterruptListener();
+			
+			simulation.getOptions().setCalculateExtras(isExtraDataRequired());
 			simulation.simulate(listeners);
 			
 			double value = getResultValue(simulation.getSimulatedData());
@@ -68,11 +80,21 @@ public abstract class SimulationBasedParameter implements OptimizableParameter {
 	protected abstract double getResultValue(FlightData simulatedData);
 	
 	/**
-	 * Return an array of simulation listeners to provide to the simulation.
-	 * This may include a listener that stops the simulation after the necessary value
-	 * has been computed.
+	 * Return whether the value requires the extra flight data, which is computed only
+	 * when {@link net.sf.openrocket.simulation.SimulationOptions#getCalculateExtras()} is set.
+	 * The default implementation returns <code>false</code>.
+	 * 
+	 * @return	whether the extra flight data should be computed.
+	 */
+	protected boolean isExtraDataRequired() {
+		return false;
+	}
+	
+	/**
+	 * Return an array of additional simulation listeners to provide to the simulation.
 	 * <p>
-	 * This array should NOT contain InterruptListener, it will be added implicitly.
+	 * This array should NOT contain InterruptListener or the listener ending the simulation
+	 * at the end of the required flight phase, they will be added implicitly.
 	 * 
 	 * @return	an array of simulation listeners to include.
 	 */
@@ -80,4 +102,9 @@ public abstract class SimulationBasedParameter implements OptimizableParameter {
 		return new SimulationListener[0];
 	}
 	
+	@Override
+	public String toString() {
+		return getClass().getSimpleName();
+	}
+	
 }
@@ -12,6 +12,7 @@ import net.sf.openrocket.masscalc.BasicMassCalculator;
 import net.sf.openrocket.masscalc.MassCalculator;
 import net.sf.openrocket.masscalc.MassCalculator.MassCalcType;
 import net.sf.openrocket.optimization.general.OptimizationException;
+import net.sf.openrocket.optimization.rocketoptimization.FlightPhase;
 import net.sf.openrocket.optimization.rocketoptimization.OptimizableParameter;
 import net.sf.openrocket.rocketcomponent.Configuration;
 import net.sf.openrocket.rocketcomponent.RocketComponent;
@@ -100,6 +101,11 @@ public class StabilityParameter implements OptimizableParameter {
 		return stability;
 	}
 	
+	@Override
+	public FlightPhase getRequiredFlightPhase() {
+		return FlightPhase.NONE;
+	}
+	
 	@Override
 	public UnitGroup getUnitGroup() {
 		if (absolute) {
@@ -109,4 +115,9 @@ public class StabilityParameter implements OptimizableParameter {
 		}
 	}
 	
+	@Override
+	public String toString() {
+		return "StabilityParameter[absolute=" + absolute + "]";
+	}
+	
 }
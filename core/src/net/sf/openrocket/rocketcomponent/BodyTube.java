@@ -436,4 +436,10 @@ public class BodyTube extends SymmetricComponent implements MotorMount, Coaxial
 		copy.ignitionConfigurations = new FlightConfigurationImpl<IgnitionConfiguration>(ignitionConfigurations, copy, ComponentChangeEvent.EVENT_CHANGE);
 		return copy;
 	}
+	
+	@Override
+	protected long getMemoryEstimate() {
+		return super.getMemoryEstimate() + motorConfigurations.getMemoryEstimate() +
+				ignitionConfigurations.getMemoryEstimate();
+	}
 }
@@ -351,6 +351,22 @@ public class Configuration implements Cloneable, ChangeSource, ComponentChangeLi
 	}
 	
 	
+	/**
+	 * Return a configuration of a copy of the rocket with the same active stages and
+	 * flight configuration as this configuration.  This allows computations on a
+	 * snapshot of the rocket while the original is being edited.
+	 * 
+	 * @param copy	a copy of the rocket of this configuration.
+	 * @return		the corresponding configuration of the copy.
+	 */
+	public Configuration copyFor(Rocket copy) {
+		Configuration config = new Configuration(copy);
+		config.stages = (BitSet) this.stages.clone();
+		config.flightConfigurationId = this.flightConfigurationId;
+		return config;
+	}
+	
+	
 	@Override
 	public int getModID() {
 		return modID + rocket.getModID();
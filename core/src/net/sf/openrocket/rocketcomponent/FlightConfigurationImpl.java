@@ -15,6 +15,9 @@ import net.sf.openrocket.util.Utils;
  */
 class FlightConfigurationImpl<E extends FlightConfigurableParameter<E>> implements FlightConfiguration<E> {
 	
+	/** The estimated memory used by one configuration override, including the key and value */
+	private static final long ENTRY_MEMORY_ESTIMATE = 200;
+	
 	private final HashMap<String, E> map = new HashMap<String, E>();
 	private E defaultValue = null;
 	
@@ -125,6 +128,14 @@ class FlightConfigurationImpl<E extends FlightConfigurableParameter<E>> implemen
 	}
 	
 	
+	/**
+	 * Return an estimate of the memory used by a copy of this flight configuration,
+	 * in bytes.
+	 */
+	long getMemoryEstimate() {
+		return (map.size() + 1) * ENTRY_MEMORY_ESTIMATE;
+	}
+	
 	
 	private void fireEvent() {
 		component.fireComponentChangeEvent(eventType);
@@ -18,6 +18,9 @@ public class FreeformFinSet extends FinSet {
 	private static final Logger log = LoggerFactory.getLogger(FreeformFinSet.class);
 	private static final Translator trans = Application.getTranslator();
 	
+	/** The estimated memory used by one fin point and its list entry */
+	private static final long COORDINATE_MEMORY_ESTIMATE = 64;
+	
 	private ArrayList<Coordinate> points = new ArrayList<Coordinate>();
 	
 	public FreeformFinSet() {
@@ -322,6 +325,11 @@ public class FreeformFinSet extends FinSet {
 		return c;
 	}
 	
+	@Override
+	protected long getMemoryEstimate() {
+		return super.getMemoryEstimate() + points.size() * COORDINATE_MEMORY_ESTIMATE;
+	}
+	
 	private void validate(ArrayList<Coordinate> pts) throws IllegalFinPointException {
 		final int n = pts.size();
 		if (pts.get(0).x != 0 || pts.get(0).y != 0 ||
@@ -309,6 +309,12 @@ public class InnerTube extends ThicknessRingComponent implements Clusterable, Ra
 		return copy;
 	}
 	
+	@Override
+	protected long getMemoryEstimate() {
+		return super.getMemoryEstimate() + motorConfigurations.getMemoryEstimate() +
+				ignitionConfigurations.getMemoryEstimate();
+	}
+	
 	/**
 	 * For a given coordinate that represents one tube in a cluster, create an instance of that tube.  Must be called
 	 * once for each tube in the cluster.
@@ -125,4 +125,9 @@ public abstract class RecoveryDevice extends MassObject implements FlightConfigu
 				copy, ComponentChangeEvent.EVENT_CHANGE);
 		return copy;
 	}
+	
+	@Override
+	protected long getMemoryEstimate() {
+		return super.getMemoryEstimate() + deploymentConfigurations.getMemoryEstimate();
+	}
 }
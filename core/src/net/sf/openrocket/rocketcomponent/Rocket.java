@@ -275,6 +275,15 @@ public class Rocket extends RocketComponent {
 		return copy;
 	}
 	
+	@Override
+	protected long getMemoryEstimate() {
+		long size = super.getMemoryEstimate() + getMemoryEstimate(designer) + getMemoryEstimate(revision);
+		for (String id : flightConfigurationIDs) {
+			size += getMemoryEstimate(id) + getMemoryEstimate(flightConfigurationNames.get(id));
+		}
+		return size;
+	}
+	
 	/**
 	 * Load the rocket structure from the source.  The method loads the fields of this
 	 * Rocket object and copies the references to siblings from the <code>source</code>.
@@ -373,6 +382,8 @@ public class Rocket extends RocketComponent {
 			
 			// Update modification ID's only for normal (not undo/redo) events
 			if (!e.isUndoChange()) {
+				e.getSource().updateStateModID();
+				updateStateModID();
 				modID = UniqueID.next();
 				if (e.isMassChange())
 					massModID = modID;
@@ -386,7 +397,6 @@ public class Rocket extends RocketComponent {
 			
 			// Check whether frozen
 			if (freezeList != null) {
-				log.debug("Rocket is in frozen state, adding event " + e + " info freeze list");
 				freezeList.add(e);
 				return;
 			}
@@ -444,6 +454,15 @@ public class Rocket extends RocketComponent {
 		}
 	}
 	
+	/**
+	 * Return whether the rocket structure is frozen.
+	 *
+	 * @see #freeze()
+	 */
+	public boolean isFrozen() {
+		return freezeList != null;
+	}
+	
 	/**
 	 * Thaws a frozen rocket structure and fires a combination of the events fired during
 	 * the freeze.  The event type is a combination of those fired and the source is the
@@ -463,7 +482,7 @@ public class Rocket extends RocketComponent {
 			return;
 		}
 		
-		log.debug("Thawing rocket, freezeList=" + freezeList);
+		log.debug("Thawing rocket, " + freezeList.size() + " events combined");
 		
 		int type = 0;
 		Object c = null;
@@ -132,6 +132,9 @@ public abstract class RocketComponent implements ChangeSource, Cloneable, Iterab
 	// Unique ID of the component
 	private String id = null;
 	
+	// Modification ID of the properties of the component, see getStateModID()
+	private int stateModID = UniqueID.next();
+	
 	// Preset component this component is based upon
 	private ComponentPreset presetComponent = null;
 	
@@ -139,11 +142,25 @@ public abstract class RocketComponent implements ChangeSource, Cloneable, Iterab
 	private Appearance appearance = null;
 	
 	
+	/*
+	 * Estimates of the memory used by component copies, see getMemoryEstimate().  The
+	 * component estimate includes the fields, mutex, invalidator and child list of a copy.
+	 */
+	private static final long COMPONENT_MEMORY_ESTIMATE = 400;
+	private static final long APPEARANCE_MEMORY_ESTIMATE = 64;
+	private static final long DECAL_MEMORY_ESTIMATE = 300;
+	private static final long STRING_MEMORY_ESTIMATE = 40;
+	
 	/**
 	 * Used to invalidate the component after calling {@link #copyFrom(RocketComponent)}.
 	 */
 	private Invalidator invalidator = new Invalidator(this);
 	
+	/**
+	 * Set while {@link #copyNodeWithOriginalID()} is copying a single component in the current thread.
+	 */
+	private static final ThreadLocal<Boolean> copyingNode = new ThreadLocal<Boolean>();
+	
 	
 	////  NOTE !!!  All fields must be copied in the method copyFrom()!  ////
 	
@@ -385,22 +402,33 @@ public abstract class RocketComponent implements ChangeSource, Cloneable, Iterab
 				throw new BugException("CloneNotSupportedException encountered, report a bug!", e);
 			}
 			
-			// Reset the mutex
+			// Reset the mutex and invalidator
 			clone.mutex = SafetyMutex.newInstance();
+			clone.invalidator = new Invalidator(clone);
 			
 			// Reset all parent/child information
 			clone.parent = null;
-			clone.children = new ArrayList<RocketComponent>();
+			clone.children = new ArrayList<RocketComponent>(this.children.size());
+			
+			if (copyingNode.get() != null) {
+				return clone;
+			}
 			
 			// Add copied children to the structure without firing events.
 			for (RocketComponent child : this.children) {
+				// Checking only the parent of each child keeps the check linear in the size of the tree,
+				// checkComponentStructure() on each child would scan all of its siblings.
+				if (child.parent != this) {
+					throw new BugException("Inconsistent component structure detected, child does not have this component " +
+							"as the parent, this=" + this.toDebugString() + " child=" + child.toDebugString() +
+							" child.parent=" + (child.parent == null ? "null" : child.parent.toDebugString()));
+				}
 				RocketComponent childCopy = child.copyWithOriginalID();
 				// Don't use add method since it fires events
 				clone.children.add(childCopy);
 				childCopy.parent = clone;
 			}
 			
-			this.checkComponentStructure();
 			clone.checkComponentStructure();
 			
 			return clone;
@@ -410,6 +438,79 @@ public abstract class RocketComponent implements ChangeSource, Cloneable, Iterab
 	}
 	
 	
+	/**
+	 * Return an estimate of the memory used by a copy of this component without its
+	 * children, in bytes.  This is used to limit the memory used by the undo history.
+	 * <p>
+	 * This method must be overridden by any component that stores variable size data,
+	 * such as point lists or flight configurations, by adding the size of the data to
+	 * the estimate of the superclass.
+	 *
+	 * @return	the estimated size of a copy of this component, in bytes.
+	 */
+	protected long getMemoryEstimate() {
+		long size = COMPONENT_MEMORY_ESTIMATE + getMemoryEstimate(name) + getMemoryEstimate(comment);
+		if (appearance != null) {
+			size += APPEARANCE_MEMORY_ESTIMATE;
+			if (appearance.getTexture() != null) {
+				size += DECAL_MEMORY_ESTIMATE;
+			}
+		}
+		return size;
+	}
+	
+	/**
+	 * Return an estimate of the memory used by a string, in bytes.
+	 *
+	 * @param s		the string, may be <code>null</code>.
+	 * @return		the estimated size of the string.
+	 */
+	protected static long getMemoryEstimate(String s) {
+		if (s == null) {
+			return 0;
+		}
+		return STRING_MEMORY_ESTIMATE + 2L * s.length();
+	}
+	
+	
+	/**
+	 * Make a copy of this component without its children while maintaining the component ID.
+	 * The copy is made using {@link #copyWithOriginalID()}, so the mutable objects of
+	 * the component are copied as in a deep copy.
+	 *
+	 * @return	a copy of this component without parent or children.
+	 */
+	final RocketComponent copyNodeWithOriginalID() {
+		copyingNode.set(Boolean.TRUE);
+		try {
+			return copyWithOriginalID();
+		} finally {
+			copyingNode.remove();
+		}
+	}
+	
+	
+	/**
+	 * Return the list of children of this component without any checks.  The list
+	 * must not be modified.  This is used when creating a {@link RocketSnapshot}.
+	 */
+	final List<RocketComponent> getChildList() {
+		return children;
+	}
+	
+	
+	/**
+	 * Append a child to this component without any checks and without firing events.
+	 * This is used when building a component tree from a {@link RocketSnapshot}.
+	 *
+	 * @param child	the child component, which must not have a parent.
+	 */
+	final void attachChild(RocketComponent child) {
+		children.add(child);
+		child.parent = this;
+	}
+	
+	
 	//////////////  Methods that may not be overridden  ////////////
 	
 	
@@ -755,7 +856,8 @@ public abstract class RocketComponent implements ChangeSource, Cloneable, Iterab
 		
 		RocketComponent root = getRoot();
 		final Rocket rocket;
-		if (root instanceof Rocket) {
+		if (root instanceof Rocket && !((Rocket) root).isFrozen()) {
+			// A rocket being loaded from a file is already frozen
 			rocket = (Rocket) root;
 		} else {
 			rocket = null;
@@ -829,6 +931,22 @@ public abstract class RocketComponent implements ChangeSource, Cloneable, Iterab
 	}
 	
 	
+	/**
+	 * Return the modification ID of the properties of this component.  The ID changes every
+	 * time a (non-undo) change event is fired with this component as the source, including
+	 * changes to the list of children, and it is retained when the component is copied.
+	 * The ID of a rocket changes on every change event, as the rocket stores the
+	 * modification IDs of the whole structure.
+	 * Two components with the same component ID and state modification ID therefore have
+	 * the same properties and children.
+	 *
+	 * @return	the state modification ID.
+	 */
+	public int getStateModID() {
+		return stateModID;
+	}
+	
+	
 	
 	
 	/**
@@ -1583,6 +1701,9 @@ public abstract class RocketComponent implements ChangeSource, Cloneable, Iterab
 	 */
 	protected void fireComponentChangeEvent(ComponentChangeEvent e) {
 		checkState();
+		if (!e.isUndoChange()) {
+			e.getSource().updateStateModID();
+		}
 		if (parent == null) {
 			/* Ignore if root invalid. */
 			return;
@@ -1603,6 +1724,15 @@ public abstract class RocketComponent implements ChangeSource, Cloneable, Iterab
 	}
 	
 	
+	/**
+	 * Update the state modification ID of this component.  This is called for the source
+	 * of every change event that is not an undo/redo event.
+	 */
+	final void updateStateModID() {
+		stateModID = UniqueID.next();
+	}
+	
+	
 	/**
 	 * Checks whether this component has been invalidated and should no longer be used.
 	 * This is a safety check that in-place replaced components are no longer used.
@@ -1827,6 +1957,7 @@ public abstract class RocketComponent implements ChangeSource, Cloneable, Iterab
 		this.name = src.name;
 		this.comment = src.comment;
 		this.id = src.id;
+		this.stateModID = src.stateModID;
 		
 		// Add source components to invalidation tree
 		for (RocketComponent c : src) {
@@ -0,0 +1,188 @@
+package net.sf.openrocket.rocketcomponent;
+
+import java.util.List;
+
+/**
+ * An immutable snapshot of the state of a rocket, used by the undo/redo mechanism.
+ * <p>
+ * A snapshot stores a copy of each component without its children, and the tree structure
+ * separately.  When a snapshot is created based on the previous snapshot of the same rocket,
+ * the component copies and subtrees that have not been modified since are shared with the
+ * previous snapshot.  Unmodified components are recognized by their component ID and
+ * {@link RocketComponent#getStateModID() state modification ID}.  Modifying a single
+ * component therefore stores only one new component copy and the path to the root.
+ * <p>
+ * Every snapshot can be restored independently of the other snapshots.  The memory used
+ * by a snapshot is estimated using {@link RocketComponent#getMemoryEstimate()} of the
+ * stored component copies.
+ */
+public final class RocketSnapshot {
+	
+	private final Node root;
+	private final int modID;
+	private final int componentCount;
+	private final int copyCount;
+	private final long size;
+	private final long newSize;
+	
+	
+	private RocketSnapshot(Node root, int modID, long[] counts) {
+		this.root = root;
+		this.modID = modID;
+		this.componentCount = (int) counts[0];
+		this.copyCount = (int) counts[1];
+		this.size = counts[2];
+		this.newSize = counts[3];
+	}
+	
+	
+	/**
+	 * Create a snapshot of the current state of a rocket.  The rocket is not modified.
+	 * 
+	 * @param rocket	the rocket.
+	 * @param previous	the previous snapshot of the rocket whose unmodified parts are shared
+	 * 					with the new snapshot, or <code>null</code> to copy all components.
+	 * @return			a snapshot of the rocket.
+	 */
+	public static RocketSnapshot create(Rocket rocket, RocketSnapshot previous) {
+		long[] counts = new long[4];
+		Node root = snapshot(rocket, (previous == null) ? null : previous.root, counts);
+		return new RocketSnapshot(root, rocket.getModID(), counts);
+	}
+	
+	
+	/**
+	 * Create a new rocket with the state of this snapshot.  The rocket is a new deep copy
+	 * with the original component ID's, and may be modified freely.
+	 * 
+	 * @return	a new rocket with the state of the snapshot.
+	 */
+	public Rocket restore() {
+		return (Rocket) restore(root);
+	}
+	
+	
+	/**
+	 * Return the modification ID of the rocket at the time of the snapshot.
+	 */
+	public int getModID() {
+		return modID;
+	}
+	
+	/**
+	 * Return the number of components in the snapshot.
+	 */
+	public int getComponentCount() {
+		return componentCount;
+	}
+	
+	/**
+	 * Return the number of component copies of this snapshot that are not shared with
+	 * the previous snapshot.
+	 */
+	public int getNewComponentCount() {
+		return copyCount;
+	}
+	
+	/**
+	 * Return the estimated memory used by all component copies of this snapshot, in bytes.
+	 */
+	public long getSize() {
+		return size;
+	}
+	
+	/**
+	 * Return the estimated memory used by the component copies that are not shared with
+	 * the previous snapshot, in bytes.
+	 */
+	public long getNewSize() {
+		return newSize;
+	}
+	
+	
+	/*
+	 * counts[0] is incremented for every component and counts[1] for every new component copy,
+	 * counts[2] and counts[3] sum the estimated sizes of all components and the new copies.
+	 */
+	private static Node snapshot(RocketComponent component, Node previous, long[] counts) {
+		counts[0]++;
+		
+		boolean unmodified = (previous != null && previous.state.getStateModID() == component.getStateModID());
+		List<RocketComponent> list = component.getChildList();
+		Node[] children = new Node[list.size()];
+		boolean shared = unmodified && previous.children.length == children.length;
+		for (int i = 0; i < children.length; i++) {
+			RocketComponent child = list.get(i);
+			children[i] = snapshot(child, findChild(previous, child.getID(), i), counts);
+			shared = shared && children[i] == previous.children[i];
+		}
+		
+		if (shared) {
+			counts[2] += previous.size;
+			return previous;
+		}
+		
+		RocketComponent state;
+		long size;
+		if (unmodified) {
+			state = previous.state;
+			size = previous.size;
+		} else {
+			state = component.copyNodeWithOriginalID();
+			size = state.getMemoryEstimate();
+			counts[1]++;
+			counts[3] += size;
+		}
+		counts[2] += size;
+		return new Node(state, size, children);
+	}
+	
+	
+	/*
+	 * Find the snapshot of a child with the specified ID, checking the same index first.
+	 */
+	private static Node findChild(Node parent, String id, int index) {
+		if (parent == null) {
+			return null;
+		}
+		Node[] children = parent.children;
+		if (index < children.length && children[index].state.getID().equals(id)) {
+			return children[index];
+		}
+		for (Node n : children) {
+			if (n.state.getID().equals(id)) {
+				return n;
+			}
+		}
+		return null;
+	}
+	
+	
+	private static RocketComponent restore(Node node) {
+		// The stored copy has no children, so this copies only the component
+		RocketComponent copy = node.state.copyWithOriginalID();
+		for (Node child : node.children) {
+			copy.attachChild(restore(child));
+		}
+		return copy;
+	}
+	
+	
+	/**
+	 * A node of the snapshot tree.  The state is a copy of the component without children,
+	 * which is never modified nor given out.
+	 */
+	private static final class Node {
+		private final RocketComponent state;
+		/** The estimated size of the state */
+		private final long size;
+		private final Node[] children;
+		
+		public Node(RocketComponent state, long size, Node[] children) {
+			this.state = state;
+			this.size = size;
+			this.children = children;
+		}
+	}
+	
+}
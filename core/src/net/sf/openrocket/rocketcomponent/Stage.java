@@ -61,4 +61,9 @@ public class Stage extends ComponentAssembly implements FlightConfigurableCompon
 		return copy;
 	}
 	
+	@Override
+	protected long getMemoryEstimate() {
+		return super.getMemoryEstimate() + separationConfigurations.getMemoryEstimate();
+	}
+	
 }
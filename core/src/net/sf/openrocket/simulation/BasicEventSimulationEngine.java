@@ -37,8 +37,7 @@ public class BasicEventSimulationEngine implements SimulationEngine {
 	private static final Translator trans = Application.getTranslator();
 	private static final Logger log = LoggerFactory.getLogger(BasicEventSimulationEngine.class);
 	
-	// TODO: MEDIUM: Allow selecting steppers
-	private SimulationStepper flightStepper = new RK4SimulationStepper();
+	private SimulationStepper flightStepper;
 	private SimulationStepper landingStepper = new BasicLandingStepper();
 	private SimulationStepper tumbleStepper = new BasicTumbleStepper();
 	
@@ -65,6 +64,15 @@ public class BasicEventSimulationEngine implements SimulationEngine {
 		// Set up flight data
 		FlightData flightData = new FlightData();
 		
+		// Set up the flight stepper
+		try {
+			flightStepper = simulationConditions.getFlightStepperClass().newInstance();
+		} catch (InstantiationException e) {
+			throw new IllegalStateException("Cannot instantiate flight stepper.", e);
+		} catch (IllegalAccessException e) {
+			throw new IllegalStateException("Cannot access flight stepper instance?! BUG!", e);
+		}
+		
 		// Set up rocket configuration
 		Configuration configuration = setupConfiguration(simulationConditions);
 		flightConfigurationId = configuration.getFlightConfigurationID();
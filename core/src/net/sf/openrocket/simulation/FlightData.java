@@ -6,6 +6,7 @@ import net.sf.openrocket.util.Mutable;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import java.nio.DoubleBuffer;
 import java.util.ArrayList;
 import java.util.List;
 
@@ -39,6 +40,9 @@ public class FlightData {
 
 	private final ArrayList<FlightDataBranch> branches = new ArrayList<FlightDataBranch>();
 
+	/** Source of branches whose data has not been decoded yet, or null */
+	private BranchLoader branchLoader = null;
+
 	private final WarningSet warnings = new WarningSet();
 
 	private double maxAltitude = Double.NaN;
@@ -119,6 +123,7 @@ public class FlightData {
 
 	public void addBranch(FlightDataBranch branch) {
 		mutable.check();
+		loadBranches();
 
 		branch.immute();
 		branches.add(branch);
@@ -128,15 +133,53 @@ public class FlightData {
 		}
 	}
 
-	public int getBranchCount() {
+	public synchronized int getBranchCount() {
+		if (branchLoader != null)
+			return branchLoader.getBranchCount();
 		return branches.size();
 	}
 
 	public FlightDataBranch getBranch(int n) {
+		loadBranches();
 		return branches.get(n);
 	}
 
 
+	/**
+	 * Set a source from which the branches are decoded when first accessed.  The summary
+	 * values are not recomputed from the branches.
+	 *
+	 * @param loader	the source of the branches.
+	 */
+	public void setBranchLoader(BranchLoader loader) {
+		mutable.check();
+		if (!branches.isEmpty()) {
+			throw new IllegalStateException("Flight data already contains branches");
+		}
+		this.branchLoader = loader;
+	}
+
+	/**
+	 * Return whether the branches have been decoded.
+	 */
+	public synchronized boolean isLoaded() {
+		return branchLoader == null;
+	}
+
+	private synchronized void loadBranches() {
+		if (branchLoader == null)
+			return;
+
+		long t0 = System.currentTimeMillis();
+		for (FlightDataBranch b : branchLoader.loadBranches()) {
+			b.immute();
+			branches.add(b);
+		}
+		branchLoader = null;
+		log.debug("Decoded " + branches.size() + " flight data branches in " + (System.currentTimeMillis() - t0) + " ms");
+	}
+
+
 
 	public double getMaxAltitude() {
 		return maxAltitude;
@@ -202,7 +245,7 @@ public class FlightData {
 
 		// Time to apogee
 		List<Double> time = branch.get(FlightDataType.TYPE_TIME);
-		List<Double> altitude = branch.get(FlightDataType.TYPE_ALTITUDE);
+		DoubleBuffer altitude = branch.getBuffer(FlightDataType.TYPE_ALTITUDE);
 
 		if (time == null || altitude == null) {
 			timeToApogee = Double.NaN;
@@ -210,11 +253,9 @@ public class FlightData {
 			return;
 		}
 		int index = 0;
-		for (Double alt : altitude) {
-			if (alt != null) {
-				if (MathUtil.equals(alt, maxAltitude))
-					break;
-			}
+		while (index < altitude.limit()) {
+			if (MathUtil.equals(altitude.get(index), maxAltitude))
+				break;
 
 			index++;
 		}
@@ -238,7 +279,7 @@ public class FlightData {
 		}
 
 		// Max. acceleration (must be after apogee time)
-		if (branch.get(FlightDataType.TYPE_ACCELERATION_TOTAL) != null) {
+		if (branch.getBuffer(FlightDataType.TYPE_ACCELERATION_TOTAL) != null) {
 			maxAcceleration = calculateMaxAcceleration();
 		} else {
 			maxAcceleration = Double.NaN;
@@ -256,7 +297,7 @@ public class FlightData {
 	}
 
 
-	public void immute() {
+	public synchronized void immute() {
 		mutable.immute();
 		warnings.immute();
 		for (FlightDataBranch b : branches) {
@@ -288,8 +329,8 @@ public class FlightData {
 			}
 		}
 
-		List<Double> time = branch.get(FlightDataType.TYPE_TIME);
-		List<Double> acceleration = branch.get(FlightDataType.TYPE_ACCELERATION_TOTAL);
+		DoubleBuffer time = branch.getBuffer(FlightDataType.TYPE_TIME);
+		DoubleBuffer acceleration = branch.getBuffer(FlightDataType.TYPE_ACCELERATION_TOTAL);
 
 		if (time == null || acceleration == null) {
 			return Double.NaN;
@@ -297,7 +338,7 @@ public class FlightData {
 
 		double max = 0;
 
-		for (int i = 0; i < time.size(); i++) {
+		for (int i = 0; i < time.limit(); i++) {
 			if (time.get(i) >= endTime) {
 				break;
 			}
@@ -346,4 +387,24 @@ public class FlightData {
 				",\"launchRodVelocity\": " + launchRodVelocity +
 				",\"deploymentVelocity\": " + deploymentVelocity;
 	}
+
+
+	/**
+	 * A source of flight data branches whose data points are decoded on first access.
+	 */
+	public interface BranchLoader {
+
+		/**
+		 * Return the number of branches, without decoding them.
+		 */
+		public int getBranchCount();
+
+		/**
+		 * Decode the branches.  This is called at most once.
+		 *
+		 * @return	the decoded branches.
+		 */
+		public List<FlightDataBranch> loadBranches();
+	}
+
 }
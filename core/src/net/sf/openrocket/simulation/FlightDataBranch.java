@@ -1,10 +1,8 @@
 package net.sf.openrocket.simulation;
 
+import java.nio.DoubleBuffer;
 import java.util.Arrays;
-import java.util.HashMap;
-import java.util.LinkedHashMap;
 import java.util.List;
-import java.util.Map;
 
 import net.sf.openrocket.util.ArrayList;
 import net.sf.openrocket.util.Monitorable;
@@ -21,20 +19,34 @@ import net.sf.openrocket.util.Mutable;
  * not defined in the constructor can be added using {@link #setValue(FlightDataType, double)}, they
  * will be created and all previous values will be set to NaN.
  * <p>
+ * The values are stored column-wise in primitive <code>double</code> arrays, which are located
+ * by the dense index of the variable type.  The minimum and maximum of each column are updated
+ * as values are set.  {@link #getBuffer(FlightDataType)} provides read access to a column
+ * without copying it.
+ * <p>
  * After populating a FlightDataBranch object it can be made immutable by calling {@link #immute()}.
  * 
  * @author Sampo Niskanen <sampo.niskanen@iki.fi>
  */
 public class FlightDataBranch implements Monitorable {
 	
+	/** Initial number of data points allocated for each column. */
+	private static final int INITIAL_CAPACITY = 64;
+	
 	/** The name of this flight data branch. */
 	private final String branchName;
 	
-	private final Map<FlightDataType, ArrayList<Double>> values =
-			new LinkedHashMap<FlightDataType, ArrayList<Double>>();
+	/** The columns in the order they were added. */
+	private final ArrayList<Column> columns = new ArrayList<Column>();
+	
+	/** The columns indexed by {@link FlightDataType#getIndex()}, null for types not in this branch. */
+	private Column[] columnIndex = new Column[0];
 	
-	private final Map<FlightDataType, Double> maxValues = new HashMap<FlightDataType, Double>();
-	private final Map<FlightDataType, Double> minValues = new HashMap<FlightDataType, Double>();
+	/** Number of data points in this branch. */
+	private int length = 0;
+	
+	/** Number of data points allocated in each column.  Values beyond the length are always NaN. */
+	private int capacity = 0;
 	
 	/**
 	 * time for the rocket to reach apogee if the flight had been no recovery deployment
@@ -65,14 +77,12 @@ public class FlightDataBranch implements Monitorable {
 		this.branchName = name;
 		
 		for (FlightDataType t : types) {
-			if (values.containsKey(t)) {
+			if (getColumn(t) != null) {
 				throw new IllegalArgumentException("Value type " + t + " specified multiple " +
 						"times in constructor.");
 			}
 			
-			values.put(t, new ArrayList<Double>());
-			minValues.put(t, Double.NaN);
-			maxValues.put(t, Double.NaN);
+			addColumn(t, Double.NaN);
 		}
 	}
 	
@@ -95,9 +105,10 @@ public class FlightDataBranch implements Monitorable {
 	public void addPoint() {
 		mutable.check();
 		
-		for (FlightDataType t : values.keySet()) {
-			values.get(t).add(Double.NaN);
+		if (length == capacity) {
+			setCapacity(Math.max(INITIAL_CAPACITY, capacity * 2));
 		}
+		length++;
 		modID++;
 	}
 	
@@ -113,31 +124,20 @@ public class FlightDataBranch implements Monitorable {
 	public void setValue(FlightDataType type, double value) {
 		mutable.check();
 		
-		ArrayList<Double> list = values.get(type);
-		
-		if (list == null) {
-			list = new ArrayList<Double>();
-			int n = getLength();
-			for (int i = 0; i < n; i++) {
-				list.add(Double.NaN);
-			}
-			values.put(type, list);
-			minValues.put(type, value);
-			maxValues.put(type, value);
+		Column column = getColumn(type);
+		if (column == null) {
+			column = addColumn(type, value);
 		}
 		
-		if (list.size() > 0) {
-			list.set(list.size() - 1, value);
+		if (length > 0) {
+			column.data[length - 1] = value;
 		}
 		
-		double min = minValues.get(type);
-		double max = maxValues.get(type);
-		
-		if (Double.isNaN(min) || (value < min)) {
-			minValues.put(type, value);
+		if (Double.isNaN(column.min) || (value < column.min)) {
+			column.min = value;
 		}
-		if (Double.isNaN(max) || (value > max)) {
-			maxValues.put(type, value);
+		if (Double.isNaN(column.max) || (value > column.max)) {
+			column.max = value;
 		}
 		modID++;
 	}
@@ -155,7 +155,10 @@ public class FlightDataBranch implements Monitorable {
 	 * natural order.
 	 */
 	public FlightDataType[] getTypes() {
-		FlightDataType[] array = values.keySet().toArray(new FlightDataType[0]);
+		FlightDataType[] array = new FlightDataType[columns.size()];
+		for (int i = 0; i < array.length; i++) {
+			array[i] = columns.get(i).type;
+		}
 		Arrays.sort(array);
 		return array;
 	}
@@ -164,10 +167,9 @@ public class FlightDataBranch implements Monitorable {
 	 * Return the number of data points in this branch.
 	 */
 	public int getLength() {
-		for (FlightDataType t : values.keySet()) {
-			return values.get(t).size();
-		}
-		return 0;
+		if (columns.isEmpty())
+			return 0;
+		return length;
 	}
 	
 	/**
@@ -178,10 +180,32 @@ public class FlightDataBranch implements Monitorable {
 	 * 				the variable type hasn't been added to this branch.
 	 */
 	public List<Double> get(FlightDataType type) {
-		ArrayList<Double> list = values.get(type);
-		if (list == null)
+		Column column = getColumn(type);
+		if (column == null)
 			return null;
-		return list.clone();
+		
+		ArrayList<Double> list = new ArrayList<Double>(length);
+		for (int i = 0; i < length; i++) {
+			list.add(column.data[i]);
+		}
+		return list;
+	}
+	
+	/**
+	 * Return a read-only view of the values of the specified variable type.  The values
+	 * are not copied, the buffer is backed by the storage of this branch.  The buffer
+	 * contains the data points that exist at the time of the call, but while the branch
+	 * is mutable the last value may still change.
+	 * 
+	 * @param type	the variable type.
+	 * @return		a buffer of the variable values positioned at the first data point,
+	 * 				or <code>null</code> if the variable type hasn't been added to this branch.
+	 */
+	public DoubleBuffer getBuffer(FlightDataType type) {
+		Column column = getColumn(type);
+		if (column == null)
+			return null;
+		return DoubleBuffer.wrap(column.data, 0, length).asReadOnlyBuffer();
 	}
 	
 	/**
@@ -192,10 +216,10 @@ public class FlightDataBranch implements Monitorable {
 	 * @return		the last value in this branch, or NaN.
 	 */
 	public double getLast(FlightDataType type) {
-		ArrayList<Double> list = values.get(type);
-		if (list == null || list.isEmpty())
+		Column column = getColumn(type);
+		if (column == null || length == 0)
 			return Double.NaN;
-		return list.get(list.size() - 1);
+		return column.data[length - 1];
 	}
 	
 	/**
@@ -206,10 +230,10 @@ public class FlightDataBranch implements Monitorable {
 	 * @return		the minimum value in this branch, or NaN.
 	 */
 	public double getMinimum(FlightDataType type) {
-		Double v = minValues.get(type);
-		if (v == null)
+		Column column = getColumn(type);
+		if (column == null)
 			return Double.NaN;
-		return v;
+		return column.min;
 	}
 	
 	/**
@@ -220,10 +244,10 @@ public class FlightDataBranch implements Monitorable {
 	 * @return		the maximum value in this branch, or NaN.
 	 */
 	public double getMaximum(FlightDataType type) {
-		Double v = maxValues.get(type);
-		if (v == null)
+		Column column = getColumn(type);
+		if (column == null)
 			return Double.NaN;
-		return v;
+		return column.max;
 	}
 	
 	
@@ -327,6 +351,10 @@ public class FlightDataBranch implements Monitorable {
 	 * modify this object will after this call throw an <code>IllegalStateException</code>.
 	 */
 	public void immute() {
+		if (mutable.isMutable()) {
+			// No more points can be added, release the unused space
+			setCapacity(length);
+		}
 		mutable.immute();
 	}
 	
@@ -344,4 +372,53 @@ public class FlightDataBranch implements Monitorable {
 		return modID;
 	}
 	
+	
+	private Column getColumn(FlightDataType type) {
+		int index = type.getIndex();
+		if (index >= columnIndex.length)
+			return null;
+		return columnIndex[index];
+	}
+	
+	private Column addColumn(FlightDataType type, double initialValue) {
+		Column column = new Column(type, capacity, initialValue);
+		
+		int index = type.getIndex();
+		if (index >= columnIndex.length) {
+			columnIndex = Arrays.copyOf(columnIndex, Math.max(index + 1, FlightDataType.ALL_TYPES.length));
+		}
+		columnIndex[index] = column;
+		columns.add(column);
+		return column;
+	}
+	
+	private void setCapacity(int newCapacity) {
+		for (Column column : columns) {
+			column.data = Arrays.copyOf(column.data, newCapacity);
+			if (newCapacity > capacity) {
+				Arrays.fill(column.data, capacity, newCapacity, Double.NaN);
+			}
+		}
+		capacity = newCapacity;
+	}
+	
+	
+	/**
+	 * The values of a single variable type together with their minimum and maximum.
+	 */
+	private static class Column {
+		private final FlightDataType type;
+		private double[] data;
+		private double min;
+		private double max;
+		
+		public Column(FlightDataType type, int capacity, double initialValue) {
+			this.type = type;
+			this.data = new double[capacity];
+			Arrays.fill(this.data, Double.NaN);
+			this.min = initialValue;
+			this.max = initialValue;
+		}
+	}
+	
 }
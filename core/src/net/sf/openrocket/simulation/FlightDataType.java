@@ -36,6 +36,9 @@ public class FlightDataType implements Comparable<FlightDataType> {
 	/** NOTE: The String key here is now the symbol */
 	private static final Map<String, FlightDataType> EXISTING_TYPES = new HashMap<String, FlightDataType>();
 	
+	/** Dense indices of the type names (in lower case), used for indexing columnar data.  MUST BE DEFINED BEFORE ANY TYPES!! */
+	private static final Map<String, Integer> TYPE_INDICES = new HashMap<String, Integer>();
+	
 	
 	//// Time
 	public static final FlightDataType TYPE_TIME = newType(trans.get("FlightDataType.TYPE_TIME"), "t", UnitGroup.UNITS_FLIGHT_TIME, 1);
@@ -340,6 +343,7 @@ public class FlightDataType implements Comparable<FlightDataType> {
 	private final UnitGroup units;
 	private final int priority;
 	private final int hashCode;
+	private final int index;
 	
 	
 	private FlightDataType(String typeName, String symbol, UnitGroup units, int priority) {
@@ -351,7 +355,17 @@ public class FlightDataType implements Comparable<FlightDataType> {
 		this.symbol = symbol;
 		this.units = units;
 		this.priority = priority;
-		this.hashCode = this.name.toLowerCase(Locale.ENGLISH).hashCode();
+		
+		String key = this.name.toLowerCase(Locale.ENGLISH);
+		this.hashCode = key.hashCode();
+		
+		// Types equal to each other share the same index
+		Integer i = TYPE_INDICES.get(key);
+		if (i == null) {
+			i = TYPE_INDICES.size();
+			TYPE_INDICES.put(key, i);
+		}
+		this.index = i;
 	}
 	
 	/*
@@ -372,6 +386,15 @@ public class FlightDataType implements Comparable<FlightDataType> {
 		return units;
 	}
 	
+	/**
+	 * Return a small non-negative index that identifies this type.  Types that are
+	 * equal to each other have the same index, and the indices are allocated densely
+	 * starting from zero.
+	 */
+	int getIndex() {
+		return index;
+	}
+	
 	@Override
 	public String toString() {
 		return name; //+" ("+symbol+") "+units.getDefaultUnit().toString();
@@ -0,0 +1,18 @@
+package net.sf.openrocket.simulation;
+
+/**
+ * A fourth order Runge-Kutta stepper that reuses its per-step data store, RK4 parameters
+ * and time step limits between steps instead of allocating new ones for every step.
+ * The computed trajectory is identical to that of {@link RK4SimulationStepper}.
+ * <p>
+ * An instance of this class must only be used for a single simulation at a time.
+ *
+ * @see SimulationConditions#setFlightStepperClass(Class)
+ */
+public class RK4InPlaceSimulationStepper extends RK4SimulationStepper {
+	
+	public RK4InPlaceSimulationStepper() {
+		super(true);
+	}
+	
+}
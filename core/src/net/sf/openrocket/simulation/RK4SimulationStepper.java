@@ -62,7 +62,39 @@ public class RK4SimulationStepper extends AbstractSimulationStepper {
 	
 	private Random random;
 	
+	/*
+	 * Buffers reused between steps, or null if new ones are allocated for every step.
+	 */
+	private final DataStore reusedStore;
+	private final RK4Parameters[] reusedParameters;
+	private final double[] reusedTimeSteps;
+	
+	
+	public RK4SimulationStepper() {
+		this(false);
+	}
 	
+	/**
+	 * Create a stepper that optionally reuses its per-step data store, RK4 parameters and
+	 * time step limits between steps instead of allocating new ones for every step.  The
+	 * computed trajectory is the same in both cases.  A stepper reusing its buffers must
+	 * only be used for a single simulation at a time.
+	 * 
+	 * @param reuseBuffers	whether to reuse the per-step buffers.
+	 */
+	protected RK4SimulationStepper(boolean reuseBuffers) {
+		if (reuseBuffers) {
+			reusedStore = new DataStore();
+			reusedParameters = new RK4Parameters[] {
+					new RK4Parameters(), new RK4Parameters(), new RK4Parameters(), new RK4Parameters()
+			};
+			reusedTimeSteps = new double[8];
+		} else {
+			reusedStore = null;
+			reusedParameters = null;
+			reusedTimeSteps = null;
+		}
+	}
 	
 	
 	@Override
@@ -92,7 +124,13 @@ public class RK4SimulationStepper extends AbstractSimulationStepper {
 	public void step(SimulationStatus simulationStatus, double maxTimeStep) throws SimulationException {
 		
 		RK4SimulationStatus status = (RK4SimulationStatus) simulationStatus;
-		DataStore store = new DataStore();
+		DataStore store;
+		if (reusedStore != null) {
+			store = reusedStore;
+			store.reset();
+		} else {
+			store = new DataStore();
+		}
 		
 		////////  Perform RK4 integration:  ////////
 		
@@ -120,7 +158,7 @@ public class RK4SimulationStepper extends AbstractSimulationStepper {
 
 		//// First position, k1 = f(t, y)
 		
-		k1 = computeParameters(status, store);
+		k1 = computeParameters(status, store, 0);
 		
 		/*
 		 * Select the actual time step to use.  It is the minimum of the following:
@@ -138,7 +176,7 @@ public class RK4SimulationStepper extends AbstractSimulationStepper {
 		 * 
 		 * The step is still at least 1/20th of the user-selected time step.
 		 */
-		double[] dt = new double[8];
+		double[] dt = (reusedTimeSteps != null ? reusedTimeSteps : new double[8]);
 		Arrays.fill(dt, Double.MAX_VALUE);
 
 		// If the user selected a really small timestep, use MIN_TIME_STEP instead.
@@ -191,7 +229,7 @@ public class RK4SimulationStepper extends AbstractSimulationStepper {
 						" correct=" + store.thrustForce +
 						" timestep=" + store.timestep +
 						", recomputing k1 parameters");
-				k1 = computeParameters(status, store);
+				k1 = computeParameters(status, store, 0);
 			} else {
 				log.trace("Thrust estimate differs from correct value by " +
 						(Math.rint(1000 * (thrustDiff + 0.000001) / thrustEstimate) / 10.0) + "%," +
@@ -216,7 +254,7 @@ public class RK4SimulationStepper extends AbstractSimulationStepper {
 		status2.setRocketOrientationQuaternion(status.getRocketOrientationQuaternion().multiplyLeft(Quaternion.rotation(k1.rv.multiply(store.timestep / 2))));
 		status2.setRocketRotationVelocity(status.getRocketRotationVelocity().add(k1.ra.multiply(store.timestep / 2)));
 		
-		k2 = computeParameters(status2, store);
+		k2 = computeParameters(status2, store, 1);
 		
 
 		//// Third position, k3 = f(t + h/2, y + k2*h/2)
@@ -228,7 +266,7 @@ public class RK4SimulationStepper extends AbstractSimulationStepper {
 		status2.setRocketOrientationQuaternion(status2.getRocketOrientationQuaternion().multiplyLeft(Quaternion.rotation(k2.rv.multiply(store.timestep / 2))));
 		status2.setRocketRotationVelocity(status.getRocketRotationVelocity().add(k2.ra.multiply(store.timestep / 2)));
 		
-		k3 = computeParameters(status2, store);
+		k3 = computeParameters(status2, store, 2);
 		
 
 		//// Fourth position, k4 = f(t + h, y + k3*h)
@@ -240,7 +278,7 @@ public class RK4SimulationStepper extends AbstractSimulationStepper {
 		status2.setRocketOrientationQuaternion(status2.getRocketOrientationQuaternion().multiplyLeft(Quaternion.rotation(k3.rv.multiply(store.timestep))));
 		status2.setRocketRotationVelocity(status.getRocketRotationVelocity().add(k3.ra.multiply(store.timestep)));
 		
-		k4 = computeParameters(status2, store);
+		k4 = computeParameters(status2, store, 3);
 		
 
 		//// Sum all together,  y(n+1) = y(n) + h*(k1 + 2*k2 + 2*k3 + k4)/6
@@ -280,9 +318,14 @@ public class RK4SimulationStepper extends AbstractSimulationStepper {
 
 
 
-	private RK4Parameters computeParameters(RK4SimulationStatus status, DataStore dataStore)
+	/**
+	 * Compute the RK4 parameters of the given status.
+	 * 
+	 * @param index		the index of the parameters (0 for k1 ... 3 for k4) in the reused buffers.
+	 */
+	private RK4Parameters computeParameters(RK4SimulationStatus status, DataStore dataStore, int index)
 			throws SimulationException {
-		RK4Parameters params = new RK4Parameters();
+		RK4Parameters params = (reusedParameters != null ? reusedParameters[index] : new RK4Parameters());
 		
 		//		if (dataStore == null) {
 		//			dataStore = new DataStore();
@@ -725,6 +768,30 @@ public class RK4SimulationStepper extends AbstractSimulationStepper {
 		
 		public Rotation2D thetaRotation;
 		
+		
+		/**
+		 * Reset the store to the state of a newly created data store.
+		 */
+		public void reset() {
+			timestep = Double.NaN;
+			accelerationData = null;
+			atmosphericConditions = null;
+			flightConditions = null;
+			longitudinalAcceleration = Double.NaN;
+			massData = null;
+			coriolisAcceleration = null;
+			linearAcceleration = null;
+			angularAcceleration = null;
+			forces = null;
+			windSpeed = Double.NaN;
+			gravity = Double.NaN;
+			thrustForce = Double.NaN;
+			dragForce = Double.NaN;
+			lateralPitchRate = Double.NaN;
+			rollAcceleration = Double.NaN;
+			lateralPitchAcceleration = Double.NaN;
+			thetaRotation = null;
+		}
 	}
 	
 }
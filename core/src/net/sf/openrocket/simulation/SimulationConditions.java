@@ -57,6 +57,8 @@ public class SimulationConditions implements Monitorable, Cloneable {
 	private AerodynamicCalculator aerodynamicCalculator;
 	private MassCalculator massCalculator;
 	
+	private Class<? extends SimulationStepper> flightStepperClass = RK4SimulationStepper.class;
+	
 	
 	private double timeStep = RK4SimulationStepper.RECOMMENDED_TIME_STEP;
 	private double maximumAngleStep = RK4SimulationStepper.RECOMMENDED_ANGLE_STEP;
@@ -101,6 +103,29 @@ public class SimulationConditions implements Monitorable, Cloneable {
 	}
 	
 	
+	/**
+	 * Return the stepper class used for the powered and coasting flight phases.
+	 * A new instance of the class is created for each simulation.
+	 */
+	public Class<? extends SimulationStepper> getFlightStepperClass() {
+		return flightStepperClass;
+	}
+	
+	
+	/**
+	 * Set the stepper class used for the powered and coasting flight phases.  The class must
+	 * have a public no-argument constructor.  Either {@link RK4SimulationStepper} (the default)
+	 * or {@link RK4InPlaceSimulationStepper}, which reuses its per-step buffers, may be used.
+	 */
+	public void setFlightStepperClass(Class<? extends SimulationStepper> flightStepperClass) {
+		if (flightStepperClass == null) {
+			throw new IllegalArgumentException("flightStepperClass cannot be null");
+		}
+		this.flightStepperClass = flightStepperClass;
+		this.modID++;
+	}
+	
+	
 	public Rocket getRocket() {
 		return rocket;
 	}
@@ -457,7 +457,10 @@ public class SimulationOptions implements ChangeSource, Cloneable {
 		this.launchRodAngle = src.launchRodAngle;
 		this.launchRodDirection = src.launchRodDirection;
 		this.launchRodLength = src.launchRodLength;
+		this.launchIntoWind = src.launchIntoWind;
 		this.launchTemperature = src.launchTemperature;
+		this.useISA = src.useISA;
+		this.geodeticComputation = src.geodeticComputation;
 		this.maximumAngle = src.maximumAngle;
 		this.timeStep = src.timeStep;
 		this.windAverage = src.windAverage;
@@ -605,7 +608,8 @@ public class SimulationOptions implements ChangeSource, Cloneable {
 	public SimulationConditions toSimulationConditions() {
 		SimulationConditions conditions = new SimulationConditions();
 		
-		conditions.setRocket((Rocket) getRocket().copy());
+		// The simulated copy keeps the component IDs, generating new IDs is an unnecessary cost
+		conditions.setRocket(getRocket().copyWithOriginalID());
 		conditions.setMotorConfigurationID(getMotorConfigurationID());
 		conditions.setLaunchRodLength(getLaunchRodLength());
 		conditions.setLaunchRodAngle(getLaunchRodAngle());
@@ -0,0 +1,169 @@
+package net.sf.openrocket.simulation.customexpression;
+
+import java.nio.DoubleBuffer;
+import java.util.Map;
+
+import net.sf.openrocket.simulation.FlightDataBranch;
+import net.sf.openrocket.simulation.FlightDataType;
+import net.sf.openrocket.simulation.SimulationStatus;
+import de.congrace.exp4j.Calculable;
+import de.congrace.exp4j.Variable;
+
+/**
+ * A custom expression compiled for repeated evaluation during a single simulation.
+ * <p>
+ * The expression is parsed only once, and only the variables the expression actually
+ * uses are bound on each evaluation, by their slot index in the compiled expression.
+ * Instances keep state between evaluations, so they must not be shared between
+ * simulations that run concurrently.
+ *
+ * @see CustomExpression#compile()
+ */
+public abstract class CompiledExpression {
+	
+	/**
+	 * Evaluate the expression using the last variable values from the simulation status.
+	 */
+	public abstract Variable evaluate(SimulationStatus status);
+	
+	/**
+	 * Evaluate the expression as a double, infinite results are returned as NaN.
+	 */
+	public double evaluateDouble(SimulationStatus status) {
+		return finite(evaluate(status).getDoubleValue());
+	}
+	
+	static double finite(double result) {
+		if (result == Double.NEGATIVE_INFINITY || result == Double.POSITIVE_INFINITY)
+			return Double.NaN;
+		return result;
+	}
+	
+	/**
+	 * Interpolate a flight data column linearly at a given time, in the same way as
+	 * {@link net.sf.openrocket.util.LinearInterpolator} but reading the columns directly.
+	 * Times outside the data are clamped to the first or last value, and of points with
+	 * equal times the last one is used.
+	 * 
+	 * @param time	the time column, which must not decrease and must not be empty.
+	 * @param data	the data column of the same length.
+	 * @param t		the time at which to interpolate.
+	 * @return		the interpolated value.
+	 */
+	static double interpolate(DoubleBuffer time, DoubleBuffer data, double t) {
+		int n = time.limit();
+		int hi = upperBound(time, t, 0, n);
+		if (hi == 0) {
+			return data.get(upperBound(time, time.get(0), 0, n) - 1);
+		}
+		
+		int lo = hi - 1;
+		double t1 = time.get(lo);
+		double y1 = data.get(lo);
+		if (t1 == t || hi == n) {
+			return y1;
+		}
+		
+		double t2 = time.get(hi);
+		double y2 = data.get(upperBound(time, t2, hi, n) - 1);
+		return (t - t1) / (t2 - t1) * (y2 - y1) + y1;
+	}
+	
+	/*
+	 * Return the index of the first time greater than t, searching from the given index.
+	 */
+	private static int upperBound(DoubleBuffer time, double t, int from, int to) {
+		int low = from;
+		int high = to;
+		while (low < high) {
+			int mid = (low + high) >>> 1;
+			if (time.get(mid) <= t) {
+				low = mid + 1;
+			} else {
+				high = mid;
+			}
+		}
+		return low;
+	}
+	
+	
+	/**
+	 * Binds the variables used by a calculable to the last flight data values and to the
+	 * results of compiled sub expressions.  Variables whose flight data type is not present
+	 * in the flight data branch are left as place holders.
+	 */
+	static class Binding {
+		private final Calculable calc;
+		private final String[] names;
+		private final CompiledExpression[] subExpressions;
+		private final Variable[] placeholders;
+		
+		/** The resolved types by slot, valid for the branch below */
+		private final FlightDataType[] types;
+		private FlightDataBranch branch;
+		
+		/**
+		 * @param calc				the calculable to bind.
+		 * @param subExpressions	the compiled sub expressions by their variable name.
+		 */
+		Binding(Calculable calc, Map<String, CompiledExpression> subExpressions) {
+			this.calc = calc;
+			this.names = calc.getVariableNames();
+			this.subExpressions = new CompiledExpression[names.length];
+			this.placeholders = new Variable[names.length];
+			this.types = new FlightDataType[names.length];
+			
+			for (int i = 0; i < names.length; i++) {
+				this.subExpressions[i] = subExpressions.get(names[i]);
+				this.placeholders[i] = new Variable(names[i]);
+			}
+		}
+		
+		void bind(SimulationStatus status) {
+			FlightDataBranch data = status.getFlightData();
+			if (data != branch) {
+				branch = data;
+				for (int i = 0; i < types.length; i++) {
+					types[i] = null;
+				}
+			}
+			
+			boolean resolved = false;
+			for (int i = 0; i < names.length; i++) {
+				if (subExpressions[i] != null) {
+					Variable value = subExpressions[i].evaluate(status);
+					if (names[i].equals(value.getName())) {
+						calc.setVariable(value);
+					} else {
+						calc.setVariable(placeholders[i]);
+					}
+					continue;
+				}
+				
+				if (types[i] == null && !resolved) {
+					resolveTypes(data);
+					resolved = true;
+				}
+				if (types[i] == null) {
+					calc.setVariable(placeholders[i]);
+				} else {
+					calc.setVariable(i, data.getLast(types[i]));
+				}
+			}
+		}
+		
+		/*
+		 * Types may be added to the branch during the simulation, so unresolved variables are
+		 * looked up again until they are found.
+		 */
+		private void resolveTypes(FlightDataBranch data) {
+			for (FlightDataType type : data.getTypes()) {
+				for (int i = 0; i < names.length; i++) {
+					if (subExpressions[i] == null && names[i].equals(type.getSymbol())) {
+						types[i] = type;
+					}
+				}
+			}
+		}
+	}
+}
@@ -1,6 +1,8 @@
 package net.sf.openrocket.simulation.customexpression;
 
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
 
@@ -373,10 +375,7 @@ public class CustomExpression implements Cloneable {
 	}
 	
 	public Double evaluateDouble(SimulationStatus status) {
-		double result = evaluate(status).getDoubleValue();
-		if (result == Double.NEGATIVE_INFINITY || result == Double.POSITIVE_INFINITY)
-			result = Double.NaN;
-		return result;
+		return compile().evaluateDouble(status);
 	}
 	
 	/*
@@ -392,7 +391,10 @@ public class CustomExpression implements Cloneable {
 	protected Calculable buildExpression(ExpressionBuilder b) {
 		Calculable calc = null;
 		try {
-			calc = b.build();
+			// The builder rewrites its expression on the first build
+			synchronized (b) {
+				calc = b.build();
+			}
 		} catch (UnknownFunctionException e1) {
 			log.info(Markers.USER_MARKER, "Unknown function. Could not build custom expression " + this.toString());
 			return null;
@@ -406,35 +408,59 @@ public class CustomExpression implements Cloneable {
 	
 	/*
 	 * Evaluate the expression using the last variable values from the simulation status.
-	 * Returns NaN on any error.
+	 * Returns NaN on any error.  This compiles the expression on every call, use compile()
+	 * for evaluating the expression repeatedly.
 	 */
 	public Variable evaluate(SimulationStatus status) {
-		
-		Calculable calc = buildExpression(builder);
-		if (calc == null) {
-			return new Variable("Unknown");
+		return compile().evaluate(status);
+	}
+	
+	/*
+	 * Compiles the expression and its sub expressions for repeated evaluation during a single simulation.
+	 * Errors in building the expression are logged once, the compiled expression then evaluates to NaN.
+	 */
+	public CompiledExpression compile() {
+		Map<String, CompiledExpression> compiledSubExpressions = new HashMap<String, CompiledExpression>();
+		for (CustomExpression expr : this.subExpressions) {
+			compiledSubExpressions.put(expr.hash(), expr.compile());
 		}
+		return new Compiled(buildExpression(builder), compiledSubExpressions);
+	}
+	
+	private class Compiled extends CompiledExpression {
+		private final Calculable calc;
+		private final Binding binding;
 		
-		// Evaluate any sub expressions and set associated variables in the calculable
-		for (CustomExpression expr : this.subExpressions) {
-			calc.setVariable(expr.evaluate(status));
+		public Compiled(Calculable calc, Map<String, CompiledExpression> subExpressions) {
+			this.calc = calc;
+			this.binding = (calc == null) ? null : new Binding(calc, subExpressions);
 		}
 		
-		// Set all the built-in variables. Strictly we surely won't need all of them
-		// Going through and checking them to include only the ones used *might* give a speedup
-		for (FlightDataType type : status.getFlightData().getTypes()) {
-			double value = status.getFlightData().getLast(type);
-			calc.setVariable(new Variable(type.getSymbol(), value));
+		@Override
+		public Variable evaluate(SimulationStatus status) {
+			if (calc == null) {
+				return new Variable("Unknown");
+			}
+			return new Variable(name, calculate(status));
 		}
 		
-		double result = Double.NaN;
-		try {
-			result = calc.calculate().getDoubleValue();
-		} catch (java.util.EmptyStackException e) {
-			log.info(Markers.USER_MARKER, "Unable to calculate expression " + this.expression + " due to empty stack exception");
+		@Override
+		public double evaluateDouble(SimulationStatus status) {
+			if (calc == null) {
+				return Double.NaN;
+			}
+			return finite(calculate(status));
 		}
 		
-		return new Variable(name, result);
+		private double calculate(SimulationStatus status) {
+			binding.bind(status);
+			try {
+				return calc.calculateDouble();
+			} catch (java.util.EmptyStackException e) {
+				log.info(Markers.USER_MARKER, "Unable to calculate expression " + expression + " due to empty stack exception");
+				return Double.NaN;
+			}
+		}
 	}
 	
 	/*
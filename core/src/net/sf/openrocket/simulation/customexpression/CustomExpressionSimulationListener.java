@@ -1,5 +1,6 @@
 package net.sf.openrocket.simulation.customexpression;
 
+import java.util.ArrayList;
 import java.util.List;
 
 import net.sf.openrocket.simulation.FlightDataBranch;
@@ -15,25 +16,49 @@ public class CustomExpressionSimulationListener extends AbstractSimulationListen
 	private static final Logger log = LoggerFactory.getLogger(CustomExpressionSimulationListener.class);
 	private final List<CustomExpression> expressions;
 	
+	/** The expressions compiled for the current simulation, in the same order as the expressions. */
+	private List<CompiledExpression> compiled;
+	
 	public CustomExpressionSimulationListener(List<CustomExpression> expressions) {
 		super();
 		this.expressions = expressions;
 	}
 	
+	@Override
+	public void startSimulation(SimulationStatus status) throws SimulationException {
+		compiled = null;
+	}
+	
 	@Override
 	public void postStep(SimulationStatus status) throws SimulationException {
 		if (expressions == null || expressions.size() == 0) {
 			return;
 		}
+		if (compiled == null || compiled.size() != expressions.size()) {
+			compiled = new ArrayList<CompiledExpression>(expressions.size());
+			for (CustomExpression expression : expressions) {
+				compiled.add(expression.compile());
+			}
+		}
+		
 		// Calculate values for custom expressions
 		FlightDataBranch data = status.getFlightData();
-		for (CustomExpression expression : expressions) {
-			double value = expression.evaluateDouble(status);
+		for (int i = 0; i < expressions.size(); i++) {
+			CustomExpression expression = expressions.get(i);
+			double value = compiled.get(i).evaluateDouble(status);
 			//log.debug("Setting value of custom expression "+expression.toString()+" = "+value);
 			data.setValue(expression.getType(), value);
 		}
 	}
 	
+	@Override
+	public CustomExpressionSimulationListener clone() {
+		CustomExpressionSimulationListener clone = (CustomExpressionSimulationListener) super.clone();
+		// Compiled expressions keep state, the clone compiles its own
+		clone.compiled = null;
+		return clone;
+	}
+	
 	@Override
 	public boolean isSystemListener() {
 		return true;
@@ -1,19 +1,18 @@
 package net.sf.openrocket.simulation.customexpression;
 
-import java.util.List;
+import java.nio.DoubleBuffer;
+import java.util.Collections;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import de.congrace.exp4j.Calculable;
-import de.congrace.exp4j.ExpressionBuilder;
 import de.congrace.exp4j.Variable;
 import net.sf.openrocket.document.OpenRocketDocument;
 import net.sf.openrocket.logging.Markers;
 import net.sf.openrocket.simulation.customexpression.CustomExpression;
 import net.sf.openrocket.simulation.FlightDataType;
 import net.sf.openrocket.simulation.SimulationStatus;
-import net.sf.openrocket.util.LinearInterpolator;
 
 public class IndexExpression extends CustomExpression {
 
@@ -29,37 +28,50 @@ public class IndexExpression extends CustomExpression {
 	}
 	
 	@Override
-	public Variable evaluate(SimulationStatus status){
-		Calculable calc = buildExpression();
-		if (calc == null){
-			return new Variable("Unknown");
-		}
-		
-		// From the given datatype, get the time and function values and make an interpolator
-
-		//Note: must get in a way that flight data system will figure out units. Otherwise there will be a type conflict when we get the new data.
-		FlightDataType myType = FlightDataType.getType(null, getSymbol(), null);  
-				
-		List<Double> data = status.getFlightData().get(myType);
-		List<Double> time = status.getFlightData().get(FlightDataType.TYPE_TIME);
-		LinearInterpolator interp = new LinearInterpolator(time, data); 
+	public CompiledExpression compile(){
+		return new Compiled(buildExpression());
+	}
+	
+	private class Compiled extends CompiledExpression {
+		private final Calculable calc;
+		private final Binding binding;
 		
-		// Set the variables in the expression to evaluate
-		for (FlightDataType etype : status.getFlightData().getTypes()){
-			double value = status.getFlightData().getLast(etype); 
-			calc.setVariable( new Variable(etype.getSymbol(), value ) );
+		public Compiled(Calculable calc){
+			this.calc = calc;
+			this.binding = (calc == null) ? null : new Binding(calc, Collections.<String, CompiledExpression> emptyMap());
 		}
 		
-		// Evaluate this expression to get the t value
-		//System.out.println("Evaluating expression to get t value "+this.getExpressionString());
-		try{
-			double tvalue = calc.calculate().getDoubleValue();
-			//System.out.println("t = "+tvalue);
-			return new Variable(hash(), interp.getValue( tvalue ) );
-		}
-		catch (java.util.EmptyStackException e){
-			log.info(Markers.USER_MARKER, "Unable to calculate time index for indexed expression "+getExpressionString()+" due to empty stack exception");
-			return new Variable("Unknown");
+		@Override
+		public Variable evaluate(SimulationStatus status){
+			if (calc == null){
+				return new Variable("Unknown");
+			}
+			
+			// From the given datatype, get the time and function values to interpolate
+	
+			//Note: must get in a way that flight data system will figure out units. Otherwise there will be a type conflict when we get the new data.
+			FlightDataType myType = FlightDataType.getType(null, getSymbol(), null);  
+					
+			DoubleBuffer data = status.getFlightData().getBuffer(myType);
+			DoubleBuffer time = status.getFlightData().getBuffer(FlightDataType.TYPE_TIME);
+			if (data == null || time == null || time.limit() == 0){
+				return new Variable("Unknown");
+			}
+			
+			// Set the variables in the expression to evaluate
+			binding.bind(status);
+			
+			// Evaluate this expression to get the t value
+			//System.out.println("Evaluating expression to get t value "+this.getExpressionString());
+			try{
+				double tvalue = calc.calculateDouble();
+				//System.out.println("t = "+tvalue);
+				return new Variable(hash(), interpolate(time, data, tvalue) );
+			}
+			catch (java.util.EmptyStackException e){
+				log.info(Markers.USER_MARKER, "Unable to calculate time index for indexed expression "+getExpressionString()+" due to empty stack exception");
+				return new Variable("Unknown");
+			}
 		}
 	}
 }
@@ -4,7 +4,9 @@
 
 package net.sf.openrocket.simulation.customexpression;
 
-import java.util.List;
+import java.nio.DoubleBuffer;
+import java.util.Collections;
+import java.util.Map;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -18,7 +20,6 @@ import net.sf.openrocket.simulation.customexpression.CustomExpression;
 import net.sf.openrocket.simulation.FlightDataType;
 import net.sf.openrocket.simulation.SimulationStatus;
 import net.sf.openrocket.util.ArrayUtils;
-import net.sf.openrocket.util.LinearInterpolator;
 import net.sf.openrocket.util.MathUtil;
 import net.sf.openrocket.util.StringUtil;
 
@@ -59,62 +60,83 @@ public class RangeExpression extends CustomExpression {
 	}
 	
 	@Override
-	public Variable evaluate(SimulationStatus status){
+	public CompiledExpression compile(){
+		return new Compiled(buildExpression(startBuilder), buildExpression(endBuilder));
+	}
+	
+	private class Compiled extends CompiledExpression {
+		private final Calculable startCalc, endCalc;
+		private final Binding startBinding, endBinding;
 		
-		Calculable startCalc = buildExpression(startBuilder);
-		Calculable endCalc = buildExpression(endBuilder);
-		if (startCalc == null || endCalc == null){
-			return new Variable("Unknown");
+		public Compiled(Calculable startCalc, Calculable endCalc){
+			this.startCalc = startCalc;
+			this.endCalc = endCalc;
+			if (startCalc == null || endCalc == null){
+				startBinding = null;
+				endBinding = null;
+			}
+			else {
+				Map<String, CompiledExpression> none = Collections.emptyMap();
+				startBinding = new Binding(startCalc, none);
+				endBinding = new Binding(endCalc, none);
+			}
 		}
 		
-		// Set the variables in the start and end calculators
-		for (FlightDataType type : status.getFlightData().getTypes()){
-			double value = status.getFlightData().getLast(type); 
-			startCalc.setVariable( new Variable(type.getSymbol(), value ) );
-			endCalc.setVariable( new Variable(type.getSymbol(), value ) );
-		}		
-		
-		// From the given datatype, get the time and function values and make an interpolator
-
-		//Note: must get in a way that flight data system will figure out units. Otherwise there will be a type conflict when we get the new data.
-		FlightDataType type = FlightDataType.getType(null, getSymbol(), null);
-		
-		List<Double> data = status.getFlightData().get(type);
-		List<Double> time = status.getFlightData().get(FlightDataType.TYPE_TIME);
-		LinearInterpolator interp = new LinearInterpolator(time, data); 
-		
-		// Evaluate the expression to get the start and end of the range
-		double startTime, endTime;
-		try{
-			startTime = startCalc.calculate().getDoubleValue();
-			startTime = MathUtil.clamp(startTime, 0, Double.MAX_VALUE);
+		@Override
+		public Variable evaluate(SimulationStatus status){
 			
-			endTime = endCalc.calculate().getDoubleValue();
-			endTime = MathUtil.clamp(endTime, 0, time.get(time.size()-1));
-		}
-		catch (java.util.EmptyStackException e){
-			log.info(Markers.USER_MARKER, "Unable to calculate time index for range expression "+getSymbol()+" due to empty stack exception");
-			return new Variable("Unknown");
-		}
-		
-		// generate an array representing the range
-		double step = status.getSimulationConditions().getSimulation().getOptions().getTimeStep();
-		double[] t = ArrayUtils.range(startTime, endTime,  step);
-		double[] y = new double[t.length]; 
-		int i = 0;
-		for (double tval : t){
-			y[i] = interp.getValue( tval );
-			i++;
-		}
+			if (startCalc == null || endCalc == null){
+				return new Variable("Unknown");
+			}
+			
+			// Set the variables in the start and end calculators
+			startBinding.bind(status);
+			endBinding.bind(status);
+			
+			// From the given datatype, get the time and function values to interpolate
+	
+			//Note: must get in a way that flight data system will figure out units. Otherwise there will be a type conflict when we get the new data.
+			FlightDataType type = FlightDataType.getType(null, getSymbol(), null);
+			
+			DoubleBuffer data = status.getFlightData().getBuffer(type);
+			DoubleBuffer time = status.getFlightData().getBuffer(FlightDataType.TYPE_TIME);
+			if (data == null || time == null || time.limit() == 0){
+				return new Variable("Unknown");
+			}
+			
+			// Evaluate the expression to get the start and end of the range
+			double startTime, endTime;
+			try{
+				startTime = startCalc.calculateDouble();
+				startTime = MathUtil.clamp(startTime, 0, Double.MAX_VALUE);
 				
-		Variable result;
-		if (y.length == 0){
-			result = new Variable("Unknown");
-		}
-		else {
-			result = new Variable(hash(), y, startTime, step);
+				endTime = endCalc.calculateDouble();
+				endTime = MathUtil.clamp(endTime, 0, time.get(time.limit()-1));
+			}
+			catch (java.util.EmptyStackException e){
+				log.info(Markers.USER_MARKER, "Unable to calculate time index for range expression "+getSymbol()+" due to empty stack exception");
+				return new Variable("Unknown");
+			}
+			
+			// generate an array representing the range
+			double step = status.getSimulationConditions().getSimulation().getOptions().getTimeStep();
+			double[] t = ArrayUtils.range(startTime, endTime,  step);
+			double[] y = new double[t.length]; 
+			int i = 0;
+			for (double tval : t){
+				y[i] = interpolate(time, data, tval);
+				i++;
+			}
+					
+			Variable result;
+			if (y.length == 0){
+				result = new Variable("Unknown");
+			}
+			else {
+				result = new Variable(hash(), y, startTime, step);
+			}
+			
+			return result;
 		}
-		
-		return result;
 	}
 }
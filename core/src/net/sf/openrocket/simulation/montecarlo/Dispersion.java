@@ -0,0 +1,76 @@
+package net.sf.openrocket.simulation.montecarlo;
+
+import java.util.Random;
+
+/**
+ * A probability distribution of a dispersed simulation parameter.
+ */
+public abstract class Dispersion {
+	
+	/**
+	 * Draw a sample from the distribution.
+	 * 
+	 * @param random	the random source to use.
+	 * @return			the sampled value.
+	 */
+	public abstract double sample(Random random);
+	
+	
+	/**
+	 * Return a distribution that always returns the given value.
+	 */
+	public static Dispersion fixed(final double value) {
+		return new Dispersion() {
+			@Override
+			public double sample(Random random) {
+				return value;
+			}
+			
+			@Override
+			public String toString() {
+				return "Fixed[" + value + "]";
+			}
+		};
+	}
+	
+	/**
+	 * Return a uniform distribution between the given values.
+	 */
+	public static Dispersion uniform(final double min, final double max) {
+		if (max < min) {
+			throw new IllegalArgumentException("max=" + max + " is smaller than min=" + min);
+		}
+		return new Dispersion() {
+			@Override
+			public double sample(Random random) {
+				return min + (max - min) * random.nextDouble();
+			}
+			
+			@Override
+			public String toString() {
+				return "Uniform[" + min + ", " + max + "]";
+			}
+		};
+	}
+	
+	/**
+	 * Return a normal distribution with the given mean and standard deviation.
+	 */
+	public static Dispersion normal(final double mean, final double deviation) {
+		if (deviation < 0) {
+			throw new IllegalArgumentException("Negative standard deviation " + deviation);
+		}
+		return new Dispersion() {
+			@Override
+			public double sample(Random random) {
+				return mean + deviation * random.nextGaussian();
+			}
+			
+			@Override
+			public String toString() {
+				return "Normal[" + mean + ", " + deviation + "]";
+			}
+		};
+	}
+	
+}
@@ -0,0 +1,192 @@
+package net.sf.openrocket.simulation.montecarlo;
+
+import java.util.Arrays;
+
+import net.sf.openrocket.util.P2Quantile;
+import net.sf.openrocket.util.RunningStatistics;
+
+/**
+ * Streaming statistics of the apogee and landing point of a batch of flights.  The
+ * statistics use constant memory regardless of the number of flights, so the flight data
+ * of each flight can be discarded as soon as it has been added.
+ * <p>
+ * Flights can be added as the results of a {@link MonteCarloSimulation}, in which case the
+ * statistics are reproducible, or using a {@link DispersionStatisticsListener} attached to
+ * any simulation.  The quantile estimates depend on the order in which the flights are
+ * added, so the latter may vary slightly between batches simulated using multiple threads.
+ * <p>
+ * This class is thread-safe.  The aggregators returned by the getters are snapshots taken
+ * under the lock, so they may be read while flights are still being added and later
+ * flights are not reflected in them.
+ */
+public class DispersionStatistics implements MonteCarloListener {
+	
+	/** The default quantiles estimated for the apogee and landing distance. */
+	public static final double[] DEFAULT_QUANTILES = { 0.05, 0.5, 0.95 };
+	
+	private final double[] quantiles;
+	
+	private final RunningStatistics apogee = new RunningStatistics();
+	private final RunningStatistics timeToApogee = new RunningStatistics();
+	private final RunningStatistics landingDistance = new RunningStatistics();
+	private final LandingEllipse landingEllipse = new LandingEllipse();
+	private final P2Quantile[] apogeeQuantiles;
+	private final P2Quantile[] landingDistanceQuantiles;
+	
+	private long flights = 0;
+	private long failures = 0;
+	
+	
+	/**
+	 * Construct statistics estimating the {@link #DEFAULT_QUANTILES}.
+	 */
+	public DispersionStatistics() {
+		this(DEFAULT_QUANTILES);
+	}
+	
+	/**
+	 * Construct statistics estimating the given quantiles of the apogee and the landing
+	 * distance.
+	 * 
+	 * @param quantiles		the quantiles to estimate, each between 0 and 1.
+	 */
+	public DispersionStatistics(double... quantiles) {
+		this.quantiles = quantiles.clone();
+		this.apogeeQuantiles = new P2Quantile[quantiles.length];
+		this.landingDistanceQuantiles = new P2Quantile[quantiles.length];
+		for (int i = 0; i < quantiles.length; i++) {
+			apogeeQuantiles[i] = new P2Quantile(quantiles[i]);
+			landingDistanceQuantiles[i] = new P2Quantile(quantiles[i]);
+		}
+	}
+	
+	
+	/**
+	 * Add the summary of a successful flight.
+	 * 
+	 * @param apogee			the apogee altitude.
+	 * @param timeToApogee		the time to apogee.
+	 * @param landingX			the east position of the landing point.
+	 * @param landingY			the north position of the landing point.
+	 */
+	public synchronized void add(double apogee, double timeToApogee, double landingX, double landingY) {
+		flights++;
+		this.apogee.add(apogee);
+		this.timeToApogee.add(timeToApogee);
+		for (P2Quantile q : apogeeQuantiles) {
+			q.add(apogee);
+		}
+		
+		landingEllipse.add(landingX, landingY);
+		double distance = Math.hypot(landingX, landingY);
+		landingDistance.add(distance);
+		for (P2Quantile q : landingDistanceQuantiles) {
+			q.add(distance);
+		}
+	}
+	
+	/**
+	 * Record a flight whose simulation failed.
+	 */
+	public synchronized void addFailure() {
+		flights++;
+		failures++;
+	}
+	
+	
+	@Override
+	public void runCompleted(MonteCarloResult result) {
+		if (result.getException() != null) {
+			addFailure();
+		} else {
+			add(result.getApogee(), result.getTimeToApogee(), result.getLandingX(), result.getLandingY());
+		}
+	}
+	
+	
+	/**
+	 * Return the total number of flights added, including failed flights.
+	 */
+	public synchronized long getFlightCount() {
+		return flights;
+	}
+	
+	public synchronized long getFailureCount() {
+		return failures;
+	}
+	
+	/**
+	 * Return the quantiles estimated by these statistics.
+	 */
+	public double[] getQuantiles() {
+		return quantiles.clone();
+	}
+	
+	/**
+	 * Return a snapshot of the statistics of the apogee altitude.
+	 */
+	public synchronized RunningStatistics getApogee() {
+		return apogee.copy();
+	}
+	
+	/**
+	 * Return a snapshot of the statistics of the time to apogee.
+	 */
+	public synchronized RunningStatistics getTimeToApogee() {
+		return timeToApogee.copy();
+	}
+	
+	/**
+	 * Return a snapshot of the statistics of the distance of the landing point from
+	 * the launch site.
+	 */
+	public synchronized RunningStatistics getLandingDistance() {
+		return landingDistance.copy();
+	}
+	
+	/**
+	 * Return a snapshot of the dispersion ellipse of the landing points.
+	 */
+	public synchronized LandingEllipse getLandingEllipse() {
+		return landingEllipse.copy();
+	}
+	
+	/**
+	 * Return the estimate of a quantile of the apogee.
+	 * 
+	 * @param p		one of the quantiles estimated by these statistics.
+	 * @return		the estimated quantile, or NaN if no flights have been added.
+	 * @throws IllegalArgumentException	if the quantile is not estimated by these statistics.
+	 */
+	public synchronized double getApogeeQuantile(double p) {
+		return apogeeQuantiles[indexOf(p)].getQuantile();
+	}
+	
+	/**
+	 * Return the estimate of a quantile of the landing distance from the launch site.
+	 * 
+	 * @param p		one of the quantiles estimated by these statistics.
+	 * @return		the estimated quantile, or NaN if no flights have been added.
+	 * @throws IllegalArgumentException	if the quantile is not estimated by these statistics.
+	 */
+	public synchronized double getLandingDistanceQuantile(double p) {
+		return landingDistanceQuantiles[indexOf(p)].getQuantile();
+	}
+	
+	private int indexOf(double p) {
+		for (int i = 0; i < quantiles.length; i++) {
+			if (quantiles[i] == p)
+				return i;
+		}
+		throw new IllegalArgumentException("Quantile " + p + " is not estimated, available quantiles are " +
+				Arrays.toString(quantiles));
+	}
+	
+	
+	@Override
+	public synchronized String toString() {
+		return "DispersionStatistics[flights=" + flights + ", failures=" + failures + ", apogee=" + apogee +
+				", landing=" + landingEllipse + "]";
+	}
+	
+}
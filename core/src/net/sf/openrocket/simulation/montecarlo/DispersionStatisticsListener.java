@@ -0,0 +1,115 @@
+package net.sf.openrocket.simulation.montecarlo;
+
+import java.nio.DoubleBuffer;
+
+import net.sf.openrocket.simulation.FlightDataBranch;
+import net.sf.openrocket.simulation.FlightDataType;
+import net.sf.openrocket.simulation.SimulationStatus;
+import net.sf.openrocket.simulation.exception.SimulationException;
+import net.sf.openrocket.simulation.listeners.AbstractSimulationListener;
+
+/**
+ * A simulation listener that adds the apogee and landing point of each simulated flight
+ * to a {@link DispersionStatistics} when the simulation ends.  The values are read from
+ * the flight data of the sustainer, so the flight data is no longer needed once the
+ * simulation has completed.  The listener drops its own reference to the branch once the
+ * flight has been added and then calls {@link #flightAdded(SimulationStatus, FlightDataBranch)},
+ * which subclasses may override to release the data.  The flight data returned by the
+ * simulation is discarded by the caller, for example by reusing the same simulation for
+ * the next flight.
+ * <p>
+ * A single listener may be used by several simulations concurrently.
+ */
+public class DispersionStatisticsListener extends AbstractSimulationListener {
+	
+	private static final String FLIGHT_KEY = DispersionStatisticsListener.class.getName() + ".flight";
+	
+	private final DispersionStatistics statistics;
+	
+	
+	public DispersionStatisticsListener(DispersionStatistics statistics) {
+		this.statistics = statistics;
+	}
+	
+	
+	public DispersionStatistics getStatistics() {
+		return statistics;
+	}
+	
+	
+	@Override
+	public void startSimulation(SimulationStatus status) throws SimulationException {
+		// The state is shared by the statuses of all stages, which copy the extra data
+		status.putExtraData(FLIGHT_KEY, new Flight(status.getFlightData()));
+	}
+	
+	
+	/**
+	 * {@inheritDoc}
+	 * <p>
+	 * The simulation engine may end a simulation once for a failed stage and again once all
+	 * stages have been simulated, so only the first call of each simulation is counted.
+	 */
+	@Override
+	public void endSimulation(SimulationStatus status, SimulationException exception) {
+		Flight flight = (Flight) status.getExtraData(FLIGHT_KEY);
+		if (flight == null || flight.added) {
+			return;
+		}
+		flight.added = true;
+		FlightDataBranch branch = flight.sustainer;
+		flight.sustainer = null;
+		
+		if (exception != null) {
+			statistics.addFailure();
+		} else {
+			double apogee = branch.getMaximum(FlightDataType.TYPE_ALTITUDE);
+			statistics.add(apogee, getTimeToApogee(branch, apogee),
+					branch.getLast(FlightDataType.TYPE_POSITION_X),
+					branch.getLast(FlightDataType.TYPE_POSITION_Y));
+		}
+		flightAdded(status, branch);
+	}
+	
+	
+	/**
+	 * Called once the flight of a simulation has been added to the statistics.  The
+	 * branch is no longer referenced by this listener, so it may be released here.
+	 * The default implementation does nothing.
+	 * 
+	 * @param status	the status of the simulation.
+	 * @param branch	the flight data of the sustainer that was added.
+	 */
+	protected void flightAdded(SimulationStatus status, FlightDataBranch branch) {
+		// No-op
+	}
+	
+	
+	private static double getTimeToApogee(FlightDataBranch branch, double apogee) {
+		DoubleBuffer time = branch.getBuffer(FlightDataType.TYPE_TIME);
+		DoubleBuffer altitude = branch.getBuffer(FlightDataType.TYPE_ALTITUDE);
+		if (time == null || altitude == null) {
+			return Double.NaN;
+		}
+		for (int i = 0; i < altitude.limit(); i++) {
+			if (altitude.get(i) == apogee) {
+				return time.get(i);
+			}
+		}
+		return Double.NaN;
+	}
+	
+	
+	/**
+	 * The state of a single simulated flight.
+	 */
+	private static class Flight {
+		private FlightDataBranch sustainer;
+		private boolean added = false;
+		
+		public Flight(FlightDataBranch sustainer) {
+			this.sustainer = sustainer;
+		}
+	}
+	
+}
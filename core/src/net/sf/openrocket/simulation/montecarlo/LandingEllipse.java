@@ -0,0 +1,163 @@
+package net.sf.openrocket.simulation.montecarlo;
+
+/**
+ * The mean and covariance of a stream of landing points, computed in constant memory
+ * using a two-dimensional form of Welford's algorithm.  The covariance defines the
+ * dispersion ellipse of the landing points, assuming they are normally distributed.
+ * <p>
+ * The landing points are given in the east (x) and north (y) position relative to the
+ * launch site.  Points with NaN coordinates are ignored.  This class is not thread-safe.
+ */
+public class LandingEllipse {
+	
+	private long count = 0;
+	private double meanX = 0;
+	private double meanY = 0;
+	private double m2X = 0;
+	private double m2Y = 0;
+	private double cXY = 0;
+	
+	
+	/**
+	 * Add a landing point.
+	 * 
+	 * @param x		the east position of the landing point.
+	 * @param y		the north position of the landing point.
+	 */
+	public void add(double x, double y) {
+		if (Double.isNaN(x) || Double.isNaN(y))
+			return;
+		
+		count++;
+		double dx = x - meanX;
+		double dy = y - meanY;
+		meanX += dx / count;
+		meanY += dy / count;
+		m2X += dx * (x - meanX);
+		m2Y += dy * (y - meanY);
+		cXY += dx * (y - meanY);
+	}
+	
+	/**
+	 * Return a copy of this ellipse.  Points added to the copy do not affect
+	 * the original and vice versa.
+	 */
+	public LandingEllipse copy() {
+		LandingEllipse copy = new LandingEllipse();
+		copy.count = count;
+		copy.meanX = meanX;
+		copy.meanY = meanY;
+		copy.m2X = m2X;
+		copy.m2Y = m2Y;
+		copy.cXY = cXY;
+		return copy;
+	}
+	
+	
+	/**
+	 * Return the number of landing points added.
+	 */
+	public long getCount() {
+		return count;
+	}
+	
+	public double getMeanX() {
+		return (count > 0) ? meanX : Double.NaN;
+	}
+	
+	public double getMeanY() {
+		return (count > 0) ? meanY : Double.NaN;
+	}
+	
+	/**
+	 * Return the sample variance of the x coordinates, or NaN if less than two points
+	 * have been added.
+	 */
+	public double getVarianceX() {
+		return (count > 1) ? m2X / (count - 1) : Double.NaN;
+	}
+	
+	/**
+	 * Return the sample variance of the y coordinates, or NaN if less than two points
+	 * have been added.
+	 */
+	public double getVarianceY() {
+		return (count > 1) ? m2Y / (count - 1) : Double.NaN;
+	}
+	
+	/**
+	 * Return the sample covariance of the x and y coordinates, or NaN if less than two
+	 * points have been added.
+	 */
+	public double getCovarianceXY() {
+		return (count > 1) ? cXY / (count - 1) : Double.NaN;
+	}
+	
+	
+	/**
+	 * Return the semi-major axis of the ellipse containing the given fraction of the
+	 * landing points.
+	 * 
+	 * @param probability	the fraction of landing points within the ellipse, e.g. 0.95.
+	 * @return				the length of the semi-major axis, or NaN if less than two points
+	 * 						have been added.
+	 */
+	public double getSemiMajorAxis(double probability) {
+		return scale(probability) * Math.sqrt(eigenvalue(true));
+	}
+	
+	/**
+	 * Return the semi-minor axis of the ellipse containing the given fraction of the
+	 * landing points.
+	 * 
+	 * @param probability	the fraction of landing points within the ellipse, e.g. 0.95.
+	 * @return				the length of the semi-minor axis, or NaN if less than two points
+	 * 						have been added.
+	 */
+	public double getSemiMinorAxis(double probability) {
+		return scale(probability) * Math.sqrt(eigenvalue(false));
+	}
+	
+	/**
+	 * Return the direction of the major axis of the ellipse, as the angle from the positive
+	 * x axis towards the positive y axis in radians.  The value is in the range -pi/2...pi/2.
+	 */
+	public double getOrientation() {
+		if (count < 2)
+			return Double.NaN;
+		return 0.5 * Math.atan2(2 * cXY, m2X - m2Y);
+	}
+	
+	
+	/*
+	 * Return the larger or smaller eigenvalue of the covariance matrix.
+	 */
+	private double eigenvalue(boolean major) {
+		double vx = getVarianceX();
+		double vy = getVarianceY();
+		double cxy = getCovarianceXY();
+		double mid = (vx + vy) / 2;
+		double r = Math.hypot((vx - vy) / 2, cxy);
+		return Math.max(major ? mid + r : mid - r, 0);
+	}
+	
+	/*
+	 * The squared Mahalanobis distance of a bivariate normal distribution follows the
+	 * chi-squared distribution with two degrees of freedom, whose quantile is -2 ln(1-p).
+	 */
+	private static double scale(double probability) {
+		if (!(probability >= 0 && probability < 1)) {
+			throw new IllegalArgumentException("Probability must be in the range 0...1, was " + probability);
+		}
+		return Math.sqrt(-2 * Math.log(1 - probability));
+	}
+	
+	
+	@Override
+	public String toString() {
+		return "LandingEllipse[count=" + count + ", mean=(" + getMeanX() + "," + getMeanY() +
+				"), a95=" + getSemiMajorAxis(0.95) + ", b95=" + getSemiMinorAxis(0.95) +
+				", orientation=" + getOrientation() + "]";
+	}
+	
+}
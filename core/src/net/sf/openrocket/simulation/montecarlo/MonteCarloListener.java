@@ -0,0 +1,17 @@
+package net.sf.openrocket.simulation.montecarlo;
+
+/**
+ * A listener that receives the results of a Monte Carlo analysis as the flights complete.
+ */
+public interface MonteCarloListener {
+	
+	/**
+	 * Called once for each run, in the order of the runs regardless of the number of
+	 * threads used.  Calls are never concurrent, but may be made from any of the
+	 * worker threads.
+	 * 
+	 * @param result	the summary of the run.
+	 */
+	public void runCompleted(MonteCarloResult result);
+	
+}
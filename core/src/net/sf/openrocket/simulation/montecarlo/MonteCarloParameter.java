@@ -0,0 +1,69 @@
+package net.sf.openrocket.simulation.montecarlo;
+
+import net.sf.openrocket.simulation.SimulationOptions;
+
+/**
+ * The simulation parameters that can be dispersed in a Monte Carlo analysis.  All values
+ * are in SI units, angles in radians.
+ */
+public enum MonteCarloParameter {
+	
+	/** The average wind speed (m/s) */
+	WIND_SPEED_AVERAGE {
+		@Override
+		void apply(SimulationOptions options, double value) {
+			options.setWindSpeedAverage(value);
+		}
+	},
+	
+	/** The wind turbulence intensity (standard deviation / average) */
+	WIND_TURBULENCE_INTENSITY {
+		@Override
+		void apply(SimulationOptions options, double value) {
+			options.setWindTurbulenceIntensity(Math.max(value, 0));
+		}
+	},
+	
+	/** The direction the wind is blowing from */
+	WIND_DIRECTION {
+		@Override
+		void apply(SimulationOptions options, double value) {
+			options.setWindDirection(value);
+		}
+	},
+	
+	/** The launch rod angle from vertical */
+	LAUNCH_ROD_ANGLE {
+		@Override
+		void apply(SimulationOptions options, double value) {
+			options.setLaunchRodAngle(value);
+		}
+	},
+	
+	/**
+	 * The launch rod direction, this disables launching into the wind since the
+	 * direction would otherwise be overridden by the wind direction.
+	 */
+	LAUNCH_ROD_DIRECTION {
+		@Override
+		void apply(SimulationOptions options, double value) {
+			options.setLaunchIntoWind(false);
+			options.setLaunchRodDirection(value);
+		}
+	},
+	
+	/** The launch site temperature (K), this disables the ISA atmosphere */
+	LAUNCH_TEMPERATURE {
+		@Override
+		void apply(SimulationOptions options, double value) {
+			options.setISAAtmosphere(false);
+			options.setLaunchTemperature(value);
+		}
+	};
+	
+	/**
+	 * Set the parameter value to the simulation options.
+	 */
+	abstract void apply(SimulationOptions options, double value);
+	
+}
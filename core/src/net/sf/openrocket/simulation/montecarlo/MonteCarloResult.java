@@ -0,0 +1,121 @@
+package net.sf.openrocket.simulation.montecarlo;
+
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.Map;
+
+import net.sf.openrocket.simulation.FlightData;
+import net.sf.openrocket.simulation.FlightDataBranch;
+import net.sf.openrocket.simulation.FlightDataType;
+import net.sf.openrocket.simulation.exception.SimulationException;
+
+/**
+ * A summary of a single Monte Carlo flight.  The full flight data of the flight is not
+ * retained.  If the simulation failed, all values are NaN and the exception is available
+ * from {@link #getException()}.
+ */
+public class MonteCarloResult {
+	
+	private final int run;
+	private final Map<MonteCarloParameter, Double> parameters;
+	private final SimulationException exception;
+	
+	private final double apogee;
+	private final double timeToApogee;
+	private final double maxVelocity;
+	private final double groundHitVelocity;
+	private final double landingX;
+	private final double landingY;
+	
+	
+	MonteCarloResult(int run, Map<MonteCarloParameter, Double> parameters, FlightData data) {
+		this.run = run;
+		this.parameters = Collections.unmodifiableMap(new EnumMap<MonteCarloParameter, Double>(parameters));
+		this.exception = null;
+		
+		this.apogee = data.getMaxAltitude();
+		this.timeToApogee = data.getTimeToApogee();
+		this.maxVelocity = data.getMaxVelocity();
+		this.groundHitVelocity = data.getGroundHitVelocity();
+		
+		FlightDataBranch branch = data.getBranch(0);
+		this.landingX = branch.getLast(FlightDataType.TYPE_POSITION_X);
+		this.landingY = branch.getLast(FlightDataType.TYPE_POSITION_Y);
+	}
+	
+	MonteCarloResult(int run, Map<MonteCarloParameter, Double> parameters, SimulationException exception) {
+		this.run = run;
+		this.parameters = Collections.unmodifiableMap(new EnumMap<MonteCarloParameter, Double>(parameters));
+		this.exception = exception;
+		
+		this.apogee = Double.NaN;
+		this.timeToApogee = Double.NaN;
+		this.maxVelocity = Double.NaN;
+		this.groundHitVelocity = Double.NaN;
+		this.landingX = Double.NaN;
+		this.landingY = Double.NaN;
+	}
+	
+	
+	/**
+	 * Return the index of this run, starting from zero.
+	 */
+	public int getRun() {
+		return run;
+	}
+	
+	/**
+	 * Return the sampled values of the dispersed parameters of this run.
+	 */
+	public Map<MonteCarloParameter, Double> getParameters() {
+		return parameters;
+	}
+	
+	/**
+	 * Return the exception that caused the simulation to fail, or <code>null</code>
+	 * if the simulation succeeded.
+	 */
+	public SimulationException getException() {
+		return exception;
+	}
+	
+	public double getApogee() {
+		return apogee;
+	}
+	
+	public double getTimeToApogee() {
+		return timeToApogee;
+	}
+	
+	public double getMaxVelocity() {
+		return maxVelocity;
+	}
+	
+	public double getGroundHitVelocity() {
+		return groundHitVelocity;
+	}
+	
+	/**
+	 * Return the east position of the landing point relative to the launch site.
+	 */
+	public double getLandingX() {
+		return landingX;
+	}
+	
+	/**
+	 * Return the north position of the landing point relative to the launch site.
+	 */
+	public double getLandingY() {
+		return landingY;
+	}
+	
+	@Override
+	public String toString() {
+		if (exception != null) {
+			return "MonteCarloResult[run=" + run + ", failed: " + exception.getMessage() + "]";
+		}
+		return "MonteCarloResult[run=" + run + ", apogee=" + apogee + ", maxVelocity=" + maxVelocity +
+				", landing=(" + landingX + "," + landingY + ")]";
+	}
+	
+}
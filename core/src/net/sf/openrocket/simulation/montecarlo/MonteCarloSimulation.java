@@ -0,0 +1,373 @@
+package net.sf.openrocket.simulation.montecarlo;
+
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import net.sf.openrocket.document.Simulation;
+import net.sf.openrocket.rocketcomponent.Rocket;
+import net.sf.openrocket.simulation.SimulationOptions;
+import net.sf.openrocket.simulation.SimulationStatus;
+import net.sf.openrocket.simulation.exception.SimulationException;
+import net.sf.openrocket.simulation.listeners.AbstractSimulationListener;
+import net.sf.openrocket.util.BugException;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * A Monte Carlo dispersion analysis of a simulation.
+ * <p>
+ * Each run flies a copy of the base simulation with the dispersed parameters sampled from
+ * their distributions.  All random values of a run are derived from the master seed and the
+ * index of the run: the parameter samples, the seed of the wind model and the seed of the
+ * pitch and yaw noise of the simulation stepper each use an independent stream.  The results
+ * are therefore reproducible regardless of the number of threads used.
+ * <p>
+ * Only a summary of each flight is retained, the flight data of a run is discarded
+ * once the summary has been passed to the {@link MonteCarloListener}.  A run is started
+ * only when it is within {@link #REORDER_RUNS_PER_THREAD} runs per thread of the next
+ * run to be delivered, so a slow run cannot cause the later results to accumulate.
+ */
+public class MonteCarloSimulation {
+	
+	private static final Logger log = LoggerFactory.getLogger(MonteCarloSimulation.class);
+	
+	/** The golden ratio increment of the SplitMix64 generator */
+	private static final long GOLDEN_GAMMA = 0x9e3779b97f4a7c15L;
+	
+	private static final int STREAM_WIND = 0;
+	private static final int STREAM_STEPPER = 1;
+	private static final int STREAM_PARAMETERS = 2;
+	
+	/** The number of runs per thread that may be in progress beyond the next run to deliver */
+	private static final int REORDER_RUNS_PER_THREAD = 2;
+	
+	private final Simulation simulation;
+	private final long seed;
+	private final Map<MonteCarloParameter, Dispersion> dispersions =
+			new EnumMap<MonteCarloParameter, Dispersion>(MonteCarloParameter.class);
+	
+	
+	/**
+	 * Sole constructor.
+	 *
+	 * @param simulation	the base simulation, which is not modified.
+	 * @param seed			the master seed from which the random values of all runs are derived.
+	 */
+	public MonteCarloSimulation(Simulation simulation, long seed) {
+		this.simulation = simulation;
+		this.seed = seed;
+	}
+	
+	
+	public Simulation getSimulation() {
+		return simulation;
+	}
+	
+	public long getSeed() {
+		return seed;
+	}
+	
+	public Dispersion getDispersion(MonteCarloParameter parameter) {
+		return dispersions.get(parameter);
+	}
+	
+	/**
+	 * Set the distribution of a parameter.  Parameters without a distribution keep
+	 * the value of the base simulation.
+	 *
+	 * @param parameter		the parameter to disperse.
+	 * @param dispersion	the distribution of the parameter, or <code>null</code> to use
+	 * 						the value of the base simulation.
+	 */
+	public void setDispersion(MonteCarloParameter parameter, Dispersion dispersion) {
+		if (dispersion == null) {
+			dispersions.remove(parameter);
+		} else {
+			dispersions.put(parameter, dispersion);
+		}
+	}
+	
+	
+	/**
+	 * Return the sampled parameter values of a run.
+	 *
+	 * @param run	the index of the run.
+	 * @return		the values of the dispersed parameters.
+	 */
+	public Map<MonteCarloParameter, Double> sample(int run) {
+		Map<MonteCarloParameter, Double> values = new EnumMap<MonteCarloParameter, Double>(MonteCarloParameter.class);
+		for (Map.Entry<MonteCarloParameter, Dispersion> e : dispersions.entrySet()) {
+			Random random = new Random(getRunSeed(run, STREAM_PARAMETERS + e.getKey().ordinal()));
+			values.put(e.getKey(), e.getValue().sample(random));
+		}
+		return values;
+	}
+	
+	
+	/**
+	 * Run the analysis using one thread per available processor.
+	 *
+	 * @see #run(int, int, MonteCarloListener)
+	 */
+	public void run(int runs, MonteCarloListener listener) throws InterruptedException {
+		run(runs, Runtime.getRuntime().availableProcessors(), listener);
+	}
+	
+	
+	/**
+	 * Run the analysis.  The listener receives the result of each run, in the order of the
+	 * runs.  Failed simulations are reported as results containing the exception.
+	 *
+	 * @param runs			the number of flights to simulate.
+	 * @param threadCount	the number of threads to use.
+	 * @param listener		the listener receiving the results.
+	 * @throws InterruptedException	if the calling thread was interrupted while waiting for the runs.
+	 */
+	public void run(final int runs, int threadCount, MonteCarloListener listener) throws InterruptedException {
+		if (runs < 0) {
+			throw new IllegalArgumentException("Negative number of runs " + runs);
+		}
+		if (threadCount < 1) {
+			throw new IllegalArgumentException("threadCount must be at least 1, was " + threadCount);
+		}
+		threadCount = Math.min(threadCount, Math.max(runs, 1));
+		
+		log.info("Starting Monte Carlo analysis, runs=" + runs + " threads=" + threadCount + " seed=" + seed);
+		long t0 = System.currentTimeMillis();
+		
+		// Each worker flies its own copy of the simulation
+		List<Simulation> copies = new ArrayList<Simulation>();
+		for (int i = 0; i < threadCount; i++) {
+			Rocket rocket = simulation.getRocket().copyWithOriginalID();
+			copies.add(simulation.duplicateSimulation(rocket));
+		}
+		
+		final AtomicInteger nextRun = new AtomicInteger(0);
+		final OrderedDelivery delivery = new OrderedDelivery(listener, REORDER_RUNS_PER_THREAD * threadCount);
+		
+		ExecutorService executor = new ThreadPoolExecutor(threadCount, threadCount, 60, TimeUnit.SECONDS,
+				new LinkedBlockingQueue<Runnable>(),
+				new ThreadFactory() {
+					@Override
+					public Thread newThread(Runnable r) {
+						Thread t = new Thread(r, "MonteCarloSimulation");
+						t.setDaemon(true);
+						return t;
+					}
+				});
+		
+		List<Future<Void>> futures = new ArrayList<Future<Void>>();
+		try {
+			for (final Simulation copy : copies) {
+				futures.add(executor.submit(new Callable<Void>() {
+					@Override
+					public Void call() {
+						SimulationOptions template = copy.getOptions().clone();
+						boolean completed = false;
+						try {
+							int run;
+							while ((run = nextRun.getAndIncrement()) < runs) {
+								if (Thread.currentThread().isInterrupted()) {
+									break;
+								}
+								try {
+									if (!delivery.awaitSlot(run)) {
+										break;
+									}
+								} catch (InterruptedException e) {
+									break;
+								}
+								delivery.deliver(simulate(copy, template, run));
+							}
+							completed = true;
+						} finally {
+							if (!completed) {
+								// The run will never be delivered, release the workers waiting for it
+								delivery.fail();
+							}
+						}
+						return null;
+					}
+				}));
+			}
+			
+			for (Future<Void> future : futures) {
+				future.get();
+			}
+		} catch (ExecutionException e) {
+			Throwable cause = e.getCause();
+			if (cause instanceof RuntimeException) {
+				throw (RuntimeException) cause;
+			} else if (cause instanceof Error) {
+				throw (Error) cause;
+			} else {
+				throw new BugException("Unexpected exception during Monte Carlo analysis", cause);
+			}
+		} finally {
+			// Stop the remaining runs in case of failure
+			nextRun.set(runs);
+			executor.shutdownNow();
+		}
+		
+		log.info("Monte Carlo analysis completed in " + (System.currentTimeMillis() - t0) + " ms");
+	}
+	
+	
+	/*
+	 * Fly a single run on a simulation copy.  The options of the copy are reset from
+	 * the template before the parameters of the run are applied.
+	 */
+	private MonteCarloResult simulate(Simulation copy, SimulationOptions template, int run) {
+		Map<MonteCarloParameter, Double> values = sample(run);
+		
+		SimulationOptions options = copy.getOptions();
+		options.copyFrom(template);
+		for (Map.Entry<MonteCarloParameter, Double> e : values.entrySet()) {
+			e.getKey().apply(options, e.getValue());
+		}
+		options.setRandomSeed(getRunSeed32(run, STREAM_WIND));
+		
+		try {
+			copy.simulate(new StepperSeedListener(getRunSeed32(run, STREAM_STEPPER)));
+			return new MonteCarloResult(run, values, copy.getSimulatedData());
+		} catch (SimulationException e) {
+			log.debug("Monte Carlo run " + run + " failed: " + e.getMessage());
+			return new MonteCarloResult(run, values, e);
+		}
+	}
+	
+	
+	/**
+	 * Return the seed of a random stream of a run.  The seed is derived from the master
+	 * seed, the run and the stream using the SplitMix64 mixing function.
+	 */
+	long getRunSeed(int run, int stream) {
+		long z = mix(seed + GOLDEN_GAMMA * (stream + 1));
+		return mix(z + GOLDEN_GAMMA * (run + 1L));
+	}
+	
+	private int getRunSeed32(int run, int stream) {
+		return (int) (getRunSeed(run, stream) >>> 32);
+	}
+	
+	private static long mix(long z) {
+		z = (z ^ (z >>> 30)) * 0xbf58476d1ce4e5b9L;
+		z = (z ^ (z >>> 27)) * 0x94d049bb133111ebL;
+		return z ^ (z >>> 31);
+	}
+	
+	
+	/**
+	 * Sets the seed of the simulation stepper independently from the seed of the wind model,
+	 * which is taken from the simulation options.  The stepper reads the seed when it is
+	 * initialized, after the simulation has been started.
+	 */
+	private static class StepperSeedListener extends AbstractSimulationListener {
+		private final int stepperSeed;
+		
+		public StepperSeedListener(int stepperSeed) {
+			this.stepperSeed = stepperSeed;
+		}
+		
+		@Override
+		public void startSimulation(SimulationStatus status) throws SimulationException {
+			status.getSimulationConditions().setRandomSeed(stepperSeed);
+		}
+	}
+	
+	
+	/**
+	 * Passes the results to the listener in the order of the runs.  Runs may be started at
+	 * most <code>capacity</code> runs beyond the next run to deliver, which bounds the number
+	 * of results waiting for an earlier run.  The listener is called by one worker at a time
+	 * outside of the lock, so the other workers are not blocked while it processes a result.
+	 */
+	private static class OrderedDelivery {
+		private final MonteCarloListener listener;
+		private final int capacity;
+		private final Map<Integer, MonteCarloResult> pending = new HashMap<Integer, MonteCarloResult>();
+		private int next = 0;
+		private boolean delivering = false;
+		private boolean failed = false;
+		
+		public OrderedDelivery(MonteCarloListener listener, int capacity) {
+			this.listener = listener;
+			this.capacity = capacity;
+		}
+		
+		/**
+		 * Wait until the run is within the reorder capacity of the next run to deliver.
+		 * 
+		 * @return	<code>false</code> if the delivery has failed and no more runs should be started.
+		 */
+		public synchronized boolean awaitSlot(int run) throws InterruptedException {
+			while (!failed && run >= next + capacity) {
+				wait();
+			}
+			return !failed;
+		}
+		
+		public void deliver(MonteCarloResult result) {
+			MonteCarloResult r;
+			synchronized (this) {
+				pending.put(result.getRun(), result);
+				if (delivering) {
+					// The worker currently delivering will also pass this result
+					return;
+				}
+				r = pending.remove(next);
+				if (r == null) {
+					return;
+				}
+				delivering = true;
+			}
+			
+			boolean completed = false;
+			try {
+				while (r != null) {
+					listener.runCompleted(r);
+					synchronized (this) {
+						next++;
+						notifyAll();
+						r = pending.remove(next);
+						if (r == null) {
+							delivering = false;
+						}
+					}
+				}
+				completed = true;
+			} finally {
+				if (!completed) {
+					synchronized (this) {
+						delivering = false;
+					}
+					fail();
+				}
+			}
+		}
+		
+		/**
+		 * Stop the delivery after a failure, so that no more runs are started and the
+		 * workers waiting for a slot return.
+		 */
+		public synchronized void fail() {
+			failed = true;
+			notifyAll();
+		}
+	}
+	
+}
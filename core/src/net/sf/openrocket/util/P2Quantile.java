@@ -0,0 +1,169 @@
+package net.sf.openrocket.util;
+
+import java.util.Arrays;
+
+/**
+ * An estimator of a quantile of a stream of values using the P&sup2; algorithm of
+ * Jain and Chlamtac.  The estimate is maintained using five markers, so the memory
+ * used is constant regardless of the number of values.  Until five values have been
+ * added the exact quantile is returned.  NaN values are ignored.
+ * <p>
+ * The estimate depends on the order in which the values are added.  This class is
+ * not thread-safe.
+ */
+public class P2Quantile {
+	
+	private final double p;
+	
+	/** Marker heights */
+	private final double[] q = new double[5];
+	/** Actual marker positions */
+	private final int[] n = new int[5];
+	/** Desired marker positions */
+	private final double[] desired = new double[5];
+	/** Increments of the desired marker positions */
+	private final double[] increment = new double[5];
+	
+	private long count = 0;
+	
+	
+	/**
+	 * Sole constructor.
+	 * 
+	 * @param p		the quantile to estimate, between 0 and 1.
+	 */
+	public P2Quantile(double p) {
+		if (!(p >= 0 && p <= 1)) {
+			throw new IllegalArgumentException("Quantile must be between 0 and 1, was " + p);
+		}
+		this.p = p;
+		
+		desired[0] = 0;
+		desired[1] = 2 * p;
+		desired[2] = 4 * p;
+		desired[3] = 2 + 2 * p;
+		desired[4] = 4;
+		
+		increment[0] = 0;
+		increment[1] = p / 2;
+		increment[2] = p;
+		increment[3] = (1 + p) / 2;
+		increment[4] = 1;
+	}
+	
+	
+	/**
+	 * Return the quantile estimated by this object.
+	 */
+	public double getP() {
+		return p;
+	}
+	
+	/**
+	 * Return the number of values added.
+	 */
+	public long getCount() {
+		return count;
+	}
+	
+	
+	/**
+	 * Add a value to the estimate.
+	 * 
+	 * @param value		the value to add, NaN values are ignored.
+	 */
+	public void add(double value) {
+		if (Double.isNaN(value))
+			return;
+		
+		if (count < 5) {
+			q[(int) count] = value;
+			count++;
+			if (count == 5) {
+				Arrays.sort(q);
+				for (int i = 0; i < 5; i++) {
+					n[i] = i;
+				}
+			}
+			return;
+		}
+		count++;
+		
+		// Find the cell containing the value and update the extreme markers
+		int k;
+		if (value < q[0]) {
+			q[0] = value;
+			k = 0;
+		} else if (value >= q[4]) {
+			q[4] = value;
+			k = 3;
+		} else {
+			k = 0;
+			while (value >= q[k + 1]) {
+				k++;
+			}
+		}
+		
+		for (int i = k + 1; i < 5; i++) {
+			n[i]++;
+		}
+		for (int i = 0; i < 5; i++) {
+			desired[i] += increment[i];
+		}
+		
+		// Adjust the middle markers if they are off their desired positions
+		for (int i = 1; i <= 3; i++) {
+			double d = desired[i] - n[i];
+			if ((d >= 1 && n[i + 1] - n[i] > 1) || (d <= -1 && n[i - 1] - n[i] < -1)) {
+				int sign = (d > 0) ? 1 : -1;
+				double h = parabolic(i, sign);
+				if (q[i - 1] < h && h < q[i + 1]) {
+					q[i] = h;
+				} else {
+					q[i] = linear(i, sign);
+				}
+				n[i] += sign;
+			}
+		}
+	}
+	
+	
+	/**
+	 * Return the estimate of the quantile, or NaN if no values have been added.
+	 */
+	public double getQuantile() {
+		if (count == 0)
+			return Double.NaN;
+		
+		if (count < 5) {
+			// Exact quantile with linear interpolation
+			double[] sorted = Arrays.copyOf(q, (int) count);
+			Arrays.sort(sorted);
+			double pos = p * (count - 1);
+			int index = (int) pos;
+			if (index >= count - 1)
+				return sorted[(int) count - 1];
+			return sorted[index] + (pos - index) * (sorted[index + 1] - sorted[index]);
+		}
+		
+		return q[2];
+	}
+	
+	
+	private double parabolic(int i, int d) {
+		return q[i] + (double) d / (n[i + 1] - n[i - 1]) *
+				((n[i] - n[i - 1] + d) * (q[i + 1] - q[i]) / (n[i + 1] - n[i]) +
+				(n[i + 1] - n[i] - d) * (q[i] - q[i - 1]) / (n[i] - n[i - 1]));
+	}
+	
+	private double linear(int i, int d) {
+		return q[i] + d * (q[i + d] - q[i]) / (n[i + d] - n[i]);
+	}
+	
+	
+	@Override
+	public String toString() {
+		return "P2Quantile[p=" + p + ", count=" + count + ", quantile=" + getQuantile() + "]";
+	}
+	
+}
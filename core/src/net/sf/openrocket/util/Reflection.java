@@ -3,12 +3,22 @@ package net.sf.openrocket.util;
 import java.lang.reflect.Constructor;
 import java.lang.reflect.InvocationTargetException;
 import java.util.Arrays;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
 
 import net.sf.openrocket.rocketcomponent.RocketComponent;
 
 
 public class Reflection {
 	
+	/*
+	 * The methods and constructors found for component classes.  Searching them walks the
+	 * class hierarchy and loads classes by name, which is too slow to repeat for every
+	 * component of every document.  A lookup without a result is stored as NOT_FOUND.
+	 */
+	private static final ConcurrentMap<DispatchKey, Object> dispatchCache = new ConcurrentHashMap<DispatchKey, Object>();
+	private static final Object NOT_FOUND = new Object();
+	
 	/**
 	 * Simple wrapper class that converts the Method.invoke() exceptions into suitable
 	 * RuntimeExceptions.
@@ -117,9 +127,36 @@ public class Reflection {
 	}
 	
 	
+	/**
+	 * Find a method from the class corresponding to a component class.  The class
+	 * <code>pack.ComponentClassSuffix</code> is searched for the method, followed by the
+	 * classes corresponding to the superclasses of the component class.  The results are
+	 * cached, so this is cheap to call for every component.
+	 * 
+	 * @return	the method, or <code>null</code> if not found.
+	 */
 	public static Reflection.Method findMethod(String pack,
 			Class<? extends RocketComponent> componentClass,
 			String suffix, String method, Class<?>... params) {
+		DispatchKey key = new DispatchKey(pack, componentClass, suffix, method, params);
+		Object cached = dispatchCache.get(key);
+		if (cached == null) {
+			cached = searchMethod(pack, componentClass, suffix, method, params);
+			if (cached == null) {
+				cached = NOT_FOUND;
+			}
+			dispatchCache.put(new DispatchKey(pack, componentClass, suffix, method, params.clone()), cached);
+		}
+		if (cached == NOT_FOUND) {
+			return null;
+		}
+		return (Reflection.Method) cached;
+	}
+	
+	
+	private static Reflection.Method searchMethod(String pack,
+			Class<? extends RocketComponent> componentClass,
+			String suffix, String method, Class<?>... params) {
 		Class<?> currentclass;
 		String name;
 		
@@ -147,10 +184,43 @@ public class Reflection {
 	public static Object construct(String pack, RocketComponent component, String suffix,
 			Object... params) {
 		
+		Class<?>[] paramClasses = new Class<?>[params.length];
+		for (int i = 0; i < params.length; i++) {
+			paramClasses[i] = params[i].getClass();
+		}
+		
+		DispatchKey key = new DispatchKey(pack, component.getClass(), suffix, null, paramClasses);
+		Constructor<?> constructor = (Constructor<?>) dispatchCache.get(key);
+		if (constructor == null) {
+			constructor = searchConstructor(pack, component.getClass(), suffix, params);
+			if (constructor == null) {
+				throw new BugException("Suitable constructor for component " + component +
+						" not found");
+			}
+			dispatchCache.put(key, constructor);
+		}
+		
+		try {
+			return constructor.newInstance(params);
+		} catch (IllegalArgumentException e) {
+			throw new BugException("Construction of " + constructor.getName() + " failed", e);
+		} catch (InstantiationException e) {
+			throw new BugException("Construction of " + constructor.getName() + " failed", e);
+		} catch (IllegalAccessException e) {
+			throw new BugException("Construction of " + constructor.getName() + " failed", e);
+		} catch (InvocationTargetException e) {
+			throw Reflection.handleWrappedException(e);
+		}
+	}
+	
+	
+	private static Constructor<?> searchConstructor(String pack, Class<?> componentClass, String suffix,
+			Object... params) {
+		
 		Class<?> currentclass;
 		String name;
 		
-		currentclass = component.getClass();
+		currentclass = componentClass;
 		while ((currentclass != null) && (currentclass != Object.class)) {
 			name = currentclass.getCanonicalName();
 			if (name.lastIndexOf('.') >= 0)
@@ -159,10 +229,6 @@ public class Reflection {
 			
 			try {
 				Class<?> c = Class.forName(name);
-				Class<?>[] paramClasses = new Class<?>[params.length];
-				for (int i = 0; i < params.length; i++) {
-					paramClasses[i] = params[i].getClass();
-				}
 				
 				// Constructors must be searched manually.  Why?!
 				main: for (Constructor<?> constructor : c.getConstructors()) {
@@ -174,22 +240,53 @@ public class Reflection {
 							continue main;
 					}
 					// Matching constructor found
-					return constructor.newInstance(params);
+					return constructor;
 				}
 			} catch (ClassNotFoundException ignore) {
-			} catch (IllegalArgumentException e) {
-				throw new BugException("Construction of " + name + " failed", e);
-			} catch (InstantiationException e) {
-				throw new BugException("Construction of " + name + " failed", e);
-			} catch (IllegalAccessException e) {
-				throw new BugException("Construction of " + name + " failed", e);
-			} catch (InvocationTargetException e) {
-				throw Reflection.handleWrappedException(e);
 			}
 			
 			currentclass = currentclass.getSuperclass();
 		}
-		throw new BugException("Suitable constructor for component " + component +
-				" not found");
+		return null;
+	}
+	
+	
+	/**
+	 * Key of the dispatch cache.  The method name is null for constructors.
+	 */
+	private static class DispatchKey {
+		private final String pack;
+		private final Class<?> componentClass;
+		private final String suffix;
+		private final String method;
+		private final Class<?>[] params;
+		private final int hashCode;
+		
+		public DispatchKey(String pack, Class<?> componentClass, String suffix, String method, Class<?>[] params) {
+			this.pack = pack;
+			this.componentClass = componentClass;
+			this.suffix = suffix;
+			this.method = method;
+			this.params = params;
+			this.hashCode = Arrays.hashCode(new Object[] { pack, componentClass, suffix, method }) * 31 +
+					Arrays.hashCode(params);
+		}
+		
+		@Override
+		public boolean equals(Object obj) {
+			if (this == obj)
+				return true;
+			if (!(obj instanceof DispatchKey))
+				return false;
+			DispatchKey other = (DispatchKey) obj;
+			return componentClass == other.componentClass && pack.equals(other.pack) &&
+					suffix.equals(other.suffix) && Utils.equals(method, other.method) &&
+					Arrays.equals(params, other.params);
+		}
+		
+		@Override
+		public int hashCode() {
+			return hashCode;
+		}
 	}
 }
@@ -0,0 +1,105 @@
+package net.sf.openrocket.util;
+
+/**
+ * Running mean, variance, minimum and maximum of a stream of values, computed in
+ * constant memory using Welford's algorithm.  NaN values are ignored.
+ * <p>
+ * This class is not thread-safe.
+ */
+public class RunningStatistics {
+	
+	private long count = 0;
+	private double mean = 0;
+	private double m2 = 0;
+	private double min = Double.NaN;
+	private double max = Double.NaN;
+	
+	
+	/**
+	 * Add a value to the statistics.
+	 * 
+	 * @param value		the value to add, NaN values are ignored.
+	 */
+	public void add(double value) {
+		if (Double.isNaN(value))
+			return;
+		
+		count++;
+		double delta = value - mean;
+		mean += delta / count;
+		m2 += delta * (value - mean);
+		
+		if (count == 1) {
+			min = value;
+			max = value;
+		} else {
+			min = Math.min(min, value);
+			max = Math.max(max, value);
+		}
+	}
+	
+	
+	/**
+	 * Return a copy of these statistics.  Values added to the copy do not affect
+	 * the original and vice versa.
+	 */
+	public RunningStatistics copy() {
+		RunningStatistics copy = new RunningStatistics();
+		copy.count = count;
+		copy.mean = mean;
+		copy.m2 = m2;
+		copy.min = min;
+		copy.max = max;
+		return copy;
+	}
+	
+	
+	/**
+	 * Return the number of values added.
+	 */
+	public long getCount() {
+		return count;
+	}
+	
+	/**
+	 * Return the mean of the values, or NaN if no values have been added.
+	 */
+	public double getMean() {
+		if (count == 0)
+			return Double.NaN;
+		return mean;
+	}
+	
+	/**
+	 * Return the sample variance of the values, or NaN if less than two values have been added.
+	 */
+	public double getVariance() {
+		if (count < 2)
+			return Double.NaN;
+		return m2 / (count - 1);
+	}
+	
+	/**
+	 * Return the sample standard deviation of the values, or NaN if less than two values
+	 * have been added.
+	 */
+	public double getStandardDeviation() {
+		return Math.sqrt(getVariance());
+	}
+	
+	public double getMin() {
+		return min;
+	}
+	
+	public double getMax() {
+		return max;
+	}
+	
+	
+	@Override
+	public String toString() {
+		return "RunningStatistics[count=" + count + ", mean=" + getMean() + ", stddev=" +
+				getStandardDeviation() + ", min=" + min + ", max=" + max + "]";
+	}
+	
+}
@@ -1004,6 +1004,87 @@ public class TestRockets {
 	
 	
 	
+	/*
+	 * Create a flyable single stage rocket similar to an Estes Alpha III with a C6 motor
+	 * and a parachute, and a simulation with fully specified launch conditions.
+	 */
+	public static Simulation makeEstesAlphaIIISimulation() {
+		Rocket rocket = new Rocket();
+		rocket.setName("Estes Alpha III");
+		
+		Stage stage = new Stage();
+		stage.setName("Stage1");
+		rocket.addChild(stage);
+		
+		NoseCone noseCone = new NoseCone(Transition.Shape.OGIVE, 0.07, 0.0124);
+		stage.addChild(noseCone);
+		
+		BodyTube bodyTube = new BodyTube(0.2, 0.0124, 0.0003);
+		stage.addChild(bodyTube);
+		
+		TrapezoidFinSet fins = new TrapezoidFinSet(3, 0.05, 0.03, 0.02, 0.05);
+		fins.setThickness(0.003);
+		bodyTube.addChild(fins);
+		
+		InnerTube innerTube = new InnerTube();
+		innerTube.setOuterRadius(0.0095);
+		innerTube.setInnerRadius(0.009);
+		innerTube.setLength(0.07);
+		innerTube.setRelativePosition(Position.BOTTOM);
+		innerTube.setMotorMount(true);
+		bodyTube.addChild(innerTube);
+		
+		Parachute parachute = new Parachute();
+		parachute.setDiameter(0.3);
+		bodyTube.addChild(parachute);
+		
+		String id = rocket.newFlightConfigurationID();
+		MotorConfiguration motorConfig = new MotorConfiguration();
+		motorConfig.setMotor(getEstesC6Motor());
+		motorConfig.setEjectionDelay(5);
+		innerTube.getMotorConfiguration().set(id, motorConfig);
+		rocket.getDefaultConfiguration().setFlightConfigurationID(id);
+		
+		Simulation simulation = new Simulation(rocket);
+		SimulationOptions options = simulation.getOptions();
+		options.setMotorConfigurationID(id);
+		options.setLaunchRodLength(1);
+		options.setLaunchRodAngle(0);
+		options.setLaunchIntoWind(false);
+		options.setLaunchRodDirection(Math.PI / 2);
+		options.setWindSpeedAverage(2);
+		options.setWindTurbulenceIntensity(0.1);
+		options.setWindDirection(Math.PI / 2);
+		options.setLaunchAltitude(0);
+		options.setLaunchLatitude(28.61);
+		options.setLaunchLongitude(-80.60);
+		options.setISAAtmosphere(true);
+		options.setTimeStep(0.05);
+		options.setMaximumStepAngle(3 * Math.PI / 180);
+		options.setCalculateExtras(true);
+		options.setRandomSeed(42);
+		
+		return simulation;
+	}
+	
+	
+	private static ThrustCurveMotor getEstesC6Motor() {
+		double[] time = { 0, 0.031, 0.092, 0.139, 0.192, 0.209, 0.231, 0.262, 0.292, 0.37, 0.475, 0.671,
+				0.85, 1.063, 1.303, 1.468, 1.656, 1.821, 1.834, 1.847, 1.86 };
+		double[] thrust = { 0, 0.946, 4.826, 9.936, 14.09, 11.446, 7.381, 6.151, 5.489, 4.921, 4.448, 4.258,
+				4.448, 4.353, 4.258, 4.353, 4.448, 4.448, 2.933, 1.325, 0 };
+		Coordinate[] cg = new Coordinate[time.length];
+		for (int i = 0; i < time.length; i++) {
+			// Propellant burns linearly with time from 24.1 g to 13.3 g total mass
+			cg[i] = new Coordinate(0.035, 0, 0, 0.0241 - 0.0108 * time[i] / time[time.length - 1]);
+		}
+		return new ThrustCurveMotor(
+				Manufacturer.getManufacturer("Estes"),
+				"C6", "Estes C6 test motor", Motor.Type.SINGLE, new double[] { 0, 3, 5, 7 },
+				0.018, 0.07, time, thrust, cg, "digestC6");
+	}
+	
+	
 	private static ThrustCurveMotor getTestMotor() {
 		return new ThrustCurveMotor(
 				Manufacturer.getManufacturer("A"),
@@ -7,7 +7,9 @@ import net.sf.openrocket.optimization.general.OptimizationException;
 import net.sf.openrocket.optimization.general.ParallelExecutorCache;
 import net.sf.openrocket.optimization.general.ParallelFunctionCache;
 import net.sf.openrocket.optimization.general.Point;
+import net.sf.openrocket.optimization.general.multidim.DifferentialEvolutionOptimizer;
 import net.sf.openrocket.optimization.general.multidim.MultidirectionalSearchOptimizer;
+import net.sf.openrocket.util.Statistics;
 
 
 
@@ -16,9 +18,13 @@ public class TestFunctionOptimizer {
 	
 	private static final int LOOP_COUNT = 1000000;
 	
+	/** Distance from the optimum at which the optimum is considered to be reached */
+	private static final double PRECISION = 0.01;
+	
 	private volatile int evaluations = 0;
 	private volatile int aborted = 0;
 	private volatile int stepCount = 0;
+	private volatile boolean optimumReached = false;
 	
 	
 
@@ -46,6 +52,10 @@ public class TestFunctionOptimizer {
 				//				System.out.println("CSV " + count + ", " + evaluations + ", " + newPoint.sub(optimum).length());
 				//				System.out.println("Steps: " + count + "  Function evaluations: " + evaluations);
 				//				System.out.println("Distance: " + newPoint.sub(optimum).length() + "   " + newPoint + "  value=" + newValue);
+				if (newPoint.sub(optimum).length() < PRECISION) {
+					optimumReached = true;
+					return false;
+				}
 				return stepCount < maxSteps;
 			}
 		};
@@ -87,28 +97,39 @@ public class TestFunctionOptimizer {
 		}
 		System.err.println();
 		
-		for (int threadCount = 1; threadCount <= 10; threadCount++) {
+		Point optimum = new Point(0.2, 0.3, 0.85);
+		int processors = Runtime.getRuntime().availableProcessors();
+		for (int threadCount = 1; threadCount <= processors; threadCount *= 2) {
 			
 			System.err.println("THREAD COUNT:  " + threadCount);
-			TestFunctionOptimizer test = new TestFunctionOptimizer();
 			
-			ParallelExecutorCache executor = new ParallelExecutorCache(threadCount);
-			MultidirectionalSearchOptimizer optimizer = new MultidirectionalSearchOptimizer();
-			long t0 = System.currentTimeMillis();
-			test.go(executor, optimizer, new Point(0.2, 0.3, 0.85), 30);
-			long t1 = System.currentTimeMillis();
+			// Compare the wall-clock time needed to reach the optimum
+			FunctionOptimizer[] optimizers = {
+					new MultidirectionalSearchOptimizer(),
+					new DifferentialEvolutionOptimizer()
+			};
+			((DifferentialEvolutionOptimizer) optimizers[1]).setSeed(threadCount);
 			
-			System.err.println("Optimization took " + (t1 - t0) + "ms");
-			System.err.println("" + test.stepCount + " steps, " + test.evaluations +
-					" function evaluations, " + test.aborted + " aborted evaluations");
-			System.err.println("Statistics: " + optimizer.getStatistics());
-			
-			executor.getExecutor().shutdownNow();
-			Thread.sleep(1000);
+			for (FunctionOptimizer optimizer : optimizers) {
+				TestFunctionOptimizer test = new TestFunctionOptimizer();
+				ParallelExecutorCache executor = new ParallelExecutorCache(threadCount);
+				long t0 = System.currentTimeMillis();
+				test.go(executor, optimizer, optimum, 100);
+				long t1 = System.currentTimeMillis();
+				
+				System.err.println(optimizer.getClass().getSimpleName() + ": " +
+						(test.optimumReached ? "optimum reached" : "optimum NOT reached") + " in " + (t1 - t0) + "ms");
+				System.err.println("" + test.stepCount + " steps, " + test.evaluations +
+						" function evaluations, " + test.aborted + " aborted evaluations");
+				System.err.println("Statistics: " + ((Statistics) optimizer).getStatistics());
+				
+				executor.getExecutor().shutdownNow();
+				Thread.sleep(1000);
+			}
 			
-			t0 = System.currentTimeMillis();
+			long t0 = System.currentTimeMillis();
 			loop(LOOP_COUNT);
-			t1 = System.currentTimeMillis();
+			long t1 = System.currentTimeMillis();
 			System.err.println("Loop delay afterwards: " + (t1 - t0) + "ms");
 			System.err.println();
 		}
@@ -0,0 +1,61 @@
+package net.sf.openrocket.utils;
+
+import java.io.BufferedOutputStream;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.util.ArrayList;
+import java.util.List;
+
+import net.sf.openrocket.file.iterator.DirectoryIterator;
+import net.sf.openrocket.file.iterator.FileIterator;
+import net.sf.openrocket.file.motor.GeneralMotorLoader;
+import net.sf.openrocket.file.motor.MotorCatalogSaver;
+import net.sf.openrocket.gui.util.SimpleFileFilter;
+import net.sf.openrocket.motor.Motor;
+import net.sf.openrocket.util.Pair;
+
+/**
+ * Preprocess the motor files into a binary motor catalog, which is read
+ * by MotorCatalogLoader at startup.
+ */
+public class WriteMotorCatalog {
+	
+	public static void main(String[] args) throws Exception {
+		
+		if (args.length != 2) {
+			System.out.println("Usage:  java " + WriteMotorCatalog.class.getCanonicalName() + " <input-dir> <output-file>");
+			System.exit(1);
+		}
+		
+		String inputDir = args[0];
+		String outputFile = args[1];
+		
+		final List<Motor> allMotors = new ArrayList<Motor>();
+		
+		GeneralMotorLoader loader = new GeneralMotorLoader();
+		FileIterator iterator = DirectoryIterator.findDirectory(inputDir, new SimpleFileFilter("", false, loader.getSupportedExtensions()));
+		if (iterator == null) {
+			System.out.println("Can't find resources-src/thrustcurves directory");
+			System.exit(1);
+		} else {
+			while (iterator.hasNext()) {
+				Pair<String, InputStream> f = iterator.next();
+				String fileName = f.getU();
+				InputStream is = f.getV();
+				
+				List<Motor> motors = loader.load(is, fileName);
+				
+				allMotors.addAll(motors);
+			}
+		}
+		
+		OutputStream os = new BufferedOutputStream(new FileOutputStream(new File(outputFile)));
+		new MotorCatalogSaver().save(os, allMotors);
+		os.close();
+		
+		System.out.println("Wrote " + allMotors.size() + " motors to " + outputFile);
+	}
+	
+}
@@ -0,0 +1,121 @@
+package net.sf.openrocket.aerodynamics;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import net.sf.openrocket.rocketcomponent.Configuration;
+import net.sf.openrocket.rocketcomponent.FinSet;
+import net.sf.openrocket.rocketcomponent.RocketComponent;
+import net.sf.openrocket.rocketcomponent.TrapezoidFinSet;
+import net.sf.openrocket.util.Coordinate;
+import net.sf.openrocket.util.TestRockets;
+import net.sf.openrocket.util.BaseTestCase.BaseTestCase;
+
+import org.junit.Test;
+
+public class BarrowmanCalculatorTest extends BaseTestCase {
+	
+	@Test
+	public void testWorstCPRollIndependent() {
+		Configuration config = TestRockets.makeEstesAlphaIIISimulation().getConfiguration();
+		FlightConditions cond = new FlightConditions(config);
+		cond.setTheta(1);
+		
+		BarrowmanCalculator calculator = new BarrowmanCalculator();
+		Coordinate worst = calculator.getWorstCP(config, cond, null);
+		
+		assertEquals(0, cond.getTheta(), 0);
+		assertEquals(calculator.getCP(config, cond, null).x, worst.x, 0);
+	}
+	
+	@Test
+	public void testWorstCPMatchesFullSweep() {
+		Configuration config = TestRockets.makeEstesAlphaIIISimulation().getConfiguration();
+		setFinCount(config, 2);
+		FlightConditions cond = new FlightConditions(config);
+		cond.setMach(0.3);
+		cond.setAOA(2 * Math.PI / 180);
+		
+		BarrowmanCalculator calculator = new BarrowmanCalculator();
+		double sweep = Double.MAX_VALUE;
+		FlightConditions c = cond.clone();
+		for (int i = 0; i < 360; i++) {
+			c.setTheta(2 * Math.PI * i / 360);
+			sweep = Math.min(sweep, calculator.getCP(config, c, null).x);
+		}
+		
+		Coordinate worst = calculator.getWorstCP(config, cond, null);
+		assertTrue("worst " + worst.x + " sweep " + sweep, worst.x <= sweep + 1e-6);
+		
+		c.setTheta(cond.getTheta());
+		assertEquals(calculator.getCP(config, c, null).x, worst.x, 0);
+		
+		// The search is repeated using a different calculator
+		FlightConditions cond2 = cond.clone();
+		cond2.setTheta(0);
+		Coordinate worst2 = new BarrowmanCalculator().getWorstCP(config, cond2, null);
+		assertEquals(worst.x, worst2.x, 0);
+		assertEquals(cond.getTheta(), cond2.getTheta(), 0);
+	}
+	
+	@Test
+	public void testWorstCPCacheFollowsRocket() {
+		Configuration config = TestRockets.makeEstesAlphaIIISimulation().getConfiguration();
+		FlightConditions cond = new FlightConditions(config);
+		BarrowmanCalculator calculator = new BarrowmanCalculator();
+		
+		Coordinate worst1 = calculator.getWorstCP(config, cond, null);
+		assertEquals(worst1.x, calculator.getWorstCP(config, cond, null).x, 0);
+		
+		setFinCount(config, 2);
+		Coordinate worst2 = calculator.getWorstCP(config, cond, null);
+		assertEquals(new BarrowmanCalculator().getWorstCP(config, cond.clone(), null).x, worst2.x, 0);
+		assertTrue(worst1.x != worst2.x);
+		
+		cond.setMach(0.8);
+		Coordinate worst3 = calculator.getWorstCP(config, cond, null);
+		assertEquals(new BarrowmanCalculator().getWorstCP(config, cond.clone(), null).x, worst3.x, 0);
+	}
+	
+	
+	@Test
+	public void testWorstCPNarrowPeak() {
+		// Large two-fin set on a thin body, whose CP moves forward sharply when edge-on to the wind
+		Configuration config = TestRockets.makeEstesAlphaIIISimulation().getConfiguration();
+		for (RocketComponent c : config) {
+			if (c instanceof TrapezoidFinSet) {
+				TrapezoidFinSet fins = (TrapezoidFinSet) c;
+				fins.setFinCount(2);
+				fins.setBaseRotation(0.3);
+				fins.setHeight(0.5);
+				fins.setRootChord(0.2);
+				fins.setTipChord(0.2);
+			}
+		}
+		FlightConditions cond = new FlightConditions(config);
+		cond.setMach(0.3);
+		cond.setAOA(2 * Math.PI / 180);
+		
+		BarrowmanCalculator calculator = new BarrowmanCalculator();
+		double sweep = Double.MAX_VALUE;
+		FlightConditions c = cond.clone();
+		for (int i = 0; i < 3600; i++) {
+			c.setTheta(2 * Math.PI * i / 3600);
+			sweep = Math.min(sweep, calculator.getCP(config, c, null).x);
+		}
+		
+		Coordinate worst = calculator.getWorstCP(config, cond, null);
+		assertTrue("worst " + worst.x + " sweep " + sweep, worst.x <= sweep + 1e-9);
+		assertEquals(0.3, cond.getTheta() % Math.PI, 0.1 * Math.PI / 180);
+	}
+	
+	
+	private static void setFinCount(Configuration config, int count) {
+		for (RocketComponent c : config) {
+			if (c instanceof FinSet) {
+				((FinSet) c).setFinCount(count);
+			}
+		}
+	}
+	
+}
@@ -0,0 +1,91 @@
+package net.sf.openrocket.aerodynamics;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import net.sf.openrocket.document.Simulation;
+import net.sf.openrocket.rocketcomponent.Configuration;
+import net.sf.openrocket.rocketcomponent.FinSet;
+import net.sf.openrocket.rocketcomponent.RocketComponent;
+import net.sf.openrocket.simulation.FlightData;
+import net.sf.openrocket.util.TestRockets;
+import net.sf.openrocket.util.BaseTestCase.BaseTestCase;
+
+import org.junit.Test;
+
+public class TabulatedBarrowmanCalculatorTest extends BaseTestCase {
+	
+	@Test
+	public void testGridPointsAreExact() {
+		Configuration config = TestRockets.makeEstesAlphaIIISimulation().getConfiguration();
+		FlightConditions cond = new FlightConditions(config);
+		cond.setMach(0.3);
+		cond.setAOA(5 * Math.PI / 180);
+		cond.setPitchRate(0.5);
+		cond.setRollRate(2);
+		
+		AerodynamicForces exact = new BarrowmanCalculator().getAerodynamicForces(config, cond, null);
+		AerodynamicForces tabulated = new TabulatedBarrowmanCalculator().getAerodynamicForces(config, cond, null);
+		
+		assertEquals(exact.getCNa(), tabulated.getCNa(), 1e-9);
+		assertEquals(exact.getCN(), tabulated.getCN(), 1e-9);
+		assertEquals(exact.getCm(), tabulated.getCm(), 1e-9);
+		assertEquals(exact.getCroll(), tabulated.getCroll(), 1e-9);
+		assertEquals(exact.getCrollDamp(), tabulated.getCrollDamp(), 1e-9);
+		assertEquals(exact.getCP().x, tabulated.getCP().x, 1e-9);
+		assertEquals(exact.getFrictionCD(), tabulated.getFrictionCD(), 1e-9);
+		assertEquals(exact.getPressureCD(), tabulated.getPressureCD(), 1e-9);
+		assertEquals(exact.getBaseCD(), tabulated.getBaseCD(), 1e-9);
+		assertEquals(exact.getCaxial(), tabulated.getCaxial(), 1e-9);
+	}
+	
+	@Test
+	public void testTabulationError() {
+		Configuration config = TestRockets.makeEstesAlphaIIISimulation().getConfiguration();
+		FlightConditions cond = new FlightConditions(config);
+		
+		AerodynamicForces error = new TabulatedBarrowmanCalculator().getTabulationError(config, cond);
+		
+		assertTrue("CN error " + error.getCN(), error.getCN() < 0.1);
+		assertTrue("Cm error " + error.getCm(), error.getCm() < 1);
+		assertTrue("CP error " + error.getCP().x, error.getCP().x < 0.001);
+		assertTrue("CD error " + error.getCD(), error.getCD() < 0.001);
+	}
+	
+	@Test
+	public void testRollAngleDependentFinsAreExact() {
+		Configuration config = TestRockets.makeEstesAlphaIIISimulation().getConfiguration();
+		for (RocketComponent c : config) {
+			if (c instanceof FinSet) {
+				((FinSet) c).setFinCount(2);
+			}
+		}
+		FlightConditions cond = new FlightConditions(config);
+		cond.setMach(0.3123);
+		cond.setAOA(3.3 * Math.PI / 180);
+		cond.setTheta(0.7);
+		
+		AerodynamicForces exact = new BarrowmanCalculator().getAerodynamicForces(config, cond, null);
+		AerodynamicForces tabulated = new TabulatedBarrowmanCalculator().getAerodynamicForces(config, cond, null);
+		
+		assertEquals(exact, tabulated);
+	}
+	
+	@Test
+	public void testSimulation() throws Exception {
+		Simulation simulation = TestRockets.makeEstesAlphaIIISimulation();
+		simulation.getOptions().setWindSpeedAverage(4);
+		simulation.getOptions().setLaunchRodAngle(Math.toRadians(5));
+		simulation.simulate();
+		FlightData exact = simulation.getSimulatedData();
+		
+		simulation.setAerodynamicCalculatorClass(TabulatedBarrowmanCalculator.class);
+		simulation.simulate();
+		FlightData tabulated = simulation.getSimulatedData();
+		
+		assertEquals(exact.getMaxAltitude(), tabulated.getMaxAltitude(), exact.getMaxAltitude() * 0.001);
+		assertEquals(exact.getMaxVelocity(), tabulated.getMaxVelocity(), exact.getMaxVelocity() * 0.001);
+		assertEquals(exact.getTimeToApogee(), tabulated.getTimeToApogee(), 0.01);
+	}
+	
+}
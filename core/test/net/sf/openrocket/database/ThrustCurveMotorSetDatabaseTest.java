@@ -0,0 +1,120 @@
+package net.sf.openrocket.database;
+
+import static org.junit.Assert.assertEquals;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import net.sf.openrocket.database.motor.ThrustCurveMotorSet;
+import net.sf.openrocket.database.motor.ThrustCurveMotorSetDatabase;
+import net.sf.openrocket.motor.Manufacturer;
+import net.sf.openrocket.motor.Motor;
+import net.sf.openrocket.motor.ThrustCurveMotor;
+import net.sf.openrocket.util.Coordinate;
+
+import org.junit.Test;
+
+public class ThrustCurveMotorSetDatabaseTest {
+	
+	private static final String[] MANUFACTURERS = { "AeroTech", "Estes", "Cesaroni", "Test Motors" };
+	private static final String[] DESIGNATIONS = { "A8", "B6", "C6", "D12", "F12J", "H128W", "J350" };
+	private static final double[] DIAMETERS = { 0.013, 0.018, 0.024, 0.029, 0.038 };
+	private static final double[] LENGTHS = { 0.050, 0.070, 0.0705, 0.095, 0.124 };
+	
+	
+	@Test
+	public void testFindMotors() {
+		Random rnd = new Random(7);
+		ThrustCurveMotorSetDatabase db = new ThrustCurveMotorSetDatabase();
+		for (int i = 0; i < 300; i++) {
+			db.addMotor(randomMotor(rnd, i));
+		}
+		
+		for (int i = 0; i < 500; i++) {
+			Motor.Type type = rnd.nextInt(3) == 0 ? Motor.Type.values()[rnd.nextInt(Motor.Type.values().length)] : null;
+			String manufacturer = rnd.nextBoolean() ? pick(rnd, MANUFACTURERS).toLowerCase() : null;
+			String designation = rnd.nextInt(3) == 0 ? pick(rnd, DESIGNATIONS) : null;
+			double diameter = rnd.nextBoolean() ? pick(rnd, DIAMETERS) + (rnd.nextDouble() - 0.5) * 0.004 : Double.NaN;
+			double length = rnd.nextBoolean() ? pick(rnd, LENGTHS) + (rnd.nextDouble() - 0.5) * 0.004 : Double.NaN;
+			
+			assertEquals(findMotorsLinear(db, type, manufacturer, designation, diameter, length),
+					db.findMotors(type, manufacturer, designation, diameter, length));
+		}
+		
+		assertEquals(0, db.findMotors(null, "No such manufacturer", null, Double.NaN, Double.NaN).size());
+	}
+	
+	@Test
+	public void testFindMotorsByDigest() {
+		Random rnd = new Random(11);
+		ThrustCurveMotorSetDatabase db = new ThrustCurveMotorSetDatabase();
+		List<ThrustCurveMotor> motors = new ArrayList<ThrustCurveMotor>();
+		for (int i = 0; i < 50; i++) {
+			ThrustCurveMotor m = randomMotor(rnd, i);
+			motors.add(m);
+			db.addMotor(m);
+		}
+		
+		int count = 0;
+		for (ThrustCurveMotorSet set : db.getMotorSets()) {
+			for (ThrustCurveMotor m : set.getMotors()) {
+				assertEquals(m, db.findMotorsByDigest(m.getDigest()).get(0));
+				count++;
+			}
+		}
+		assertEquals(0, db.findMotorsByDigest("no such digest").size());
+		
+		// Adding a motor updates the index
+		ThrustCurveMotor m = randomMotor(rnd, 1000);
+		db.addMotor(m);
+		assertEquals(m, db.findMotorsByDigest(m.getDigest()).get(0));
+		assertEquals(count + 1, db.findMotors(null, null, null, Double.NaN, Double.NaN).size());
+	}
+	
+	
+	/*
+	 * The original linear search of the database.
+	 */
+	private static List<ThrustCurveMotor> findMotorsLinear(ThrustCurveMotorSetDatabase db, Motor.Type type,
+			String manufacturer, String designation, double diameter, double length) {
+		List<ThrustCurveMotor> results = new ArrayList<ThrustCurveMotor>();
+		for (ThrustCurveMotorSet set : db.getMotorSets()) {
+			for (ThrustCurveMotor m : set.getMotors()) {
+				boolean match = true;
+				if (type != null && type != set.getType())
+					match = false;
+				else if (manufacturer != null && !m.getManufacturer().matches(manufacturer))
+					match = false;
+				else if (designation != null && !designation.equalsIgnoreCase(m.getDesignation()))
+					match = false;
+				else if (!Double.isNaN(diameter) && (Math.abs(diameter - m.getDiameter()) > 0.0015))
+					match = false;
+				else if (!Double.isNaN(length) && (Math.abs(length - m.getLength()) > 0.0015))
+					match = false;
+				
+				if (match)
+					results.add(m);
+			}
+		}
+		return results;
+	}
+	
+	private static ThrustCurveMotor randomMotor(Random rnd, int n) {
+		Motor.Type type = Motor.Type.values()[rnd.nextInt(Motor.Type.values().length)];
+		double thrust = 1 + rnd.nextInt(5);
+		return new ThrustCurveMotor(Manufacturer.getManufacturer(pick(rnd, MANUFACTURERS)),
+				pick(rnd, DESIGNATIONS), "Desc " + n, type, new double[] { 3, 5 },
+				pick(rnd, DIAMETERS), pick(rnd, LENGTHS), new double[] { 0, 1, 2 }, new double[] { 0, thrust, 0 },
+				new Coordinate[] { Coordinate.NUL, Coordinate.NUL, Coordinate.NUL }, "digest" + n);
+	}
+	
+	private static String pick(Random rnd, String[] values) {
+		return values[rnd.nextInt(values.length)];
+	}
+	
+	private static double pick(Random rnd, double[] values) {
+		return values[rnd.nextInt(values.length)];
+	}
+	
+}
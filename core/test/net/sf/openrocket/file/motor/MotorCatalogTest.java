@@ -0,0 +1,95 @@
+package net.sf.openrocket.file.motor;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.List;
+
+import net.sf.openrocket.motor.Motor;
+import net.sf.openrocket.motor.ThrustCurveMotor;
+
+import org.junit.Test;
+
+public class MotorCatalogTest {
+	
+	@Test
+	public void testRoundTrip() throws IOException {
+		List<Motor> motors = loadTestMotors();
+		
+		ByteArrayOutputStream out = new ByteArrayOutputStream();
+		new MotorCatalogSaver().save(out, motors);
+		
+		List<Motor> loaded = new MotorCatalogLoader().load(new ByteArrayInputStream(out.toByteArray()), "test.motors");
+		assertMotorsEqual(motors, loaded);
+	}
+	
+	@Test
+	public void testMappedFile() throws IOException {
+		List<Motor> motors = loadTestMotors();
+		
+		File file = File.createTempFile("openrocket", "." + MotorCatalogLoader.EXTENSION);
+		try {
+			FileOutputStream out = new FileOutputStream(file);
+			new MotorCatalogSaver().save(out, motors);
+			out.close();
+			
+			assertMotorsEqual(motors, new MotorCatalogLoader().load(file));
+		} finally {
+			file.delete();
+		}
+	}
+	
+	@Test(expected = IOException.class)
+	public void testInvalidCatalog() throws IOException {
+		new MotorCatalogLoader().load(ByteBuffer.wrap(new byte[] { 1, 2, 3, 4, 5, 6, 7, 8 }));
+	}
+	
+	@Test(expected = IOException.class)
+	public void testTruncatedCatalog() throws IOException {
+		ByteArrayOutputStream out = new ByteArrayOutputStream();
+		new MotorCatalogSaver().save(out, loadTestMotors());
+		byte[] bytes = out.toByteArray();
+		new MotorCatalogLoader().load(ByteBuffer.wrap(bytes, 0, bytes.length - 8));
+	}
+	
+	
+	private List<Motor> loadTestMotors() throws IOException {
+		List<Motor> motors = new ArrayList<Motor>();
+		GeneralMotorLoader loader = new GeneralMotorLoader();
+		for (String file : new String[] { "test1.eng", "test2.rse", "test3.rse" }) {
+			InputStream is = this.getClass().getResourceAsStream(file);
+			motors.addAll(loader.load(is, file));
+			is.close();
+		}
+		return motors;
+	}
+	
+	private static void assertMotorsEqual(List<Motor> expected, List<Motor> actual) {
+		assertEquals(expected.size(), actual.size());
+		for (int i = 0; i < expected.size(); i++) {
+			ThrustCurveMotor e = (ThrustCurveMotor) expected.get(i);
+			ThrustCurveMotor a = (ThrustCurveMotor) actual.get(i);
+			assertSame(e.getManufacturer(), a.getManufacturer());
+			assertEquals(e.getDesignation(), a.getDesignation());
+			assertEquals(e.getDescription(), a.getDescription());
+			assertEquals(e.getMotorType(), a.getMotorType());
+			assertEquals(e.getDigest(), a.getDigest());
+			assertEquals(e.getDiameter(), a.getDiameter(), 0);
+			assertEquals(e.getLength(), a.getLength(), 0);
+			assertArrayEquals(e.getStandardDelays(), a.getStandardDelays(), 0);
+			assertArrayEquals(e.getTimePoints(), a.getTimePoints(), 0);
+			assertArrayEquals(e.getThrustPoints(), a.getThrustPoints(), 0);
+			assertArrayEquals(e.getCGPoints(), a.getCGPoints());
+			assertEquals(e.getTotalImpulseEstimate(), a.getTotalImpulseEstimate(), 0);
+		}
+	}
+}
@@ -1,9 +1,14 @@
 package net.sf.openrocket.file.openrocket;
 
+import static org.junit.Assert.assertArrayEquals;
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
 import static org.junit.Assert.assertNotNull;
 import static org.junit.Assert.fail;
 
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
 import java.io.File;
 import java.io.FileFilter;
 import java.io.FileNotFoundException;
@@ -12,22 +17,38 @@ import java.io.IOException;
 import java.io.InputStream;
 import java.io.OutputStream;
 import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.zip.ZipOutputStream;
 
 import net.sf.openrocket.ServicesForTesting;
+import net.sf.openrocket.aerodynamics.WarningSet;
 import net.sf.openrocket.database.ComponentPresetDao;
 import net.sf.openrocket.database.ComponentPresetDatabase;
 import net.sf.openrocket.database.motor.MotorDatabase;
 import net.sf.openrocket.database.motor.ThrustCurveMotorSetDatabase;
 import net.sf.openrocket.document.OpenRocketDocument;
+import net.sf.openrocket.document.OpenRocketDocumentFactory;
+import net.sf.openrocket.document.Simulation;
 import net.sf.openrocket.document.StorageOptions;
+import net.sf.openrocket.file.BatchLoadListener;
+import net.sf.openrocket.file.BatchRocketLoader;
+import net.sf.openrocket.file.DocumentLoadingContext;
 import net.sf.openrocket.file.GeneralRocketLoader;
+import net.sf.openrocket.file.GeneralRocketSaver;
 import net.sf.openrocket.file.RocketLoadException;
 import net.sf.openrocket.file.motor.GeneralMotorLoader;
+import net.sf.openrocket.file.openrocket.importt.OpenRocketLoader;
 import net.sf.openrocket.l10n.DebugTranslator;
 import net.sf.openrocket.l10n.Translator;
 import net.sf.openrocket.motor.Motor;
 import net.sf.openrocket.motor.ThrustCurveMotor;
 import net.sf.openrocket.plugin.PluginModule;
+import net.sf.openrocket.simulation.FlightData;
+import net.sf.openrocket.simulation.FlightDataBranch;
+import net.sf.openrocket.simulation.FlightDataType;
 import net.sf.openrocket.simulation.extension.impl.ScriptingExtension;
 import net.sf.openrocket.simulation.extension.impl.ScriptingUtil;
 import net.sf.openrocket.startup.Application;
@@ -305,10 +326,173 @@ public class OpenRocketSaverTest {
 	}
 	
 	
+	////////////////////////////////
+	// Tests for File Version 1.8 // 
+	////////////////////////////////
+	
+	@Test
+	public void testFileVersion108_withBinaryFlightData() throws Exception {
+		OpenRocketDocument rocketDoc = makeSimulatedDocument();
+		StorageOptions options = new StorageOptions();
+		options.setSimulationTimeSkip(StorageOptions.SIMULATION_DATA_ALL);
+		options.setBinaryFlightData(true);
+		
+		ZipOutputStream zos = new ZipOutputStream(new ByteArrayOutputStream());
+		this.saver.saveFlightData(zos, rocketDoc, options);
+		assertEquals(108, getCalculatedFileVersion(rocketDoc));
+		
+		// Without binary flight data the simulation data requires version 1.4
+		options.setBinaryFlightData(false);
+		this.saver.saveFlightData(zos, rocketDoc, options);
+		assertEquals(104, getCalculatedFileVersion(rocketDoc));
+	}
+	
+	@Test
+	public void testBinaryFlightDataLoadSave() throws Exception {
+		OpenRocketDocument rocketDoc = makeSimulatedDocument();
+		FlightDataBranch original = rocketDoc.getSimulation(0).getSimulatedData().getBranch(0);
+		
+		StorageOptions options = new StorageOptions();
+		options.setSimulationTimeSkip(StorageOptions.SIMULATION_DATA_ALL);
+		options.setBinaryFlightData(true);
+		
+		File file = new File(String.format(TMP_DIR + "%s_binary.ork", this.getClass().getName()));
+		new GeneralRocketSaver().save(file, rocketDoc, options);
+		
+		GeneralRocketLoader loader = new GeneralRocketLoader(file);
+		OpenRocketDocument rocketDocLoaded = loader.load();
+		
+		FlightDataBranch loaded = rocketDocLoaded.getSimulation(0).getSimulatedData().getBranch(0);
+		assertEquals(original.getLength(), loaded.getLength());
+		assertArrayEquals(original.getTypes(), loaded.getTypes());
+		assertEquals(original.getEvents().size(), loaded.getEvents().size());
+		for (FlightDataType type : original.getTypes()) {
+			double[] expected = new double[original.getLength()];
+			double[] actual = new double[loaded.getLength()];
+			original.getBuffer(type).get(expected);
+			loaded.getBuffer(type).get(actual);
+			assertArrayEquals(type.getName(), expected, actual, 0);
+		}
+	}
+	
+	
+	@Test
+	public void testLazySimulationData() throws Exception {
+		OpenRocketDocument rocketDoc = makeSimulatedDocument();
+		
+		for (boolean binary : new boolean[] { false, true }) {
+			StorageOptions options = new StorageOptions();
+			options.setSimulationTimeSkip(StorageOptions.SIMULATION_DATA_ALL);
+			options.setBinaryFlightData(binary);
+			
+			File file = new File(String.format(TMP_DIR + "%s_lazy.ork", this.getClass().getName()));
+			new GeneralRocketSaver().save(file, rocketDoc, options);
+			
+			FlightData eager = new GeneralRocketLoader(file).load().getSimulation(0).getSimulatedData();
+			GeneralRocketLoader loader = new GeneralRocketLoader(file);
+			loader.setLazySimulationData(true);
+			FlightData lazy = loader.load().getSimulation(0).getSimulatedData();
+			
+			// Summary values and the branch count are available without decoding
+			FlightData original = rocketDoc.getSimulation(0).getSimulatedData();
+			assertEquals(original.getMaxAltitude(), lazy.getMaxAltitude(), 0.01);
+			assertEquals(original.getTimeToApogee(), lazy.getTimeToApogee(), 0.01);
+			assertEquals(1, lazy.getBranchCount());
+			assertFalse(lazy.isLoaded());
+			
+			FlightDataBranch expected = eager.getBranch(0);
+			FlightDataBranch actual = lazy.getBranch(0);
+			assertTrue(lazy.isLoaded());
+			assertFalse(actual.isMutable());
+			assertEquals(expected.getLength(), actual.getLength());
+			assertEquals(expected.getEvents().size(), actual.getEvents().size());
+			for (FlightDataType type : expected.getTypes()) {
+				double[] e = new double[expected.getLength()];
+				double[] a = new double[actual.getLength()];
+				expected.getBuffer(type).get(e);
+				actual.getBuffer(type).get(a);
+				assertArrayEquals(type.getName(), e, a, 0);
+			}
+		}
+	}
+	
+	
+	@Test
+	public void testLoadedRocketThawed() throws Exception {
+		OpenRocketDocument rocketDoc = makeSimulatedDocument();
+		File file = saveRocket(rocketDoc, new StorageOptions());
+		OpenRocketDocument loaded = loadRocket(file.getPath());
+		
+		// The rocket is built frozen and thawed once it is complete
+		assertFalse(loaded.getRocket().isFrozen());
+		assertEquals(rocketDoc.getRocket().getChildCount(), loaded.getRocket().getChildCount());
+		
+		file.delete();
+	}
+	
+	@Test
+	public void testFailedLoadRocketThawed() throws Exception {
+		String xml = "<?xml version='1.0' encoding='utf-8'?>\n" +
+				"<openrocket version=\"1.6\" creator=\"test\">" +
+				"<rocket><name>Rocket</name><subcomponents><stage><name>Stage</name><subcomponents>";
+		OpenRocketDocument doc = OpenRocketDocumentFactory.createEmptyRocket();
+		DocumentLoadingContext context = new DocumentLoadingContext();
+		context.setOpenRocketDocument(doc);
+		try {
+			new OpenRocketLoader().load(context, new ByteArrayInputStream(xml.getBytes("UTF-8")));
+			fail("Truncated file loaded");
+		} catch (RocketLoadException e) {
+			// Expected
+		}
+		
+		// A partly loaded rocket is not left frozen
+		assertFalse(doc.getRocket().isFrozen());
+	}
+	
+	
+	@Test
+	public void testBatchLoad() throws Exception {
+		final List<File> files = new ArrayList<File>();
+		files.add(saveRocket(TestRockets.makeTestRocket_v100(), new StorageOptions()));
+		files.add(saveRocket(TestRockets.makeTestRocket_v104_withSimulationData(), new StorageOptions()));
+		files.add(saveRocket(TestRockets.makeTestRocket_v106_withAppearance(), new StorageOptions()));
+		files.add(saveRocket(TestRockets.makeTestRocket_v107_withSimulationExtension(SIMULATION_EXTENSION_SCRIPT), new StorageOptions()));
+		File missing = new File(TMP_DIR + this.getClass().getName() + "_missing.ork");
+		files.add(missing);
+		
+		final Set<File> loaded = new HashSet<File>();
+		final Set<File> failed = new HashSet<File>();
+		new BatchRocketLoader(3, 1).load(files, new BatchLoadListener() {
+			@Override
+			public void documentLoaded(File file, OpenRocketDocument document, WarningSet warnings) {
+				assertNotNull(document);
+				assertNotNull(warnings);
+				assertTrue(loaded.add(file));
+			}
+			
+			@Override
+			public void loadFailed(File file, RocketLoadException exception) {
+				assertTrue(failed.add(file));
+			}
+		});
+		
+		assertEquals(files.size() - 1, loaded.size());
+		assertEquals(Collections.singleton(missing), failed);
+	}
+	
+	
 	/*
 	 * Utility Functions
 	 */
 	
+	private static OpenRocketDocument makeSimulatedDocument() throws Exception {
+		Simulation simulation = TestRockets.makeEstesAlphaIIISimulation();
+		OpenRocketDocument rocketDoc = OpenRocketDocumentFactory.createDocumentFromRocket(simulation.getRocket());
+		simulation.simulate();
+		rocketDoc.addSimulation(simulation);
+		return rocketDoc;
+	}
+	
 	private int getCalculatedFileVersion(OpenRocketDocument rocketDoc) {
 		int fileVersion = this.saver.testAccessor_calculateNecessaryFileVersion(rocketDoc, null);
 		return fileVersion;
@@ -0,0 +1,84 @@
+package net.sf.openrocket.masscalc;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.util.Iterator;
+
+import net.sf.openrocket.models.atmosphere.AtmosphericConditions;
+import net.sf.openrocket.motor.Motor;
+import net.sf.openrocket.motor.MotorId;
+import net.sf.openrocket.motor.MotorInstanceConfiguration;
+import net.sf.openrocket.rocketcomponent.Configuration;
+import net.sf.openrocket.rocketcomponent.MotorMount;
+import net.sf.openrocket.rocketcomponent.NoseCone;
+import net.sf.openrocket.rocketcomponent.RocketComponent;
+import net.sf.openrocket.util.Coordinate;
+import net.sf.openrocket.util.TestRockets;
+import net.sf.openrocket.util.BaseTestCase.BaseTestCase;
+
+import org.junit.Test;
+
+public class BasicMassCalculatorTest extends BaseTestCase {
+	
+	@Test
+	public void testMotorStepInvalidatesMassData() {
+		Configuration config = TestRockets.makeEstesAlphaIIISimulation().getConfiguration();
+		MotorInstanceConfiguration motors = createMotors(config);
+		AtmosphericConditions cond = new AtmosphericConditions();
+		
+		BasicMassCalculator calc = new BasicMassCalculator();
+		Coordinate cg = calc.getCG(config, motors);
+		double longitudinal = calc.getLongitudinalInertia(config, motors);
+		assertEquals(cg, calc.getCG(config, motors));
+		
+		motors.step(0.5, 0, cond);
+		motors.step(1.0, 0, cond);
+		assertTrue(cg.weight > calc.getCG(config, motors).weight);
+		assertTrue(longitudinal != calc.getLongitudinalInertia(config, motors));
+		
+		assertMassData(new BasicMassCalculator(), calc, config, motors);
+		assertMassData(new BasicMassCalculator(), calc, config, null);
+	}
+	
+	@Test
+	public void testRocketChangeInvalidatesMassData() {
+		Configuration config = TestRockets.makeEstesAlphaIIISimulation().getConfiguration();
+		MotorInstanceConfiguration motors = createMotors(config);
+		
+		BasicMassCalculator calc = new BasicMassCalculator();
+		Coordinate cg = calc.getCG(config, motors);
+		
+		for (RocketComponent c : config) {
+			if (c instanceof NoseCone) {
+				c.setMassOverridden(true);
+				c.setOverrideMass(0.1);
+			}
+		}
+		assertTrue(cg.weight < calc.getCG(config, motors).weight);
+		assertMassData(new BasicMassCalculator(), calc, config, motors);
+	}
+	
+	private static void assertMassData(MassCalculator expected, MassCalculator actual,
+			Configuration config, MotorInstanceConfiguration motors) {
+		assertEquals(expected.getCG(config, motors), actual.getCG(config, motors));
+		assertEquals(expected.getLongitudinalInertia(config, motors), actual.getLongitudinalInertia(config, motors), 0);
+		assertEquals(expected.getRotationalInertia(config, motors), actual.getRotationalInertia(config, motors), 0);
+	}
+	
+	private static MotorInstanceConfiguration createMotors(Configuration config) {
+		MotorInstanceConfiguration motors = new MotorInstanceConfiguration();
+		String id = config.getFlightConfigurationID();
+		Iterator<MotorMount> iterator = config.motorIterator();
+		while (iterator.hasNext()) {
+			MotorMount mount = iterator.next();
+			RocketComponent component = (RocketComponent) mount;
+			Motor motor = mount.getMotorConfiguration().get(id).getMotor();
+			Coordinate position = component.toAbsolute(mount.getMotorPosition(id))[0];
+			MotorId motorId = new MotorId(component.getID(), 1);
+			motors.addMotor(motorId, motor.getInstance(), 0, mount, null, 0, position);
+			motors.setMotorIgnitionTime(motorId, 0);
+		}
+		return motors;
+	}
+}
@@ -0,0 +1,163 @@
+package net.sf.openrocket.optimization.general;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import java.io.File;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+public class PersistentFunctionCacheTest {
+	
+	private final AtomicInteger evaluations = new AtomicInteger();
+	private final Function function = new Function() {
+		@Override
+		public double evaluate(Point point) {
+			evaluations.incrementAndGet();
+			return point.get(0) * 10 + point.get(1);
+		}
+	};
+	
+	private File file;
+	
+	@Before
+	public void setUp() throws Exception {
+		file = File.createTempFile("functioncache", ".cache");
+		file.delete();
+	}
+	
+	@After
+	public void tearDown() {
+		file.delete();
+	}
+	
+	
+	@Test
+	public void testSnapping() throws Exception {
+		PersistentFunctionCache cache = newCache(1e-6);
+		Point p = new Point(0.25, 0.5);
+		
+		assertEquals(2.5 + 0.5, evaluate(cache, p), 0);
+		assertEquals(2.5 + 0.5, evaluate(cache, new Point(0.25 + 1e-9, 0.5 - 1e-9)), 0);
+		assertEquals(1, evaluations.get());
+		
+		// Outside the tolerance
+		evaluate(cache, new Point(0.25 + 1e-5, 0.5));
+		assertEquals(2, evaluations.get());
+		assertEquals(2, cache.size());
+		
+		// Points outside the range are not stored
+		assertEquals(Double.MAX_VALUE, evaluate(cache, new Point(1.5, 0.5)), 0);
+		assertEquals(2, cache.size());
+	}
+	
+	@Test
+	public void testPointIndexNearestPoint() {
+		Random random = new Random(17);
+		PointIndex index = new PointIndex();
+		for (int i = 0; i < 2000; i++) {
+			index.put(new Point(random.nextDouble(), random.nextDouble()), i);
+		}
+		
+		// Compare against a linear search of the stored points
+		for (int i = 0; i < 200; i++) {
+			Point p = new Point(random.nextDouble(), random.nextDouble());
+			PointIndex.Entry nearest = null;
+			double best = 0.01;
+			for (PointIndex.Entry e : index.getEntries()) {
+				double d = Math.max(Math.abs(e.point.get(0) - p.get(0)), Math.abs(e.point.get(1) - p.get(1)));
+				if (d <= best) {
+					best = d;
+					nearest = e;
+				}
+			}
+			assertSame(nearest, index.find(p, 0.01));
+		}
+	}
+	
+	@Test
+	public void testSaveAndLoad() throws Exception {
+		PersistentFunctionCache cache = newCache(1e-6);
+		evaluate(cache, new Point(0.1, 0.2));
+		evaluate(cache, new Point(0.3, 0.4));
+		cache.save(file, "key");
+		assertTrue(file.isFile());
+		
+		PersistentFunctionCache loaded = newCache(1e-6);
+		assertEquals(0, loaded.load(file, "other"));
+		assertEquals(2, loaded.load(file, "key"));
+		
+		evaluations.set(0);
+		assertEquals(1.2, evaluate(loaded, new Point(0.1, 0.2)), 1e-12);
+		assertEquals(3.4, evaluate(loaded, new Point(0.3, 0.4)), 1e-12);
+		assertEquals(0, evaluations.get());
+		
+		// Missing file
+		file.delete();
+		assertEquals(0, newCache(1e-6).load(file, "key"));
+	}
+	
+	
+	@Test
+	public void testDetailsAndReuseListener() throws Exception {
+		final List<Point> reused = new ArrayList<Point>();
+		final List<Double> reusedDetails = new ArrayList<Double>();
+		PersistentFunctionCache.ReuseListener listener = new PersistentFunctionCache.ReuseListener() {
+			@Override
+			public void valueReused(Point point, double value, double[] details) {
+				reused.add(point);
+				reusedDetails.add(details.length > 0 ? details[0] : Double.NaN);
+			}
+		};
+		
+		PersistentFunctionCache cache = newCache(1e-6);
+		cache.setReuseListener(listener);
+		Point p = new Point(0.1, 0.2);
+		cache.putDetails(p, 42);
+		evaluate(cache, p);
+		
+		// Evaluated points are not reported
+		evaluate(cache, p);
+		assertTrue(reused.isEmpty());
+		
+		// A snapped point is reported once
+		Point snapped = new Point(0.1 + 1e-7, 0.2);
+		evaluate(cache, snapped);
+		evaluate(cache, snapped);
+		assertEquals(Arrays.asList(snapped), reused);
+		assertEquals(42, reusedDetails.get(0), 0);
+		
+		// Details are saved with the values
+		cache.save(file, "key");
+		reused.clear();
+		reusedDetails.clear();
+		PersistentFunctionCache loaded = newCache(1e-6);
+		loaded.setReuseListener(listener);
+		loaded.load(file, "key");
+		assertEquals(1.2, evaluate(loaded, p), 1e-12);
+		assertEquals(Arrays.asList(p), reused);
+		assertEquals(42, reusedDetails.get(0), 0);
+	}
+	
+	
+	private PersistentFunctionCache newCache(double tolerance) {
+		PersistentFunctionCache cache = new PersistentFunctionCache(new ParallelExecutorCache(1), tolerance);
+		cache.setFunction(function);
+		return cache;
+	}
+	
+	private static double evaluate(PersistentFunctionCache cache, Point p) throws Exception {
+		cache.compute(Arrays.asList(p));
+		cache.waitFor(p);
+		return cache.getValue(p);
+	}
+	
+}
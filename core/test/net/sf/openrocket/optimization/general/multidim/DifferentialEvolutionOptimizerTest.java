@@ -0,0 +1,77 @@
+package net.sf.openrocket.optimization.general.multidim;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+import net.sf.openrocket.optimization.general.Function;
+import net.sf.openrocket.optimization.general.OptimizationController;
+import net.sf.openrocket.optimization.general.OptimizationException;
+import net.sf.openrocket.optimization.general.ParallelExecutorCache;
+import net.sf.openrocket.optimization.general.Point;
+
+import org.junit.Test;
+
+public class DifferentialEvolutionOptimizerTest {
+	
+	private static final Point OPTIMUM = new Point(0.2, 0.3);
+	
+	private static final Function QUADRATIC = new Function() {
+		@Override
+		public double evaluate(Point p) throws InterruptedException {
+			return p.sub(OPTIMUM).length2();
+		}
+	};
+	
+	
+	@Test
+	public void testConvergence() throws Exception {
+		DifferentialEvolutionOptimizer optimizer = optimizer(2);
+		optimizer.setSeed(1);
+		
+		optimizer.optimize(new Point(2, 0.5), new OptimizationController() {
+			@Override
+			public boolean stepTaken(Point oldPoint, double oldValue, Point newPoint, double newValue, double stepSize) {
+				assertTrue(newValue <= oldValue);
+				return newValue > 1e-8;
+			}
+		});
+		
+		assertTrue(optimizer.getOptimumPoint().sub(OPTIMUM).length() < 1e-3);
+		assertEquals(QUADRATIC.evaluate(optimizer.getOptimumPoint()), optimizer.getOptimumValue(), 0);
+	}
+	
+	
+	@Test
+	public void testStepControl() throws OptimizationException {
+		DifferentialEvolutionOptimizer optimizer = optimizer(2);
+		optimizer.setPopulationSize(8);
+		
+		final AtomicInteger steps = new AtomicInteger();
+		optimizer.optimize(new Point(2, 0.5), new OptimizationController() {
+			@Override
+			public boolean stepTaken(Point oldPoint, double oldValue, Point newPoint, double newValue, double stepSize) {
+				return steps.incrementAndGet() < 3;
+			}
+		});
+		
+		assertEquals(3, steps.get());
+		assertTrue(optimizer.getStatistics().contains("generationCount=3"));
+		assertTrue(optimizer.getStatistics().contains("evaluationCount=32"));
+	}
+	
+	
+	@Test(expected = IllegalArgumentException.class)
+	public void testInvalidPopulationSize() {
+		new DifferentialEvolutionOptimizer().setPopulationSize(3);
+	}
+	
+	
+	private static DifferentialEvolutionOptimizer optimizer(int threads) {
+		ParallelExecutorCache cache = new ParallelExecutorCache(threads);
+		cache.setFunction(QUADRATIC);
+		return new DifferentialEvolutionOptimizer(cache);
+	}
+	
+}
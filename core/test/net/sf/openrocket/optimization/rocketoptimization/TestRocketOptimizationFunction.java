@@ -6,11 +6,20 @@ import static org.junit.Assert.assertTrue;
 import net.sf.openrocket.document.Simulation;
 import net.sf.openrocket.optimization.general.OptimizationException;
 import net.sf.openrocket.optimization.general.Point;
+import net.sf.openrocket.optimization.rocketoptimization.domains.IdentitySimulationDomain;
+import net.sf.openrocket.optimization.rocketoptimization.goals.MaximizationGoal;
+import net.sf.openrocket.optimization.rocketoptimization.goals.MinimizationGoal;
+import net.sf.openrocket.optimization.rocketoptimization.modifiers.GenericComponentModifier;
+import net.sf.openrocket.optimization.rocketoptimization.parameters.MaximumAltitudeParameter;
+import net.sf.openrocket.optimization.rocketoptimization.parameters.StabilityParameter;
+import net.sf.openrocket.rocketcomponent.BodyTube;
 import net.sf.openrocket.rocketcomponent.Rocket;
+import net.sf.openrocket.rocketcomponent.RocketComponent;
 import net.sf.openrocket.unit.Unit;
 import net.sf.openrocket.unit.UnitGroup;
 import net.sf.openrocket.unit.Value;
 import net.sf.openrocket.util.Pair;
+import net.sf.openrocket.util.TestRockets;
 import net.sf.openrocket.util.BaseTestCase.BaseTestCase;
 
 import org.jmock.Expectations;
@@ -95,6 +104,56 @@ public class TestRocketOptimizationFunction extends BaseTestCase {
 		assertEquals(gvalue, value, 0);
 	}
 	
+	@Test
+	public void testCachedEvaluation() throws OptimizationException {
+		final Rocket rocket = new Rocket();
+		final Simulation simulation = new Simulation(rocket);
+		
+		final double p1 = 0.4;
+		final double p2 = 0.7;
+		final Value dref = new Value(-0.43, Unit.NOUNIT);
+		final double pvalue = 9.81;
+		final double gvalue = 8.81;
+		final Point point = new Point(p1, p2);
+		
+		// The parameter value is not computed again
+		// @formatter:off
+		context.checking(new Expectations() {
+			{
+				oneOf(modifier1).modify(simulation, p1);
+				oneOf(modifier2).modify(simulation, p2);
+				oneOf(domain).getDistanceToDomain(simulation);
+				will(returnValue(new Pair<Double, Value>(-0.43, dref)));
+				oneOf(parameter).getUnitGroup();
+				will(returnValue(UnitGroup.UNITS_NONE));
+				oneOf(modifier1).getCurrentSIValue(simulation);
+				will(returnValue(0.2));
+				oneOf(modifier1).getUnitGroup();
+				will(returnValue(UnitGroup.UNITS_LENGTH));
+				oneOf(modifier2).getCurrentSIValue(simulation);
+				will(returnValue(0.3));
+				oneOf(modifier2).getUnitGroup();
+				will(returnValue(UnitGroup.UNITS_LENGTH));
+				oneOf(listener).evaluated(point, new Value[] {
+						new Value(0.2, UnitGroup.UNITS_LENGTH.getDefaultUnit()),
+						new Value(0.3, UnitGroup.UNITS_LENGTH.getDefaultUnit())
+				}, dref, new Value(pvalue, Unit.NOUNIT), gvalue);
+			}
+		});
+		// @formatter:on
+		
+		RocketOptimizationFunction function = new RocketOptimizationFunction(simulation,
+				parameter, goal, domain, modifier1, modifier2) {
+			@Override
+			Simulation newSimulationInstance(Simulation sim) {
+				return sim;
+			}
+		};
+		function.addRocketOptimizationListener(listener);
+		
+		function.fireCachedEvaluation(point, gvalue, pvalue);
+	}
+	
 	@Test
 	public void testNaNValue() throws InterruptedException, OptimizationException {
 		final Rocket rocket = new Rocket();
@@ -238,4 +297,57 @@ public class TestRocketOptimizationFunction extends BaseTestCase {
 		assertEquals("Foobar", sim.getRocket().getName());
 	}
 	
+	
+	@Test
+	public void testCacheKey() throws OptimizationException {
+		Simulation simulation = TestRockets.makeEstesAlphaIIISimulation();
+		String key = getCacheKey(simulation, new MaximizationGoal());
+		assertEquals(key, getCacheKey(simulation, new MaximizationGoal()));
+		
+		// A copy of the design has different component IDs
+		Simulation copy = simulation.duplicateSimulation((Rocket) simulation.getRocket().copy());
+		assertEquals(key, getCacheKey(copy, new MaximizationGoal()));
+		
+		// The modified value does not affect the key
+		getBodyTube(simulation).setLength(0.25);
+		assertEquals(key, getCacheKey(simulation, new MaximizationGoal()));
+		
+		assertFalse(key.equals(getCacheKey(simulation, new MinimizationGoal())));
+		getBodyTube(simulation).setThickness(0.0005);
+		assertFalse(key.equals(getCacheKey(simulation, new MaximizationGoal())));
+	}
+	
+	@Test
+	public void testCacheKeyParameterSettings() throws OptimizationException {
+		Simulation simulation = TestRockets.makeEstesAlphaIIISimulation();
+		String absolute = getCacheKey(simulation, new StabilityParameter(true), new MaximizationGoal());
+		String relative = getCacheKey(simulation, new StabilityParameter(false), new MaximizationGoal());
+		assertEquals(absolute, getCacheKey(simulation, new StabilityParameter(true), new MaximizationGoal()));
+		assertFalse(absolute.equals(relative));
+	}
+	
+	private static String getCacheKey(Simulation simulation, OptimizationGoal goal) throws OptimizationException {
+		return getCacheKey(simulation, new MaximumAltitudeParameter(), goal);
+	}
+	
+	private static String getCacheKey(Simulation simulation, OptimizableParameter parameter, OptimizationGoal goal)
+			throws OptimizationException {
+		BodyTube tube = getBodyTube(simulation);
+		SimulationModifier modifier = new GenericComponentModifier("Length", "Body tube length", tube,
+				UnitGroup.UNITS_LENGTH, 1.0, BodyTube.class, tube.getID(), "Length");
+		modifier.setMinValue(0.1);
+		modifier.setMaxValue(0.3);
+		return new RocketOptimizationFunction(simulation, parameter, goal,
+				new IdentitySimulationDomain(), modifier).getCacheKey();
+	}
+	
+	private static BodyTube getBodyTube(Simulation simulation) {
+		for (RocketComponent c : simulation.getRocket()) {
+			if (c instanceof BodyTube) {
+				return (BodyTube) c;
+			}
+		}
+		throw new IllegalStateException("No body tube");
+	}
+	
 }
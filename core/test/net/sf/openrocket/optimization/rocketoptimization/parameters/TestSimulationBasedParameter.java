@@ -0,0 +1,53 @@
+package net.sf.openrocket.optimization.rocketoptimization.parameters;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import net.sf.openrocket.document.Simulation;
+import net.sf.openrocket.simulation.FlightDataBranch;
+import net.sf.openrocket.simulation.FlightDataType;
+import net.sf.openrocket.util.BaseTestCase.BaseTestCase;
+import net.sf.openrocket.util.TestRockets;
+
+import org.junit.Test;
+
+public class TestSimulationBasedParameter extends BaseTestCase {
+	
+	@Test
+	public void testApogeeParameterEndsAtApogee() throws Exception {
+		Simulation full = TestRockets.makeEstesAlphaIIISimulation();
+		full.simulate();
+		FlightDataBranch fullBranch = full.getSimulatedData().getBranch(0);
+		
+		Simulation simulation = TestRockets.makeEstesAlphaIIISimulation();
+		double altitude = new MaximumAltitudeParameter().computeValue(simulation);
+		FlightDataBranch branch = simulation.getSimulatedData().getBranch(0);
+		
+		assertEquals(fullBranch.getMaximum(FlightDataType.TYPE_ALTITUDE), altitude, 0.001);
+		assertTrue(branch.getLast(FlightDataType.TYPE_TIME) < fullBranch.getLast(FlightDataType.TYPE_TIME) / 2);
+		assertFalse(simulation.getOptions().getCalculateExtras());
+	}
+	
+	@Test
+	public void testLandingDistanceWithoutExtras() throws Exception {
+		Simulation full = TestRockets.makeEstesAlphaIIISimulation();
+		full.simulate();
+		FlightDataBranch fullBranch = full.getSimulatedData().getBranch(0);
+		
+		Simulation simulation = TestRockets.makeEstesAlphaIIISimulation();
+		double distance = new LandingDistanceParameter().computeValue(simulation);
+		
+		assertEquals(fullBranch.getLast(FlightDataType.TYPE_POSITION_XY), distance, 0.001);
+		assertTrue(Double.isNaN(simulation.getSimulatedData().getBranch(0).getLast(FlightDataType.TYPE_POSITION_XY)));
+	}
+	
+	@Test
+	public void testAccelerationComputesExtras() throws Exception {
+		Simulation simulation = TestRockets.makeEstesAlphaIIISimulation();
+		double acceleration = new MaximumAccelerationParameter().computeValue(simulation);
+		
+		assertTrue(simulation.getOptions().getCalculateExtras());
+		assertTrue(acceleration > 0);
+	}
+	
+}
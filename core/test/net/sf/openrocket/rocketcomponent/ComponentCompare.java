@@ -18,7 +18,7 @@ public class ComponentCompare {
 	private static final String[] IGNORED_METHODS = {
 			"getClass", "getChildCount", "getChildren", "getNextComponent", "getID",
 			"getPreviousComponent", "getParent", "getRocket", "getRoot", "getStage",
-			"getStageNumber", "getComponentName",
+			"getStageNumber", "getComponentName", "getStateModID",
 			"getStageSeparationConfiguration",
 			"getMotorConfiguration",
 			"getIgnitionConfiguration",
@@ -1,5 +1,7 @@
 package net.sf.openrocket.rocketcomponent;
 
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertFalse;
 import static org.junit.Assert.assertTrue;
 
@@ -242,6 +244,35 @@ public class ConfigurationTest extends BaseTestCase {
 		
 	}
 	
+	/**
+	 * Test copying the configuration to a copy of the rocket
+	 */
+	@Test
+	public void testCopyFor() {
+		
+		/* Setup */
+		Rocket r1 = makeTwoStageTestRocket();
+		Configuration config = r1.getDefaultConfiguration();
+		config.setOnlyStage(1);
+		config.setFlightConfigurationID(r1.newFlightConfigurationID());
+		
+		/* Test */
+		Rocket copy = r1.copyWithOriginalID();
+		Configuration configCopy = config.copyFor(copy);
+		
+		assertTrue(configCopy.getRocket() == copy);
+		assertEquals(config.getFlightConfigurationID(), configCopy.getFlightConfigurationID());
+		assertArrayEquals(config.getActiveStages(), configCopy.getActiveStages());
+		
+		// The copy is independent of the original
+		config.setAllStages();
+		assertArrayEquals(new int[] { 1 }, configCopy.getActiveStages());
+		
+		/* Cleanup */
+		configCopy.release();
+		config.release();
+	}
+	
 	/**
 	 * Multi stage rocket specific configuration tests
 	 */
@@ -0,0 +1,152 @@
+package net.sf.openrocket.rocketcomponent;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertTrue;
+import net.sf.openrocket.document.OpenRocketDocument;
+import net.sf.openrocket.document.OpenRocketDocumentFactory;
+import net.sf.openrocket.util.BaseTestCase.BaseTestCase;
+import net.sf.openrocket.util.Coordinate;
+import net.sf.openrocket.util.TestRockets;
+
+import org.junit.Test;
+
+public class RocketSnapshotTest extends BaseTestCase {
+	
+	@Test
+	public void testRestore() {
+		Rocket rocket = TestRockets.makeBigBlue();
+		int count = 0;
+		for (RocketComponent c : rocket) {
+			count++;
+		}
+		
+		RocketSnapshot snapshot = RocketSnapshot.create(rocket, null);
+		assertEquals(count, snapshot.getComponentCount());
+		assertEquals(count, snapshot.getNewComponentCount());
+		assertEquals(rocket.getModID(), snapshot.getModID());
+		
+		Rocket restored = snapshot.restore();
+		assertNotSame(rocket, restored);
+		ComponentCompare.assertDeepEquality(rocket, restored);
+		
+		// Modifying the restored rocket does not modify the snapshot
+		restored.getChild(0).getChild(1).setName("Modified");
+		ComponentCompare.assertDeepEquality(rocket, snapshot.restore());
+	}
+	
+	@Test
+	public void testUnmodifiedComponentsShared() {
+		Rocket rocket = TestRockets.makeBigBlue();
+		BodyTube tube = findBodyTube(rocket);
+		double length = tube.getLength();
+		
+		RocketSnapshot first = RocketSnapshot.create(rocket, null);
+		Rocket copy = rocket.copyWithOriginalID();
+		
+		// Without modifications nothing is copied
+		RocketSnapshot unmodified = RocketSnapshot.create(rocket, first);
+		assertEquals(0, unmodified.getNewComponentCount());
+		
+		// Only the modified component and the rocket are copied
+		tube.setLength(length + 0.1);
+		RocketSnapshot second = RocketSnapshot.create(rocket, first);
+		assertEquals(2, second.getNewComponentCount());
+		assertEquals(first.getComponentCount(), second.getComponentCount());
+		
+		ComponentCompare.assertDeepEquality(copy, first.restore());
+		ComponentCompare.assertDeepEquality(rocket, second.restore());
+		assertEquals(length + 0.1, findBodyTube(second.restore()).getLength(), 0);
+	}
+	
+	@Test
+	public void testTreeChange() {
+		Rocket rocket = TestRockets.makeBigBlue();
+		RocketSnapshot first = RocketSnapshot.create(rocket, null);
+		
+		findBodyTube(rocket).addChild(new MassComponent());
+		RocketSnapshot second = RocketSnapshot.create(rocket, first);
+		
+		// The new component, its parent and the rocket are copied
+		assertEquals(3, second.getNewComponentCount());
+		assertEquals(first.getComponentCount() + 1, second.getComponentCount());
+		ComponentCompare.assertDeepEquality(rocket, second.restore());
+	}
+	
+	@Test
+	public void testMemoryEstimate() throws Exception {
+		Rocket rocket = TestRockets.makeBigBlue();
+		RocketSnapshot first = RocketSnapshot.create(rocket, null);
+		long size = 0;
+		for (RocketComponent c : rocket) {
+			size += c.getMemoryEstimate();
+		}
+		assertEquals(size, first.getSize());
+		assertEquals(size, first.getNewSize());
+		
+		BodyTube tube = findBodyTube(rocket);
+		tube.addChild(new Bulkhead());
+		RocketSnapshot second = RocketSnapshot.create(rocket, first);
+		
+		// A freeform fin set with many points is estimated larger than a bulkhead
+		Coordinate[] points = new Coordinate[102];
+		points[0] = Coordinate.NUL;
+		for (int i = 1; i <= 100; i++) {
+			points[i] = new Coordinate(i * 0.001, 0.05);
+		}
+		points[101] = new Coordinate(0.2, 0);
+		FreeformFinSet fins = new FreeformFinSet(points);
+		tube.addChild(fins);
+		RocketSnapshot third = RocketSnapshot.create(rocket, second);
+		assertTrue(third.getNewSize() > second.getNewSize() + 100 * 32);
+		assertEquals(second.getSize() + fins.getMemoryEstimate(), third.getSize());
+	}
+	
+	@Test
+	public void testDocumentUndoRedo() {
+		Rocket rocket = TestRockets.makeBigBlue();
+		OpenRocketDocument document = OpenRocketDocumentFactory.createDocumentFromRocket(rocket);
+		double length = findBodyTube(rocket).getLength();
+		
+		for (int i = 1; i <= 3; i++) {
+			document.addUndoPosition("Modify " + i);
+			findBodyTube(rocket).setLength(length + i);
+		}
+		assertTrue(document.isUndoAvailable());
+		assertFalse(document.isRedoAvailable());
+		
+		document.undo();
+		assertEquals(length + 2, findBodyTube(rocket).getLength(), 0);
+		document.undo();
+		document.undo();
+		assertEquals(length, findBodyTube(rocket).getLength(), 0);
+		assertFalse(document.isUndoAvailable());
+		
+		document.redo();
+		document.redo();
+		assertEquals(length + 2, findBodyTube(rocket).getLength(), 0);
+		document.redo();
+		assertEquals(length + 3, findBodyTube(rocket).getLength(), 0);
+		assertFalse(document.isRedoAvailable());
+		
+		// Undo after new modifications
+		document.addUndoPosition("Modify 4");
+		findBodyTube(rocket).setLength(length + 4);
+		document.undo();
+		assertEquals(length + 3, findBodyTube(rocket).getLength(), 0);
+		document.redo();
+		assertEquals(length + 4, findBodyTube(rocket).getLength(), 0);
+	}
+	
+	
+	private static BodyTube findBodyTube(Rocket rocket) {
+		for (RocketComponent c : rocket) {
+			if (c instanceof BodyTube) {
+				return (BodyTube) c;
+			}
+		}
+		throw new AssertionError("No body tube");
+	}
+	
+}
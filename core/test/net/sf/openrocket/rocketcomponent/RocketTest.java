@@ -1,5 +1,10 @@
 package net.sf.openrocket.rocketcomponent;
 
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotSame;
+
+import java.util.Iterator;
+
 import net.sf.openrocket.util.BaseTestCase.BaseTestCase;
 
 import org.junit.Test;
@@ -20,4 +25,22 @@ public class RocketTest extends BaseTestCase {
 		ComponentCompare.assertDeepEquality(r1, r2);
 	}
 	
+	@Test
+	public void testCopyWithOriginalID() {
+		Rocket rocket = net.sf.openrocket.util.TestRockets.makeBigBlue();
+		
+		Rocket copy = rocket.copyWithOriginalID();
+		
+		ComponentCompare.assertDeepEquality(rocket, copy);
+		Iterator<RocketComponent> original = rocket.iterator(true);
+		Iterator<RocketComponent> copied = copy.iterator(true);
+		while (original.hasNext()) {
+			RocketComponent c = original.next();
+			RocketComponent d = copied.next();
+			assertNotSame(c, d);
+			assertEquals(c.getID(), d.getID());
+			d.checkComponentStructure();
+		}
+	}
+	
 }
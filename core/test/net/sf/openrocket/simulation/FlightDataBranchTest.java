@@ -0,0 +1,104 @@
+package net.sf.openrocket.simulation;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import java.nio.DoubleBuffer;
+import java.util.Arrays;
+import java.util.List;
+
+import net.sf.openrocket.util.BaseTestCase.BaseTestCase;
+
+import org.junit.Test;
+
+public class FlightDataBranchTest extends BaseTestCase {
+	
+	@Test
+	public void testUnsetValuesAreNaN() {
+		FlightDataBranch branch = new FlightDataBranch("test", FlightDataType.TYPE_TIME, FlightDataType.TYPE_ALTITUDE);
+		branch.addPoint();
+		branch.setValue(FlightDataType.TYPE_TIME, 0.0);
+		branch.addPoint();
+		branch.setValue(FlightDataType.TYPE_TIME, 0.1);
+		branch.setValue(FlightDataType.TYPE_ALTITUDE, 5.0);
+		
+		assertEquals(2, branch.getLength());
+		assertEquals(Arrays.asList(0.0, 0.1), branch.get(FlightDataType.TYPE_TIME));
+		assertEquals(Arrays.asList(Double.NaN, 5.0), branch.get(FlightDataType.TYPE_ALTITUDE));
+		assertEquals(5.0, branch.getLast(FlightDataType.TYPE_ALTITUDE), 0);
+		assertNull(branch.get(FlightDataType.TYPE_MACH_NUMBER));
+		assertTrue(Double.isNaN(branch.getLast(FlightDataType.TYPE_MACH_NUMBER)));
+	}
+	
+	@Test
+	public void testNewTypeIsBackfilled() {
+		FlightDataBranch branch = new FlightDataBranch("test", FlightDataType.TYPE_TIME);
+		for (int i = 0; i < 100; i++) {
+			branch.addPoint();
+			branch.setValue(FlightDataType.TYPE_TIME, i);
+		}
+		branch.setValue(FlightDataType.TYPE_MACH_NUMBER, 0.5);
+		
+		List<Double> mach = branch.get(FlightDataType.TYPE_MACH_NUMBER);
+		assertEquals(100, mach.size());
+		for (int i = 0; i < 99; i++) {
+			assertTrue(Double.isNaN(mach.get(i)));
+		}
+		assertEquals(0.5, mach.get(99), 0);
+		assertEquals(99.0, branch.getLast(FlightDataType.TYPE_TIME), 0);
+		
+		FlightDataType[] types = branch.getTypes();
+		assertArrayEquals(new FlightDataType[] { FlightDataType.TYPE_TIME, FlightDataType.TYPE_MACH_NUMBER }, types);
+	}
+	
+	@Test
+	public void testMinimumAndMaximum() {
+		FlightDataBranch branch = new FlightDataBranch("test", FlightDataType.TYPE_ALTITUDE);
+		assertTrue(Double.isNaN(branch.getMinimum(FlightDataType.TYPE_ALTITUDE)));
+		assertTrue(Double.isNaN(branch.getMaximum(FlightDataType.TYPE_ALTITUDE)));
+		
+		double[] values = { 3, Double.NaN, -2, 7, 1 };
+		for (double v : values) {
+			branch.addPoint();
+			branch.setValue(FlightDataType.TYPE_ALTITUDE, v);
+		}
+		
+		assertEquals(-2, branch.getMinimum(FlightDataType.TYPE_ALTITUDE), 0);
+		assertEquals(7, branch.getMaximum(FlightDataType.TYPE_ALTITUDE), 0);
+		assertTrue(Double.isNaN(branch.getMinimum(FlightDataType.TYPE_VELOCITY_Z)));
+	}
+	
+	@Test
+	public void testBuffer() {
+		FlightDataBranch branch = new FlightDataBranch("test", FlightDataType.TYPE_TIME);
+		for (int i = 0; i < 10; i++) {
+			branch.addPoint();
+			branch.setValue(FlightDataType.TYPE_TIME, i * 0.5);
+		}
+		branch.immute();
+		
+		DoubleBuffer buffer = branch.getBuffer(FlightDataType.TYPE_TIME);
+		assertTrue(buffer.isReadOnly());
+		assertEquals(10, buffer.remaining());
+		for (int i = 0; i < 10; i++) {
+			assertEquals(i * 0.5, buffer.get(i), 0);
+		}
+		assertNull(branch.getBuffer(FlightDataType.TYPE_ALTITUDE));
+	}
+	
+	@Test(expected = IllegalStateException.class)
+	public void testImmutable() {
+		FlightDataBranch branch = new FlightDataBranch("test", FlightDataType.TYPE_TIME);
+		branch.addPoint();
+		branch.immute();
+		branch.addPoint();
+	}
+	
+	@Test(expected = IllegalArgumentException.class)
+	public void testDuplicateType() {
+		new FlightDataBranch("test", FlightDataType.TYPE_TIME, FlightDataType.TYPE_TIME);
+	}
+	
+}
@@ -0,0 +1,87 @@
+package net.sf.openrocket.simulation;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.util.List;
+
+import net.sf.openrocket.document.Simulation;
+import net.sf.openrocket.rocketcomponent.Rocket;
+import net.sf.openrocket.util.TestRockets;
+import net.sf.openrocket.util.BaseTestCase.BaseTestCase;
+
+import org.junit.Test;
+
+/**
+ * Trajectory equivalence tests between RK4SimulationStepper with and without reused buffers.
+ */
+public class RK4InPlaceSimulationStepperTest extends BaseTestCase {
+	
+	@Test
+	public void testVerticalFlight() throws Exception {
+		Simulation simulation = TestRockets.makeEstesAlphaIIISimulation();
+		assertSameTrajectory(simulation);
+	}
+	
+	@Test
+	public void testWindAndLaunchAngle() throws Exception {
+		Simulation simulation = TestRockets.makeEstesAlphaIIISimulation();
+		simulation.getOptions().setWindSpeedAverage(6);
+		simulation.getOptions().setWindTurbulenceIntensity(0.3);
+		simulation.getOptions().setLaunchRodAngle(Math.toRadians(10));
+		simulation.getOptions().setRandomSeed(1234);
+		assertSameTrajectory(simulation);
+	}
+	
+	@Test
+	public void testWithoutExtras() throws Exception {
+		Simulation simulation = TestRockets.makeEstesAlphaIIISimulation();
+		simulation.getOptions().setCalculateExtras(false);
+		simulation.getOptions().setTimeStep(0.01);
+		assertSameTrajectory(simulation);
+	}
+	
+	@Test
+	public void testStepperSelection() {
+		Simulation simulation = TestRockets.makeEstesAlphaIIISimulation();
+		assertEquals(RK4SimulationStepper.class, simulation.getSimulationStepperClass());
+		
+		simulation.setSimulationStepperClass(RK4InPlaceSimulationStepper.class);
+		Rocket copy = simulation.getRocket().copyWithOriginalID();
+		assertEquals(RK4InPlaceSimulationStepper.class, simulation.duplicateSimulation(copy).getSimulationStepperClass());
+	}
+	
+	
+	private void assertSameTrajectory(Simulation simulation) throws Exception {
+		simulation.setSimulationStepperClass(RK4SimulationStepper.class);
+		simulation.simulate();
+		FlightData expected = simulation.getSimulatedData();
+		
+		simulation.setSimulationStepperClass(RK4InPlaceSimulationStepper.class);
+		simulation.simulate();
+		FlightData actual = simulation.getSimulatedData();
+		
+		assertTrue(expected.getMaxAltitude() > 10);
+		assertEquals(expected.getBranchCount(), actual.getBranchCount());
+		
+		for (int b = 0; b < expected.getBranchCount(); b++) {
+			FlightDataBranch expectedBranch = expected.getBranch(b);
+			FlightDataBranch actualBranch = actual.getBranch(b);
+			
+			assertEquals(expectedBranch.getLength(), actualBranch.getLength());
+			assertEquals(expectedBranch.getEvents().size(), actualBranch.getEvents().size());
+			for (FlightDataType type : expectedBranch.getTypes()) {
+				if (type == FlightDataType.TYPE_COMPUTATION_TIME) {
+					continue;
+				}
+				List<Double> expectedValues = expectedBranch.get(type);
+				List<Double> actualValues = actualBranch.get(type);
+				assertEquals(type.getName(), expectedValues, actualValues);
+			}
+		}
+		
+		assertEquals(expected.getMaxAltitude(), actual.getMaxAltitude(), 0);
+		assertEquals(expected.getTimeToApogee(), actual.getTimeToApogee(), 0);
+		assertEquals(expected.getGroundHitVelocity(), actual.getGroundHitVelocity(), 0);
+	}
+}
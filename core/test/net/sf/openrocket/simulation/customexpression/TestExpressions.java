@@ -1,11 +1,28 @@
 package net.sf.openrocket.simulation.customexpression;
 
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+
+import java.nio.DoubleBuffer;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
 import net.sf.openrocket.document.OpenRocketDocument;
 import net.sf.openrocket.document.OpenRocketDocumentFactory;
+import net.sf.openrocket.document.Simulation;
+import net.sf.openrocket.simulation.FlightDataBranch;
+import net.sf.openrocket.simulation.FlightDataType;
+import net.sf.openrocket.util.LinearInterpolator;
 import net.sf.openrocket.util.BaseTestCase.BaseTestCase;
+import net.sf.openrocket.util.TestRockets;
 
 import org.junit.Test;
 
+import de.congrace.exp4j.Calculable;
+import de.congrace.exp4j.ExpressionBuilder;
+import de.congrace.exp4j.Variable;
+
 public class TestExpressions extends BaseTestCase {
 	
 	@Test
@@ -20,4 +37,65 @@ public class TestExpressions extends BaseTestCase {
 		//System.out.println(exp.getExpressionString());
 		
 	}
+	
+	@Test
+	public void testVariableSlots() throws Exception {
+		Calculable calc = new ExpressionBuilder("x*2+y-x")
+				.withVariable(new Variable("x"))
+				.withVariable(new Variable("y"))
+				.withVariable(new Variable("z"))
+				.build();
+		
+		List<String> names = Arrays.asList(calc.getVariableNames());
+		assertEquals(2, names.size());
+		
+		calc.setVariable(names.indexOf("x"), 3);
+		calc.setVariable(names.indexOf("y"), 0.5);
+		assertEquals(3.5, calc.calculateDouble(), 0);
+		assertEquals(3.5, calc.calculate().getDoubleValue(), 0);
+		
+		// Array values are calculated element by element
+		calc.setVariable(new Variable("x", new double[] { 1, 2, 3 }));
+		assertArrayEquals(new double[] { 1.5, 2.5, 3.5 }, calc.calculate().getArrayValue(), 0);
+		assertEquals(1.5, calc.calculateDouble(), 0);
+		
+		calc.setVariable(new Variable("x", 4));
+		assertEquals(4.5, calc.calculateDouble(), 0);
+	}
+	
+	@Test
+	public void testInterpolate() {
+		double[] time = { 0, 0.5, 0.5, 1, 2, 2, 2, 3 };
+		double[] data = { 1, 2, 3, 5, -1, 4, 7, 0 };
+		LinearInterpolator interp = new LinearInterpolator(time, data);
+		DoubleBuffer t = DoubleBuffer.wrap(time);
+		DoubleBuffer y = DoubleBuffer.wrap(data);
+		
+		for (double x = -1; x <= 4; x += 0.05) {
+			assertEquals(interp.getValue(x), CompiledExpression.interpolate(t, y, x), 1e-12);
+		}
+		for (double x : time) {
+			assertEquals(interp.getValue(x), CompiledExpression.interpolate(t, y, x), 0);
+		}
+	}
+	
+	@Test
+	public void testSimulationValues() throws Exception {
+		OpenRocketDocument doc = OpenRocketDocumentFactory.createNewRocket();
+		CustomExpression exp = new CustomExpression(doc, "Kinetic energy", "Ek", "J", ".5*m*Vt^2");
+		
+		Simulation simulation = TestRockets.makeEstesAlphaIIISimulation();
+		simulation.simulate(new CustomExpressionSimulationListener(Collections.singletonList(exp)));
+		
+		FlightDataBranch branch = simulation.getSimulatedData().getBranch(0);
+		List<Double> mass = branch.get(FlightDataType.TYPE_MASS);
+		List<Double> velocity = branch.get(FlightDataType.TYPE_VELOCITY_TOTAL);
+		List<Double> energy = branch.get(exp.getType());
+		
+		assertEquals(branch.getLength(), energy.size());
+		for (int i = 0; i < energy.size(); i++) {
+			double expected = .5 * mass.get(i) * Math.pow(velocity.get(i), 2);
+			assertEquals(expected, energy.get(i), 0);
+		}
+	}
 }
@@ -0,0 +1,119 @@
+package net.sf.openrocket.simulation.montecarlo;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import net.sf.openrocket.document.Simulation;
+import net.sf.openrocket.simulation.FlightData;
+import net.sf.openrocket.simulation.FlightDataBranch;
+import net.sf.openrocket.simulation.FlightDataType;
+import net.sf.openrocket.simulation.SimulationStatus;
+import net.sf.openrocket.util.TestRockets;
+import net.sf.openrocket.util.BaseTestCase.BaseTestCase;
+
+import org.junit.Test;
+
+public class DispersionStatisticsTest extends BaseTestCase {
+	
+	@Test
+	public void testLandingEllipse() {
+		// Independent normal distributions with deviations 3 and 1, rotated by 30 degrees
+		double angle = Math.toRadians(30);
+		Random random = new Random(3);
+		LandingEllipse ellipse = new LandingEllipse();
+		for (int i = 0; i < 50000; i++) {
+			double u = 3 * random.nextGaussian();
+			double v = random.nextGaussian();
+			ellipse.add(10 + u * Math.cos(angle) - v * Math.sin(angle), -5 + u * Math.sin(angle) + v * Math.cos(angle));
+		}
+		ellipse.add(Double.NaN, 1);
+		
+		assertEquals(50000, ellipse.getCount());
+		assertEquals(10, ellipse.getMeanX(), 0.05);
+		assertEquals(-5, ellipse.getMeanY(), 0.05);
+		assertEquals(angle, ellipse.getOrientation(), 0.01);
+		
+		double scale = Math.sqrt(-2 * Math.log(0.05));
+		assertEquals(3 * scale, ellipse.getSemiMajorAxis(0.95), 0.05);
+		assertEquals(1 * scale, ellipse.getSemiMinorAxis(0.95), 0.02);
+	}
+	
+	@Test
+	public void testStatistics() {
+		DispersionStatistics stats = new DispersionStatistics(0.5);
+		stats.add(100, 5, 3, 4);
+		stats.add(200, 6, 6, 8);
+		stats.addFailure();
+		
+		assertEquals(3, stats.getFlightCount());
+		assertEquals(1, stats.getFailureCount());
+		assertEquals(150, stats.getApogee().getMean(), 0);
+		assertEquals(150, stats.getApogeeQuantile(0.5), 0);
+		assertEquals(7.5, stats.getLandingDistanceQuantile(0.5), 1e-10);
+		assertEquals(4.5, stats.getLandingEllipse().getMeanX(), 0);
+		
+		// The getters return snapshots
+		stats.getApogee().add(1000);
+		stats.getLandingEllipse().add(100, 100);
+		assertEquals(150, stats.getApogee().getMean(), 0);
+		assertEquals(2, stats.getLandingEllipse().getCount());
+	}
+	
+	@Test(expected = IllegalArgumentException.class)
+	public void testUnknownQuantile() {
+		new DispersionStatistics().getApogeeQuantile(0.3);
+	}
+	
+	@Test
+	public void testListenerMatchesFlightData() throws Exception {
+		Simulation simulation = TestRockets.makeEstesAlphaIIISimulation();
+		simulation.getOptions().setWindSpeedAverage(3);
+		
+		DispersionStatistics stats = new DispersionStatistics();
+		final List<FlightDataBranch> added = new ArrayList<FlightDataBranch>();
+		simulation.simulate(new DispersionStatisticsListener(stats) {
+			@Override
+			protected void flightAdded(SimulationStatus status, FlightDataBranch branch) {
+				added.add(branch);
+			}
+		});
+		
+		FlightData data = simulation.getSimulatedData();
+		FlightDataBranch branch = data.getBranch(0);
+		assertEquals(1, added.size());
+		assertSame(branch, added.get(0));
+		assertEquals(1, stats.getFlightCount());
+		assertEquals(0, stats.getFailureCount());
+		assertEquals(data.getMaxAltitude(), stats.getApogee().getMean(), 0);
+		assertEquals(data.getTimeToApogee(), stats.getTimeToApogee().getMean(), 0);
+		assertEquals(branch.getLast(FlightDataType.TYPE_POSITION_X), stats.getLandingEllipse().getMeanX(), 0);
+		assertEquals(branch.getLast(FlightDataType.TYPE_POSITION_Y), stats.getLandingEllipse().getMeanY(), 0);
+		assertTrue(stats.getLandingDistance().getMean() > 0);
+	}
+	
+	@Test
+	public void testMonteCarloStatistics() throws Exception {
+		Simulation simulation = TestRockets.makeEstesAlphaIIISimulation();
+		MonteCarloSimulation mc = new MonteCarloSimulation(simulation, 11);
+		mc.setDispersion(MonteCarloParameter.WIND_SPEED_AVERAGE, Dispersion.normal(4, 1));
+		mc.setDispersion(MonteCarloParameter.WIND_DIRECTION, Dispersion.uniform(0, 2 * Math.PI));
+		
+		DispersionStatistics serial = new DispersionStatistics();
+		DispersionStatistics parallel = new DispersionStatistics();
+		mc.run(8, 1, serial);
+		mc.run(8, 3, parallel);
+		
+		assertEquals(8, serial.getFlightCount());
+		assertEquals(serial.getApogee().getMean(), parallel.getApogee().getMean(), 0);
+		assertEquals(serial.getApogeeQuantile(0.95), parallel.getApogeeQuantile(0.95), 0);
+		assertEquals(serial.getLandingEllipse().getSemiMajorAxis(0.95),
+				parallel.getLandingEllipse().getSemiMajorAxis(0.95), 0);
+		assertTrue(serial.getLandingEllipse().getSemiMajorAxis(0.95) > 0);
+	}
+	
+}
@@ -0,0 +1,163 @@
+package net.sf.openrocket.simulation.montecarlo;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import net.sf.openrocket.document.Simulation;
+import net.sf.openrocket.simulation.SimulationOptions;
+import net.sf.openrocket.util.TestRockets;
+import net.sf.openrocket.util.BaseTestCase.BaseTestCase;
+
+import org.junit.Test;
+
+public class MonteCarloSimulationTest extends BaseTestCase {
+	
+	@Test
+	public void testReproducibleAcrossThreadCounts() throws Exception {
+		List<MonteCarloResult> serial = run(newMonteCarlo(42), 6, 1);
+		List<MonteCarloResult> parallel = run(newMonteCarlo(42), 6, 3);
+		
+		assertEquals(6, serial.size());
+		assertEquals(6, parallel.size());
+		for (int i = 0; i < serial.size(); i++) {
+			MonteCarloResult a = serial.get(i);
+			MonteCarloResult b = parallel.get(i);
+			assertNull(a.getException());
+			assertEquals(i, a.getRun());
+			assertEquals(i, b.getRun());
+			assertEquals(a.getParameters(), b.getParameters());
+			assertEquals(a.getApogee(), b.getApogee(), 0);
+			assertEquals(a.getMaxVelocity(), b.getMaxVelocity(), 0);
+			assertEquals(a.getLandingX(), b.getLandingX(), 0);
+			assertEquals(a.getLandingY(), b.getLandingY(), 0);
+		}
+		
+		// The runs are dispersed
+		assertFalse(serial.get(0).getLandingX() == serial.get(1).getLandingX());
+		assertTrue(serial.get(0).getApogee() > 100);
+	}
+	
+	@Test
+	public void testSeedChangesResults() throws Exception {
+		MonteCarloResult a = run(newMonteCarlo(1), 1, 1).get(0);
+		MonteCarloResult b = run(newMonteCarlo(2), 1, 1).get(0);
+		assertFalse(a.getParameters().equals(b.getParameters()));
+		assertFalse(a.getLandingX() == b.getLandingX());
+	}
+	
+	@Test
+	public void testSampling() {
+		MonteCarloSimulation mc = newMonteCarlo(7);
+		assertEquals(mc.sample(3), mc.sample(3));
+		assertFalse(mc.sample(3).equals(mc.sample(4)));
+		
+		// Changing the distribution of one parameter does not affect the samples of the others
+		double angle = mc.sample(5).get(MonteCarloParameter.LAUNCH_ROD_ANGLE);
+		mc.setDispersion(MonteCarloParameter.WIND_SPEED_AVERAGE, Dispersion.uniform(0, 10));
+		assertEquals(angle, mc.sample(5).get(MonteCarloParameter.LAUNCH_ROD_ANGLE), 0);
+		
+		mc.setDispersion(MonteCarloParameter.WIND_SPEED_AVERAGE, Dispersion.fixed(3));
+		assertEquals(3, mc.sample(5).get(MonteCarloParameter.WIND_SPEED_AVERAGE), 0);
+	}
+	
+	
+	@Test
+	public void testLaunchRodDirection() {
+		SimulationOptions options = TestRockets.makeEstesAlphaIIISimulation().getOptions();
+		options.setLaunchIntoWind(true);
+		options.setWindDirection(1.0);
+		MonteCarloParameter.LAUNCH_ROD_DIRECTION.apply(options, 2.0);
+		assertFalse(options.getLaunchIntoWind());
+		assertEquals(2.0, options.getLaunchRodDirection(), 0);
+	}
+	
+	@Test
+	public void testDeliveryOrder() throws Exception {
+		MonteCarloSimulation mc = newMonteCarlo(3);
+		final List<Integer> order = new ArrayList<Integer>();
+		mc.run(12, 3, new MonteCarloListener() {
+			@Override
+			public void runCompleted(MonteCarloResult result) {
+				order.add(result.getRun());
+			}
+		});
+		for (int i = 0; i < order.size(); i++) {
+			assertEquals(i, (int) order.get(i));
+		}
+		assertEquals(12, order.size());
+	}
+	
+	@Test(expected = IllegalStateException.class)
+	public void testListenerFailureStopsRuns() throws Exception {
+		MonteCarloSimulation mc = newMonteCarlo(3);
+		mc.run(8, 2, new MonteCarloListener() {
+			@Override
+			public void runCompleted(MonteCarloResult result) {
+				throw new IllegalStateException("failed");
+			}
+		});
+	}
+	
+	
+	@Test(timeout = 60000)
+	public void testRunFailureStopsRuns() throws Exception {
+		for (int threads = 1; threads <= 3; threads++) {
+			MonteCarloSimulation mc = newMonteCarlo(3);
+			final AtomicInteger samples = new AtomicInteger();
+			mc.setDispersion(MonteCarloParameter.WIND_TURBULENCE_INTENSITY, new Dispersion() {
+				@Override
+				public double sample(Random random) {
+					if (samples.incrementAndGet() == 4) {
+						throw new IllegalStateException("failed");
+					}
+					return 0.1;
+				}
+			});
+			
+			final List<MonteCarloResult> results = new ArrayList<MonteCarloResult>();
+			try {
+				mc.run(12, threads, new MonteCarloListener() {
+					@Override
+					public void runCompleted(MonteCarloResult result) {
+						results.add(result);
+					}
+				});
+				fail("Run failure was not propagated");
+			} catch (IllegalStateException e) {
+				// Expected
+			}
+			assertTrue(results.size() < 12);
+		}
+	}
+	
+	
+	private static MonteCarloSimulation newMonteCarlo(long seed) {
+		Simulation simulation = TestRockets.makeEstesAlphaIIISimulation();
+		MonteCarloSimulation mc = new MonteCarloSimulation(simulation, seed);
+		mc.setDispersion(MonteCarloParameter.WIND_SPEED_AVERAGE, Dispersion.normal(4, 1));
+		mc.setDispersion(MonteCarloParameter.WIND_DIRECTION, Dispersion.uniform(0, 2 * Math.PI));
+		mc.setDispersion(MonteCarloParameter.LAUNCH_ROD_ANGLE, Dispersion.normal(0, Math.toRadians(2)));
+		mc.setDispersion(MonteCarloParameter.LAUNCH_TEMPERATURE, Dispersion.normal(293, 5));
+		return mc;
+	}
+	
+	private static List<MonteCarloResult> run(MonteCarloSimulation mc, int runs, int threads) throws InterruptedException {
+		final List<MonteCarloResult> results = new ArrayList<MonteCarloResult>();
+		mc.run(runs, threads, new MonteCarloListener() {
+			@Override
+			public void runCompleted(MonteCarloResult result) {
+				results.add(result);
+			}
+		});
+		return results;
+	}
+	
+}
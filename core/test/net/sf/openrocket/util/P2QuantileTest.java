@@ -0,0 +1,64 @@
+package net.sf.openrocket.util;
+
+import static org.junit.Assert.assertEquals;
+
+import java.util.Arrays;
+import java.util.Random;
+
+import org.junit.Test;
+
+public class P2QuantileTest {
+	
+	@Test
+	public void testEmpty() {
+		assertEquals(Double.NaN, new P2Quantile(0.5).getQuantile(), 0);
+	}
+	
+	@Test
+	public void testExactForFewValues() {
+		P2Quantile median = new P2Quantile(0.5);
+		median.add(3);
+		assertEquals(3, median.getQuantile(), 0);
+		median.add(1);
+		median.add(Double.NaN);
+		assertEquals(2, median.getQuantile(), 0);
+		median.add(2);
+		assertEquals(2, median.getQuantile(), 0);
+		assertEquals(3, median.getCount());
+	}
+	
+	@Test
+	public void testNormalDistribution() {
+		Random random = new Random(1234);
+		double[] values = new double[100000];
+		P2Quantile[] estimators = { new P2Quantile(0.05), new P2Quantile(0.5), new P2Quantile(0.95) };
+		for (int i = 0; i < values.length; i++) {
+			values[i] = 10 + 2 * random.nextGaussian();
+			for (P2Quantile q : estimators) {
+				q.add(values[i]);
+			}
+		}
+		
+		Arrays.sort(values);
+		for (P2Quantile q : estimators) {
+			double exact = values[(int) (q.getP() * (values.length - 1))];
+			assertEquals(exact, q.getQuantile(), 0.02);
+		}
+	}
+	
+	@Test
+	public void testUniformDistribution() {
+		Random random = new Random(99);
+		P2Quantile q = new P2Quantile(0.9);
+		for (int i = 0; i < 20000; i++) {
+			q.add(random.nextDouble());
+		}
+		assertEquals(0.9, q.getQuantile(), 0.01);
+	}
+	
+	@Test(expected = IllegalArgumentException.class)
+	public void testInvalidQuantile() {
+		new P2Quantile(1.5);
+	}
+	
+}
@@ -5,6 +5,13 @@ import static org.junit.Assert.*;
 import java.io.IOException;
 import java.lang.reflect.InvocationTargetException;
 
+import net.sf.openrocket.aerodynamics.barrowman.FinSetCalc;
+import net.sf.openrocket.aerodynamics.barrowman.SymmetricComponentCalc;
+import net.sf.openrocket.rocketcomponent.BodyTube;
+import net.sf.openrocket.rocketcomponent.NoseCone;
+import net.sf.openrocket.rocketcomponent.RocketComponent;
+import net.sf.openrocket.rocketcomponent.TrapezoidFinSet;
+
 import org.junit.Test;
 
 public class ReflectionTest {
@@ -47,4 +54,44 @@ public class ReflectionTest {
 		
 	}
 	
+	@Test
+	public void testFindMethodCached() {
+		Reflection.Method m1 = Reflection.findMethod("net.sf.openrocket.file.openrocket.savers", BodyTube.class,
+				"Saver", "getElements", RocketComponent.class);
+		Reflection.Method m2 = Reflection.findMethod("net.sf.openrocket.file.openrocket.savers", new BodyTube(),
+				"Saver", "getElements", RocketComponent.class);
+		assertNotNull(m1);
+		assertSame(m1, m2);
+		
+		// Methods not found are remembered as well
+		assertNull(Reflection.findMethod("net.sf.openrocket.file.openrocket.savers", BodyTube.class,
+				"Saver", "noSuchMethod"));
+		assertNull(Reflection.findMethod("net.sf.openrocket.file.openrocket.savers", BodyTube.class,
+				"Saver", "noSuchMethod"));
+	}
+	
+	@Test
+	public void testConstructCached() {
+		BodyTube tube = new BodyTube();
+		NoseCone nose = new NoseCone();
+		TrapezoidFinSet fins = new TrapezoidFinSet();
+		tube.addChild(fins);
+		
+		Object c1 = Reflection.construct("net.sf.openrocket.aerodynamics.barrowman", tube, "Calc", tube);
+		Object c2 = Reflection.construct("net.sf.openrocket.aerodynamics.barrowman", tube, "Calc", tube);
+		Object c3 = Reflection.construct("net.sf.openrocket.aerodynamics.barrowman", nose, "Calc", nose);
+		Object c4 = Reflection.construct("net.sf.openrocket.aerodynamics.barrowman", fins, "Calc", fins);
+		
+		assertTrue(c1 instanceof SymmetricComponentCalc);
+		assertNotSame(c1, c2);
+		assertTrue(c3 instanceof SymmetricComponentCalc);
+		assertTrue(c4 instanceof FinSetCalc);
+		
+		try {
+			Reflection.construct("net.sf.openrocket.aerodynamics.barrowman", tube, "Calc", "invalid");
+			fail();
+		} catch (BugException ignore) {
+		}
+	}
+	
 }
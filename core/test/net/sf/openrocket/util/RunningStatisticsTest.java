@@ -0,0 +1,42 @@
+package net.sf.openrocket.util;
+
+import static org.junit.Assert.assertEquals;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+
+import org.junit.Test;
+
+public class RunningStatisticsTest {
+	
+	@Test
+	public void testEmpty() {
+		RunningStatistics stats = new RunningStatistics();
+		assertEquals(0, stats.getCount());
+		assertEquals(Double.NaN, stats.getMean(), 0);
+		assertEquals(Double.NaN, stats.getVariance(), 0);
+		assertEquals(Double.NaN, stats.getMin(), 0);
+	}
+	
+	@Test
+	public void testMatchesMathUtil() {
+		Random random = new Random(5);
+		RunningStatistics stats = new RunningStatistics();
+		List<Double> values = new ArrayList<Double>();
+		for (int i = 0; i < 1000; i++) {
+			double value = 1e6 + random.nextGaussian();
+			values.add(value);
+			stats.add(value);
+		}
+		stats.add(Double.NaN);
+		
+		assertEquals(1000, stats.getCount());
+		assertEquals(MathUtil.average(values), stats.getMean(), 1e-6);
+		assertEquals(MathUtil.stddev(values), stats.getStandardDeviation(), 1e-6);
+		assertEquals(Collections.min(values), stats.getMin(), 0);
+		assertEquals(Collections.max(values), stats.getMax(), 0);
+	}
+	
+}
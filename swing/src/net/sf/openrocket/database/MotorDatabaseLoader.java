@@ -4,6 +4,7 @@ import net.sf.openrocket.database.motor.ThrustCurveMotorSetDatabase;
 import net.sf.openrocket.file.iterator.DirectoryIterator;
 import net.sf.openrocket.file.iterator.FileIterator;
 import net.sf.openrocket.file.motor.GeneralMotorLoader;
+import net.sf.openrocket.file.motor.MotorCatalogLoader;
 import net.sf.openrocket.gui.util.SimpleFileFilter;
 import net.sf.openrocket.gui.util.SwingPreferences;
 import net.sf.openrocket.motor.Motor;
@@ -31,7 +32,8 @@ public class MotorDatabaseLoader extends AsynchronousDatabaseLoader {
 	private static final String THRUSTCURVE_DIRECTORY = "datafiles/thrustcurves/";
 	private static final long STARTUP_DELAY = 0;
 	
-	private final ThrustCurveMotorSetDatabase database = new ThrustCurveMotorSetDatabase();
+	private final ThrustCurveMotorSetDatabase loading = new ThrustCurveMotorSetDatabase();
+	private volatile ThrustCurveMotorSetDatabase database = null;
 	private int motorCount = 0;
 	
 	
@@ -46,13 +48,14 @@ public class MotorDatabaseLoader extends AsynchronousDatabaseLoader {
 		GeneralMotorLoader loader = new GeneralMotorLoader();
 		SimpleFileFilter fileFilter = new SimpleFileFilter("", loader.getSupportedExtensions());
 		
-		log.info("Starting reading serialized motor database");
-		FileIterator iterator = DirectoryIterator.findDirectory(THRUSTCURVE_DIRECTORY, new SimpleFileFilter("", false, "ser"));
+		log.info("Starting reading motor catalogs");
+		FileIterator iterator = DirectoryIterator.findDirectory(THRUSTCURVE_DIRECTORY,
+				new SimpleFileFilter("", false, MotorCatalogLoader.EXTENSION));
 		while (iterator.hasNext()) {
 			Pair<String, InputStream> f = iterator.next();
-			loadSerialized(f);
+			loadCatalog(f);
 		}
-		log.info("Ending reading serialized motor database, motorCount=" + motorCount);
+		log.info("Ending reading motor catalogs, motorCount=" + motorCount);
 		
 		
 		log.info("Starting reading user-defined motors");
@@ -67,18 +70,20 @@ public class MotorDatabaseLoader extends AsynchronousDatabaseLoader {
 		}
 		log.info("Ending reading user-defined motors, motorCount=" + motorCount);
 		
+		// Publish the database only once it is complete and indexed
+		loading.buildIndex();
+		database = loading;
 	}
 	
 	
 	
-	@SuppressWarnings("unchecked")
-	private void loadSerialized(Pair<String, InputStream> f) {
+	private void loadCatalog(Pair<String, InputStream> f) {
 		try {
-			log.debug("Reading motors from file " + f.getU());
-			ObjectInputStream ois = new ObjectInputStream(f.getV());
-			List<Motor> motors = (List<Motor>) ois.readObject();
+			log.debug("Reading motors from catalog " + f.getU());
+			List<Motor> motors = new MotorCatalogLoader().load(f.getV(), f.getU());
+			f.getV().close();
 			addMotors(motors);
-		} catch (Exception ex) {
+		} catch (IOException ex) {
 			throw new BugException(ex);
 		}
 	}
@@ -131,7 +136,7 @@ public class MotorDatabaseLoader extends AsynchronousDatabaseLoader {
 	private synchronized void addMotors(List<Motor> motors) {
 		for (Motor m : motors) {
 			motorCount++;
-			database.addMotor((ThrustCurveMotor) m);
+			loading.addMotor((ThrustCurveMotor) m);
 		}
 	}
 	
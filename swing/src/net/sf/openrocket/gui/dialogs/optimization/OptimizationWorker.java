@@ -1,5 +1,7 @@
 package net.sf.openrocket.gui.dialogs.optimization;
 
+import java.io.File;
+import java.io.IOException;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.concurrent.LinkedBlockingQueue;
@@ -9,12 +11,13 @@ import javax.swing.SwingUtilities;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import net.sf.openrocket.arch.SystemInfo;
 import net.sf.openrocket.document.Simulation;
 import net.sf.openrocket.optimization.general.FunctionOptimizer;
 import net.sf.openrocket.optimization.general.OptimizationController;
 import net.sf.openrocket.optimization.general.OptimizationException;
 import net.sf.openrocket.optimization.general.ParallelExecutorCache;
-import net.sf.openrocket.optimization.general.ParallelFunctionCache;
+import net.sf.openrocket.optimization.general.PersistentFunctionCache;
 import net.sf.openrocket.optimization.general.Point;
 import net.sf.openrocket.optimization.general.multidim.MultidirectionalSearchOptimizer;
 import net.sf.openrocket.optimization.general.onedim.GoldenSectionSearchOptimizer;
@@ -33,7 +36,8 @@ import net.sf.openrocket.util.BugException;
  * 
  * @author Sampo Niskanen <sampo.niskanen@iki.fi>
  */
-public abstract class OptimizationWorker extends Thread implements OptimizationController, RocketOptimizationListener {
+public abstract class OptimizationWorker extends Thread implements OptimizationController, RocketOptimizationListener,
+		PersistentFunctionCache.ReuseListener {
 	
 	/*
 	 * Note:  This is implemented as a separate Thread object instead of a SwingWorker because
@@ -53,6 +57,8 @@ public abstract class OptimizationWorker extends Thread implements OptimizationC
 	private static final long PURGE_TIMEOUT = 500;
 	/** End optimization when step size is below this threshold */
 	private static final double STEP_SIZE_LIMIT = 0.005;
+	/** Points closer than this in each scaled coordinate share the same function value */
+	private static final double CACHE_TOLERANCE = 1e-6;
 	
 	private final FunctionOptimizer optimizer;
 	private final RocketOptimizationFunction function;
@@ -60,7 +66,7 @@ public abstract class OptimizationWorker extends Thread implements OptimizationC
 	private final Simulation simulation;
 	private final SimulationModifier[] modifiers;
 	
-	private final ParallelFunctionCache cache;
+	private final PersistentFunctionCache cache;
 	
 
 	private final LinkedBlockingQueue<FunctionEvaluationData> evaluationQueue =
@@ -89,8 +95,9 @@ public abstract class OptimizationWorker extends Thread implements OptimizationC
 		function = new RocketOptimizationFunction(simulation, parameter, goal, domain, modifiers);
 		function.addRocketOptimizationListener(this);
 		
-		cache = new ParallelExecutorCache(1);
+		cache = new PersistentFunctionCache(new ParallelExecutorCache(1), CACHE_TOLERANCE);
 		cache.setFunction(function);
+		cache.setReuseListener(this);
 		
 		if (modifiers.length == 1) {
 			optimizer = new GoldenSectionSearchOptimizer(cache);
@@ -102,8 +109,13 @@ public abstract class OptimizationWorker extends Thread implements OptimizationC
 	
 	@Override
 	public void run() {
+		String cacheKey = null;
 		try {
 			
+			// Reuse the function values of previous optimizations of the same design
+			cacheKey = function.getCacheKey();
+			loadCache(cacheKey);
+			
 			double[] current = new double[modifiers.length];
 			for (int i = 0; i < modifiers.length; i++) {
 				current[i] = modifiers[i].getCurrentScaledValue(simulation);
@@ -115,6 +127,9 @@ public abstract class OptimizationWorker extends Thread implements OptimizationC
 		} catch (OptimizationException e) {
 			this.optimizationException = e;
 		} finally {
+			if (cacheKey != null) {
+				saveCache(cacheKey);
+			}
 			SwingUtilities.invokeLater(new Runnable() {
 				@Override
 				public void run() {
@@ -126,6 +141,33 @@ public abstract class OptimizationWorker extends Thread implements OptimizationC
 		}
 	}
 	
+	private void loadCache(String key) {
+		File file = getCacheFile(key);
+		try {
+			int count = cache.load(file, key);
+			log.info("Loaded " + count + " cached function values from " + file);
+		} catch (IOException e) {
+			log.warn("Unable to load optimization cache " + file, e);
+		}
+	}
+	
+	private void saveCache(String key) {
+		File file = getCacheFile(key);
+		try {
+			file.getParentFile().mkdirs();
+			cache.save(file, key);
+			log.info("Saved " + cache.size() + " function values to " + file);
+		} catch (IOException e) {
+			log.warn("Unable to save optimization cache " + file, e);
+		}
+	}
+	
+	private static File getCacheFile(String key) {
+		File dir = new File(SystemInfo.getUserApplicationDirectory(), "OptimizationCache");
+		return new File(dir, key + ".cache");
+	}
+	
+	
 	/**
 	 * This method is called after the optimization has ended, either normally, when interrupted
 	 * or by throwing an exception.  This method is called on the EDT, like the done() method of SwingWorker.
@@ -229,7 +271,23 @@ public abstract class OptimizationWorker extends Thread implements OptimizationC
 	
 	@Override
 	public void evaluated(Point point, Value[] state, Value domainReference, Value parameterValue, double goalValue) {
+		// Store the parameter value with the cached function value
+		cache.putDetails(point, (parameterValue != null) ? parameterValue.getValue() : Double.NaN);
 		publish(new FunctionEvaluationData(point, state, domainReference, parameterValue, goalValue), null);
 	}
 	
+	/*
+	 * Publish the values of the cache as if they had been evaluated, so they are included
+	 * in the evaluation history.
+	 */
+	@Override
+	public void valueReused(Point point, double value, double[] details) {
+		double parameterValue = (details.length > 0) ? details[0] : Double.NaN;
+		try {
+			function.fireCachedEvaluation(point, value, parameterValue);
+		} catch (OptimizationException e) {
+			log.warn("Unable to publish cached function value at " + point, e);
+		}
+	}
+	
 }
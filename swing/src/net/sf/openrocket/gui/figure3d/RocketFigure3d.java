@@ -71,6 +71,7 @@ public class RocketFigure3d extends JPanel implements GLEventListener {
 	
 	private static final double fovY = 15.0;
 	private static double fovX = Double.NaN;
+	private int viewportHeight = 0;
 	private static final int CARET_SIZE = 20;
 	
 	private final OpenRocketDocument document;
@@ -456,6 +457,7 @@ public class RocketFigure3d extends JPanel implements GLEventListener {
 		
 		final double ratio = (double) w / (double) h;
 		fovX = fovY * ratio;
+		viewportHeight = h;
 		
 		gl.glMatrixMode(GLMatrixFunc.GL_PROJECTION);
 		gl.glLoadIdentity();
@@ -525,7 +527,11 @@ public class RocketFigure3d extends JPanel implements GLEventListener {
 				/ Math.tan(Math.toRadians(fovY / 2.0));
 		
 		// Move back the greater of the 2 distances
-		glu.gluLookAt(0, 0, Math.max(dX, dY), 0, 0, 0, 0, 1, 0);
+		final double distance = Math.max(dX, dY);
+		glu.gluLookAt(0, 0, distance, 0, 0, 0, 0, 1, 0);
+		
+		// Select the level of detail based on the size of the rocket on screen
+		rr.setPixelsPerMeter(viewportHeight / (2 * distance * Math.tan(Math.toRadians(fovY / 2.0))));
 		
 		gl.glRotated(yaw * (180.0 / Math.PI), 0, 1, 0);
 		gl.glRotated(roll * (180.0 / Math.PI), 1, 0, 0);
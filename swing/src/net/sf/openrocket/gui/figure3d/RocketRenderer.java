@@ -46,6 +46,15 @@ public abstract class RocketRenderer {
 		cr.updateFigure(drawable);
 	}
 	
+	/**
+	 * Set the scale at which the rocket is drawn, used to select the level of detail.
+	 * 
+	 * @param pixelsPerMeter	the size on screen of one meter at the rocket axis.
+	 */
+	public void setPixelsPerMeter(double pixelsPerMeter) {
+		cr.setPixelsPerMeter(pixelsPerMeter);
+	}
+	
 	public abstract void renderComponent(GL2 gl, RocketComponent c, float alpha);
 	
 	public abstract boolean isDrawn(RocketComponent c);
@@ -32,6 +32,14 @@ public class ComponentRenderer {
 
 	private int LOD = 80;
 
+	/** Smallest number of slices used for transitions far from the camera. */
+	private static final int MIN_TRANSITION_LOD = 16;
+
+	/** Length of a polygon edge on screen, in pixels, above which more slices are used. */
+	private static final double EDGE_PIXELS = 3;
+
+	private double pixelsPerMeter = Double.POSITIVE_INFINITY;
+
 	GLU glu;
 	GLUquadric q;
 	FinRenderer fr = new FinRenderer();
@@ -51,6 +59,39 @@ public class ComponentRenderer {
 
 	}
 
+	/**
+	 * Set the scale at which the rocket is currently drawn, which determines the level
+	 * of detail of transitions and nose cones.
+	 * 
+	 * @param pixelsPerMeter	the size on screen of one meter at the rocket axis.
+	 */
+	public void setPixelsPerMeter(double pixelsPerMeter) {
+		this.pixelsPerMeter = pixelsPerMeter;
+	}
+
+	public double getPixelsPerMeter() {
+		return pixelsPerMeter;
+	}
+
+	/**
+	 * Return the number of slices used to draw the component.  Transitions and nose cones
+	 * use fewer slices when they are small on screen.  The value is doubled from a minimum
+	 * until the polygon edges are short enough, so the geometry changes only when the
+	 * size on screen changes significantly.
+	 */
+	protected int getLevelOfDetail(RocketComponent c) {
+		if (!(c instanceof Transition))
+			return LOD;
+
+		Transition t = (Transition) c;
+		double circumference = 2 * Math.PI * Math.max(t.getForeRadius(), t.getAftRadius()) * pixelsPerMeter;
+		int lod = MIN_TRANSITION_LOD;
+		while (lod < LOD && circumference / lod > EDGE_PIXELS) {
+			lod *= 2;
+		}
+		return Math.min(lod, LOD);
+	}
+
 	public Geometry getGeometry(final RocketComponent c, final Surface which) {
 		return new Geometry() {
 			@Override
@@ -125,6 +166,7 @@ public class ComponentRenderer {
 	}
 
 	private void renderTransition(GL2 gl, Transition t, Surface which) {
+		final int lod = getLevelOfDetail(t);
 
 		if (which == Surface.OUTSIDE || which == Surface.INSIDE) {
 			gl.glPushMatrix();
@@ -132,7 +174,7 @@ public class ComponentRenderer {
 			if (which == Surface.INSIDE) {
 				gl.glFrontFace(GL.GL_CCW);
 			}
-			TransitionRenderer.drawTransition(gl, t, LOD, t.getType() == Shape.CONICAL ? 4 : LOD / 2, which == Surface.INSIDE ? -t.getThickness() : 0);
+			TransitionRenderer.drawTransition(gl, t, lod, t.getType() == Shape.CONICAL ? 4 : lod / 2, which == Surface.INSIDE ? -t.getThickness() : 0);
 			if (which == Surface.INSIDE) {
 				gl.glFrontFace(GL.GL_CW);
 			}
@@ -145,10 +187,10 @@ public class ComponentRenderer {
 			gl.glTranslated(t.getLength(), 0, 0);
 			if (which == Surface.EDGES) {
 				gl.glRotated(90, 0, 1.0, 0);
-				glu.gluDisk(q, Math.max(0, t.getAftRadius() - t.getThickness()), t.getAftRadius(), LOD, 2);
+				glu.gluDisk(q, Math.max(0, t.getAftRadius() - t.getThickness()), t.getAftRadius(), lod, 2);
 			} else {
 				gl.glRotated(270, 0, 1.0, 0);
-				glu.gluDisk(q, Math.max(0, t.getAftRadius() - t.getThickness()), t.getAftRadius(), LOD, 2);
+				glu.gluDisk(q, Math.max(0, t.getAftRadius() - t.getThickness()), t.getAftRadius(), lod, 2);
 			}
 			gl.glPopMatrix();
 
@@ -162,14 +204,14 @@ public class ComponentRenderer {
 					renderTube(gl, Surface.EDGES, t.getAftShoulderRadius(), iR, t.getAftShoulderLength());
 					gl.glPushMatrix();
 					gl.glRotated(90, 0, 1.0, 0);
-					glu.gluDisk(q, t.getAftShoulderRadius(), t.getAftRadius(), LOD, 2);
+					glu.gluDisk(q, t.getAftShoulderRadius(), t.getAftRadius(), lod, 2);
 					gl.glPopMatrix();
 
 				} else {
 					renderTube(gl, Surface.INSIDE, t.getAftShoulderRadius(), iR, t.getAftShoulderLength());
 					gl.glPushMatrix();
 					gl.glRotated(270, 0, 1.0, 0);
-					glu.gluDisk(q, t.getAftShoulderRadius(), t.getAftRadius(), LOD, 2);
+					glu.gluDisk(q, t.getAftShoulderRadius(), t.getAftRadius(), lod, 2);
 					gl.glPopMatrix();
 				}
 				gl.glPopMatrix();
@@ -180,10 +222,10 @@ public class ComponentRenderer {
 			gl.glRotated(180, 0, 1.0, 0);
 			if (which == Surface.EDGES) {
 				gl.glRotated(90, 0, 1.0, 0);
-				glu.gluDisk(q, Math.max(0, t.getForeRadius() - t.getThickness()), t.getForeRadius(), LOD, 2);
+				glu.gluDisk(q, Math.max(0, t.getForeRadius() - t.getThickness()), t.getForeRadius(), lod, 2);
 			} else {
 				gl.glRotated(270, 0, 1.0, 0);
-				glu.gluDisk(q, Math.max(0, t.getForeRadius() - t.getThickness()), t.getForeRadius(), LOD, 2);
+				glu.gluDisk(q, Math.max(0, t.getForeRadius() - t.getThickness()), t.getForeRadius(), lod, 2);
 			}
 			gl.glPopMatrix();
 
@@ -198,14 +240,14 @@ public class ComponentRenderer {
 					renderTube(gl, Surface.EDGES, t.getForeShoulderRadius(), iR, t.getForeShoulderLength());
 					gl.glPushMatrix();
 					gl.glRotated(90, 0, 1.0, 0);
-					glu.gluDisk(q, t.getForeShoulderRadius(), t.getForeRadius(), LOD, 2);
+					glu.gluDisk(q, t.getForeShoulderRadius(), t.getForeRadius(), lod, 2);
 					gl.glPopMatrix();
 
 				} else {
 					renderTube(gl, Surface.INSIDE, t.getForeShoulderRadius(), iR, t.getForeShoulderLength());
 					gl.glPushMatrix();
 					gl.glRotated(270, 0, 1.0, 0);
-					glu.gluDisk(q, t.getForeShoulderRadius(), t.getForeRadius(), LOD, 2);
+					glu.gluDisk(q, t.getForeShoulderRadius(), t.getForeRadius(), lod, 2);
 					gl.glPopMatrix();
 				}
 				gl.glPopMatrix();
@@ -1,39 +1,124 @@
 package net.sf.openrocket.gui.figure3d.geometry;
 
-import java.util.HashMap;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
 import java.util.Map;
 
 import javax.media.opengl.GL2;
 import javax.media.opengl.GLAutoDrawable;
 
 import net.sf.openrocket.gui.figure3d.geometry.Geometry.Surface;
+import net.sf.openrocket.gui.util.ComponentGeometryState;
 import net.sf.openrocket.rocketcomponent.RocketComponent;
 
+/**
+ * A component renderer that compiles the geometry of each component surface into a
+ * display list, which the driver keeps on the graphics card.
+ * <p>
+ * When the rocket changes, only the lists of components whose geometry state or level of
+ * detail has changed are recompiled.  The lists are kept in least recently used order and
+ * the oldest lists are deleted once there are more than {@link #MAX_LISTS}, which frees
+ * the lists of removed components and of surfaces no longer drawn.
+ */
 public class DisplayListComponentRenderer extends ComponentRenderer {
-	private Map<Key, Integer> lists = new HashMap<Key, Integer>();
+	
+	/** Maximum number of display lists kept. */
+	private static final int MAX_LISTS = 1024;
+	
+	private final LinkedHashMap<Key, DisplayList> lists = new LinkedHashMap<Key, DisplayList>(16, 0.75f, true);
+	
+	/** Lists that were replaced and are deleted when the GL context is next available. */
+	private final List<Integer> deleted = new ArrayList<Integer>();
+	
+	/*
+	 * Incremented when the rocket or the drawing scale changes.  Lists validated since
+	 * the last change are used without checking them again.
+	 */
+	private int generation = 0;
+	
+	@Override
+	public void init(GLAutoDrawable drawable) {
+		super.init(drawable);
+		
+		// Lists of a previous context are no longer valid
+		lists.clear();
+		deleted.clear();
+	}
 	
 	@Override
 	public void updateFigure(GLAutoDrawable drawable) {
 		super.updateFigure(drawable);
+		generation++;
 		
 		GL2 gl = drawable.getGL().getGL2();
-		for (int i : lists.values()) {
-			gl.glDeleteLists(i, 1);
+		deleteLists(gl);
+	}
+	
+	@Override
+	public void setPixelsPerMeter(double pixelsPerMeter) {
+		if (pixelsPerMeter != getPixelsPerMeter()) {
+			super.setPixelsPerMeter(pixelsPerMeter);
+			generation++;
 		}
-		lists.clear();
 	}
 	
 	@Override
 	protected void renderGeometry(GL2 gl, RocketComponent c, Surface which) {
 		Key k = new Key(c, which);
-		if (lists.containsKey(k)) {
-			gl.glCallList(lists.get(k));
+		DisplayList list = lists.get(k);
+		
+		if (list != null && list.generation != generation) {
+			if (list.lod == getLevelOfDetail(c) && list.state.equals(new ComponentGeometryState(c))) {
+				list.generation = generation;
+			} else {
+				lists.remove(k);
+				deleted.add(list.id);
+				list = null;
+			}
+		}
+		
+		if (list != null) {
+			gl.glCallList(list.id);
 		} else {
-			int list = gl.glGenLists(1);
-			gl.glNewList(list, GL2.GL_COMPILE_AND_EXECUTE);
+			list = new DisplayList(gl.glGenLists(1), new ComponentGeometryState(c), getLevelOfDetail(c), generation);
+			gl.glNewList(list.id, GL2.GL_COMPILE_AND_EXECUTE);
 			super.renderGeometry(gl, c, which);
 			gl.glEndList();
 			lists.put(k, list);
+			
+			if (lists.size() > MAX_LISTS) {
+				Iterator<DisplayList> iterator = lists.values().iterator();
+				deleted.add(iterator.next().id);
+				iterator.remove();
+			}
+		}
+		
+		deleteLists(gl);
+	}
+	
+	private void deleteLists(GL2 gl) {
+		for (int id : deleted) {
+			gl.glDeleteLists(id, 1);
+		}
+		deleted.clear();
+	}
+	
+	/**
+	 * A compiled display list and the state of the component it was compiled for.
+	 */
+	private static class DisplayList {
+		final int id;
+		final ComponentGeometryState state;
+		final int lod;
+		int generation;
+		
+		DisplayList(int id, ComponentGeometryState state, int lod, int generation) {
+			this.id = id;
+			this.state = state;
+			this.lod = lod;
+			this.generation = generation;
 		}
 	}
 	
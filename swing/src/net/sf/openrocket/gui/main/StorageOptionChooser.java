@@ -39,6 +39,8 @@ public class StorageOptionChooser extends JPanel {
 	
 	private JSpinner timeSpinner;
 	
+	private JCheckBox binaryCheckBox;
+	
 	private JLabel estimateLabel;
 	
 	
@@ -118,7 +120,14 @@ public class StorageOptionChooser extends JPanel {
 				trans.get("StorageOptChooser.lbl.longC2"));
 		buttonGroup.add(noneButton);
 		noneButton.addActionListener(actionUpdater);
-		this.add(noneButton, "spanx, wrap 20lp");
+		this.add(noneButton, "spanx, wrap para");
+		
+		//// Store data in binary form
+		binaryCheckBox = new JCheckBox(trans.get("StorageOptChooser.checkbox.Binarydata"));
+		binaryCheckBox.setToolTipText(trans.get("StorageOptChooser.ttip.Binarydata1") +
+				trans.get("StorageOptChooser.ttip.Binarydata2"));
+		binaryCheckBox.addActionListener(actionUpdater);
+		this.add(binaryCheckBox, "spanx, wrap 20lp");
 		
 		// Estimate is updated in loadOptions(opts)
 		estimateLabel = new JLabel("");
@@ -157,6 +166,8 @@ public class StorageOptionChooser extends JPanel {
 		timeSpinner.setValue(t);
 		artificialEvent = false;
 		
+		binaryCheckBox.setSelected(opts.isBinaryFlightData());
+		
 		updateEstimate();
 	}
 	
@@ -173,6 +184,7 @@ public class StorageOptionChooser extends JPanel {
 		}
 		
 		opts.setSimulationTimeSkip(t);
+		opts.setBinaryFlightData(binaryCheckBox.isSelected());
 		
 		opts.setExplicitlySet(true);
 	}
@@ -0,0 +1,366 @@
+package net.sf.openrocket.gui.plot;
+
+import java.nio.DoubleBuffer;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import net.sf.openrocket.unit.Unit;
+
+import org.jfree.data.xy.AbstractXYDataset;
+
+/**
+ * A dataset of flight data series that are read directly from the columns of the
+ * flight data branches and decimated to the resolution at which they are plotted.
+ * <p>
+ * Before each rendering pass the renderer calls {@link #setResolution(double, double, int)}
+ * with the visible domain range and the width of the plot in pixels.  Each series then
+ * exposes only the points needed to draw it at that resolution.  The points of a series
+ * are divided into about one bucket per pixel, and of each bucket the first and last
+ * points, the points with the minimum and maximum values of both coordinates and the
+ * first missing value are kept.  This preserves the extremes and the gaps of the plotted
+ * line exactly.  When the domain values are increasing, as for time, only the visible
+ * points and their neighbours are considered, so zooming in shows all points of the
+ * visible range.
+ * <p>
+ * The values are converted to the plotted units as they are read.
+ */
+@SuppressWarnings("serial")
+class DecimatedXYDataset extends AbstractXYDataset {
+	
+	/** Series with at most this many points per pixel are not decimated. */
+	private static final int MAX_POINTS_PER_PIXEL = 4;
+	
+	private final List<Series> series = new ArrayList<Series>();
+	
+	private double resolutionLower = Double.NaN;
+	private double resolutionUpper = Double.NaN;
+	private int resolutionWidth = -1;
+	
+	
+	/**
+	 * Add a series.  The series consists of the first <code>prefixLength</code> points
+	 * of the prefix buffers followed by all points of the data buffers.
+	 *
+	 * @param key			the series key.
+	 * @param description	the description of the series, shown in the legend.
+	 * @param prefixX		the domain values of the prefix, or <code>null</code>.
+	 * @param prefixY		the range values of the prefix, or <code>null</code>.
+	 * @param prefixLength	the number of points taken from the prefix.
+	 * @param x				the domain values, or <code>null</code> if not available.
+	 * @param y				the range values, or <code>null</code> if not available.
+	 * @param xUnit			the unit of the domain axis.
+	 * @param yUnit			the unit of the range axis.
+	 */
+	public void addSeries(Comparable<?> key, String description,
+			DoubleBuffer prefixX, DoubleBuffer prefixY, int prefixLength,
+			DoubleBuffer x, DoubleBuffer y, Unit xUnit, Unit yUnit) {
+		series.add(new Series(key, description, prefixX, prefixY, prefixLength, x, y, xUnit, yUnit));
+		resolutionWidth = -1;
+		fireDatasetChanged();
+	}
+	
+	
+	/**
+	 * Set the resolution at which the series are plotted.  The dataset does not notify its
+	 * listeners of the change, since this is called while rendering.
+	 *
+	 * @param lower		the lower bound of the visible domain, in the plotted unit.
+	 * @param upper		the upper bound of the visible domain, in the plotted unit.
+	 * @param width		the width of the plot in pixels.
+	 */
+	public void setResolution(double lower, double upper, int width) {
+		if (lower == resolutionLower && upper == resolutionUpper && width == resolutionWidth) {
+			return;
+		}
+		resolutionLower = lower;
+		resolutionUpper = upper;
+		resolutionWidth = width;
+		for (Series s : series) {
+			s.decimate(lower, upper, Math.max(width, 1));
+		}
+	}
+	
+	
+	/**
+	 * Return the description of a series.
+	 */
+	public String getSeriesDescription(int index) {
+		return series.get(index).description;
+	}
+	
+	/**
+	 * Return the smallest domain value of all points of all series, in the plotted unit.
+	 */
+	public double getDomainLowerBound() {
+		double min = Double.NaN;
+		for (Series s : series) {
+			min = nanMin(min, s.domainMin);
+		}
+		return min;
+	}
+	
+	/**
+	 * Return the largest domain value of all points of all series, in the plotted unit.
+	 */
+	public double getDomainUpperBound() {
+		double max = Double.NaN;
+		for (Series s : series) {
+			max = nanMax(max, s.domainMax);
+		}
+		return max;
+	}
+	
+	
+	@Override
+	public int getSeriesCount() {
+		return series.size();
+	}
+	
+	@Override
+	@SuppressWarnings("rawtypes")
+	public Comparable getSeriesKey(int index) {
+		return series.get(index).key;
+	}
+	
+	@Override
+	public int getItemCount(int index) {
+		return series.get(index).getItemCount();
+	}
+	
+	@Override
+	public Number getX(int index, int item) {
+		return getXValue(index, item);
+	}
+	
+	@Override
+	public Number getY(int index, int item) {
+		return getYValue(index, item);
+	}
+	
+	@Override
+	public double getXValue(int index, int item) {
+		Series s = series.get(index);
+		return s.xUnit.toUnit(s.getRawX(s.getPoint(item)));
+	}
+	
+	@Override
+	public double getYValue(int index, int item) {
+		Series s = series.get(index);
+		return s.yUnit.toUnit(s.getRawY(s.getPoint(item)));
+	}
+	
+	
+	/**
+	 * Return the smaller of the values, ignoring a NaN current value.
+	 */
+	private static double nanMin(double current, double value) {
+		if (Double.isNaN(current) || value < current)
+			return value;
+		return current;
+	}
+	
+	/**
+	 * Return the larger of the values, ignoring a NaN current value.
+	 */
+	private static double nanMax(double current, double value) {
+		if (Double.isNaN(current) || value > current)
+			return value;
+		return current;
+	}
+	
+	
+	/**
+	 * A single series and the points of it that are currently plotted.
+	 */
+	private static class Series {
+		private final Comparable<?> key;
+		private final String description;
+		private final DoubleBuffer prefixX;
+		private final DoubleBuffer prefixY;
+		private final int prefixLength;
+		private final DoubleBuffer x;
+		private final DoubleBuffer y;
+		private final Unit xUnit;
+		private final Unit yUnit;
+		private final int length;
+		
+		/** Whether the domain values never decrease. */
+		private final boolean increasing;
+		private final double domainMin;
+		private final double domainMax;
+		
+		/** The plotted points, or null if the points first ... first + count - 1 are plotted. */
+		private int[] points = null;
+		private int first = 0;
+		private int count;
+		
+		public Series(Comparable<?> key, String description, DoubleBuffer prefixX, DoubleBuffer prefixY,
+				int prefixLength, DoubleBuffer x, DoubleBuffer y, Unit xUnit, Unit yUnit) {
+			this.key = key;
+			this.description = description;
+			this.prefixX = prefixX;
+			this.prefixY = prefixY;
+			this.prefixLength = (prefixX != null && prefixY != null) ? prefixLength : 0;
+			this.x = x;
+			this.y = y;
+			this.xUnit = xUnit;
+			this.yUnit = yUnit;
+			
+			int dataLength = (x != null && y != null) ? Math.min(x.limit(), y.limit()) : 0;
+			this.length = this.prefixLength + dataLength;
+			this.count = length;
+			
+			boolean inc = true;
+			double min = Double.NaN;
+			double max = Double.NaN;
+			double previous = Double.NEGATIVE_INFINITY;
+			for (int i = 0; i < length; i++) {
+				double value = getRawX(i);
+				if (!(value >= previous)) {
+					inc = false;
+				}
+				previous = value;
+				if (!Double.isNaN(value)) {
+					value = xUnit.toUnit(value);
+					min = nanMin(min, value);
+					max = nanMax(max, value);
+				}
+			}
+			this.increasing = inc;
+			this.domainMin = min;
+			this.domainMax = max;
+		}
+		
+		public double getRawX(int index) {
+			if (index < prefixLength)
+				return prefixX.get(index);
+			return x.get(index - prefixLength);
+		}
+		
+		public double getRawY(int index) {
+			if (index < prefixLength)
+				return prefixY.get(index);
+			return y.get(index - prefixLength);
+		}
+		
+		public int getItemCount() {
+			return count;
+		}
+		
+		public int getPoint(int item) {
+			if (points == null)
+				return first + item;
+			return points[item];
+		}
+		
+		
+		public void decimate(double lowerUnit, double upperUnit, int width) {
+			double lower = xUnit.fromUnit(lowerUnit);
+			double upper = xUnit.fromUnit(upperUnit);
+			
+			int start;
+			int end;
+			int buckets;
+			if (increasing) {
+				// Include the neighbours of the visible points so the lines reach the edges
+				start = Math.max(findFirst(lower) - 1, 0);
+				end = Math.min(findFirst(upper) + 1, length);
+				buckets = width;
+			} else {
+				// Decimate the whole series at a resolution matching the zoom level
+				start = 0;
+				end = length;
+				double zoom = (domainMax - domainMin) / (upperUnit - lowerUnit);
+				if (!(zoom >= 1)) {
+					zoom = 1;
+				}
+				buckets = (int) Math.min(width * zoom, length);
+			}
+			
+			int n = end - start;
+			if (n <= MAX_POINTS_PER_PIXEL * buckets) {
+				points = null;
+				first = start;
+				count = Math.max(n, 0);
+				return;
+			}
+			
+			int[] selected = new int[n / 2];
+			int selectedCount = 0;
+			int[] bucket = new int[7];
+			for (int b = 0; b < buckets; b++) {
+				int bucketStart = start + (int) ((long) n * b / buckets);
+				int bucketEnd = start + (int) ((long) n * (b + 1) / buckets);
+				if (bucketStart >= bucketEnd)
+					continue;
+				
+				int minX = -1, maxX = -1, minY = -1, maxY = -1, gap = -1;
+				for (int i = bucketStart; i < bucketEnd; i++) {
+					double vx = getRawX(i);
+					double vy = getRawY(i);
+					if (Double.isNaN(vx) || Double.isNaN(vy)) {
+						if (gap < 0)
+							gap = i;
+						continue;
+					}
+					if (minX < 0 || vx < getRawX(minX))
+						minX = i;
+					if (maxX < 0 || vx > getRawX(maxX))
+						maxX = i;
+					if (minY < 0 || vy < getRawY(minY))
+						minY = i;
+					if (maxY < 0 || vy > getRawY(maxY))
+						maxY = i;
+				}
+				
+				int k = 0;
+				bucket[k++] = bucketStart;
+				bucket[k++] = bucketEnd - 1;
+				if (minX >= 0) {
+					bucket[k++] = minX;
+					bucket[k++] = maxX;
+					bucket[k++] = minY;
+					bucket[k++] = maxY;
+				}
+				if (gap >= 0) {
+					bucket[k++] = gap;
+				}
+				Arrays.sort(bucket, 0, k);
+				
+				if (selectedCount + k > selected.length) {
+					selected = Arrays.copyOf(selected, Math.max(selected.length * 2, selectedCount + k));
+				}
+				for (int i = 0; i < k; i++) {
+					if (i == 0 || bucket[i] != bucket[i - 1]) {
+						selected[selectedCount++] = bucket[i];
+					}
+				}
+			}
+			
+			points = Arrays.copyOf(selected, selectedCount);
+			first = 0;
+			count = selectedCount;
+		}
+		
+		
+		/**
+		 * Return the index of the first point whose domain value is not less than the given
+		 * value, or the length if there is none.  The domain values must be increasing.
+		 */
+		private int findFirst(double value) {
+			int low = 0;
+			int high = length;
+			while (low < high) {
+				int mid = (low + high) >>> 1;
+				if (getRawX(mid) < value) {
+					low = mid + 1;
+				} else {
+					high = mid;
+				}
+			}
+			return low;
+		}
+	}
+	
+}
@@ -13,6 +13,7 @@ import java.awt.Stroke;
 import java.awt.geom.Line2D;
 import java.awt.geom.Point2D;
 import java.awt.geom.Rectangle2D;
+import java.nio.DoubleBuffer;
 import java.util.ArrayList;
 import java.util.Collections;
 import java.util.Comparator;
@@ -40,15 +41,16 @@ import org.jfree.chart.block.LineBorder;
 import org.jfree.chart.plot.DefaultDrawingSupplier;
 import org.jfree.chart.plot.Marker;
 import org.jfree.chart.plot.PlotOrientation;
+import org.jfree.chart.plot.PlotRenderingInfo;
 import org.jfree.chart.plot.ValueMarker;
 import org.jfree.chart.plot.XYPlot;
 import org.jfree.chart.renderer.xy.XYItemRenderer;
+import org.jfree.chart.renderer.xy.XYItemRendererState;
 import org.jfree.chart.renderer.xy.XYLineAndShapeRenderer;
 import org.jfree.chart.title.LegendTitle;
 import org.jfree.chart.title.TextTitle;
 import org.jfree.data.Range;
-import org.jfree.data.xy.XYSeries;
-import org.jfree.data.xy.XYSeriesCollection;
+import org.jfree.data.xy.XYDataset;
 import org.jfree.text.TextUtilities;
 import org.jfree.ui.LengthAdjustmentType;
 import org.jfree.ui.RectangleAnchor;
@@ -88,7 +90,7 @@ public class SimulationPlot {
 		XYPlot plot = (XYPlot) chart.getPlot();
 		int datasetcount = plot.getDatasetCount();
 		for (int i = 0; i < datasetcount; i++) {
-			int seriescount = ((XYSeriesCollection) plot.getDataset(i)).getSeriesCount();
+			int seriescount = plot.getDataset(i).getSeriesCount();
 			XYItemRenderer r = ((XYPlot) chart.getPlot()).getRenderer(i);
 			for (int j = 0; j < seriescount; j++) {
 				boolean show = (branch < 0) || (j % branchCount == branch);
@@ -131,9 +133,9 @@ public class SimulationPlot {
 		List<Axis> axes = filled.getAllAxes();
 		
 		// Create the data series for both axes
-		XYSeriesCollection[] data = new XYSeriesCollection[2];
-		data[0] = new XYSeriesCollection();
-		data[1] = new XYSeriesCollection();
+		DecimatedXYDataset[] data = new DecimatedXYDataset[2];
+		data[0] = new DecimatedXYDataset();
+		data[1] = new DecimatedXYDataset();
 		
 		// Get the domain axis type
 		final FlightDataType domainType = filled.getDomainAxisType();
@@ -147,7 +149,7 @@ public class SimulationPlot {
 		
 		int seriesCount = 0;
 		
-		// Create the XYSeries objects from the flight data and store into the collections
+		// Create the data series from the flight data and store into the datasets
 		String[] axisLabel = new String[2];
 		for (int i = 0; i < typeCount; i++) {
 			// Get info
@@ -158,22 +160,14 @@ public class SimulationPlot {
 			
 			List<String> seriesNames = Util.generateSeriesLabels(simulation);
 			
-			// Populate data for each branch.
+			// Populate data for each branch.  The series read the branch columns directly.
 			
-			// The primary branch (branchIndex = 0) is easy since all the data is copied
+			// The primary branch (branchIndex = 0) is easy since all the data is used
 			{
 				int branchIndex = 0;
 				FlightDataBranch thisBranch = simulation.getSimulatedData().getBranch(branchIndex);
-				// Store data in provided units
-				List<Double> plotx = thisBranch.get(domainType);
-				List<Double> ploty = thisBranch.get(type);
-				XYSeries series = new XYSeries(seriesCount++, false, true);
-				series.setDescription(name);
-				int pointCount = plotx.size();
-				for (int j = 0; j < pointCount; j++) {
-					series.add(domainUnit.toUnit(plotx.get(j)), unit.toUnit(ploty.get(j)));
-				}
-				data[axis].addSeries(series);
+				data[axis].addSeries(seriesCount++, name, null, null, 0,
+						thisBranch.getBuffer(domainType), thisBranch.getBuffer(type), domainUnit, unit);
 			}
 			// For each of the secondary branches, we use data from branch 0 for the earlier times
 			for (int branchIndex = 1; branchIndex < branchCount; branchIndex++) {
@@ -181,32 +175,19 @@ public class SimulationPlot {
 				FlightDataBranch thisBranch = simulation.getSimulatedData().getBranch(branchIndex);
 				
 				// Get first time index used in secondary branch;
-				double firstSampleTime = thisBranch.get(FlightDataType.TYPE_TIME).get(0);
-				
-				XYSeries series = new XYSeries(seriesCount++, false, true);
-				series.setDescription(thisBranch.getBranchName() + ": " + name);
-				
-				// Copy the first points from the primaryBranch.
-				List<Double> primaryT = primaryBranch.get(FlightDataType.TYPE_TIME);
-				List<Double> primaryx = primaryBranch.get(domainType);
-				List<Double> primaryy = primaryBranch.get(type);
+				double firstSampleTime = thisBranch.getBuffer(FlightDataType.TYPE_TIME).get(0);
 				
-				for (int j = 0; j < primaryT.size(); j++) {
-					if (primaryT.get(j) >= firstSampleTime) {
-						break;
-					}
-					series.add(domainUnit.toUnit(primaryx.get(j)), unit.toUnit(primaryy.get(j)));
+				// Use the first points from the primaryBranch.
+				DoubleBuffer primaryT = primaryBranch.getBuffer(FlightDataType.TYPE_TIME);
+				int prefixLength = 0;
+				while (prefixLength < primaryT.limit() && primaryT.get(prefixLength) < firstSampleTime) {
+					prefixLength++;
 				}
 				
-				// Now copy all the data from the secondary branch
-				List<Double> plotx = thisBranch.get(domainType);
-				List<Double> ploty = thisBranch.get(type);
-				
-				int pointCount = plotx.size();
-				for (int j = 0; j < pointCount; j++) {
-					series.add(domainUnit.toUnit(plotx.get(j)), unit.toUnit(ploty.get(j)));
-				}
-				data[axis].addSeries(series);
+				// Followed by all the data from the secondary branch
+				data[axis].addSeries(seriesCount++, thisBranch.getBranchName() + ": " + name,
+						primaryBranch.getBuffer(domainType), primaryBranch.getBuffer(type), prefixLength,
+						thisBranch.getBuffer(domainType), thisBranch.getBuffer(type), domainUnit, unit);
 			}
 			
 			// Update axis label
@@ -233,8 +214,8 @@ public class SimulationPlot {
 				//				axis.setRange(axes.get(i).getMinValue(), axes.get(i).getMaxValue());
 				plot.setRangeAxis(axisno, axis);
 				
-				double domainMin = data[i].getDomainLowerBound(true);
-				double domainMax = data[i].getDomainUpperBound(true);
+				double domainMin = data[i].getDomainLowerBound();
+				double domainMax = data[i].getDomainUpperBound();
 				
 				plot.setDomainAxis(new PresetNumberAxis(domainMin, domainMax));
 				
@@ -251,7 +232,7 @@ public class SimulationPlot {
 				}
 				// Now we pull the colors for the legend.
 				for (int j = 0; j < data[i].getSeriesCount(); j += branchCount) {
-					String name = data[i].getSeries(j).getDescription();
+					String name = data[i].getSeriesDescription(j);
 					this.legendItems.lineLabels.add(name);
 					Paint linePaint = r.lookupSeriesPaint(j);
 					this.legendItems.linePaints.add(linePaint);
@@ -512,6 +493,18 @@ public class SimulationPlot {
 			this.branchCount = branchCount;
 		}
 		
+		@Override
+		public XYItemRendererState initialise(Graphics2D g2, Rectangle2D dataArea, XYPlot plot,
+				XYDataset data, PlotRenderingInfo info) {
+			// Decimate the series to the current zoom level and plot size before drawing
+			if (data instanceof DecimatedXYDataset) {
+				Range range = plot.getDomainAxis().getRange();
+				((DecimatedXYDataset) data).setResolution(range.getLowerBound(), range.getUpperBound(),
+						(int) Math.ceil(dataArea.getWidth()));
+			}
+			return super.initialise(g2, dataArea, plot, data, info);
+		}
+		
 		@Override
 		public Paint lookupSeriesPaint(int series) {
 			return super.lookupSeriesPaint(series / branchCount);
@@ -16,11 +16,14 @@ import java.awt.geom.Point2D;
 import java.awt.geom.Rectangle2D;
 import java.util.ArrayList;
 import java.util.Collection;
+import java.util.HashMap;
 import java.util.Iterator;
 import java.util.LinkedHashSet;
+import java.util.Map;
 
 import net.sf.openrocket.gui.figureelements.FigureElement;
 import net.sf.openrocket.gui.util.ColorConversion;
+import net.sf.openrocket.gui.util.ComponentGeometryState;
 import net.sf.openrocket.gui.util.SwingPreferences;
 import net.sf.openrocket.motor.Motor;
 import net.sf.openrocket.rocketcomponent.Configuration;
@@ -74,6 +77,12 @@ public class RocketFigure extends AbstractScaleFigure {
 	private final ArrayList<RocketComponent> figureComponents =
 			new ArrayList<RocketComponent>();
 	
+	/*
+	 * shapeCache contains the shapes of the components of the previous update, so only
+	 * the shapes of changed components are regenerated
+	 */
+	private Map<RocketComponent, CachedShapes> shapeCache = new HashMap<RocketComponent, CachedShapes>();
+	
 	private double minX = 0, maxX = 0, maxR = 0;
 	// Figure width and height in SI-units and pixels
 	private double figureWidth = 0, figureHeight = 0;
@@ -187,13 +196,15 @@ public class RocketFigure extends AbstractScaleFigure {
 		calculateSize();
 		
 		// Get shapes for all active components
+		Map<RocketComponent, CachedShapes> cache = new HashMap<RocketComponent, CachedShapes>();
 		for (RocketComponent c : configuration) {
-			Shape[] s = getShapes(c);
+			Shape[] s = getCachedShapes(c, cache);
 			for (int i = 0; i < s.length; i++) {
 				figureShapes.add(s[i]);
 				figureComponents.add(c);
 			}
 		}
+		shapeCache = cache;
 		
 		repaint();
 		fireChangeEvent();
@@ -431,6 +442,23 @@ public class RocketFigure extends AbstractScaleFigure {
 	
 	
 
+	/**
+	 * Gets the shapes required to draw the component, reusing the shapes of the previous
+	 * update if they are still valid.  The entry of the component is stored in the new cache.
+	 */
+	private Shape[] getCachedShapes(RocketComponent component, Map<RocketComponent, CachedShapes> cache) {
+		CachedShapes entry = new CachedShapes(component, type, rotation);
+		CachedShapes previous = shapeCache.get(component);
+		if (previous != null && previous.isValidFor(entry)) {
+			entry.shapes = previous.shapes;
+		} else {
+			entry.shapes = getShapes(component);
+		}
+		cache.put(component, entry);
+		return entry.shapes;
+	}
+	
+	
 	/**
 	 * Gets the shapes required to draw the component.
 	 * 
@@ -558,4 +586,25 @@ public class RocketFigure extends AbstractScaleFigure {
 		}
 	}
 	
+	
+	/**
+	 * The shapes of a component and the state they were generated for.
+	 */
+	private static class CachedShapes {
+		private final ComponentGeometryState state;
+		private final int type;
+		private final double rotation;
+		private Shape[] shapes;
+		
+		public CachedShapes(RocketComponent component, int type, double rotation) {
+			this.state = new ComponentGeometryState(component);
+			this.type = type;
+			this.rotation = rotation;
+		}
+		
+		public boolean isValidFor(CachedShapes other) {
+			return type == other.type && rotation == other.rotation && state.equals(other.state);
+		}
+	}
+	
 }
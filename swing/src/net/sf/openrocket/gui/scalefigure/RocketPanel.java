@@ -6,13 +6,16 @@ import java.awt.Dimension;
 import java.awt.Font;
 import java.awt.Point;
 import java.awt.event.ActionEvent;
+import java.awt.event.ActionListener;
 import java.awt.event.InputEvent;
 import java.awt.event.MouseEvent;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collection;
 import java.util.EventListener;
 import java.util.EventObject;
 import java.util.List;
+import java.util.concurrent.ExecutionException;
 import java.util.concurrent.Executor;
 import java.util.concurrent.Executors;
 import java.util.concurrent.ThreadFactory;
@@ -27,6 +30,8 @@ import javax.swing.JPanel;
 import javax.swing.JSlider;
 import javax.swing.JViewport;
 import javax.swing.SwingUtilities;
+import javax.swing.SwingWorker;
+import javax.swing.Timer;
 import javax.swing.event.TreeSelectionEvent;
 import javax.swing.event.TreeSelectionListener;
 import javax.swing.tree.TreePath;
@@ -71,6 +76,7 @@ import net.sf.openrocket.simulation.listeners.system.ApogeeEndListener;
 import net.sf.openrocket.simulation.listeners.system.InterruptListener;
 import net.sf.openrocket.startup.Application;
 import net.sf.openrocket.unit.UnitGroup;
+import net.sf.openrocket.util.BugException;
 import net.sf.openrocket.util.ChangeSource;
 import net.sf.openrocket.util.Chars;
 import net.sf.openrocket.util.Coordinate;
@@ -129,7 +135,12 @@ public class RocketPanel extends JPanel implements TreeSelectionListener, Change
 	
 	/* Calculation of CP and CG */
 	private AerodynamicCalculator aerodynamicCalculator;
-	private MassCalculator massCalculator;
+	
+	/* Combines the updates of bursts of change events into one analysis */
+	private final Timer extrasTimer;
+	private ExtrasWorker extrasWorker = null;
+	private List<Object> extrasKey = null;
+	private ExtrasData extrasData = null;
 	
 	
 	private final OpenRocketDocument document;
@@ -177,6 +188,28 @@ public class RocketPanel extends JPanel implements TreeSelectionListener, Change
 	}
 	
 	
+	/**
+	 * The executor used for computing the CP and CG shown in the figure.  A single thread
+	 * is used, as only the latest analysis of each panel is of interest.
+	 */
+	private static final Executor extrasExecutor;
+	static {
+		extrasExecutor = Executors.newSingleThreadExecutor(new ThreadFactory() {
+			private ThreadFactory factory = Executors.defaultThreadFactory();
+			
+			@Override
+			public Thread newThread(Runnable r) {
+				Thread t = factory.newThread(r);
+				t.setDaemon(true);
+				return t;
+			}
+		});
+	}
+	
+	/** The delay in milliseconds for combining change events into one CP and CG analysis */
+	private static final int EXTRAS_UPDATE_DELAY = 50;
+	
+	
 	public RocketPanel(OpenRocketDocument document) {
 		
 		this.document = document;
@@ -184,7 +217,14 @@ public class RocketPanel extends JPanel implements TreeSelectionListener, Change
 		
 		// TODO: FUTURE: calculator selection
 		aerodynamicCalculator = new BarrowmanCalculator();
-		massCalculator = new BasicMassCalculator();
+		
+		extrasTimer = new Timer(EXTRAS_UPDATE_DELAY, new ActionListener() {
+			@Override
+			public void actionPerformed(ActionEvent e) {
+				startExtrasAnalysis();
+			}
+		});
+		extrasTimer.setRepeats(false);
 		
 		// Create figure and custom scroll pane
 		figure = new RocketFigure(configuration);
@@ -568,99 +608,81 @@ public class RocketPanel extends JPanel implements TreeSelectionListener, Change
 	/**
 	 * Updates the extra data included in the figure.  Currently this includes
 	 * the CP and CG carets.
+	 * <p>
+	 * The figure is updated immediately using the latest analysis results, while a new
+	 * analysis is scheduled.  Calls arriving while an analysis is scheduled are combined
+	 * into that analysis.
 	 */
-	private WarningSet warnings = new WarningSet();
-	
 	private void updateExtras() {
-		Coordinate cp, cg;
-		double cpx, cgx;
+		applyExtras();
+		if (!extrasTimer.isRunning()) {
+			extrasTimer.start();
+		}
+		updateBackgroundSimulation();
+	}
+	
+	
+	/**
+	 * Starts the CP and CG analysis of a snapshot of the rocket in the background, unless
+	 * the results for the current state are already available or being computed.
+	 */
+	private void startExtrasAnalysis() {
+		Rocket rocket = configuration.getRocket();
+		double mach = Double.isNaN(cpMach) ? Application.getPreferences().getDefaultMach() : cpMach;
+		List<Object> key = Arrays.<Object> asList(rocket.getFunctionalModID(), rocket.getAerodynamicModID(),
+				rocket.getMassModID(), configuration.getFlightConfigurationID(),
+				Arrays.toString(configuration.getActiveStages()), cpAOA, cpTheta, mach, cpRoll);
+		if (key.equals(extrasKey)) {
+			return;
+		}
+		extrasKey = key;
 		
-		// TODO: MEDIUM: User-definable conditions
-		FlightConditions conditions = new FlightConditions(configuration);
-		warnings.clear();
+		if (extrasWorker != null) {
+			extrasWorker.cancel(true);
+		}
+		Configuration snapshot = configuration.copyFor(rocket.copyWithOriginalID());
+		extrasWorker = new ExtrasWorker(snapshot, mach);
+		extrasExecutor.execute(extrasWorker);
+	}
+	
+	
+	/**
+	 * Sets the latest analysis results to the figure elements.
+	 */
+	private void applyExtras() {
+		ExtrasData data = extrasData;
 		
 		if (!Double.isNaN(cpMach)) {
-			conditions.setMach(cpMach);
 			extraText.setMach(cpMach);
 		} else {
-			conditions.setMach(Application.getPreferences().getDefaultMach());
 			extraText.setMach(Application.getPreferences().getDefaultMach());
 		}
-		
-		if (!Double.isNaN(cpAOA)) {
-			conditions.setAOA(cpAOA);
-		} else {
-			conditions.setAOA(0);
-		}
 		extraText.setAOA(cpAOA);
-		
-		if (!Double.isNaN(cpRoll)) {
-			conditions.setRollRate(cpRoll);
-		} else {
-			conditions.setRollRate(0);
-		}
-		
-		if (!Double.isNaN(cpTheta)) {
-			conditions.setTheta(cpTheta);
-			cp = aerodynamicCalculator.getCP(configuration, conditions, warnings);
-		} else {
-			cp = aerodynamicCalculator.getWorstCP(configuration, conditions, warnings);
-		}
 		extraText.setTheta(cpTheta);
 		
-		
-		cg = massCalculator.getCG(configuration, MassCalcType.LAUNCH_MASS);
-		//		System.out.println("CG computed as "+cg+ " CP as "+cp);
-		
-		if (cp.weight > 0.000001)
-			cpx = cp.x;
-		else
-			cpx = Double.NaN;
-		
-		if (cg.weight > 0.000001)
-			cgx = cg.x;
-		else
-			cgx = Double.NaN;
-		
-		figure3d.setCG(cg);
-		figure3d.setCP(cp);
-		
-		// Length bound is assumed to be tight
-		double length = 0, diameter = 0;
-		Collection<Coordinate> bounds = configuration.getBounds();
-		if (!bounds.isEmpty()) {
-			double minX = Double.POSITIVE_INFINITY, maxX = Double.NEGATIVE_INFINITY;
-			for (Coordinate c : bounds) {
-				if (c.x < minX)
-					minX = c.x;
-				if (c.x > maxX)
-					maxX = c.x;
-			}
-			length = maxX - minX;
+		if (data == null) {
+			extraCP.setPosition(Double.NaN, Double.NaN);
+			extraCG.setPosition(Double.NaN, Double.NaN);
+			return;
 		}
 		
-		for (RocketComponent c : configuration) {
-			if (c instanceof SymmetricComponent) {
-				double d1 = ((SymmetricComponent) c).getForeRadius() * 2;
-				double d2 = ((SymmetricComponent) c).getAftRadius() * 2;
-				diameter = MathUtil.max(diameter, d1, d2);
-			}
-		}
+		figure3d.setCG(data.cg);
+		figure3d.setCP(data.cp);
 		
-		extraText.setCG(cgx);
-		extraText.setCP(cpx);
-		extraText.setLength(length);
-		extraText.setDiameter(diameter);
-		extraText.setMass(cg.weight);
-		extraText.setMassWithoutMotors( massCalculator.getCG( configuration, MassCalcType.NO_MOTORS ).weight );
-		extraText.setWarnings(warnings);
+		extraText.setCG(data.cgx);
+		extraText.setCP(data.cpx);
+		extraText.setLength(data.length);
+		extraText.setDiameter(data.diameter);
+		extraText.setMass(data.cg.weight);
+		extraText.setMassWithoutMotors(data.massWithoutMotors);
+		extraText.setWarnings(data.warnings);
 		
 		
-		if (figure.getType() == RocketFigure.TYPE_SIDE && length > 0) {
+		if (figure.getType() == RocketFigure.TYPE_SIDE && data.length > 0) {
 			
 			// TODO: LOW: Y-coordinate and rotation
-			extraCP.setPosition(cpx * RocketFigure.EXTRA_SCALE, 0);
-			extraCG.setPosition(cgx * RocketFigure.EXTRA_SCALE, 0);
+			extraCP.setPosition(data.cpx * RocketFigure.EXTRA_SCALE, 0);
+			extraCG.setPosition(data.cgx * RocketFigure.EXTRA_SCALE, 0);
 			
 		} else {
 			
@@ -668,9 +690,10 @@ public class RocketPanel extends JPanel implements TreeSelectionListener, Change
 			extraCG.setPosition(Double.NaN, Double.NaN);
 			
 		}
-		
-		
-		////////  Flight simulation in background
+	}
+	
+	
+	private void updateBackgroundSimulation() {
 		
 		// Check whether to compute or not
 		if (!((SwingPreferences) Application.getPreferences()).computeFlightInBackground()) {
@@ -713,6 +736,132 @@ public class RocketPanel extends JPanel implements TreeSelectionListener, Change
 		}
 	}
 	
+	
+	/**
+	 * The results of the CP and CG analysis shown in the figure.
+	 */
+	private static class ExtrasData {
+		private Coordinate cp;
+		private Coordinate cg;
+		private double cpx;
+		private double cgx;
+		private double massWithoutMotors;
+		private double length;
+		private double diameter;
+		private final WarningSet warnings = new WarningSet();
+	}
+	
+	
+	/**
+	 * A worker that computes the CP and CG of a snapshot of the rocket.  The snapshot and
+	 * calculators are owned by the worker, so the rocket can be edited during the analysis.
+	 * Results of workers that have been superseded are discarded.
+	 */
+	private class ExtrasWorker extends SwingWorker<ExtrasData, Void> {
+		
+		private final Configuration snapshot;
+		private final double aoa;
+		private final double theta;
+		private final double mach;
+		private final double roll;
+		
+		public ExtrasWorker(Configuration snapshot, double mach) {
+			this.snapshot = snapshot;
+			this.aoa = cpAOA;
+			this.theta = cpTheta;
+			this.mach = mach;
+			this.roll = cpRoll;
+		}
+		
+		@Override
+		protected ExtrasData doInBackground() {
+			ExtrasData data = new ExtrasData();
+			AerodynamicCalculator aerodynamicCalculator = RocketPanel.this.aerodynamicCalculator.newInstance();
+			MassCalculator massCalculator = new BasicMassCalculator();
+			
+			// TODO: MEDIUM: User-definable conditions
+			FlightConditions conditions = new FlightConditions(snapshot);
+			conditions.setMach(mach);
+			
+			if (!Double.isNaN(aoa)) {
+				conditions.setAOA(aoa);
+			} else {
+				conditions.setAOA(0);
+			}
+			
+			if (!Double.isNaN(roll)) {
+				conditions.setRollRate(roll);
+			} else {
+				conditions.setRollRate(0);
+			}
+			
+			if (!Double.isNaN(theta)) {
+				conditions.setTheta(theta);
+				data.cp = aerodynamicCalculator.getCP(snapshot, conditions, data.warnings);
+			} else {
+				data.cp = aerodynamicCalculator.getWorstCP(snapshot, conditions, data.warnings);
+			}
+			
+			data.cg = massCalculator.getCG(snapshot, MassCalcType.LAUNCH_MASS);
+			data.massWithoutMotors = massCalculator.getCG(snapshot, MassCalcType.NO_MOTORS).weight;
+			
+			if (data.cp.weight > 0.000001)
+				data.cpx = data.cp.x;
+			else
+				data.cpx = Double.NaN;
+			
+			if (data.cg.weight > 0.000001)
+				data.cgx = data.cg.x;
+			else
+				data.cgx = Double.NaN;
+			
+			// Length bound is assumed to be tight
+			Collection<Coordinate> bounds = snapshot.getBounds();
+			if (!bounds.isEmpty()) {
+				double minX = Double.POSITIVE_INFINITY, maxX = Double.NEGATIVE_INFINITY;
+				for (Coordinate c : bounds) {
+					if (c.x < minX)
+						minX = c.x;
+					if (c.x > maxX)
+						maxX = c.x;
+				}
+				data.length = maxX - minX;
+			}
+			
+			for (RocketComponent c : snapshot) {
+				if (c instanceof SymmetricComponent) {
+					double d1 = ((SymmetricComponent) c).getForeRadius() * 2;
+					double d2 = ((SymmetricComponent) c).getAftRadius() * 2;
+					data.diameter = MathUtil.max(data.diameter, d1, d2);
+				}
+			}
+			
+			snapshot.release();
+			return data;
+		}
+		
+		@Override
+		protected void done() {
+			if (isCancelled() || extrasWorker != this)
+				return;
+			
+			extrasWorker = null;
+			try {
+				extrasData = get();
+			} catch (InterruptedException e) {
+				throw new BugException("Interrupted while retrieving finished analysis", e);
+			} catch (ExecutionException e) {
+				// Allow a new analysis of the same state
+				extrasKey = null;
+				throw new BugException("CP and CG analysis failed", e.getCause());
+			}
+			applyExtras();
+			figure.repaint();
+			figure3d.repaint();
+		}
+	}
+	
+	
 	/**
 	 * Cancels the current background simulation worker, if any.
 	 */
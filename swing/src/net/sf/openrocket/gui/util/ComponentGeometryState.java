@@ -0,0 +1,64 @@
+package net.sf.openrocket.gui.util;
+
+import java.util.Arrays;
+
+import net.sf.openrocket.rocketcomponent.FinSet;
+import net.sf.openrocket.rocketcomponent.RingComponent;
+import net.sf.openrocket.rocketcomponent.RocketComponent;
+import net.sf.openrocket.rocketcomponent.SymmetricComponent;
+import net.sf.openrocket.rocketcomponent.TubeFinSet;
+import net.sf.openrocket.util.Coordinate;
+
+/**
+ * The state of a component that determines how it is drawn.  Figures that cache the
+ * drawn geometry of components can compare the states to find the components whose
+ * geometry needs to be regenerated.
+ * <p>
+ * Besides the properties of the component, identified by its state modification ID,
+ * the geometry depends on the absolute position of the component and on the dimensions
+ * that may be computed automatically from other components.
+ */
+public final class ComponentGeometryState {
+	
+	private final int stateModID;
+	private final Coordinate[] position;
+	private final double[] dimensions;
+	
+	public ComponentGeometryState(RocketComponent component) {
+		this.stateModID = component.getStateModID();
+		this.position = component.toAbsolute(Coordinate.NUL);
+		
+		if (component instanceof SymmetricComponent) {
+			SymmetricComponent c = (SymmetricComponent) component;
+			this.dimensions = new double[] { c.getForeRadius(), c.getAftRadius() };
+		} else if (component instanceof RingComponent) {
+			RingComponent c = (RingComponent) component;
+			this.dimensions = new double[] { c.getInnerRadius(), c.getOuterRadius() };
+		} else if (component instanceof FinSet) {
+			this.dimensions = new double[] { ((FinSet) component).getBodyRadius() };
+		} else if (component instanceof TubeFinSet) {
+			TubeFinSet c = (TubeFinSet) component;
+			this.dimensions = new double[] { c.getBodyRadius(), c.getInnerRadius(), c.getOuterRadius() };
+		} else {
+			this.dimensions = new double[0];
+		}
+	}
+	
+	
+	@Override
+	public boolean equals(Object obj) {
+		if (this == obj)
+			return true;
+		if (!(obj instanceof ComponentGeometryState))
+			return false;
+		ComponentGeometryState other = (ComponentGeometryState) obj;
+		return stateModID == other.stateModID && Arrays.equals(position, other.position) &&
+				Arrays.equals(dimensions, other.dimensions);
+	}
+	
+	@Override
+	public int hashCode() {
+		return stateModID;
+	}
+	
+}
@@ -0,0 +1,135 @@
+package net.sf.openrocket.gui.plot;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.nio.DoubleBuffer;
+
+import net.sf.openrocket.unit.Unit;
+import net.sf.openrocket.unit.UnitGroup;
+import net.sf.openrocket.util.BaseTestCase.BaseTestCase;
+
+import org.junit.Test;
+
+public class DecimatedXYDatasetTest extends BaseTestCase {
+	
+	private static final Unit UNIT = UnitGroup.UNITS_NONE.getDefaultUnit();
+	
+	@Test
+	public void testMinMaxPreserved() {
+		double[] x = new double[10000];
+		double[] y = new double[10000];
+		for (int i = 0; i < x.length; i++) {
+			x[i] = i;
+			y[i] = Math.sin(i * 0.01);
+		}
+		y[5003] = 100;
+		y[7001] = -100;
+		
+		DecimatedXYDataset data = newDataset(x, y);
+		data.setResolution(0, 9999, 100);
+		
+		int count = data.getItemCount(0);
+		assertTrue(count < x.length / 4);
+		assertEquals(0, data.getXValue(0, 0), 0);
+		assertEquals(9999, data.getXValue(0, count - 1), 0);
+		
+		double min = Double.POSITIVE_INFINITY;
+		double max = Double.NEGATIVE_INFINITY;
+		double previous = Double.NEGATIVE_INFINITY;
+		for (int i = 0; i < count; i++) {
+			double vx = data.getXValue(0, i);
+			double vy = data.getYValue(0, i);
+			assertTrue("points out of order", vx > previous);
+			previous = vx;
+			min = Math.min(min, vy);
+			max = Math.max(max, vy);
+			if (vy == 100) {
+				assertEquals(5003, vx, 0);
+			}
+			if (vy == -100) {
+				assertEquals(7001, vx, 0);
+			}
+		}
+		assertEquals(100, max, 0);
+		assertEquals(-100, min, 0);
+	}
+	
+	@Test
+	public void testGapsPreserved() {
+		double[] x = new double[10000];
+		double[] y = new double[10000];
+		for (int i = 0; i < x.length; i++) {
+			x[i] = i;
+			y[i] = (i >= 3000 && i < 3010) ? Double.NaN : 1;
+		}
+		
+		DecimatedXYDataset data = newDataset(x, y);
+		data.setResolution(0, 9999, 100);
+		
+		int gaps = 0;
+		for (int i = 0; i < data.getItemCount(0); i++) {
+			if (Double.isNaN(data.getYValue(0, i))) {
+				double vx = data.getXValue(0, i);
+				assertTrue(vx >= 3000 && vx < 3010);
+				gaps++;
+			}
+		}
+		assertTrue(gaps > 0);
+	}
+	
+	@Test
+	public void testPrefixAndBranch() {
+		// Only the first 5 points of the prefix are part of the series
+		double[] prefixX = { 0, 1, 2, 3, 4, 100, 101 };
+		double[] prefixY = { 10, 11, 12, 13, 14, 99, 99 };
+		double[] x = { 5, 6, 7 };
+		double[] y = { 15, 16, 17 };
+		
+		DecimatedXYDataset data = new DecimatedXYDataset();
+		data.addSeries("key", "description", DoubleBuffer.wrap(prefixX), DoubleBuffer.wrap(prefixY), 5,
+				DoubleBuffer.wrap(x), DoubleBuffer.wrap(y), UNIT, UNIT);
+		assertEquals(0, data.getDomainLowerBound(), 0);
+		assertEquals(7, data.getDomainUpperBound(), 0);
+		
+		data.setResolution(0, 7, 500);
+		assertEquals(8, data.getItemCount(0));
+		for (int i = 0; i < 8; i++) {
+			assertEquals(i, data.getXValue(0, i), 0);
+			assertEquals(10 + i, data.getYValue(0, i), 0);
+		}
+	}
+	
+	@Test
+	public void testZoomIncreasingDomain() {
+		double[] x = new double[10000];
+		double[] y = new double[10000];
+		for (int i = 0; i < x.length; i++) {
+			x[i] = i * 0.5;
+			y[i] = i;
+		}
+		
+		DecimatedXYDataset data = newDataset(x, y);
+		
+		// The visible points and one neighbour on each side are shown undecimated
+		data.setResolution(2000, 2050, 1000);
+		assertEquals(102, data.getItemCount(0));
+		assertEquals(1999.5, data.getXValue(0, 0), 0);
+		assertEquals(2050, data.getXValue(0, 101), 0);
+		for (int i = 0; i < 102; i++) {
+			assertEquals(3999 + i, data.getYValue(0, i), 0);
+		}
+		
+		// Zooming out decimates again
+		data.setResolution(0, 5000, 100);
+		assertTrue(data.getItemCount(0) < 1000);
+	}
+	
+	
+	private static DecimatedXYDataset newDataset(double[] x, double[] y) {
+		DecimatedXYDataset data = new DecimatedXYDataset();
+		data.addSeries("key", "description", null, null, 0, DoubleBuffer.wrap(x), DoubleBuffer.wrap(y), UNIT, UNIT);
+		return data;
+	}
+	
+}
@@ -72,6 +72,8 @@ public class TeamRocket {
 		File file = new File(fileName);
 
 		GeneralRocketLoader loader = new GeneralRocketLoader(file);
+		// The simulations are rerun, so the stored simulation data is only decoded if used
+		loader.setLazySimulationData(true);
 		OpenRocketDocument document = null;
 
 		try {
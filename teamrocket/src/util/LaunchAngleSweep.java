@@ -0,0 +1,165 @@
+package util;
+
+import net.sf.openrocket.document.Simulation;
+import net.sf.openrocket.rocketcomponent.Rocket;
+import net.sf.openrocket.simulation.FlightData;
+import net.sf.openrocket.simulation.exception.SimulationException;
+import net.sf.openrocket.simulation.listeners.AbstractSimulationListener;
+import net.sf.openrocket.util.ArrayList;
+import net.sf.openrocket.util.BugException;
+
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Sweep engine that simulates a range of launch rod angles in parallel.
+ *
+ * Each angle is flown on its own deep copy of the rocket and simulation (in the same way as
+ * RocketOptimizationFunction#newSimulationInstance), so workers never share a SafetyMutex or
+ * SimulationOptions instance. The copies keep the random seed of the source simulation, which
+ * makes the results identical to flying the angles one after another on the original simulation.
+ * Results are always returned in ascending angle order, regardless of the number of threads.
+ */
+public class LaunchAngleSweep {
+    private final ExecutorService executor;
+
+    /**
+     * Create a sweep engine with one worker thread per available processor.
+     */
+    public LaunchAngleSweep() {
+        this(Runtime.getRuntime().availableProcessors());
+    }
+
+    /**
+     * Create a sweep engine with a bounded number of worker threads. The threads are daemon threads.
+     *
+     * @param threadCount number of worker threads, a value of 1 runs the sweep serially
+     */
+    public LaunchAngleSweep(int threadCount) {
+        if (threadCount < 1) {
+            throw new IllegalArgumentException("threadCount must be at least 1, was " + threadCount);
+        }
+
+        executor = new ThreadPoolExecutor(threadCount, threadCount, 60, TimeUnit.SECONDS,
+                new LinkedBlockingQueue<Runnable>(),
+                new ThreadFactory() {
+                    @Override
+                    public Thread newThread(Runnable r) {
+                        Thread t = new Thread(r, "LaunchAngleSweep");
+                        t.setDaemon(true);
+                        return t;
+                    }
+                });
+    }
+
+    /**
+     * Simulate the given simulation for every launch angle from startAngle to endAngle (inclusive).
+     *
+     * The source simulation itself is not modified. If a simulation fails, the flight data of the
+     * angles preceding the failed one are returned and the remaining angles are discarded.
+     *
+     * @param simulation the simulation to sweep
+     * @param startAngle first launch angle, in degrees
+     * @param endAngle   last launch angle, in degrees
+     * @param angleStep  angle increment, in degrees
+     * @return flight data for each angle, in ascending angle order
+     */
+    public ArrayList<FlightData> run(Simulation simulation, double startAngle, double endAngle, double angleStep) {
+        ArrayList<Double> launchAngles = getLaunchAngles(startAngle, endAngle, angleStep);
+
+        // Submit every angle up front, the pool bounds the number of simulations in flight
+        List<Future<FlightData>> futures = new ArrayList<>();
+        for (double launchAngle : launchAngles) {
+            futures.add(executor.submit(new LaunchAngleCallable(simulation, launchAngle)));
+        }
+
+        ArrayList<FlightData> flightDataList = new ArrayList<>();
+
+        try {
+            for (Future<FlightData> future : futures) {
+                flightDataList.add(future.get());
+            }
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof SimulationException) {
+                System.err.println(cause.getMessage());
+            } else if (cause instanceof RuntimeException) {
+                throw (RuntimeException) cause;
+            } else {
+                throw new BugException("Unexpected exception during launch angle sweep", cause);
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            System.err.println("Launch angle sweep interrupted");
+        } finally {
+            // Do not waste time on angles whose result will be discarded
+            for (Future<FlightData> future : futures) {
+                future.cancel(true);
+            }
+        }
+
+        return flightDataList;
+    }
+
+    /**
+     * Stop the worker threads. The sweep engine cannot be used after it has been shut down.
+     */
+    public void shutdown() {
+        executor.shutdownNow();
+    }
+
+    /*
+        The angles are accumulated exactly like the original serial loop did, so that
+        floating point rounding of the step produces the same angles.
+     */
+    private static ArrayList<Double> getLaunchAngles(double startAngle, double endAngle, double angleStep) {
+        ArrayList<Double> launchAngles = new ArrayList<>();
+
+        for (double launchAngle = startAngle; launchAngle <= endAngle; launchAngle += angleStep) {
+            launchAngles.add(launchAngle);
+        }
+
+        return launchAngles;
+    }
+
+    /**
+     * Flies a single launch angle on a private copy of the source simulation.
+     */
+    private static class LaunchAngleCallable implements Callable<FlightData> {
+        private final Simulation baseSimulation;
+        private final double launchAngle;
+
+        LaunchAngleCallable(Simulation baseSimulation, double launchAngle) {
+            this.baseSimulation = baseSimulation;
+            this.launchAngle = launchAngle;
+        }
+
+        @Override
+        public FlightData call() throws SimulationException {
+            Simulation simulation;
+
+            // The source rocket and simulation are guarded by a SafetyMutex, so copies are made one at a time
+            synchronized (baseSimulation) {
+                Rocket rocket = baseSimulation.getRocket().copyWithOriginalID();
+                simulation = baseSimulation.duplicateSimulation(rocket);
+            }
+
+            simulation.getOptions().setLaunchRodAngle(Math.toRadians(launchAngle));
+
+            simulation.simulate(new AbstractSimulationListener());
+
+            // Get the result of the simulation and set launch angle to be stored with flight data
+            FlightData flightData = simulation.getSimulatedData();
+            flightData.setLaunchAngle(launchAngle);
+
+            return flightData;
+        }
+    }
+}
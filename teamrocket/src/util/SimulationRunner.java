@@ -4,10 +4,6 @@ import data.SimulationData;
 import net.sf.openrocket.document.OpenRocketDocument;
 import net.sf.openrocket.document.Simulation;
 import net.sf.openrocket.simulation.FlightData;
-import net.sf.openrocket.simulation.SimulationOptions;
-import net.sf.openrocket.simulation.exception.SimulationException;
-import net.sf.openrocket.simulation.listeners.AbstractSimulationListener;
-import net.sf.openrocket.simulation.listeners.SimulationListener;
 import net.sf.openrocket.util.ArrayList;
 
 /**
@@ -18,10 +14,21 @@ import net.sf.openrocket.util.ArrayList;
  */
 public class SimulationRunner {
     private OpenRocketDocument openRocketDocument;
-    private final SimulationListener simulationListener = new AbstractSimulationListener();
+    private final int threadCount;
 
     public SimulationRunner(OpenRocketDocument openRocketDocument) {
+        this(openRocketDocument, Runtime.getRuntime().availableProcessors());
+    }
+
+    /**
+     * Create a simulation runner that flies the launch angles of each simulation on a bounded number of threads
+     *
+     * @param openRocketDocument document containing the simulations to run
+     * @param threadCount        number of simulations to run concurrently, 1 runs them serially
+     */
+    public SimulationRunner(OpenRocketDocument openRocketDocument, int threadCount) {
         this.openRocketDocument = openRocketDocument;
+        this.threadCount = threadCount;
     }
 
     /**
@@ -39,40 +46,25 @@ public class SimulationRunner {
         double endAngle = 45;
         double angleStep = 1.0;
 
-        for (Simulation simulation : openRocketDocument.getSimulations()) {
-            ArrayList<FlightData> flightData = simulateMultipleLaunchAngles(simulation, startAngle, endAngle, angleStep);
-
-            simulationDataList.add(new SimulationData(simulation, flightData));
-        }
-
-        return simulationDataList;
-    }
-
-    private ArrayList<FlightData> simulateMultipleLaunchAngles(Simulation simulation, double startAngle, double endAngle, double angleStep){
-        ArrayList<FlightData> flightDataList = new ArrayList<>();
+        LaunchAngleSweep launchAngleSweep = new LaunchAngleSweep(threadCount);
 
         try {
-            SimulationOptions simulationOptions = simulation.getOptions();
-
-            // Perform the simulation for the specified range of launch angles
-            for(double launchAngle = startAngle; launchAngle <= endAngle; launchAngle += angleStep) {
-                // Update simulation options
-                simulationOptions.setLaunchRodAngle(Math.toRadians(launchAngle));
-                simulation.setSimulationOptions(simulationOptions);
-
-                // Perform the simulation
-                simulation.simulate(simulationListener);
+            for (Simulation simulation : openRocketDocument.getSimulations()) {
+                ArrayList<FlightData> flightData =
+                        simulateMultipleLaunchAngles(launchAngleSweep, simulation, startAngle, endAngle, angleStep);
 
-                // Get the result of the simulation and set launch angle to be stored with flight data
-                FlightData f = simulation.getSimulatedData();
-                f.setLaunchAngle(launchAngle);
-
-                flightDataList.add(f);
+                simulationDataList.add(new SimulationData(simulation, flightData));
             }
-        } catch (SimulationException e) {
-            System.err.println(e.getMessage());
+        } finally {
+            launchAngleSweep.shutdown();
         }
 
-        return flightDataList;
+        return simulationDataList;
+    }
+
+    private ArrayList<FlightData> simulateMultipleLaunchAngles(LaunchAngleSweep launchAngleSweep, Simulation simulation,
+                                                               double startAngle, double endAngle, double angleStep) {
+        // Each angle is flown on its own copy of the simulation, so the angles can be run in parallel
+        return launchAngleSweep.run(simulation, startAngle, endAngle, angleStep);
     }
 }